@@ -1,20 +1,58 @@
 package br.com.dio;
 
+import br.com.dio.instrumentation.InstrumentationReporter;
+import br.com.dio.job.BoardPurgeJob;
+import br.com.dio.job.CardArchiveJob;
+import br.com.dio.job.ChangeFeedTailer;
+import br.com.dio.job.IdempotencyKeyCleanupJob;
+import br.com.dio.job.RankRebalanceJob;
+import br.com.dio.job.SlaReportJob;
+import br.com.dio.load.LoadGenerator;
 import br.com.dio.persistence.migration.MigrationStrategy;
+import br.com.dio.report.SlaReportEngine;
 import br.com.dio.ui.MainMenu;
+import br.com.dio.ui.ScriptRunner;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
 
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
-
 
 public class Main {
 
-    public static void main(String[] args) throws SQLException {
-        try(var connection = getConnection()){
-            new MigrationStrategy(connection).executeMigration();
+    public static void main(String[] args) throws SQLException, IOException, InterruptedException {
+        MigrationStrategy.executeOnAllShards();
+        if (args.length > 0 && args[0].equals("--load")){
+            LoadGenerator.fromArgs(args).execute();
+            return;
+        }
+        if (args.length > 0 && args[0].equals("--report")){
+            var dir = args.length > 1 ? args[1] : System.getProperty("board.report.dir", "reports");
+            var summary = new SlaReportEngine().run(Path.of(dir));
+            System.out.printf("%s: %d boards, %d cards (%d blocked)%n overdue %s%n at risk %s%n", summary.file(),
+                    summary.boards(), summary.cards(), summary.blocked(), summary.overdue(), summary.atRisk());
+            return;
+        }
+        if (args.length > 0){
+            ScriptRunner.fromArgs(args).execute();
+            return;
         }
+        startJobs();
         new MainMenu().execute();
     }
 
+    /**
+     * Background jobs and the instrumentation dump only run in the interactive application; load, report and script
+     * runs leave them to it.
+     */
+    private static void startJobs(){
+        InstrumentationReporter.install();
+        CardArchiveJob.start();
+        BoardPurgeJob.start();
+        ChangeFeedTailer.start();
+        IdempotencyKeyCleanupJob.start();
+        SlaReportJob.start();
+        RankRebalanceJob.start();
+    }
+
 }
@@ -0,0 +1,283 @@
+package br.com.dio.analytics;
+
+import br.com.dio.dto.BoardAnalyticsDTO;
+import br.com.dio.dto.DashboardCountDTO;
+import br.com.dio.dto.DashboardFilter;
+import br.com.dio.event.EventBus;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.CardProjectionDAO;
+import lombok.NoArgsConstructor;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.time.ZoneOffset.UTC;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.MINUTES;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * In-memory columnar projections and bitmap indexes of the cards of recently analysed boards, see
+ * {@link CardColumnStore}. A board is loaded with one streaming query on its first analysis and then kept current
+ * from the event bus: moves and blocks are applied in place, created cards are read by id on the next analysis, and
+ * so are cards changed while their rows were being read, as the row read may be older than the change.
+ * Local and, with the change feed enabled, remote changes are both seen. Projections are rebuilt after
+ * {@code board.analytics.reloadMinutes}, which also drops archived cards, and at most
+ * {@code board.analytics.maxBoards} boards are kept, least recently analysed first out.
+ * <p>
+ * With {@code board.analytics.snapshotDir} set the projections are written there at shutdown. A restarted instance
+ * reads a board's snapshot instead of loading it and only rereads the cards changed since the snapshot, minus
+ * {@code board.analytics.snapshotMarginSeconds} for clock skew.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class BoardAnalytics {
+
+    private static final System.Logger LOGGER = System.getLogger(BoardAnalytics.class.getName());
+
+    private static final int MAX_BOARDS = Integer.getInteger("board.analytics.maxBoards", 16);
+
+    private static final long RELOAD_MILLIS = MINUTES.toMillis(Long.getLong("board.analytics.reloadMinutes", 60));
+
+    private static final String SNAPSHOT_DIR = System.getProperty("board.analytics.snapshotDir");
+
+    private static final Duration SNAPSHOT_MARGIN =
+            Duration.ofSeconds(Long.getLong("board.analytics.snapshotMarginSeconds", 60));
+
+    private static final int REFRESH_CHUNK = 1000;
+
+    private static final Map<Long, CardColumnStore> STORES = new LinkedHashMap<>(16, 0.75f, true){
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<Long, CardColumnStore> eldest) {
+            return size() > MAX_BOARDS;
+        }
+    };
+
+    static {
+        EventBus.get().subscribe("board-analytics", (event, sequence, endOfBatch) -> {
+            switch (event.getType()) {
+                case CARD_CREATED -> apply(event.getBoardId(), store -> store.markPending(event.getCardId()));
+                case CARD_MOVED, CARD_CANCELLED ->
+                        apply(event.getBoardId(), store -> store.move(event.getCardId(), event.getColumnId()));
+                case CARD_BLOCKED -> apply(event.getBoardId(), store -> store.setBlocked(event.getCardId(), true));
+                case CARD_UNBLOCKED -> apply(event.getBoardId(), store -> store.setBlocked(event.getCardId(), false));
+                case BOARD_DELETED -> remove(event.getBoardId());
+                case RESYNC -> {
+                    synchronized (STORES){
+                        STORES.clear();
+                    }
+                }
+                default -> {
+                }
+            }
+        });
+        if (nonNull(SNAPSHOT_DIR)){
+            Runtime.getRuntime().addShutdownHook(new Thread(BoardAnalytics::writeSnapshots, "board-analytics-snapshot"));
+        }
+    }
+
+    /**
+     * Aggregates of the board's cards; cards created within {@code recentWindow} count as recent.
+     */
+    public static BoardAnalyticsDTO summarize(final Connection connection, final Long boardId,
+                                              final Duration recentWindow) throws SQLException {
+        var store = current(connection, boardId);
+        var now = System.currentTimeMillis();
+        return store.summarize(now, now - recentWindow.toMillis());
+    }
+
+    /**
+     * Cards matching the filter, from the bitmap indexes.
+     */
+    public static DashboardCountDTO select(final Connection connection, final DashboardFilter filter)
+            throws SQLException {
+        return current(connection, filter.boardId()).select(filter, System.currentTimeMillis());
+    }
+
+    private static CardColumnStore current(final Connection connection, final Long boardId) throws SQLException {
+        var store = storeOf(connection, boardId);
+        var pending = store.takePending();
+        if (pending.length == 0){
+            return store;
+        }
+        var dao = new CardProjectionDAO(connection);
+        store.beginRefresh();
+        try {
+            for (var from = 0; from < pending.length; from += REFRESH_CHUNK){
+                var chunk = Arrays.copyOfRange(pending, from, Math.min(pending.length, from + REFRESH_CHUNK));
+                dao.findByIds(boardId, chunk, store::upsert);
+            }
+        } catch (SQLException | RuntimeException ex){
+            for (var id : pending){
+                store.markPending(id);
+            }
+            throw ex;
+        } finally {
+            store.endRefresh();
+        }
+        return store;
+    }
+
+    private static CardColumnStore storeOf(final Connection connection, final Long boardId) throws SQLException {
+        while (true){
+            CardColumnStore store;
+            var load = false;
+            synchronized (STORES){
+                store = STORES.get(boardId);
+                if (isNull(store) || System.currentTimeMillis() - store.loadedAt > RELOAD_MILLIS){
+                    store = restore(boardId);
+                    // registered before loading, so changes made meanwhile are queued as pending
+                    STORES.put(boardId, store);
+                    load = true;
+                }
+            }
+            if (load){
+                load(connection, store);
+                return store;
+            }
+            try {
+                store.ready.await();
+            } catch (InterruptedException ex){
+                Thread.currentThread().interrupt();
+                throw new SQLException("Interrupted while board %s was loading".formatted(boardId), ex);
+            }
+            if (!store.failed){
+                return store;
+            }
+        }
+    }
+
+    /**
+     * Fills a fresh store from the database, or only queues the cards changed since its snapshot.
+     */
+    private static void load(final Connection connection, final CardColumnStore store) throws SQLException {
+        store.beginRefresh();
+        try {
+            var snapshotAt = store.snapshotAt;
+            if (snapshotAt > 0){
+                var since = OffsetDateTime.ofInstant(Instant.ofEpochMilli(snapshotAt), UTC).minus(SNAPSHOT_MARGIN);
+                for (var id : new CardProjectionDAO(connection).findIdsChangedSince(store.boardId, since)){
+                    store.markPending(id);
+                }
+                return;
+            }
+            for (var column : new BoardColumnDAO(connection).findByBoardId(store.boardId)){
+                store.addColumn(column.getId(), column.getKind());
+            }
+            new CardProjectionDAO(connection).findByBoardId(store.boardId, store::upsert);
+        } catch (SQLException | RuntimeException ex){
+            store.failed = true;
+            synchronized (STORES){
+                STORES.remove(store.boardId, store);
+            }
+            throw ex;
+        } finally {
+            store.endRefresh();
+            store.ready.countDown();
+        }
+    }
+
+    /**
+     * The board's snapshot when there is a usable one, consumed so a crash never restores it twice; otherwise an
+     * empty store to load.
+     */
+    private static CardColumnStore restore(final long boardId){
+        var empty = new CardColumnStore(boardId, System.currentTimeMillis());
+        if (isNull(SNAPSHOT_DIR)){
+            return empty;
+        }
+        var file = snapshotFile(boardId);
+        if (!Files.exists(file)){
+            return empty;
+        }
+        try(var in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))){
+            var snapshotAt = in.readLong();
+            var store = CardColumnStore.readFrom(in);
+            if (store.boardId != boardId || System.currentTimeMillis() - store.loadedAt > RELOAD_MILLIS){
+                return empty;
+            }
+            store.snapshotAt = snapshotAt;
+            return store;
+        } catch (IOException | RuntimeException ex){
+            LOGGER.log(WARNING, "Ignoring unreadable analytics snapshot {0}: {1}", file, ex.getMessage());
+            return empty;
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException ex){
+                LOGGER.log(WARNING, "Could not remove analytics snapshot {0}: {1}", file, ex.getMessage());
+            }
+        }
+    }
+
+    private static void writeSnapshots(){
+        List<CardColumnStore> stores;
+        synchronized (STORES){
+            stores = new ArrayList<>(STORES.values());
+        }
+        try {
+            Files.createDirectories(Path.of(SNAPSHOT_DIR));
+        } catch (IOException ex){
+            LOGGER.log(WARNING, "Could not create analytics snapshot directory {0}: {1}", SNAPSHOT_DIR, ex.getMessage());
+            return;
+        }
+        for (var store : stores){
+            if (store.ready.getCount() > 0 || store.failed){
+                continue;
+            }
+            var file = snapshotFile(store.boardId);
+            var temporary = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                try(var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))){
+                    out.writeLong(System.currentTimeMillis());
+                    store.writeTo(out);
+                }
+                Files.move(temporary, file, REPLACE_EXISTING, ATOMIC_MOVE);
+            } catch (IOException ex){
+                LOGGER.log(WARNING, "Could not write analytics snapshot {0}: {1}", file, ex.getMessage());
+            }
+        }
+        LOGGER.log(INFO, "Wrote {0} analytics snapshots to {1}", stores.size(), SNAPSHOT_DIR);
+    }
+
+    private static Path snapshotFile(final long boardId){
+        return Path.of(SNAPSHOT_DIR, "board-%s.cards".formatted(boardId));
+    }
+
+    private static void apply(final long boardId, final Consumer<CardColumnStore> change){
+        CardColumnStore store;
+        synchronized (STORES){
+            store = STORES.get(boardId);
+        }
+        if (nonNull(store)){
+            change.accept(store);
+        }
+    }
+
+    private static void remove(final long boardId){
+        synchronized (STORES){
+            STORES.remove(boardId);
+        }
+    }
+
+}
@@ -0,0 +1,356 @@
+package br.com.dio.analytics;
+
+import br.com.dio.dto.BoardAnalyticsDTO;
+import br.com.dio.dto.ColumnAnalyticsDTO;
+import br.com.dio.dto.DashboardCountDTO;
+import br.com.dio.dto.DashboardFilter;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.CardPriorityEnum;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.PENDING;
+
+/**
+ * Card metadata of one board held column-wise in primitive arrays: per card an id, a column slot, a priority
+ * ordinal, due and creation epoch millis, 27 bytes per card plus about 24 for the id index. Aggregates are a single
+ * branch free pass over the arrays.
+ * <p>
+ * Rows are also dense card ordinals for {@link CompressedBitmap} indexes per column, per priority and of blocked
+ * cards, kept up to date by every change, so attribute combinations ({@link #select}) are bitmap operations. The
+ * overdue set depends on the clock and is computed from the due dates on each selection.
+ * <p>
+ * Cards whose row is not known yet (created, or changed while the board loaded) are queued as pending and read
+ * from the database by the next query, see {@link #takePending()}.
+ */
+final class CardColumnStore {
+
+    private static final CardPriorityEnum[] PRIORITIES = CardPriorityEnum.values();
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    final long boardId;
+    /**
+     * Wall clock time of the initial database load, kept across snapshots.
+     */
+    final long loadedAt;
+    /**
+     * Opened once the initial load ended, {@link #failed} tells whether it succeeded.
+     */
+    final CountDownLatch ready = new CountDownLatch(1);
+    volatile boolean failed;
+    /**
+     * Wall clock time the store was written to disk when it was restored from a snapshot, {@code 0} otherwise.
+     */
+    long snapshotAt;
+
+    private long[] columnIds = new long[0];
+    private BoardColumnKindEnum[] columnKinds = new BoardColumnKindEnum[0];
+
+    private long[] cardIds = new long[64];
+    private short[] columnSlots = new short[64];
+    private byte[] priorities = new byte[64];
+    private long[] dueDates = new long[64];
+    private long[] createdAt = new long[64];
+    private int size;
+    private CompressedBitmap[] columnRows = new CompressedBitmap[0];
+    private final CompressedBitmap[] priorityRows = new CompressedBitmap[PRIORITIES.length];
+    private CompressedBitmap blockedRows = new CompressedBitmap();
+    private final LongIntMap rows = new LongIntMap();
+
+    private long[] pending = new long[16];
+    private int pendingSize;
+    private int refreshes;
+    private long[] touched = new long[16];
+    private int touchedSize;
+
+    CardColumnStore(final long boardId, final long loadedAt) {
+        this.boardId = boardId;
+        this.loadedAt = loadedAt;
+        for (var i = 0; i < PRIORITIES.length; i++){
+            priorityRows[i] = new CompressedBitmap();
+        }
+    }
+
+    synchronized void addColumn(final long columnId, final BoardColumnKindEnum kind){
+        var slot = columnIds.length;
+        columnIds = Arrays.copyOf(columnIds, slot + 1);
+        columnKinds = Arrays.copyOf(columnKinds, slot + 1);
+        columnRows = Arrays.copyOf(columnRows, slot + 1);
+        columnIds[slot] = columnId;
+        columnKinds[slot] = kind;
+        columnRows[slot] = new CompressedBitmap();
+    }
+
+    synchronized void upsert(final long id, final long columnId, final byte priority, final long dueDate,
+                             final long created, final boolean isBlocked){
+        var row = rows.get(id);
+        if (row < 0){
+            row = size++;
+            ensureCapacity(size);
+            rows.put(id, row);
+            cardIds[row] = id;
+        } else {
+            columnRows[columnSlots[row]].remove(row);
+            priorityRows[priorities[row]].remove(row);
+        }
+        var slot = slotOf(columnId);
+        columnSlots[row] = slot;
+        columnRows[slot].add(row);
+        priorities[row] = priority;
+        priorityRows[priority].add(row);
+        dueDates[row] = dueDate;
+        createdAt[row] = created;
+        setBlocked(row, isBlocked);
+    }
+
+    synchronized void move(final long cardId, final long columnId){
+        var row = rows.get(cardId);
+        if (row < 0){
+            markPending(cardId);
+            return;
+        }
+        var slot = slotOf(columnId);
+        columnRows[columnSlots[row]].remove(row);
+        columnRows[slot].add(row);
+        columnSlots[row] = slot;
+        touch(cardId);
+    }
+
+    synchronized void setBlocked(final long cardId, final boolean isBlocked){
+        var row = rows.get(cardId);
+        if (row < 0){
+            markPending(cardId);
+            return;
+        }
+        setBlocked(row, isBlocked);
+        touch(cardId);
+    }
+
+    synchronized void markPending(final long cardId){
+        if (pendingSize == pending.length){
+            pending = Arrays.copyOf(pending, pendingSize * 2);
+        }
+        pending[pendingSize++] = cardId;
+    }
+
+    synchronized long[] takePending(){
+        var ids = Arrays.copyOf(pending, pendingSize);
+        pendingSize = 0;
+        return ids;
+    }
+
+    /**
+     * Starts reading rows from the database. A row read may predate a change applied in place before it is
+     * upserted, so the cards changed until the matching {@link #endRefresh()} are queued as pending again then.
+     */
+    synchronized void beginRefresh(){
+        refreshes++;
+    }
+
+    synchronized void endRefresh(){
+        if (--refreshes > 0){
+            return;
+        }
+        for (var i = 0; i < touchedSize; i++){
+            markPending(touched[i]);
+        }
+        touchedSize = 0;
+    }
+
+    synchronized int size(){
+        return size;
+    }
+
+    /**
+     * Cards per column and priority, overdue, blocked and recently created cards per column, in one pass over the
+     * arrays.
+     */
+    synchronized BoardAnalyticsDTO summarize(final long nowMillis, final long recentSinceMillis){
+        var slots = columnIds.length;
+        var byPriority = new int[slots * PRIORITIES.length];
+        var overdue = new int[slots];
+        var recent = new int[slots];
+        for (var i = 0; i < size; i++){
+            int slot = columnSlots[i];
+            byPriority[slot * PRIORITIES.length + priorities[i]]++;
+            overdue[slot] += dueDates[i] < nowMillis ? 1 : 0;
+            recent[slot] += createdAt[i] >= recentSinceMillis ? 1 : 0;
+        }
+        List<ColumnAnalyticsDTO> columns = new ArrayList<>(slots);
+        var openOverdue = 0;
+        var openBlocked = 0;
+        for (var slot = 0; slot < slots; slot++){
+            var counts = new EnumMap<CardPriorityEnum, Integer>(CardPriorityEnum.class);
+            var cards = 0;
+            for (var priority : PRIORITIES){
+                var count = byPriority[slot * PRIORITIES.length + priority.ordinal()];
+                counts.put(priority, count);
+                cards += count;
+            }
+            var blockedCards = blockedRows.and(columnRows[slot]).cardinality();
+            columns.add(new ColumnAnalyticsDTO(columnIds[slot], columnKinds[slot], cards, counts, overdue[slot],
+                    blockedCards, recent[slot]));
+            if (columnKinds[slot] == INITIAL || columnKinds[slot] == PENDING){
+                openOverdue += overdue[slot];
+                openBlocked += blockedCards;
+            }
+        }
+        return new BoardAnalyticsDTO(boardId, size, openOverdue, openBlocked, columns);
+    }
+
+    /**
+     * Cards matching the filter: OR over the bitmaps of the chosen columns and priorities, AND across attributes,
+     * AND or ANDNOT with the blocked and overdue sets.
+     */
+    synchronized DashboardCountDTO select(final DashboardFilter filter, final long nowMillis){
+        var selected = CompressedBitmap.range(size);
+        if (!filter.columnIds().isEmpty()){
+            var columns = new CompressedBitmap();
+            for (var slot = 0; slot < columnIds.length; slot++){
+                if (filter.columnIds().contains(columnIds[slot])){
+                    columns = columns.or(columnRows[slot]);
+                }
+            }
+            selected = selected.and(columns);
+        }
+        if (!filter.priorities().isEmpty()){
+            var matching = new CompressedBitmap();
+            for (var priority : filter.priorities()){
+                matching = matching.or(priorityRows[priority.ordinal()]);
+            }
+            selected = selected.and(matching);
+        }
+        if (filter.blocked() != null){
+            selected = filter.blocked() ? selected.and(blockedRows) : selected.andNot(blockedRows);
+        }
+        if (filter.overdue() != null){
+            var overdue = new CompressedBitmap();
+            for (var i = 0; i < size; i++){
+                if (dueDates[i] < nowMillis){
+                    overdue.add(i);
+                }
+            }
+            selected = filter.overdue() ? selected.and(overdue) : selected.andNot(overdue);
+        }
+        List<Long> ids = new ArrayList<>(filter.limit());
+        selected.forEach(row -> {
+            if (ids.size() < filter.limit()){
+                ids.add(cardIds[row]);
+            }
+        });
+        return new DashboardCountDTO(boardId, selected.cardinality(), ids);
+    }
+
+    /**
+     * Writes the arrays, the bitmap indexes and the pending card ids.
+     */
+    synchronized void writeTo(final DataOutput out) throws IOException {
+        out.writeInt(SNAPSHOT_VERSION);
+        out.writeLong(boardId);
+        out.writeLong(loadedAt);
+        out.writeInt(columnIds.length);
+        for (var slot = 0; slot < columnIds.length; slot++){
+            out.writeLong(columnIds[slot]);
+            out.writeUTF(columnKinds[slot].name());
+            columnRows[slot].writeTo(out);
+        }
+        out.writeInt(size);
+        for (var i = 0; i < size; i++){
+            out.writeLong(cardIds[i]);
+            out.writeShort(columnSlots[i]);
+            out.writeByte(priorities[i]);
+            out.writeLong(dueDates[i]);
+            out.writeLong(createdAt[i]);
+        }
+        for (var bitmap : priorityRows){
+            bitmap.writeTo(out);
+        }
+        blockedRows.writeTo(out);
+        out.writeInt(pendingSize);
+        for (var i = 0; i < pendingSize; i++){
+            out.writeLong(pending[i]);
+        }
+    }
+
+    static CardColumnStore readFrom(final DataInput in) throws IOException {
+        if (in.readInt() != SNAPSHOT_VERSION){
+            throw new IOException("Unknown board snapshot version");
+        }
+        var store = new CardColumnStore(in.readLong(), in.readLong());
+        var slots = in.readInt();
+        for (var slot = 0; slot < slots; slot++){
+            store.addColumn(in.readLong(), BoardColumnKindEnum.valueOf(in.readUTF()));
+            store.columnRows[slot] = CompressedBitmap.readFrom(in);
+        }
+        store.size = in.readInt();
+        store.ensureCapacity(store.size);
+        for (var i = 0; i < store.size; i++){
+            store.cardIds[i] = in.readLong();
+            store.columnSlots[i] = in.readShort();
+            store.priorities[i] = in.readByte();
+            store.dueDates[i] = in.readLong();
+            store.createdAt[i] = in.readLong();
+            store.rows.put(store.cardIds[i], i);
+        }
+        for (var i = 0; i < PRIORITIES.length; i++){
+            store.priorityRows[i] = CompressedBitmap.readFrom(in);
+        }
+        store.blockedRows = CompressedBitmap.readFrom(in);
+        var pendingAmount = in.readInt();
+        for (var i = 0; i < pendingAmount; i++){
+            store.markPending(in.readLong());
+        }
+        return store;
+    }
+
+    private short slotOf(final long columnId){
+        for (var slot = 0; slot < columnIds.length; slot++){
+            if (columnIds[slot] == columnId){
+                return (short) slot;
+            }
+        }
+        // a column created after the board was loaded, its kind is only known after the next reload
+        addColumn(columnId, PENDING);
+        return (short) (columnIds.length - 1);
+    }
+
+    private void touch(final long cardId){
+        if (refreshes == 0){
+            return;
+        }
+        if (touchedSize == touched.length){
+            touched = Arrays.copyOf(touched, touchedSize * 2);
+        }
+        touched[touchedSize++] = cardId;
+    }
+
+    private void setBlocked(final int row, final boolean value){
+        if (value){
+            blockedRows.add(row);
+        } else {
+            blockedRows.remove(row);
+        }
+    }
+
+    private void ensureCapacity(final int capacity){
+        if (capacity <= cardIds.length){
+            return;
+        }
+        var length = Math.max(capacity, cardIds.length + (cardIds.length >> 1));
+        cardIds = Arrays.copyOf(cardIds, length);
+        columnSlots = Arrays.copyOf(columnSlots, length);
+        priorities = Arrays.copyOf(priorities, length);
+        dueDates = Arrays.copyOf(dueDates, length);
+        createdAt = Arrays.copyOf(createdAt, length);
+    }
+
+}
@@ -0,0 +1,443 @@
+package br.com.dio.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Compressed set of non negative ints in the roaring layout: values are grouped by their high 16 bits and each group
+ * of up to 65536 values is a sorted {@code char[]} while it holds at most {@value #ARRAY_MAX} values (2 bytes per
+ * value) and a 8KB bitmap once it is denser. AND, OR and ANDNOT build new bitmaps group by group, so their cost
+ * follows the number of groups and the density, not the largest value. Not thread safe.
+ */
+public final class CompressedBitmap {
+
+    private static final int ARRAY_MAX = 4096;
+    private static final int WORDS = 1024;
+    private static final int MAGIC = 0x43424D31;
+
+    private char[] keys = new char[0];
+    private Container[] containers = new Container[0];
+    private int groups;
+
+    /**
+     * Bitmap of every value in {@code [0, end)}.
+     */
+    public static CompressedBitmap range(final int end){
+        var bitmap = new CompressedBitmap();
+        for (var start = 0; start < end; start += 1 << 16){
+            var words = new long[WORDS];
+            var count = Math.min(end - start, 1 << 16);
+            Arrays.fill(words, 0, count >>> 6, -1L);
+            if ((count & 63) != 0){
+                words[count >>> 6] = (1L << (count & 63)) - 1;
+            }
+            bitmap.insert(bitmap.groups, (char) (start >>> 16), Container.ofWords(words));
+        }
+        return bitmap;
+    }
+
+    public void add(final int value){
+        var high = (char) (value >>> 16);
+        var index = Arrays.binarySearch(keys, 0, groups, high);
+        if (index < 0){
+            index = -index - 1;
+            insert(index, high, new ArrayContainer(new char[4], 0));
+        }
+        containers[index] = containers[index].add((char) value);
+    }
+
+    public void remove(final int value){
+        var index = Arrays.binarySearch(keys, 0, groups, (char) (value >>> 16));
+        if (index < 0){
+            return;
+        }
+        var container = containers[index].remove((char) value);
+        if (container.cardinality() == 0){
+            System.arraycopy(keys, index + 1, keys, index, groups - index - 1);
+            System.arraycopy(containers, index + 1, containers, index, groups - index - 1);
+            containers[--groups] = null;
+        } else {
+            containers[index] = container;
+        }
+    }
+
+    public boolean contains(final int value){
+        var index = Arrays.binarySearch(keys, 0, groups, (char) (value >>> 16));
+        return index >= 0 && containers[index].contains((char) value);
+    }
+
+    public int cardinality(){
+        var cardinality = 0;
+        for (var i = 0; i < groups; i++){
+            cardinality += containers[i].cardinality();
+        }
+        return cardinality;
+    }
+
+    public CompressedBitmap and(final CompressedBitmap other){
+        var result = new CompressedBitmap();
+        var i = 0;
+        var j = 0;
+        while (i < groups && j < other.groups){
+            if (keys[i] < other.keys[j]){
+                i++;
+            } else if (keys[i] > other.keys[j]){
+                j++;
+            } else {
+                result.appendIfNotEmpty(keys[i], containers[i].and(other.containers[j]));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public CompressedBitmap or(final CompressedBitmap other){
+        var result = new CompressedBitmap();
+        var i = 0;
+        var j = 0;
+        while (i < groups || j < other.groups){
+            if (j == other.groups || (i < groups && keys[i] < other.keys[j])){
+                result.append(keys[i], containers[i]);
+                i++;
+            } else if (i == groups || keys[i] > other.keys[j]){
+                result.append(other.keys[j], other.containers[j]);
+                j++;
+            } else {
+                result.appendIfNotEmpty(keys[i], Container.ofWords(containers[i].or(other.containers[j])));
+                i++;
+                j++;
+            }
+        }
+        return result;
+    }
+
+    public CompressedBitmap andNot(final CompressedBitmap other){
+        var result = new CompressedBitmap();
+        var j = 0;
+        for (var i = 0; i < groups; i++){
+            while (j < other.groups && other.keys[j] < keys[i]){
+                j++;
+            }
+            if (j < other.groups && other.keys[j] == keys[i]){
+                result.appendIfNotEmpty(keys[i], Container.ofWords(containers[i].andNot(other.containers[j])));
+            } else {
+                result.append(keys[i], containers[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Visits the values in ascending order.
+     */
+    public void forEach(final IntConsumer consumer){
+        for (var i = 0; i < groups; i++){
+            containers[i].forEach(keys[i] << 16, consumer);
+        }
+    }
+
+    public void writeTo(final DataOutput out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(groups);
+        for (var i = 0; i < groups; i++){
+            out.writeChar(keys[i]);
+            containers[i].writeTo(out);
+        }
+    }
+
+    public static CompressedBitmap readFrom(final DataInput in) throws IOException {
+        if (in.readInt() != MAGIC){
+            throw new IOException("Not a compressed bitmap");
+        }
+        var bitmap = new CompressedBitmap();
+        var groups = in.readInt();
+        for (var i = 0; i < groups; i++){
+            bitmap.insert(bitmap.groups, in.readChar(), Container.readFrom(in));
+        }
+        return bitmap;
+    }
+
+    /**
+     * Appends a copy of a container of another bitmap, results never share containers with their operands.
+     */
+    private void append(final char key, final Container container){
+        insert(groups, key, container.copy());
+    }
+
+    private void appendIfNotEmpty(final char key, final Container container){
+        if (container.cardinality() > 0){
+            insert(groups, key, container);
+        }
+    }
+
+    private void insert(final int index, final char key, final Container container){
+        if (groups == keys.length){
+            keys = Arrays.copyOf(keys, Math.max(4, groups * 2));
+            containers = Arrays.copyOf(containers, keys.length);
+        }
+        System.arraycopy(keys, index, keys, index + 1, groups - index);
+        System.arraycopy(containers, index, containers, index + 1, groups - index);
+        keys[index] = key;
+        containers[index] = container;
+        groups++;
+    }
+
+    private abstract static class Container {
+
+        abstract Container add(char value);
+
+        abstract Container remove(char value);
+
+        abstract boolean contains(char value);
+
+        abstract int cardinality();
+
+        abstract Container and(Container other);
+
+        abstract long[] words();
+
+        abstract void forEach(int base, IntConsumer consumer);
+
+        abstract void writeTo(DataOutput out) throws IOException;
+
+        abstract Container copy();
+
+        long[] or(final Container other){
+            var words = words();
+            var otherWords = other.words();
+            for (var i = 0; i < WORDS; i++){
+                words[i] |= otherWords[i];
+            }
+            return words;
+        }
+
+        long[] andNot(final Container other){
+            var words = words();
+            var otherWords = other.words();
+            for (var i = 0; i < WORDS; i++){
+                words[i] &= ~otherWords[i];
+            }
+            return words;
+        }
+
+        static Container ofWords(final long[] words){
+            var cardinality = 0;
+            for (var word : words){
+                cardinality += Long.bitCount(word);
+            }
+            if (cardinality > ARRAY_MAX){
+                return new BitmapContainer(words, cardinality);
+            }
+            var values = new char[cardinality];
+            var size = 0;
+            for (var i = 0; i < WORDS; i++){
+                var word = words[i];
+                while (word != 0){
+                    values[size++] = (char) (i * 64 + Long.numberOfTrailingZeros(word));
+                    word &= word - 1;
+                }
+            }
+            return new ArrayContainer(values, size);
+        }
+
+        static Container readFrom(final DataInput in) throws IOException {
+            var cardinality = in.readInt();
+            if (cardinality > ARRAY_MAX){
+                var words = new long[WORDS];
+                for (var i = 0; i < WORDS; i++){
+                    words[i] = in.readLong();
+                }
+                return new BitmapContainer(words, cardinality);
+            }
+            var values = new char[cardinality];
+            for (var i = 0; i < cardinality; i++){
+                values[i] = in.readChar();
+            }
+            return new ArrayContainer(values, cardinality);
+        }
+
+    }
+
+    private static final class ArrayContainer extends Container {
+
+        private char[] values;
+        private int size;
+
+        private ArrayContainer(final char[] values, final int size) {
+            this.values = values;
+            this.size = size;
+        }
+
+        @Override
+        Container add(final char value) {
+            var index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0){
+                return this;
+            }
+            if (size == ARRAY_MAX){
+                var words = words();
+                words[value >>> 6] |= 1L << value;
+                return new BitmapContainer(words, size + 1);
+            }
+            index = -index - 1;
+            if (size == values.length){
+                values = Arrays.copyOf(values, Math.min(ARRAY_MAX, size * 2));
+            }
+            System.arraycopy(values, index, values, index + 1, size - index);
+            values[index] = value;
+            size++;
+            return this;
+        }
+
+        @Override
+        Container remove(final char value) {
+            var index = Arrays.binarySearch(values, 0, size, value);
+            if (index >= 0){
+                System.arraycopy(values, index + 1, values, index, size - index - 1);
+                size--;
+            }
+            return this;
+        }
+
+        @Override
+        boolean contains(final char value) {
+            return Arrays.binarySearch(values, 0, size, value) >= 0;
+        }
+
+        @Override
+        int cardinality() {
+            return size;
+        }
+
+        @Override
+        Container and(final Container other) {
+            var result = new char[size];
+            var count = 0;
+            for (var i = 0; i < size; i++){
+                if (other.contains(values[i])){
+                    result[count++] = values[i];
+                }
+            }
+            return new ArrayContainer(result, count);
+        }
+
+        @Override
+        long[] words() {
+            var words = new long[WORDS];
+            for (var i = 0; i < size; i++){
+                words[values[i] >>> 6] |= 1L << values[i];
+            }
+            return words;
+        }
+
+        @Override
+        void forEach(final int base, final IntConsumer consumer) {
+            for (var i = 0; i < size; i++){
+                consumer.accept(base | values[i]);
+            }
+        }
+
+        @Override
+        void writeTo(final DataOutput out) throws IOException {
+            out.writeInt(size);
+            for (var i = 0; i < size; i++){
+                out.writeChar(values[i]);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new ArrayContainer(Arrays.copyOf(values, Math.max(size, 1)), size);
+        }
+
+    }
+
+    private static final class BitmapContainer extends Container {
+
+        private final long[] words;
+        private int cardinality;
+
+        private BitmapContainer(final long[] words, final int cardinality) {
+            this.words = words;
+            this.cardinality = cardinality;
+        }
+
+        @Override
+        Container add(final char value) {
+            var mask = 1L << value;
+            if ((words[value >>> 6] & mask) == 0){
+                words[value >>> 6] |= mask;
+                cardinality++;
+            }
+            return this;
+        }
+
+        @Override
+        Container remove(final char value) {
+            var mask = 1L << value;
+            if ((words[value >>> 6] & mask) != 0){
+                words[value >>> 6] &= ~mask;
+                cardinality--;
+            }
+            return cardinality > ARRAY_MAX ? this : Container.ofWords(words);
+        }
+
+        @Override
+        boolean contains(final char value) {
+            return (words[value >>> 6] & (1L << value)) != 0;
+        }
+
+        @Override
+        int cardinality() {
+            return cardinality;
+        }
+
+        @Override
+        Container and(final Container other) {
+            if (other instanceof ArrayContainer){
+                return other.and(this);
+            }
+            var result = new long[WORDS];
+            var otherWords = ((BitmapContainer) other).words;
+            for (var i = 0; i < WORDS; i++){
+                result[i] = words[i] & otherWords[i];
+            }
+            return Container.ofWords(result);
+        }
+
+        @Override
+        long[] words() {
+            return words.clone();
+        }
+
+        @Override
+        void forEach(final int base, final IntConsumer consumer) {
+            for (var i = 0; i < WORDS; i++){
+                var word = words[i];
+                while (word != 0){
+                    consumer.accept(base | (i * 64 + Long.numberOfTrailingZeros(word)));
+                    word &= word - 1;
+                }
+            }
+        }
+
+        @Override
+        void writeTo(final DataOutput out) throws IOException {
+            out.writeInt(cardinality);
+            for (var word : words){
+                out.writeLong(word);
+            }
+        }
+
+        @Override
+        Container copy() {
+            return new BitmapContainer(words.clone(), cardinality);
+        }
+
+    }
+
+}
@@ -0,0 +1,66 @@
+package br.com.dio.analytics;
+
+import java.util.Arrays;
+
+/**
+ * Open addressing map from positive {@code long} keys to {@code int} values, about 24 bytes per entry against the
+ * 60 or so of a boxed {@code HashMap} entry. Not thread safe.
+ */
+final class LongIntMap {
+
+    private static final long EMPTY = 0;
+
+    private long[] keys = new long[16];
+    private int[] values = new int[16];
+    private int size;
+
+    /**
+     * Value stored for {@code key}, {@code -1} when absent.
+     */
+    int get(final long key){
+        var mask = keys.length - 1;
+        for (var i = mix(key) & mask; ; i = (i + 1) & mask){
+            if (keys[i] == key){
+                return values[i];
+            }
+            if (keys[i] == EMPTY){
+                return -1;
+            }
+        }
+    }
+
+    void put(final long key, final int value){
+        if ((size + 1) * 2 > keys.length){
+            grow();
+        }
+        var mask = keys.length - 1;
+        var i = mix(key) & mask;
+        while (keys[i] != EMPTY && keys[i] != key){
+            i = (i + 1) & mask;
+        }
+        if (keys[i] == EMPTY){
+            keys[i] = key;
+            size++;
+        }
+        values[i] = value;
+    }
+
+    private void grow(){
+        var oldKeys = keys;
+        var oldValues = values;
+        keys = new long[oldKeys.length * 2];
+        values = new int[oldValues.length * 2];
+        size = 0;
+        for (var i = 0; i < oldKeys.length; i++){
+            if (oldKeys[i] != EMPTY){
+                put(oldKeys[i], oldValues[i]);
+            }
+        }
+    }
+
+    private static int mix(final long key){
+        var hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+
+}
@@ -5,9 +5,14 @@ import br.com.dio.service.*;
 import lombok.RequiredArgsConstructor;
 
 import java.sql.Connection;
+import java.sql.SQLException;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ShardMap.nextShardForNewBoard;
+import static br.com.dio.persistence.config.ShardMap.shardOf;
 
 @RequiredArgsConstructor
-public class ServiceContainer {
+public class ServiceContainer implements AutoCloseable {
     private final Connection connection;
     
     private BoardService boardService;
@@ -15,6 +20,32 @@ public class ServiceContainer {
     private CardService cardService;
     private CardQueryService cardQueryService;
     private BoardColumnQueryService boardColumnQueryService;
+    private BoardSnapshotService boardSnapshotService;
+    private BoardExportService boardExportService;
+    private BoardWorkflowService boardWorkflowService;
+    private BoardAnalyticsService boardAnalyticsService;
+    private RankService rankService;
+    private CardContentService cardContentService;
+
+    /**
+     * Opens a container on the shard that holds the given board. The connection is owned by the container
+     * and released by {@link #close()}.
+     */
+    public static ServiceContainer forBoard(final Long boardId) throws SQLException {
+        return new ServiceContainer(getConnection(shardOf(boardId)));
+    }
+
+    public static ServiceContainer forColumn(final Long columnId) throws SQLException {
+        return new ServiceContainer(getConnection(shardOf(columnId)));
+    }
+
+    public static ServiceContainer forCard(final Long cardId) throws SQLException {
+        return new ServiceContainer(getConnection(shardOf(cardId)));
+    }
+
+    public static ServiceContainer forNewBoard() throws SQLException {
+        return new ServiceContainer(getConnection(nextShardForNewBoard()));
+    }
     
     public BoardService getBoardService() {
         if (boardService == null) {
@@ -50,4 +81,51 @@ public class ServiceContainer {
         }
         return boardColumnQueryService;
     }
-}
\ No newline at end of file
+
+    public BoardSnapshotService getBoardSnapshotService() {
+        if (boardSnapshotService == null) {
+            boardSnapshotService = new BoardSnapshotService(connection);
+        }
+        return boardSnapshotService;
+    }
+
+    public BoardExportService getBoardExportService() {
+        if (boardExportService == null) {
+            boardExportService = new BoardExportService(connection);
+        }
+        return boardExportService;
+    }
+
+    public BoardWorkflowService getBoardWorkflowService() {
+        if (boardWorkflowService == null) {
+            boardWorkflowService = new BoardWorkflowService(connection);
+        }
+        return boardWorkflowService;
+    }
+
+    public BoardAnalyticsService getBoardAnalyticsService() {
+        if (boardAnalyticsService == null) {
+            boardAnalyticsService = new BoardAnalyticsService(connection);
+        }
+        return boardAnalyticsService;
+    }
+
+    public RankService getRankService() {
+        if (rankService == null) {
+            rankService = new RankService(connection);
+        }
+        return rankService;
+    }
+
+    public CardContentService getCardContentService() {
+        if (cardContentService == null) {
+            cardContentService = new CardContentService(connection);
+        }
+        return cardContentService;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        connection.close();
+    }
+}
@@ -0,0 +1,222 @@
+package br.com.dio.content;
+
+import br.com.dio.dto.AttachmentDTO;
+import br.com.dio.exception.ContentCorruptedException;
+import br.com.dio.persistence.config.TransactionCallbacks;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.util.zip.CRC32C;
+
+import static java.lang.System.Logger.Level.WARNING;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.TRUNCATE_EXISTING;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Attachment files under {@code board.content.attachmentDir}, one directory per card holding one file per attachment
+ * id. Bytes are copied in and out with {@link FileChannel#transferTo}, so the kernel moves them without passing them
+ * through the heap, and checksummed with CRC32C over memory mapped regions. An upload is first staged in a temporary
+ * file of the store and only moved to its final name once its row is committed, so a file found under a card always
+ * had its size and checksum recorded.
+ */
+public final class AttachmentStore {
+
+    private static final System.Logger LOGGER = System.getLogger(AttachmentStore.class.getName());
+
+    private static final long MAP_BYTES = 64L << 20;
+
+    private static final AttachmentStore INSTANCE = new AttachmentStore(
+            Path.of(System.getProperty("board.content.attachmentDir", "attachments")),
+            Long.getLong("board.content.maxAttachmentBytes", 10L << 20));
+
+    private final Path root;
+    private final long maxBytes;
+
+    /**
+     * An upload copied into the store, not yet visible under its card.
+     */
+    public record Staged(Path file, long size, long checksum) {
+    }
+
+    @FunctionalInterface
+    private interface Copy {
+
+        void into(final FileChannel out) throws IOException;
+
+    }
+
+    public AttachmentStore(final Path root, final long maxBytes) {
+        this.root = root;
+        this.maxBytes = maxBytes;
+    }
+
+    public static AttachmentStore get(){
+        return INSTANCE;
+    }
+
+    /**
+     * Copies {@code source} into a temporary file of the store and checksums the copy.
+     */
+    public Staged stage(final Path source) throws IOException {
+        try(var in = FileChannel.open(source, READ)){
+            var size = in.size();
+            checkSize(source.getFileName().toString(), size);
+            return stage(out -> transfer(in, size, out), size);
+        }
+    }
+
+    /**
+     * Same as {@link #stage(Path)} for content already in memory, such as an attachment read from a snapshot.
+     */
+    public Staged stage(final String name, final ByteBuffer content) throws IOException {
+        var size = content.remaining();
+        checkSize(name, size);
+        return stage(out -> {
+            while (content.hasRemaining()){
+                out.write(content);
+            }
+        }, size);
+    }
+
+    /**
+     * Moves the staged file to its place under the card once the row of {@code attachment} is committed. Services
+     * call it right after {@code commit()}; on connections that defer their commit the file is moved when the
+     * transaction really ends, and deleted if it is rolled back.
+     */
+    public void publishAfterCommit(final Connection connection, final Staged staged, final AttachmentDTO attachment)
+            throws IOException {
+        if (connection instanceof TransactionCallbacks callbacks){
+            callbacks.afterCommit(() -> {
+                try {
+                    publish(staged, attachment);
+                } catch (IOException ex){
+                    LOGGER.log(WARNING, "Attachment {0} not published: {1}", attachment.id(), ex.getMessage());
+                }
+            });
+            callbacks.afterRollback(() -> {
+                try {
+                    discard(staged);
+                } catch (IOException ex){
+                    LOGGER.log(WARNING, "Staged upload {0} not deleted: {1}", staged.file(), ex.getMessage());
+                }
+            });
+            return;
+        }
+        publish(staged, attachment);
+    }
+
+    public void discard(final Staged staged) throws IOException {
+        Files.deleteIfExists(staged.file());
+    }
+
+    /**
+     * Writes the attachment to {@code target}, replacing it, once its size and checksum match the recorded ones;
+     * a damaged file is never copied.
+     */
+    public void copyTo(final AttachmentDTO attachment, final Path target) throws IOException {
+        try(var in = open(attachment); var out = FileChannel.open(target, CREATE, WRITE, TRUNCATE_EXISTING)){
+            transfer(in, attachment.size(), out);
+        }
+    }
+
+    /**
+     * Same as {@link #copyTo(AttachmentDTO, Path)} into any channel.
+     */
+    public void copyTo(final AttachmentDTO attachment, final WritableByteChannel target) throws IOException {
+        try(var in = open(attachment)){
+            transfer(in, attachment.size(), target);
+        }
+    }
+
+    /**
+     * Removes every attachment file of the card.
+     */
+    public void deleteCard(final Long cardId) throws IOException {
+        var directory = root.resolve(cardId.toString());
+        if (!Files.isDirectory(directory)){
+            return;
+        }
+        try(var files = Files.list(directory)){
+            for (var file : (Iterable<Path>) files::iterator){
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(directory);
+    }
+
+    private void checkSize(final String name, final long size){
+        if (size > maxBytes){
+            throw new IllegalArgumentException("Attachment %s has %s bytes, the limit is %s".formatted(name, size, maxBytes));
+        }
+    }
+
+    private Staged stage(final Copy copy, final long size) throws IOException {
+        Files.createDirectories(root);
+        var staged = Files.createTempFile(root, "upload-", ".tmp");
+        try(var out = FileChannel.open(staged, READ, WRITE)){
+            copy.into(out);
+            out.force(true);
+            return new Staged(staged, size, checksum(out, size));
+        } catch (IOException | RuntimeException ex){
+            Files.deleteIfExists(staged);
+            throw ex;
+        }
+    }
+
+    /**
+     * Opens the attachment once its size and checksum match the recorded ones.
+     */
+    private FileChannel open(final AttachmentDTO attachment) throws IOException {
+        var in = FileChannel.open(fileOf(attachment.cardId(), attachment.id()), READ);
+        try {
+            var size = in.size();
+            if (size != attachment.size() || checksum(in, size) != attachment.checksum()){
+                throw new ContentCorruptedException("Checksum mismatch in attachment %s".formatted(attachment.id()));
+            }
+            return in;
+        } catch (IOException | RuntimeException ex){
+            in.close();
+            throw ex;
+        }
+    }
+
+    private void publish(final Staged staged, final AttachmentDTO attachment) throws IOException {
+        var target = fileOf(attachment.cardId(), attachment.id());
+        Files.createDirectories(target.getParent());
+        Files.move(staged.file(), target, ATOMIC_MOVE);
+    }
+
+    private Path fileOf(final Long cardId, final Long attachmentId){
+        return root.resolve(cardId.toString()).resolve(attachmentId.toString());
+    }
+
+    private static void transfer(final FileChannel in, final long size, final WritableByteChannel out)
+            throws IOException {
+        var position = 0L;
+        while (position < size){
+            var transferred = in.transferTo(position, size - position, out);
+            if (transferred <= 0){
+                throw new IOException("File shrank from %s to %s bytes while being copied".formatted(size, position));
+            }
+            position += transferred;
+        }
+    }
+
+    private static long checksum(final FileChannel channel, final long size) throws IOException {
+        var crc = new CRC32C();
+        for (var position = 0L; position < size; position += MAP_BYTES){
+            crc.update(channel.map(READ_ONLY, position, Math.min(MAP_BYTES, size - position)));
+        }
+        return crc.getValue();
+    }
+
+}
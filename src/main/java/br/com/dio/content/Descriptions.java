@@ -0,0 +1,109 @@
+package br.com.dio.content;
+
+import br.com.dio.exception.ContentCorruptedException;
+import lombok.NoArgsConstructor;
+
+import java.io.ByteArrayOutputStream;
+import java.util.zip.CRC32C;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Card descriptions longer than {@link #PREVIEW_LENGTH} characters. {@code CARDS.description} keeps a preview that
+ * fits its column, which is all that lists and {@code CardDAO.findById} read; the full text goes deflated to
+ * {@code CARD_DESCRIPTIONS} with the CRC32C of its UTF-8 bytes, checked whenever it is inflated again.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class Descriptions {
+
+    public static final int PREVIEW_LENGTH = 255;
+    public static final int MAX_LENGTH = Integer.getInteger("board.content.maxDescriptionLength", 65536);
+
+    private static final char ELLIPSIS = '…';
+
+    /**
+     * A deflated description with the length and checksum of its UTF-8 bytes.
+     */
+    public record Deflated(int length, long checksum, byte[] content) {
+    }
+
+    public static boolean isLong(final String text){
+        return text.length() > PREVIEW_LENGTH;
+    }
+
+    /**
+     * The text itself when short, otherwise its start followed by an ellipsis, never splitting a surrogate pair.
+     */
+    public static String preview(final String text){
+        if (!isLong(text)){
+            return text;
+        }
+        var end = PREVIEW_LENGTH - 1;
+        if (Character.isHighSurrogate(text.charAt(end - 1))){
+            end--;
+        }
+        return text.substring(0, end) + ELLIPSIS;
+    }
+
+    public static Deflated deflate(final String text){
+        var bytes = text.getBytes(UTF_8);
+        var deflater = new Deflater();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            var out = new ByteArrayOutputStream(bytes.length / 2 + 64);
+            var buffer = new byte[8192];
+            while (!deflater.finished()){
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return new Deflated(bytes.length, checksum(bytes), out.toByteArray());
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * Inflates the description of the card, failing when its length or checksum differ from the recorded ones.
+     */
+    public static String inflate(final Long cardId, final Deflated stored){
+        // one spare byte shows a stream longer than recorded
+        var bytes = new byte[stored.length() + 1];
+        var read = 0;
+        var inflater = new Inflater();
+        try {
+            inflater.setInput(stored.content());
+            while (!inflater.finished() && read < bytes.length){
+                var inflated = inflater.inflate(bytes, read, bytes.length - read);
+                if (inflated == 0 && (inflater.needsInput() || inflater.needsDictionary())){
+                    break;
+                }
+                read += inflated;
+            }
+            if (!inflater.finished() || read != stored.length()){
+                var message = "Description of card %s does not match its recorded length".formatted(cardId);
+                throw new ContentCorruptedException(message);
+            }
+        } catch (DataFormatException ex){
+            throw new ContentCorruptedException("Description of card %s is not deflated".formatted(cardId));
+        } finally {
+            inflater.end();
+        }
+        var crc = new CRC32C();
+        crc.update(bytes, 0, read);
+        if (crc.getValue() != stored.checksum()){
+            throw new ContentCorruptedException("Checksum mismatch in the description of card %s".formatted(cardId));
+        }
+        return new String(bytes, 0, read, UTF_8);
+    }
+
+    private static long checksum(final byte[] bytes){
+        var crc = new CRC32C();
+        crc.update(bytes);
+        return crc.getValue();
+    }
+
+}
@@ -0,0 +1,11 @@
+package br.com.dio.dto;
+
+import java.time.OffsetDateTime;
+
+public record AttachmentDTO(Long id,
+                            Long cardId,
+                            String fileName,
+                            long size,
+                            long checksum,
+                            OffsetDateTime createdAt) {
+}
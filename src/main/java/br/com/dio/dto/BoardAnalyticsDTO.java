@@ -0,0 +1,13 @@
+package br.com.dio.dto;
+
+import java.util.List;
+
+/**
+ * Card aggregates of a board; {@code overdue} and {@code blocked} only count cards in INITIAL and PENDING columns.
+ */
+public record BoardAnalyticsDTO(Long id,
+                                int cards,
+                                int overdue,
+                                int blocked,
+                                List<ColumnAnalyticsDTO> columns) {
+}
@@ -1,6 +0,0 @@
-package br.com.dio.dto;
-
-import br.com.dio.persistence.entity.BoardColumnKindEnum;
-
-public record BoardColumnInfoDTO(Long id, int order, BoardColumnKindEnum kind) {
-}
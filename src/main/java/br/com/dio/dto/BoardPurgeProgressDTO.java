@@ -0,0 +1,12 @@
+package br.com.dio.dto;
+
+import java.time.OffsetDateTime;
+
+public record BoardPurgeProgressDTO(Long boardId,
+                                    String name,
+                                    OffsetDateTime requestedAt,
+                                    long cardsDeleted,
+                                    long blocksDeleted,
+                                    long cardsRemaining,
+                                    OffsetDateTime finishedAt) {
+}
@@ -0,0 +1,9 @@
+package br.com.dio.dto;
+
+/**
+ * One row of the board listing; {@code cardsAmount} is {@code null} unless card totals were requested.
+ */
+public record BoardSummaryDTO(Long id,
+                              String name,
+                              Long cardsAmount) {
+}
@@ -0,0 +1,13 @@
+package br.com.dio.dto;
+
+import java.util.List;
+
+public record BoardViewDTO(Long id,
+                           String name,
+                           List<ColumnViewDTO> columns) {
+
+    public BoardViewDTO {
+        columns = List.copyOf(columns);
+    }
+
+}
@@ -0,0 +1,16 @@
+package br.com.dio.dto;
+
+import java.util.List;
+
+/**
+ * The full description of a card and its attachments, only read by detail views.
+ */
+public record CardContentDTO(Long cardId,
+                             String description,
+                             List<AttachmentDTO> attachments) {
+
+    public CardContentDTO {
+        attachments = List.copyOf(attachments);
+    }
+
+}
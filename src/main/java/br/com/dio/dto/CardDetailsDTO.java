@@ -12,6 +12,7 @@ public record CardDetailsDTO(Long id,
                              Long columnId,
                              String columnName,
                              String priority,
-                             java.time.OffsetDateTime dueDate
+                             java.time.OffsetDateTime dueDate,
+                             Long boardId
 ) {
 }
@@ -0,0 +1,19 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+import java.time.OffsetDateTime;
+
+public record CardExportRowDTO(Long id,
+                               String title,
+                               String description,
+                               String priority,
+                               OffsetDateTime dueDate,
+                               OffsetDateTime createdAt,
+                               Long columnId,
+                               String columnName,
+                               BoardColumnKindEnum columnKind,
+                               boolean blocked,
+                               OffsetDateTime blockedAt,
+                               String blockReason) {
+}
@@ -0,0 +1,136 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.CardPriorityEnum;
+
+import java.time.OffsetDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Criteria of a card search on one board. Every criterion is optional and they are combined with AND; results
+ * come ordered by column id and card id, {@link Builder#after(Long, Long)} continues after the last card of a
+ * previous page.
+ * <pre>
+ * CardFilter.forBoard(boardId)
+ *         .priorities(HIGH, CRITICAL)
+ *         .dueBetween(now, now.plusDays(7))
+ *         .blocked(false)
+ *         .build();
+ * </pre>
+ */
+public record CardFilter(Long boardId,
+                         Set<CardPriorityEnum> priorities,
+                         Set<BoardColumnKindEnum> columnKinds,
+                         OffsetDateTime dueFrom,
+                         OffsetDateTime dueTo,
+                         OffsetDateTime createdFrom,
+                         OffsetDateTime createdTo,
+                         Boolean blocked,
+                         Long afterColumnId,
+                         Long afterId,
+                         int limit) {
+
+    public static final int DEFAULT_LIMIT = 50;
+    public static final int MAX_LIMIT = 1000;
+
+    public CardFilter {
+        requireNonNull(boardId, "boardId");
+        priorities = Set.copyOf(priorities);
+        columnKinds = Set.copyOf(columnKinds);
+        if (isNull(afterColumnId) != isNull(afterId)){
+            throw new IllegalArgumentException("A search position needs both the column and the card id");
+        }
+        if (limit < 1 || limit > MAX_LIMIT){
+            throw new IllegalArgumentException("Limit must be between 1 and %s".formatted(MAX_LIMIT));
+        }
+    }
+
+    public static Builder forBoard(final Long boardId){
+        return new Builder(boardId);
+    }
+
+    /**
+     * Same criteria, positioned after {@code last}, the last card of a page; used to fetch the next page.
+     */
+    public CardFilter next(final CardSearchResultDTO last){
+        return new CardFilter(boardId, priorities, columnKinds, dueFrom, dueTo, createdFrom, createdTo, blocked,
+                last.columnId(), last.id(), limit);
+    }
+
+    public static final class Builder {
+
+        private final Long boardId;
+        private final Set<CardPriorityEnum> priorities = EnumSet.noneOf(CardPriorityEnum.class);
+        private final Set<BoardColumnKindEnum> columnKinds = EnumSet.noneOf(BoardColumnKindEnum.class);
+        private OffsetDateTime dueFrom;
+        private OffsetDateTime dueTo;
+        private OffsetDateTime createdFrom;
+        private OffsetDateTime createdTo;
+        private Boolean blocked;
+        private Long afterColumnId;
+        private Long afterId;
+        private int limit = DEFAULT_LIMIT;
+
+        private Builder(final Long boardId) {
+            this.boardId = boardId;
+        }
+
+        public Builder priorities(final CardPriorityEnum... priorities){
+            this.priorities.addAll(Set.of(priorities));
+            return this;
+        }
+
+        public Builder columnKinds(final BoardColumnKindEnum... kinds){
+            this.columnKinds.addAll(Set.of(kinds));
+            return this;
+        }
+
+        /**
+         * Due date in {@code [from, to)}; either bound may be {@code null}. Cards without a due date never match.
+         */
+        public Builder dueBetween(final OffsetDateTime from, final OffsetDateTime to){
+            this.dueFrom = from;
+            this.dueTo = to;
+            return this;
+        }
+
+        /**
+         * Creation date in {@code [from, to)}; either bound may be {@code null}.
+         */
+        public Builder createdBetween(final OffsetDateTime from, final OffsetDateTime to){
+            this.createdFrom = from;
+            this.createdTo = to;
+            return this;
+        }
+
+        public Builder blocked(final boolean blocked){
+            this.blocked = blocked;
+            return this;
+        }
+
+        /**
+         * Continues after the card {@code cardId} of the column {@code columnId}.
+         */
+        public Builder after(final Long columnId, final Long cardId){
+            this.afterColumnId = columnId;
+            this.afterId = cardId;
+            return this;
+        }
+
+        public Builder limit(final int limit){
+            this.limit = limit;
+            return this;
+        }
+
+        public CardFilter build(){
+            return new CardFilter(boardId, priorities, columnKinds, dueFrom, dueTo, createdFrom, createdTo, blocked,
+                    afterColumnId, afterId, limit);
+        }
+
+    }
+
+}
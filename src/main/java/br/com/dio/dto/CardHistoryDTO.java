@@ -0,0 +1,9 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BlockEntity;
+
+import java.util.List;
+
+public record CardHistoryDTO(CardDetailsDTO card,
+                             List<BlockEntity> blocks) {
+}
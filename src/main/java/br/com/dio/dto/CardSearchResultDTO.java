@@ -0,0 +1,16 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+import java.time.OffsetDateTime;
+
+public record CardSearchResultDTO(Long id,
+                                  String title,
+                                  String priority,
+                                  OffsetDateTime dueDate,
+                                  OffsetDateTime createdAt,
+                                  boolean blocked,
+                                  Long columnId,
+                                  String columnName,
+                                  BoardColumnKindEnum columnKind) {
+}
@@ -0,0 +1,10 @@
+package br.com.dio.dto;
+
+import java.time.OffsetDateTime;
+
+public record CardSummaryDTO(Long id,
+                             String title,
+                             String priority,
+                             OffsetDateTime dueDate,
+                             boolean blocked) {
+}
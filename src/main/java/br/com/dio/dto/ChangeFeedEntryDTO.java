@@ -0,0 +1,14 @@
+package br.com.dio.dto;
+
+import br.com.dio.event.BoardEventType;
+
+/**
+ * One {@code CHANGE_FEED} row; {@code type} is null when the row holds an event type this version does not know.
+ */
+public record ChangeFeedEntryDTO(long id,
+                                 BoardEventType type,
+                                 Long boardId,
+                                 Long columnId,
+                                 Long cardId,
+                                 String origin) {
+}
@@ -0,0 +1,20 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.CardPriorityEnum;
+
+import java.util.Map;
+
+public record ColumnAnalyticsDTO(Long id,
+                                 BoardColumnKindEnum kind,
+                                 int cards,
+                                 Map<CardPriorityEnum, Integer> cardsByPriority,
+                                 int overdue,
+                                 int blocked,
+                                 int createdRecently) {
+
+    public double blockedRatio(){
+        return cards == 0 ? 0 : (double) blocked / cards;
+    }
+
+}
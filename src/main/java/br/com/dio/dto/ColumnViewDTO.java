@@ -0,0 +1,21 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+import java.util.List;
+
+/**
+ * A column with its total card count and at most the first few of its cards.
+ */
+public record ColumnViewDTO(Long id,
+                            String name,
+                            BoardColumnKindEnum kind,
+                            int order,
+                            int cardsAmount,
+                            List<CardSummaryDTO> cards) {
+
+    public ColumnViewDTO {
+        cards = List.copyOf(cards);
+    }
+
+}
@@ -0,0 +1,11 @@
+package br.com.dio.dto;
+
+import java.util.List;
+
+/**
+ * Number of cards matching a {@link DashboardFilter} and the ids of the first {@code limit} of them.
+ */
+public record DashboardCountDTO(Long boardId,
+                                int cards,
+                                List<Long> cardIds) {
+}
@@ -0,0 +1,92 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.CardPriorityEnum;
+
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Set;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Combination of card attributes answered from the in-memory bitmap indexes of a board, without a query. Values of
+ * one attribute are combined with OR, attributes with AND; an empty set or a {@code null} flag does not filter.
+ * <pre>
+ * DashboardFilter.forBoard(boardId)
+ *         .columns(todoId, doingId)
+ *         .priorities(HIGH, CRITICAL)
+ *         .blocked(false)
+ *         .overdue(true)
+ *         .build();
+ * </pre>
+ */
+public record DashboardFilter(Long boardId,
+                              Set<Long> columnIds,
+                              Set<CardPriorityEnum> priorities,
+                              Boolean blocked,
+                              Boolean overdue,
+                              int limit) {
+
+    public static final int MAX_LIMIT = 1000;
+
+    public DashboardFilter {
+        requireNonNull(boardId, "boardId");
+        columnIds = Set.copyOf(columnIds);
+        priorities = Set.copyOf(priorities);
+        if (limit < 0 || limit > MAX_LIMIT){
+            throw new IllegalArgumentException("Limit must be between 0 and %s".formatted(MAX_LIMIT));
+        }
+    }
+
+    public static Builder forBoard(final Long boardId){
+        return new Builder(boardId);
+    }
+
+    public static final class Builder {
+
+        private final Long boardId;
+        private final Set<Long> columnIds = new HashSet<>();
+        private final Set<CardPriorityEnum> priorities = EnumSet.noneOf(CardPriorityEnum.class);
+        private Boolean blocked;
+        private Boolean overdue;
+        private int limit;
+
+        private Builder(final Long boardId) {
+            this.boardId = boardId;
+        }
+
+        public Builder columns(final Long... columnIds){
+            this.columnIds.addAll(Set.of(columnIds));
+            return this;
+        }
+
+        public Builder priorities(final CardPriorityEnum... priorities){
+            this.priorities.addAll(Set.of(priorities));
+            return this;
+        }
+
+        public Builder blocked(final boolean blocked){
+            this.blocked = blocked;
+            return this;
+        }
+
+        public Builder overdue(final boolean overdue){
+            this.overdue = overdue;
+            return this;
+        }
+
+        /**
+         * How many matching card ids to return besides the count, none by default.
+         */
+        public Builder limit(final int limit){
+            this.limit = limit;
+            return this;
+        }
+
+        public DashboardFilter build(){
+            return new DashboardFilter(boardId, columnIds, priorities, blocked, overdue, limit);
+        }
+
+    }
+
+}
@@ -0,0 +1,9 @@
+package br.com.dio.dto;
+
+import java.time.OffsetDateTime;
+
+public record IdempotencyRecordDTO(String key,
+                                   String operation,
+                                   Long resultId,
+                                   OffsetDateTime createdAt) {
+}
@@ -0,0 +1,28 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.CardPriorityEnum;
+
+import java.time.OffsetDateTime;
+
+public record SlaReportRowDTO(Long boardId,
+                              String boardName,
+                              Long cardId,
+                              String title,
+                              CardPriorityEnum priority,
+                              OffsetDateTime dueDate,
+                              Status status,
+                              String columnName,
+                              OffsetDateTime blockedAt,
+                              String blockReason) {
+
+    public enum Status {
+
+        OVERDUE, AT_RISK
+
+    }
+
+    public boolean blocked(){
+        return blockedAt != null;
+    }
+
+}
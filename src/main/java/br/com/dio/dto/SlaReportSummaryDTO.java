@@ -0,0 +1,17 @@
+package br.com.dio.dto;
+
+import br.com.dio.persistence.entity.CardPriorityEnum;
+
+import java.nio.file.Path;
+import java.util.Map;
+
+/**
+ * Totals of one SLA report run, {@code overdue} and {@code atRisk} count cards per priority.
+ */
+public record SlaReportSummaryDTO(Path file,
+                                  long boards,
+                                  long cards,
+                                  long blocked,
+                                  Map<CardPriorityEnum, Long> overdue,
+                                  Map<CardPriorityEnum, Long> atRisk) {
+}
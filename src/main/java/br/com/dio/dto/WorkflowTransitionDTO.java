@@ -0,0 +1,4 @@
+package br.com.dio.dto;
+
+public record WorkflowTransitionDTO(Long fromColumnId, Long toColumnId) {
+}
@@ -0,0 +1,46 @@
+package br.com.dio.event;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class BlockingWaitStrategy implements WaitStrategy {
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition published = lock.newCondition();
+    private final AtomicBoolean signalNeeded = new AtomicBoolean();
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursor) throws InterruptedException {
+        var available = cursor.get();
+        if (available >= sequence){
+            return available;
+        }
+        lock.lockInterruptibly();
+        try {
+            do {
+                signalNeeded.set(true);
+                if ((available = cursor.get()) >= sequence){
+                    break;
+                }
+                published.await();
+            } while ((available = cursor.get()) < sequence);
+        } finally {
+            lock.unlock();
+        }
+        return available;
+    }
+
+    @Override
+    public void signalAllWhenBlocking() {
+        if (signalNeeded.getAndSet(false)){
+            lock.lock();
+            try {
+                published.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package br.com.dio.event;
+
+import lombok.Getter;
+
+/**
+ * One preallocated slot of the {@link RingBuffer}. The same instance is reused for later events, so handlers must
+ * copy what they want to keep before returning. Ids that do not apply to the event type are {@code 0}.
+ */
+@Getter
+public final class BoardEvent {
+
+    private BoardEventType type;
+    private long boardId;
+    private long columnId;
+    private long cardId;
+    private long timestamp;
+
+    void set(final BoardEventType type, final long boardId, final long columnId, final long cardId){
+        this.type = type;
+        this.boardId = boardId;
+        this.columnId = columnId;
+        this.cardId = cardId;
+        this.timestamp = System.currentTimeMillis();
+    }
+
+    @Override
+    public String toString() {
+        return "%s[board=%s, column=%s, card=%s, at=%s]".formatted(type, boardId, columnId, cardId, timestamp);
+    }
+
+}
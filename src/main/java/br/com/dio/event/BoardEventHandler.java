@@ -0,0 +1,12 @@
+package br.com.dio.event;
+
+@FunctionalInterface
+public interface BoardEventHandler {
+
+    /**
+     * Called on the consumer thread for every published event, in order. {@code endOfBatch} is {@code true} for the
+     * last event currently available, so handlers can buffer work and flush it once per batch.
+     */
+    void onEvent(BoardEvent event, long sequence, boolean endOfBatch) throws Exception;
+
+}
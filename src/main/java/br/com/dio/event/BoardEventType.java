@@ -0,0 +1,18 @@
+package br.com.dio.event;
+
+public enum BoardEventType {
+
+    BOARD_CREATED,
+    BOARD_DELETED,
+    WORKFLOW_CHANGED,
+    CARD_CREATED,
+    CARD_MOVED,
+    CARD_BLOCKED,
+    CARD_UNBLOCKED,
+    CARD_CANCELLED,
+    /**
+     * Changes from other instances may have been missed, subscribers should drop whatever they cached.
+     */
+    RESYNC
+
+}
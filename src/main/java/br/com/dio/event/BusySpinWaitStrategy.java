@@ -0,0 +1,17 @@
+package br.com.dio.event;
+
+public class BusySpinWaitStrategy implements WaitStrategy {
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursor) throws InterruptedException {
+        long available;
+        while ((available = cursor.get()) < sequence){
+            if (Thread.interrupted()){
+                throw new InterruptedException();
+            }
+            Thread.onSpinWait();
+        }
+        return available;
+    }
+
+}
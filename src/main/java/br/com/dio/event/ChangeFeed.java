@@ -0,0 +1,39 @@
+package br.com.dio.event;
+
+import br.com.dio.persistence.dao.ChangeFeedDAO;
+import lombok.NoArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.UUID;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Cross-instance side of the event bus. With {@code -Dboard.changeFeed.enabled=true} every change is also written to
+ * {@code CHANGE_FEED} inside the transaction that makes it, tagged with this instance's id, and
+ * {@link br.com.dio.job.ChangeFeedTailer} republishes the changes of the other instances on the local
+ * {@link EventBus}. Subscribers therefore see local and remote changes alike.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class ChangeFeed {
+
+    public static final String INSTANCE_ID = UUID.randomUUID().toString();
+
+    private static final boolean ENABLED = Boolean.getBoolean("board.changeFeed.enabled");
+
+    public static boolean isEnabled(){
+        return ENABLED;
+    }
+
+    /**
+     * Appends the change to the feed as part of the caller's transaction, call it before {@code commit()}.
+     */
+    public static void record(final Connection connection, final BoardEventType type,
+                              final Long boardId, final Long columnId, final Long cardId) throws SQLException {
+        if (ENABLED){
+            new ChangeFeedDAO(connection).append(type, boardId, columnId, cardId, INSTANCE_ID);
+        }
+    }
+
+}
@@ -0,0 +1,73 @@
+package br.com.dio.event;
+
+import br.com.dio.persistence.config.TransactionCallbacks;
+
+import java.sql.Connection;
+
+import static java.util.Objects.isNull;
+
+/**
+ * In-process bus for board and card changes. Services publish once their transaction is committed and every
+ * subscriber consumes all events in order on its own daemon thread. Sized by {@code board.events.bufferSize} and
+ * tuned with {@code board.events.waitStrategy} (blocking, sleeping, yielding or busy-spin). Publishing with no
+ * subscribers is a single volatile read; a subscriber a full buffer behind makes publishers wait.
+ */
+public final class EventBus {
+
+    private static final EventBus INSTANCE = new EventBus(
+            Integer.getInteger("board.events.bufferSize", 1024),
+            WaitStrategy.named(System.getProperty("board.events.waitStrategy", "sleeping"))
+    );
+
+    private final RingBuffer ringBuffer;
+
+    public EventBus(final int bufferSize, final WaitStrategy waitStrategy) {
+        this.ringBuffer = new RingBuffer(bufferSize, waitStrategy);
+    }
+
+    public static EventBus get(){
+        return INSTANCE;
+    }
+
+    /**
+     * Publishes the event once the changes made through {@code connection} are committed. Services call it right
+     * after {@code commit()}; connections that defer their commit run it when the transaction really ends.
+     */
+    public static void publishAfterCommit(final Connection connection, final BoardEventType type,
+                                          final Long boardId, final Long columnId, final Long cardId){
+        if (connection instanceof TransactionCallbacks callbacks){
+            callbacks.afterCommit(() -> INSTANCE.publish(type, boardId, columnId, cardId));
+            return;
+        }
+        INSTANCE.publish(type, boardId, columnId, cardId);
+    }
+
+    /**
+     * Starts a consumer thread named {@code board-events-<name>} that receives every event published from now on.
+     * Interrupting the returned thread unsubscribes the handler.
+     */
+    public Thread subscribe(final String name, final BoardEventHandler handler){
+        var processor = new EventProcessor(ringBuffer, handler);
+        var thread = new Thread(processor, "board-events-" + name);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    public void publish(final BoardEventType type, final Long boardId, final Long columnId, final Long cardId){
+        if (!ringBuffer.hasConsumers()){
+            return;
+        }
+        var sequence = ringBuffer.next();
+        try {
+            ringBuffer.get(sequence).set(type, idOf(boardId), idOf(columnId), idOf(cardId));
+        } finally {
+            ringBuffer.publish(sequence);
+        }
+    }
+
+    private static long idOf(final Long id){
+        return isNull(id) ? 0 : id;
+    }
+
+}
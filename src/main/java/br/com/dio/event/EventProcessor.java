@@ -0,0 +1,48 @@
+package br.com.dio.event;
+
+import static java.lang.System.Logger.Level.WARNING;
+
+/**
+ * Consumer loop of one handler: waits for the next available sequence and hands over every event up to the
+ * highest published one as a batch before advancing its own sequence.
+ */
+class EventProcessor implements Runnable {
+
+    private static final System.Logger LOGGER = System.getLogger(EventProcessor.class.getName());
+
+    private final RingBuffer ringBuffer;
+    private final BoardEventHandler handler;
+    private final Sequence sequence;
+
+    EventProcessor(final RingBuffer ringBuffer, final BoardEventHandler handler) {
+        this.ringBuffer = ringBuffer;
+        this.handler = handler;
+        this.sequence = ringBuffer.addConsumer();
+    }
+
+    @Override
+    public void run() {
+        var next = sequence.get() + 1;
+        try {
+            while (!Thread.currentThread().isInterrupted()){
+                var available = ringBuffer.waitFor(next);
+                for (; next <= available; next++){
+                    var event = ringBuffer.get(next);
+                    try {
+                        handler.onEvent(event, next, next == available);
+                    } catch (InterruptedException ex){
+                        throw ex;
+                    } catch (Exception ex){
+                        LOGGER.log(WARNING, "Event handler failed on {0}: {1}", event, ex.getMessage());
+                    }
+                }
+                sequence.set(next - 1);
+            }
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+        } finally {
+            ringBuffer.removeConsumer(sequence);
+        }
+    }
+
+}
@@ -0,0 +1,122 @@
+package br.com.dio.event;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed size, preallocated ring of {@link BoardEvent} slots for many producers and many consumers, without locks.
+ * Producers claim a sequence with a CAS on the cursor, fill the slot and mark it published in {@code available};
+ * consumers track their own {@link Sequence}, and a producer never wraps past the slowest of them.
+ */
+public class RingBuffer {
+
+    private static final VarHandle AVAILABLE = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final BoardEvent[] entries;
+    private final int mask;
+    private final int indexShift;
+    private final int[] available;
+    private final WaitStrategy waitStrategy;
+    private final Sequence cursor = new Sequence(-1);
+    private final Sequence gatingCache = new Sequence(-1);
+    private volatile Sequence[] gatingSequences = new Sequence[0];
+
+    public RingBuffer(final int bufferSize, final WaitStrategy waitStrategy) {
+        if (bufferSize < 1 || Integer.bitCount(bufferSize) != 1){
+            throw new IllegalArgumentException("Buffer size must be a power of 2, got %s".formatted(bufferSize));
+        }
+        this.entries = new BoardEvent[bufferSize];
+        for (var i = 0; i < bufferSize; i++){
+            entries[i] = new BoardEvent();
+        }
+        this.mask = bufferSize - 1;
+        this.indexShift = Integer.numberOfTrailingZeros(bufferSize);
+        this.available = new int[bufferSize];
+        Arrays.fill(available, -1);
+        this.waitStrategy = waitStrategy;
+    }
+
+    /**
+     * Claims the next slot, waiting while the slowest consumer is a full lap behind.
+     */
+    public long next(){
+        while (true){
+            var current = cursor.get();
+            var next = current + 1;
+            var wrapPoint = next - entries.length;
+            var cachedGating = gatingCache.get();
+            if (wrapPoint > cachedGating || cachedGating > current){
+                var minimum = minimumGatingSequence(current);
+                if (wrapPoint > minimum){
+                    LockSupport.parkNanos(1);
+                    continue;
+                }
+                gatingCache.set(minimum);
+            } else if (cursor.compareAndSet(current, next)){
+                return next;
+            }
+        }
+    }
+
+    public BoardEvent get(final long sequence){
+        return entries[(int) sequence & mask];
+    }
+
+    public void publish(final long sequence){
+        AVAILABLE.setRelease(available, (int) sequence & mask, (int) (sequence >>> indexShift));
+        waitStrategy.signalAllWhenBlocking();
+    }
+
+    /**
+     * Waits until {@code sequence} is claimed and returns the highest sequence published without gaps from it,
+     * which is lower than {@code sequence} while its producer is still filling the slot.
+     */
+    public long waitFor(final long sequence) throws InterruptedException {
+        var claimed = waitStrategy.waitFor(sequence, cursor);
+        return highestPublished(sequence, claimed);
+    }
+
+    public long highestPublished(final long lowerBound, final long claimed){
+        for (var sequence = lowerBound; sequence <= claimed; sequence++){
+            var flag = (int) AVAILABLE.getAcquire(available, (int) sequence & mask);
+            if (flag != (int) (sequence >>> indexShift)){
+                return sequence - 1;
+            }
+        }
+        return claimed;
+    }
+
+    public boolean hasConsumers(){
+        return gatingSequences.length > 0;
+    }
+
+    /**
+     * Registers a consumer position; the consumer starts with the next published event.
+     */
+    public synchronized Sequence addConsumer(){
+        var sequence = new Sequence(cursor.get());
+        var current = gatingSequences;
+        var updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = sequence;
+        gatingSequences = updated;
+        sequence.set(cursor.get());
+        return sequence;
+    }
+
+    public synchronized void removeConsumer(final Sequence sequence){
+        gatingSequences = Arrays.stream(gatingSequences)
+                .filter(s -> s != sequence)
+                .toArray(Sequence[]::new);
+    }
+
+    private long minimumGatingSequence(final long minimum){
+        var result = minimum;
+        for (var sequence : gatingSequences){
+            result = Math.min(result, sequence.get());
+        }
+        return result;
+    }
+
+}
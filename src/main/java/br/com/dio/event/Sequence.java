@@ -0,0 +1,51 @@
+package br.com.dio.event;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+abstract class SequenceLeftPadding {
+
+    protected long p1, p2, p3, p4, p5, p6, p7;
+
+}
+
+abstract class SequenceValue extends SequenceLeftPadding {
+
+    protected volatile long value;
+
+}
+
+/**
+ * A position in the ring buffer, padded on both sides so producers and each consumer update their own cache line.
+ */
+public class Sequence extends SequenceValue {
+
+    private static final VarHandle VALUE;
+
+    static {
+        try {
+            VALUE = MethodHandles.lookup().findVarHandle(SequenceValue.class, "value", long.class);
+        } catch (ReflectiveOperationException ex){
+            throw new ExceptionInInitializerError(ex);
+        }
+    }
+
+    protected long p9, p10, p11, p12, p13, p14, p15;
+
+    public Sequence(final long initialValue) {
+        VALUE.setRelease(this, initialValue);
+    }
+
+    public long get(){
+        return value;
+    }
+
+    public void set(final long value){
+        VALUE.setRelease(this, value);
+    }
+
+    public boolean compareAndSet(final long expected, final long value){
+        return VALUE.compareAndSet(this, expected, value);
+    }
+
+}
@@ -0,0 +1,32 @@
+package br.com.dio.event;
+
+import java.util.concurrent.locks.LockSupport;
+
+public class SleepingWaitStrategy implements WaitStrategy {
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+    private static final long PARK_NANOS = 100_000;
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursor) throws InterruptedException {
+        var counter = SPIN_TRIES + YIELD_TRIES;
+        long available;
+        while ((available = cursor.get()) < sequence){
+            if (Thread.interrupted()){
+                throw new InterruptedException();
+            }
+            if (counter > YIELD_TRIES){
+                counter--;
+                Thread.onSpinWait();
+            } else if (counter > 0){
+                counter--;
+                Thread.yield();
+            } else {
+                LockSupport.parkNanos(PARK_NANOS);
+            }
+        }
+        return available;
+    }
+
+}
@@ -0,0 +1,31 @@
+package br.com.dio.event;
+
+import java.util.Locale;
+
+/**
+ * How a consumer waits for the next sequence to be claimed. Trades publisher cost and idle CPU against latency:
+ * {@code blocking} parks on a lock and needs a signal per publish, {@code sleeping} backs off to short parks,
+ * {@code yielding} and {@code busy-spin} keep a core busy for the lowest latency.
+ */
+public interface WaitStrategy {
+
+    /**
+     * Returns the highest claimed sequence once it reaches {@code sequence}. Claimed sequences may not be published
+     * yet, callers check that with {@link RingBuffer#highestPublished(long, long)}.
+     */
+    long waitFor(long sequence, Sequence cursor) throws InterruptedException;
+
+    default void signalAllWhenBlocking(){
+    }
+
+    static WaitStrategy named(final String name){
+        return switch (name.toLowerCase(Locale.ROOT)) {
+            case "blocking" -> new BlockingWaitStrategy();
+            case "sleeping" -> new SleepingWaitStrategy();
+            case "yielding" -> new YieldingWaitStrategy();
+            case "busy-spin" -> new BusySpinWaitStrategy();
+            default -> throw new IllegalArgumentException("Unknown wait strategy %s".formatted(name));
+        };
+    }
+
+}
@@ -0,0 +1,25 @@
+package br.com.dio.event;
+
+public class YieldingWaitStrategy implements WaitStrategy {
+
+    private static final int SPIN_TRIES = 100;
+
+    @Override
+    public long waitFor(final long sequence, final Sequence cursor) throws InterruptedException {
+        var counter = SPIN_TRIES;
+        long available;
+        while ((available = cursor.get()) < sequence){
+            if (Thread.interrupted()){
+                throw new InterruptedException();
+            }
+            if (counter > 0){
+                counter--;
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+        return available;
+    }
+
+}
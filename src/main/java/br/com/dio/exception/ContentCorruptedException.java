@@ -0,0 +1,9 @@
+package br.com.dio.exception;
+
+public class ContentCorruptedException extends RuntimeException {
+
+    public ContentCorruptedException(final String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package br.com.dio.exception;
+
+public class IdempotencyKeyReusedException extends RuntimeException {
+
+    public IdempotencyKeyReusedException(final String message) {
+        super(message);
+    }
+
+}
@@ -0,0 +1,9 @@
+package br.com.dio.exception;
+
+public class SnapshotCorruptedException extends RuntimeException {
+
+    public SnapshotCorruptedException(final String message) {
+        super(message);
+    }
+
+}
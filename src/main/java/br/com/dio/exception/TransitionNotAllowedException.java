@@ -0,0 +1,9 @@
+package br.com.dio.exception;
+
+public class TransitionNotAllowedException extends RuntimeException {
+
+    public TransitionNotAllowedException(final String message) {
+        super(message);
+    }
+
+}
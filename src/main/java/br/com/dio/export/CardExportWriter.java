@@ -0,0 +1,15 @@
+package br.com.dio.export;
+
+import br.com.dio.dto.CardExportRowDTO;
+
+import java.io.IOException;
+
+public interface CardExportWriter {
+
+    void writeHeader() throws IOException;
+
+    void write(final CardExportRowDTO row) throws IOException;
+
+    void flush() throws IOException;
+
+}
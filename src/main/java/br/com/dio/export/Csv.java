@@ -0,0 +1,36 @@
+package br.com.dio.export;
+
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.io.Writer;
+
+import static java.util.Objects.isNull;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * RFC 4180 fields shared by the CSV writers: a field holding a comma, a quote or a line break is quoted, with its
+ * quotes doubled, and {@code null} is an empty field.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class Csv {
+
+    /**
+     * Writes the separator, then the field.
+     */
+    static void writeField(final Writer out, final Object value) throws IOException {
+        out.write(',');
+        if (isNull(value)){
+            return;
+        }
+        var text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0){
+            out.write(text);
+            return;
+        }
+        out.write('"');
+        out.write(text.replace("\"", "\"\""));
+        out.write('"');
+    }
+
+}
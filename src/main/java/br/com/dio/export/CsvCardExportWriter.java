@@ -0,0 +1,45 @@
+package br.com.dio.export;
+
+import br.com.dio.dto.CardExportRowDTO;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.io.Writer;
+
+@AllArgsConstructor
+public class CsvCardExportWriter implements CardExportWriter {
+
+    private final Writer out;
+
+    @Override
+    public void writeHeader() throws IOException {
+        out.write("id,title,description,priority,due_date,created_at,column_id,column_name,column_kind,blocked,blocked_at,block_reason\n");
+    }
+
+    @Override
+    public void write(final CardExportRowDTO row) throws IOException {
+        out.write(String.valueOf(row.id()));
+        writeField(row.title());
+        writeField(row.description());
+        writeField(row.priority());
+        writeField(row.dueDate());
+        writeField(row.createdAt());
+        writeField(row.columnId());
+        writeField(row.columnName());
+        writeField(row.columnKind());
+        writeField(row.blocked());
+        writeField(row.blockedAt());
+        writeField(row.blockReason());
+        out.write('\n');
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeField(final Object value) throws IOException {
+        Csv.writeField(out, value);
+    }
+
+}
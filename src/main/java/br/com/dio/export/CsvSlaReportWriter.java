@@ -0,0 +1,59 @@
+package br.com.dio.export;
+
+import br.com.dio.dto.SlaReportRowDTO;
+import br.com.dio.dto.SlaReportSummaryDTO;
+import br.com.dio.persistence.entity.CardPriorityEnum;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.io.Writer;
+
+@AllArgsConstructor
+public class CsvSlaReportWriter {
+
+    private final Writer out;
+
+    public void writeHeader() throws IOException {
+        out.write("board_id,board_name,card_id,title,priority,due_date,status,column_name,blocked_at,block_reason\n");
+    }
+
+    public void write(final SlaReportRowDTO row) throws IOException {
+        out.write(String.valueOf(row.boardId()));
+        writeField(row.boardName());
+        writeField(row.cardId());
+        writeField(row.title());
+        writeField(row.priority());
+        writeField(row.dueDate());
+        writeField(row.status());
+        writeField(row.columnName());
+        writeField(row.blockedAt());
+        writeField(row.blockReason());
+        out.write('\n');
+    }
+
+    /**
+     * One line per priority with its overdue and at risk cards, then the totals.
+     */
+    public void writeTotals(final SlaReportSummaryDTO summary) throws IOException {
+        out.write("priority,overdue,at_risk\n");
+        var overdue = 0L;
+        var atRisk = 0L;
+        for (var priority : CardPriorityEnum.values()){
+            var priorityOverdue = summary.overdue().getOrDefault(priority, 0L);
+            var priorityAtRisk = summary.atRisk().getOrDefault(priority, 0L);
+            out.write("%s,%d,%d\n".formatted(priority, priorityOverdue, priorityAtRisk));
+            overdue += priorityOverdue;
+            atRisk += priorityAtRisk;
+        }
+        out.write("TOTAL,%d,%d\n".formatted(overdue, atRisk));
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeField(final Object value) throws IOException {
+        Csv.writeField(out, value);
+    }
+
+}
@@ -0,0 +1,28 @@
+package br.com.dio.export;
+
+import java.io.Writer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+public enum ExportFormat {
+
+    CSV(CsvCardExportWriter::new),
+    JSON_LINES(JsonLinesCardExportWriter::new);
+
+    private final Function<Writer, CardExportWriter> factory;
+
+    ExportFormat(final Function<Writer, CardExportWriter> factory) {
+        this.factory = factory;
+    }
+
+    public CardExportWriter writer(final Writer out){
+        return factory.apply(out);
+    }
+
+    public static ExportFormat findByName(final String name){
+        return Stream.of(ExportFormat.values())
+                .filter(f -> f.name().equalsIgnoreCase(name))
+                .findFirst().orElseThrow();
+    }
+
+}
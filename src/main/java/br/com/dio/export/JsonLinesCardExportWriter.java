@@ -0,0 +1,50 @@
+package br.com.dio.export;
+
+import br.com.dio.dto.CardExportRowDTO;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.io.Writer;
+
+@AllArgsConstructor
+public class JsonLinesCardExportWriter implements CardExportWriter {
+
+    private final Writer out;
+
+    @Override
+    public void writeHeader() {
+    }
+
+    @Override
+    public void write(final CardExportRowDTO row) throws IOException {
+        out.write("{\"id\":");
+        out.write(String.valueOf(row.id()));
+        writeString("title", row.title());
+        writeString("description", row.description());
+        writeString("priority", row.priority());
+        writeString("due_date", row.dueDate());
+        writeString("created_at", row.createdAt());
+        out.write(",\"column_id\":");
+        out.write(String.valueOf(row.columnId()));
+        writeString("column_name", row.columnName());
+        writeString("column_kind", row.columnKind());
+        out.write(",\"blocked\":");
+        out.write(String.valueOf(row.blocked()));
+        writeString("blocked_at", row.blockedAt());
+        writeString("block_reason", row.blockReason());
+        out.write("}\n");
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    private void writeString(final String name, final Object value) throws IOException {
+        out.write(",\"");
+        out.write(name);
+        out.write("\":");
+        JsonText.appendQuoted(out, value);
+    }
+
+}
@@ -0,0 +1,43 @@
+package br.com.dio.export;
+
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+
+import static java.util.Objects.isNull;
+import static lombok.AccessLevel.PRIVATE;
+
+@NoArgsConstructor(access = PRIVATE)
+public final class JsonText {
+
+    /**
+     * Appends {@code value} as a JSON string, or {@code null} when it is null.
+     */
+    public static void appendQuoted(final Appendable out, final Object value) throws IOException {
+        if (isNull(value)){
+            out.append("null");
+            return;
+        }
+        out.append('"');
+        var text = value.toString();
+        for (var i = 0; i < text.length(); i++){
+            var c = text.charAt(i);
+            switch (c) {
+                case '"' -> out.append("\\\"");
+                case '\\' -> out.append("\\\\");
+                case '\n' -> out.append("\\n");
+                case '\r' -> out.append("\\r");
+                case '\t' -> out.append("\\t");
+                default -> {
+                    if (c < 0x20){
+                        out.append("\\u%04x".formatted((int) c));
+                    } else {
+                        out.append(c);
+                    }
+                }
+            }
+        }
+        out.append('"');
+    }
+
+}
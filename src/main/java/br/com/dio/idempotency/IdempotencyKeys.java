@@ -0,0 +1,157 @@
+package br.com.dio.idempotency;
+
+import br.com.dio.dto.IdempotencyRecordDTO;
+import br.com.dio.exception.IdempotencyKeyReusedException;
+import br.com.dio.persistence.config.TransactionCallbacks;
+import br.com.dio.persistence.dao.IdempotencyKeyDAO;
+import br.com.dio.validation.ValidationUtils;
+import lombok.NoArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+import static java.time.ZoneOffset.UTC;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Outcomes of card commands sent with an idempotency key. The outcome is written to {@code IDEMPOTENCY_KEYS} in
+ * the transaction of the command and, once committed, kept in an LRU of {@code board.idempotency.cacheSize}
+ * entries, so a retried command costs a map lookup, or one primary key read after eviction or on another
+ * instance, instead of running again. Cached outcomes are per shard and expire with their row, {@link #TTL} after
+ * the command ran. A {@code null} key turns every method into a no-op.
+ * <p>
+ * Services call {@link #find} before doing anything, {@link #store} right before {@code commit()} and
+ * {@link #cacheAfterCommit} after it. When two requests with the same key race, the loser fails on the primary key
+ * and {@link #findAfterConflict} returns the winner's outcome once it rolled back.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class IdempotencyKeys {
+
+    /**
+     * How long an outcome is kept, after which {@code IdempotencyKeyCleanupJob} removes its row.
+     */
+    public static final Duration TTL = Duration.ofHours(Long.getLong("board.idempotency.ttlHours", 24));
+
+    private static final int CACHE_SIZE = Integer.getInteger("board.idempotency.cacheSize", 10_000);
+
+    private record CacheKey(String shard, String key) {
+    }
+
+    private static final Map<CacheKey, IdempotencyRecordDTO> CACHE = new LinkedHashMap<>(16, 0.75f, true){
+        @Override
+        protected boolean removeEldestEntry(final Map.Entry<CacheKey, IdempotencyRecordDTO> eldest) {
+            return size() > CACHE_SIZE;
+        }
+    };
+
+    /**
+     * Outcome stored for {@code key}, if the command already ran.
+     *
+     * @throws IdempotencyKeyReusedException when the key was used for another operation
+     */
+    public static Optional<IdempotencyRecordDTO> find(final Connection connection, final String key,
+                                                      final String operation) throws SQLException {
+        if (isNull(key)){
+            return Optional.empty();
+        }
+        ValidationUtils.validateIdempotencyKey(key);
+        var cacheKey = new CacheKey(shardOf(connection), key);
+        var record = cached(cacheKey);
+        if (isNull(record)){
+            record = new IdempotencyKeyDAO(connection).findByKey(key).orElse(null);
+            if (isNull(record)){
+                return Optional.empty();
+            }
+            cache(cacheKey, record);
+        }
+        if (!record.operation().equals(operation)){
+            var message = "Idempotency key %s was already used for %s".formatted(key, record.operation());
+            throw new IdempotencyKeyReusedException(message);
+        }
+        return Optional.of(record);
+    }
+
+    /**
+     * Writes the outcome as part of the caller's transaction, call it before {@code commit()}.
+     */
+    public static void store(final Connection connection, final String key, final String operation,
+                             final Long resultId) throws SQLException {
+        if (nonNull(key)){
+            new IdempotencyKeyDAO(connection).insert(
+                    new IdempotencyRecordDTO(key, operation, resultId, OffsetDateTime.now(UTC)));
+        }
+    }
+
+    /**
+     * Caches the outcome once the transaction is really committed, call it after {@code commit()}.
+     */
+    public static void cacheAfterCommit(final Connection connection, final String key, final String operation,
+                                        final Long resultId) throws SQLException {
+        if (isNull(key)){
+            return;
+        }
+        var cacheKey = new CacheKey(shardOf(connection), key);
+        var record = new IdempotencyRecordDTO(key, operation, resultId, OffsetDateTime.now(UTC));
+        if (connection instanceof TransactionCallbacks callbacks){
+            callbacks.afterCommit(() -> cache(cacheKey, record));
+            return;
+        }
+        cache(cacheKey, record);
+    }
+
+    /**
+     * Outcome of the concurrent request that stored the same key first, when {@code ex} is the duplicate key error
+     * of {@link #store}. Call it after rolling back.
+     */
+    public static Optional<IdempotencyRecordDTO> findAfterConflict(final Connection connection, final String key,
+                                                                   final String operation,
+                                                                   final SQLException ex) throws SQLException {
+        if (isNull(key) || !(ex instanceof SQLIntegrityConstraintViolationException)){
+            return Optional.empty();
+        }
+        return find(connection, key, operation);
+    }
+
+    /**
+     * The shard a connection belongs to, as the URL it was opened with; the same key may exist on several shards.
+     */
+    private static String shardOf(final Connection connection) throws SQLException {
+        return connection.getMetaData().getURL();
+    }
+
+    /**
+     * Cached outcome, dropped once older than {@link #TTL} since its row is gone or about to be.
+     */
+    private static IdempotencyRecordDTO cached(final CacheKey key){
+        synchronized (CACHE){
+            var record = CACHE.get(key);
+            if (nonNull(record) && isExpired(record)){
+                CACHE.remove(key);
+                return null;
+            }
+            return record;
+        }
+    }
+
+    private static void cache(final CacheKey key, final IdempotencyRecordDTO record){
+        if (CACHE_SIZE <= 0 || isExpired(record)){
+            return;
+        }
+        synchronized (CACHE){
+            CACHE.put(key, record);
+        }
+    }
+
+    private static boolean isExpired(final IdempotencyRecordDTO record){
+        return isNull(record.createdAt()) || record.createdAt().isBefore(OffsetDateTime.now(UTC).minus(TTL));
+    }
+
+}
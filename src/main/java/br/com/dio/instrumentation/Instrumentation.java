@@ -0,0 +1,235 @@
+package br.com.dio.instrumentation;
+
+import lombok.NoArgsConstructor;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Records latency, call, row and error statistics for DAO queries and service operations.
+ * <p>
+ * DAO methods wrap their body in {@link #query}, service methods in {@link #operation}. While instrumentation is
+ * disabled ({@code -Dboard.instrumentation=false} or through JMX) both just call the body after one volatile read.
+ * Every statistic is published as an MXBean under {@code br.com.dio:type=Operation}. Service operations also
+ * collect the statements, rows and bytes their connection handled through {@link OperationTrace}.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class Instrumentation {
+
+    private static final System.Logger LOGGER = System.getLogger("br.com.dio.instrumentation.slow");
+
+    private static final Map<String, OperationStats> STATS = new ConcurrentHashMap<>();
+
+    private static final int DEFAULT_STATEMENT_BUDGET = Integer.getInteger("board.statementBudget", 10);
+
+    private static final int REPEATED_STATEMENT_THRESHOLD = Integer.getInteger("board.repeatedStatementThreshold", 3);
+
+    private static volatile boolean enabled = Boolean.parseBoolean(System.getProperty("board.instrumentation", "true"));
+
+    private static volatile long slowThresholdNanos =
+            MILLISECONDS.toNanos(Long.getLong("board.instrumentation.slowQueryMillis", 200));
+
+    public static <T> T query(final String name, final SqlCallable<T> callable) throws SQLException {
+        return measure(name, callable);
+    }
+
+    public static void query(final String name, final SqlRunnable runnable) throws SQLException {
+        measure(name, runnable);
+    }
+
+    public static <T> T operation(final String name, final SqlCallable<T> callable) throws SQLException {
+        if (!enabled && !OperationEvent.isRecorded()){
+            return callable.call();
+        }
+        var trace = OperationTrace.begin(name);
+        var event = OperationEvent.begin(trace);
+        var failed = true;
+        try {
+            var result = measure(name, callable);
+            failed = false;
+            return result;
+        } finally {
+            finish(trace);
+            OperationEvent.end(event, trace, failed);
+        }
+    }
+
+    public static void operation(final String name, final SqlRunnable runnable) throws SQLException {
+        if (!enabled && !OperationEvent.isRecorded()){
+            runnable.run();
+            return;
+        }
+        var trace = OperationTrace.begin(name);
+        var event = OperationEvent.begin(trace);
+        var failed = true;
+        try {
+            measure(name, runnable);
+            failed = false;
+        } finally {
+            finish(trace);
+            OperationEvent.end(event, trace, failed);
+        }
+    }
+
+    /**
+     * Attaches the board and card ids to the operation running on the current thread, they show up in its
+     * Flight Recorder event.
+     */
+    public static void tag(final Long boardId, final Long cardId){
+        var trace = OperationTrace.current();
+        if (nonNull(trace)){
+            trace.tag(boardId, cardId);
+        }
+    }
+
+    /**
+     * Starting point of a measurement that can not be expressed as a {@link SqlCallable}, to be finished with
+     * {@link #stop}. Returns 0 when instrumentation is disabled.
+     */
+    public static long start(){
+        return enabled ? System.nanoTime() : 0;
+    }
+
+    public static void stop(final String name, final long start, final long rows, final boolean failed){
+        if (start == 0){
+            return;
+        }
+        var elapsed = System.nanoTime() - start;
+        statsOf(name).record(elapsed, rows, failed);
+        if (elapsed >= slowThresholdNanos){
+            LOGGER.log(WARNING, "Slow call {0} took {1} ms{2}",
+                    name, NANOSECONDS.toMillis(elapsed), failed ? " and failed" : "");
+        }
+    }
+
+    public static boolean isEnabled(){
+        return enabled;
+    }
+
+    public static void setEnabled(final boolean value){
+        enabled = value;
+    }
+
+    public static long getSlowThresholdMillis(){
+        return NANOSECONDS.toMillis(slowThresholdNanos);
+    }
+
+    public static void setSlowThresholdMillis(final long millis){
+        slowThresholdNanos = MILLISECONDS.toNanos(millis);
+    }
+
+    public static List<OperationStats> snapshot(){
+        return STATS.values().stream()
+                .sorted(Comparator.comparing(OperationStats::getName))
+                .toList();
+    }
+
+    public static void reset(){
+        STATS.values().forEach(OperationStats::reset);
+    }
+
+    private static <T> T measure(final String name, final SqlCallable<T> callable) throws SQLException {
+        if (!enabled){
+            return callable.call();
+        }
+        var start = System.nanoTime();
+        var failed = true;
+        T result = null;
+        try {
+            result = callable.call();
+            failed = false;
+            return result;
+        } finally {
+            stop(name, start, rowsOf(result), failed);
+        }
+    }
+
+    private static void measure(final String name, final SqlRunnable runnable) throws SQLException {
+        if (!enabled){
+            runnable.run();
+            return;
+        }
+        var start = System.nanoTime();
+        var failed = true;
+        try {
+            runnable.run();
+            failed = false;
+        } finally {
+            stop(name, start, 0, failed);
+        }
+    }
+
+    /**
+     * Records the JDBC activity of an outermost operation and flags operations that go over their statement budget
+     * ({@code board.statementBudget.<operation>}, falling back to {@code board.statementBudget}) or that repeat
+     * the same statement {@code board.repeatedStatementThreshold} times or more. With instrumentation disabled the
+     * trace only served the Flight Recorder event and is just closed.
+     */
+    private static void finish(final OperationTrace trace){
+        if (isNull(trace)){
+            return;
+        }
+        trace.end();
+        if (!enabled){
+            return;
+        }
+        var name = trace.getOperation();
+        var stats = statsOf(name);
+        var budget = stats.statementBudget();
+        var overBudget = trace.getStatements() > budget;
+        var repeated = trace.mostRepeated();
+        var inLoop = nonNull(repeated) && repeated.getValue() >= REPEATED_STATEMENT_THRESHOLD;
+        stats.recordTrace(trace.getStatements(), trace.getRows(), trace.getBytes(), overBudget || inLoop);
+        if (overBudget){
+            LOGGER.log(WARNING, "Operation {0} issued {1} statements, over its budget of {2}",
+                    name, trace.getStatements(), budget);
+        }
+        if (inLoop){
+            LOGGER.log(WARNING, "Operation {0} repeated the same statement {1} times: {2}",
+                    name, repeated.getValue(), repeated.getKey());
+        }
+    }
+
+    private static long rowsOf(final Object result){
+        if (result instanceof Collection<?> collection){
+            return collection.size();
+        }
+        if (result instanceof Optional<?> optional){
+            return optional.isPresent() ? 1 : 0;
+        }
+        return 0;
+    }
+
+    private static OperationStats statsOf(final String name){
+        var stats = STATS.get(name);
+        return stats != null ? stats : STATS.computeIfAbsent(name, Instrumentation::register);
+    }
+
+    private static OperationStats register(final String name){
+        var stats = new OperationStats(name,
+                Integer.getInteger("board.statementBudget." + name, DEFAULT_STATEMENT_BUDGET));
+        try {
+            var objectName = new ObjectName("br.com.dio:type=Operation,name=" + ObjectName.quote(name));
+            ManagementFactory.getPlatformMBeanServer().registerMBean(stats, objectName);
+        } catch (JMException ex){
+            LOGGER.log(WARNING, "Could not register MXBean for {0}: {1}", name, ex.getMessage());
+        }
+        return stats;
+    }
+
+}
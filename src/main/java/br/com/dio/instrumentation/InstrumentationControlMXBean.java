@@ -0,0 +1,17 @@
+package br.com.dio.instrumentation;
+
+public interface InstrumentationControlMXBean {
+
+    boolean isEnabled();
+
+    void setEnabled(boolean enabled);
+
+    long getSlowThresholdMillis();
+
+    void setSlowThresholdMillis(long millis);
+
+    String dump();
+
+    void reset();
+
+}
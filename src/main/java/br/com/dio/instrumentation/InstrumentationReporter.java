@@ -0,0 +1,93 @@
+package br.com.dio.instrumentation;
+
+import br.com.dio.job.BackgroundJobs;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.time.OffsetDateTime;
+
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Exposes the instrumentation switches over JMX and, when {@code board.instrumentation.dumpSeconds} is positive,
+ * appends a text table of every statistic to {@code board.instrumentation.dumpFile} at that period.
+ */
+public class InstrumentationReporter implements InstrumentationControlMXBean {
+
+    private static final System.Logger LOGGER = System.getLogger(InstrumentationReporter.class.getName());
+
+    private final String dumpFile = System.getProperty("board.instrumentation.dumpFile", "instrumentation.log");
+
+    public static void install(){
+        var reporter = new InstrumentationReporter();
+        try {
+            var name = new ObjectName("br.com.dio:type=InstrumentationControl");
+            ManagementFactory.getPlatformMBeanServer().registerMBean(reporter, name);
+        } catch (JMException ex){
+            LOGGER.log(WARNING, "Could not register instrumentation control MXBean: {0}", ex.getMessage());
+        }
+        var period = Long.getLong("board.instrumentation.dumpSeconds", 60);
+        if (period > 0){
+            BackgroundJobs.scheduleAtFixedRate("instrumentation-reporter", reporter::dumpToFile,
+                    period, period, SECONDS);
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return Instrumentation.isEnabled();
+    }
+
+    @Override
+    public void setEnabled(final boolean enabled) {
+        Instrumentation.setEnabled(enabled);
+    }
+
+    @Override
+    public long getSlowThresholdMillis() {
+        return Instrumentation.getSlowThresholdMillis();
+    }
+
+    @Override
+    public void setSlowThresholdMillis(final long millis) {
+        Instrumentation.setSlowThresholdMillis(millis);
+    }
+
+    @Override
+    public String dump() {
+        var builder = new StringBuilder();
+        builder.append("%-48s %10s %8s %10s %10s %12s %8s %10s %10s %10s %10s%n".formatted(
+                "operation", "calls", "errors", "rows", "statements", "bytes", "flagged",
+                "mean(us)", "p50(us)", "p99(us)", "max(us)"));
+        for (var stats : Instrumentation.snapshot()){
+            builder.append("%-48s %10d %8d %10d %10d %12d %8d %10d %10d %10d %10d%n".formatted(
+                    stats.getName(), stats.getCalls(), stats.getErrors(), stats.getRows(), stats.getStatements(),
+                    stats.getBytesRead(), stats.getFlaggedCalls(),
+                    stats.getMeanMicros(), stats.getP50Micros(), stats.getP99Micros(), stats.getMaxMicros()));
+        }
+        return builder.toString();
+    }
+
+    @Override
+    public void reset() {
+        Instrumentation.reset();
+    }
+
+    private void dumpToFile(){
+        if (!Instrumentation.isEnabled()){
+            return;
+        }
+        try(var out = new PrintWriter(new FileWriter(dumpFile, true))){
+            out.printf("=== %s%n", OffsetDateTime.now());
+            out.print(dump());
+        } catch (IOException ex){
+            LOGGER.log(WARNING, "Could not write instrumentation dump: {0}", ex.getMessage());
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package br.com.dio.instrumentation;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Lock free log-linear histogram of nanosecond latencies. Every power of two is split in {@value #SUB_BUCKETS}
+ * buckets, which keeps the relative error of a percentile under 13% with a fixed footprint of under 4KB.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BUCKET_BITS = 3;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (Long.SIZE - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final AtomicLong max = new AtomicLong();
+    private final AtomicLong total = new AtomicLong();
+
+    public void record(final long nanos){
+        var value = Math.max(nanos, 0);
+        counts.incrementAndGet(indexOf(value));
+        total.addAndGet(value);
+        max.accumulateAndGet(value, Math::max);
+    }
+
+    public long percentile(final double percentile){
+        var count = count();
+        if (count == 0){
+            return 0;
+        }
+        var rank = (long) Math.ceil(count * percentile / 100.0);
+        var seen = 0L;
+        for (var i = 0; i < BUCKETS; i++){
+            seen += counts.get(i);
+            if (seen >= Math.max(rank, 1)){
+                return Math.min(upperBoundOf(i), max.get());
+            }
+        }
+        return max.get();
+    }
+
+    public long count(){
+        var count = 0L;
+        for (var i = 0; i < BUCKETS; i++){
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    public long max(){
+        return max.get();
+    }
+
+    public long mean(){
+        var count = count();
+        return count == 0 ? 0 : total.get() / count;
+    }
+
+    public void reset(){
+        for (var i = 0; i < BUCKETS; i++){
+            counts.set(i, 0);
+        }
+        max.set(0);
+        total.set(0);
+    }
+
+    static int indexOf(final long value){
+        if (value < SUB_BUCKETS){
+            return (int) value;
+        }
+        var exponent = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        var shift = exponent - SUB_BUCKET_BITS;
+        return (shift + 1) * SUB_BUCKETS + (int) ((value >>> shift) & (SUB_BUCKETS - 1));
+    }
+
+    static long upperBoundOf(final int index){
+        if (index < SUB_BUCKETS){
+            return index;
+        }
+        var shift = index / SUB_BUCKETS - 1;
+        var subBucket = index % SUB_BUCKETS;
+        return ((long) (SUB_BUCKETS + subBucket + 1) << shift) - 1;
+    }
+
+}
@@ -0,0 +1,100 @@
+package br.com.dio.instrumentation;
+
+import br.com.dio.persistence.config.ConnectionConfig;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Flight Recorder event of an outermost service operation, so JDBC frames, GC pauses and lock stalls seen in a
+ * recording can be matched with the card or board operation running at the time. Only recorded for operations
+ * longer than the {@code threshold} setting of {@code br.com.dio.Operation}, 10 ms unless the recording settings
+ * say otherwise. Recorded whether or not {@code board.instrumentation} is enabled. Statements, rows and the outcome
+ * are seen by traced connections only, without {@code board.statementTracing} they are {@code 0} and the outcome
+ * is {@code untraced}.
+ */
+@Name("br.com.dio.Operation")
+@Label("Service Operation")
+@Category({"Board", "Service"})
+@Description("Service operation with the JDBC activity and transaction outcome it caused")
+@StackTrace(false)
+@Threshold("10 ms")
+class OperationEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(OperationEvent.class);
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Board Id")
+    long boardId;
+
+    @Label("Card Id")
+    long cardId;
+
+    @Label("Statements")
+    int statements;
+
+    @Label("Rows Read")
+    long rowsRead;
+
+    @Label("Outcome")
+    @Description("commit, rollback, none when no transaction ended, untraced without statement tracing")
+    String outcome;
+
+    @Label("Failed")
+    boolean failed;
+
+    /**
+     * Whether a running recording enables this event.
+     */
+    static boolean isRecorded(){
+        return TYPE.isEnabled();
+    }
+
+    /**
+     * Started event, or {@code null} when the event type is disabled so the operation pays nothing else.
+     */
+    static OperationEvent begin(final OperationTrace trace){
+        if (isNull(trace) || !TYPE.isEnabled()){
+            return null;
+        }
+        var event = new OperationEvent();
+        event.begin();
+        return event;
+    }
+
+    static void end(final OperationEvent event, final OperationTrace trace, final boolean failed){
+        if (isNull(event)){
+            return;
+        }
+        event.end();
+        if (!event.shouldCommit()){
+            return;
+        }
+        event.operation = trace.getOperation();
+        event.boardId = nonNull(trace.getBoardId()) ? trace.getBoardId() : 0;
+        event.cardId = nonNull(trace.getCardId()) ? trace.getCardId() : 0;
+        event.statements = trace.getStatements();
+        event.rowsRead = trace.getRows();
+        event.outcome = outcomeOf(trace);
+        event.failed = failed;
+        event.commit();
+    }
+
+    private static String outcomeOf(final OperationTrace trace){
+        if (!ConnectionConfig.isStatementTracing()){
+            return "untraced";
+        }
+        return trace.getRollbacks() > 0 ? "rollback" : trace.getCommits() > 0 ? "commit" : "none";
+    }
+
+}
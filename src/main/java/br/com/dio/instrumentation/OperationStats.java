@@ -0,0 +1,118 @@
+package br.com.dio.instrumentation;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+@RequiredArgsConstructor
+public class OperationStats implements OperationStatsMXBean {
+
+    @Getter
+    private final String name;
+    /**
+     * Statements one call may issue before it is flagged, resolved once when the operation is first seen.
+     */
+    private final int statementBudget;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder statements = new LongAdder();
+    private final LongAdder rowsRead = new LongAdder();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder flagged = new LongAdder();
+
+    int statementBudget(){
+        return statementBudget;
+    }
+
+    void record(final long nanos, final long rowsReturned, final boolean failed){
+        calls.increment();
+        if (failed){
+            errors.increment();
+        }
+        if (rowsReturned > 0){
+            rows.add(rowsReturned);
+        }
+        latency.record(nanos);
+    }
+
+    void recordTrace(final int statementsIssued, final long rowsFetched, final long bytesFetched, final boolean suspicious){
+        statements.add(statementsIssued);
+        rowsRead.add(rowsFetched);
+        bytesRead.add(bytesFetched);
+        if (suspicious){
+            flagged.increment();
+        }
+    }
+
+    void reset(){
+        calls.reset();
+        errors.reset();
+        rows.reset();
+        statements.reset();
+        rowsRead.reset();
+        bytesRead.reset();
+        flagged.reset();
+        latency.reset();
+    }
+
+    @Override
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    @Override
+    public long getErrors() {
+        return errors.sum();
+    }
+
+    @Override
+    public long getRows() {
+        return rows.sum();
+    }
+
+    @Override
+    public long getStatements() {
+        return statements.sum();
+    }
+
+    @Override
+    public long getRowsRead() {
+        return rowsRead.sum();
+    }
+
+    @Override
+    public long getBytesRead() {
+        return bytesRead.sum();
+    }
+
+    @Override
+    public long getFlaggedCalls() {
+        return flagged.sum();
+    }
+
+    @Override
+    public long getMeanMicros() {
+        return NANOSECONDS.toMicros(latency.mean());
+    }
+
+    @Override
+    public long getP50Micros() {
+        return NANOSECONDS.toMicros(latency.percentile(50));
+    }
+
+    @Override
+    public long getP99Micros() {
+        return NANOSECONDS.toMicros(latency.percentile(99));
+    }
+
+    @Override
+    public long getMaxMicros() {
+        return NANOSECONDS.toMicros(latency.max());
+    }
+
+}
@@ -0,0 +1,29 @@
+package br.com.dio.instrumentation;
+
+public interface OperationStatsMXBean {
+
+    String getName();
+
+    long getCalls();
+
+    long getErrors();
+
+    long getRows();
+
+    long getStatements();
+
+    long getRowsRead();
+
+    long getBytesRead();
+
+    long getFlaggedCalls();
+
+    long getMeanMicros();
+
+    long getP50Micros();
+
+    long getP99Micros();
+
+    long getMaxMicros();
+
+}
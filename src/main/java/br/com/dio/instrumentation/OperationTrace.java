@@ -0,0 +1,100 @@
+package br.com.dio.instrumentation;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * JDBC activity of the service operation running on the current thread. Operations nested in another one are
+ * attributed to the outermost operation.
+ */
+public final class OperationTrace {
+
+    private static final ThreadLocal<OperationTrace> CURRENT = new ThreadLocal<>();
+
+    @Getter
+    private final String operation;
+    @Getter
+    private int statements;
+    @Getter
+    private long rows;
+    @Getter
+    private long bytes;
+    @Getter
+    private Long boardId;
+    @Getter
+    private Long cardId;
+    @Getter
+    private int commits;
+    @Getter
+    private int rollbacks;
+    private final Map<String, Integer> executions = new HashMap<>();
+
+    private OperationTrace(final String operation) {
+        this.operation = operation;
+    }
+
+    public static OperationTrace current(){
+        return CURRENT.get();
+    }
+
+    static OperationTrace begin(final String operation){
+        if (nonNull(CURRENT.get())){
+            return null;
+        }
+        var trace = new OperationTrace(operation);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    void end(){
+        CURRENT.remove();
+    }
+
+    public void statementExecuted(final String sql){
+        statements++;
+        executions.merge(sql, 1, Integer::sum);
+    }
+
+    /**
+     * Board and card the operation works on, the first ids reported stick.
+     */
+    public void tag(final Long board, final Long card){
+        if (isNull(boardId)){
+            boardId = board;
+        }
+        if (isNull(cardId)){
+            cardId = card;
+        }
+    }
+
+    public void committed(){
+        commits++;
+    }
+
+    public void rolledBack(){
+        rollbacks++;
+    }
+
+    public void rowRead(){
+        rows++;
+    }
+
+    public void bytesRead(final long amount){
+        bytes += amount;
+    }
+
+    /**
+     * The statement executed most often in this operation, used to spot queries issued in a loop.
+     */
+    Map.Entry<String, Integer> mostRepeated(){
+        return executions.entrySet().stream()
+                .max(Map.Entry.comparingByValue())
+                .orElse(null);
+    }
+
+}
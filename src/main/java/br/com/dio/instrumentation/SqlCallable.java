@@ -0,0 +1,10 @@
+package br.com.dio.instrumentation;
+
+import java.sql.SQLException;
+
+@FunctionalInterface
+public interface SqlCallable<T> {
+
+    T call() throws SQLException;
+
+}
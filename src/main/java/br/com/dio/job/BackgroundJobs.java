@@ -0,0 +1,55 @@
+package br.com.dio.job;
+
+import lombok.NoArgsConstructor;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static java.lang.System.Logger.Level.WARNING;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Runs periodic tasks on their own named daemon thread. A scheduled executor silently cancels a task that throws, so
+ * every run is guarded: a {@link RuntimeException} is logged and the task runs again at its next turn.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class BackgroundJobs {
+
+    private static final System.Logger LOGGER = System.getLogger(BackgroundJobs.class.getName());
+
+    /**
+     * Runs {@code task} after {@code initialDelay}, then {@code delay} after the end of each run.
+     */
+    public static void schedule(final String name, final Runnable task, final long initialDelay, final long delay,
+                                final TimeUnit unit){
+        executor(name).scheduleWithFixedDelay(guarded(name, task), initialDelay, delay, unit);
+    }
+
+    /**
+     * Runs {@code task} after {@code initialDelay}, then every {@code period} from its first start.
+     */
+    public static void scheduleAtFixedRate(final String name, final Runnable task, final long initialDelay,
+                                           final long period, final TimeUnit unit){
+        executor(name).scheduleAtFixedRate(guarded(name, task), initialDelay, period, unit);
+    }
+
+    private static ScheduledExecutorService executor(final String name){
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            var thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static Runnable guarded(final String name, final Runnable task){
+        return () -> {
+            try {
+                task.run();
+            } catch (RuntimeException ex){
+                LOGGER.log(WARNING, "Background job " + name + " failed", ex);
+            }
+        };
+    }
+
+}
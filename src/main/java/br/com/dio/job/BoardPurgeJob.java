@@ -0,0 +1,53 @@
+package br.com.dio.job;
+
+import br.com.dio.service.BoardPurgeService;
+
+import java.sql.SQLException;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ShardMap.size;
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Removes the rows of boards marked as deleted, {@code board.purge.batchSize} cards per transaction with
+ * {@code board.purge.pauseMillis} between batches. Pending boards are looked up every
+ * {@code board.purge.intervalSeconds}; progress lives in the database, so a restart simply carries on.
+ */
+public class BoardPurgeJob implements Runnable {
+
+    private static final System.Logger LOGGER = System.getLogger(BoardPurgeJob.class.getName());
+
+    private final int batchSize = Integer.getInteger("board.purge.batchSize", 1000);
+    private final long pauseMillis = Long.getLong("board.purge.pauseMillis", 50);
+
+    public static void start(){
+        if (!Boolean.parseBoolean(System.getProperty("board.purge.enabled", "true"))){
+            return;
+        }
+        var interval = Long.getLong("board.purge.intervalSeconds", 10);
+        BackgroundJobs.schedule("board-purger", new BoardPurgeJob(), 0, interval, SECONDS);
+    }
+
+    @Override
+    public void run() {
+        for (var shard = 0; shard < size(); shard++){
+            try(var connection = getConnection(shard)){
+                var service = new BoardPurgeService(connection);
+                for (var boardId : service.findPending()){
+                    while (!service.purgeBatch(boardId, batchSize)){
+                        Thread.sleep(pauseMillis);
+                    }
+                    LOGGER.log(INFO, "Board {0} purged", boardId);
+                }
+            } catch (SQLException ex){
+                LOGGER.log(WARNING, "Board purge failed on shard {0}: {1}", shard, ex.getMessage());
+            } catch (InterruptedException ex){
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,65 @@
+package br.com.dio.job;
+
+import br.com.dio.service.CardArchiveService;
+
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ShardMap.size;
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.time.ZoneOffset.UTC;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * Background archival of cards that sit in FINAL or CANCEL columns for longer than {@code board.archive.ageDays}.
+ * Every {@code board.archive.intervalMinutes} each shard is drained in transactions of
+ * {@code board.archive.batchSize} cards, pausing {@code board.archive.pauseMillis} between them.
+ */
+public class CardArchiveJob implements Runnable {
+
+    private static final System.Logger LOGGER = System.getLogger(CardArchiveJob.class.getName());
+
+    private final Duration age = Duration.ofDays(Long.getLong("board.archive.ageDays", 30));
+    private final int batchSize = Integer.getInteger("board.archive.batchSize", 500);
+    private final long pauseMillis = Long.getLong("board.archive.pauseMillis", 100);
+
+    public static void start(){
+        if (!Boolean.getBoolean("board.archive.enabled")){
+            return;
+        }
+        var interval = Long.getLong("board.archive.intervalMinutes", 60);
+        BackgroundJobs.schedule("card-archiver", new CardArchiveJob(), 1, interval, MINUTES);
+    }
+
+    @Override
+    public void run() {
+        var cutoff = OffsetDateTime.now(UTC).minus(age);
+        for (var shard = 0; shard < size(); shard++){
+            try(var connection = getConnection(shard)){
+                var service = new CardArchiveService(connection);
+                service.preparePartitions();
+                var archived = 0L;
+                int batch;
+                do {
+                    batch = service.archiveBatch(cutoff, batchSize);
+                    archived += batch;
+                    if (batch == batchSize){
+                        Thread.sleep(pauseMillis);
+                    }
+                } while (batch == batchSize);
+                if (archived > 0){
+                    LOGGER.log(INFO, "Archived {0} cards on shard {1}", archived, shard);
+                }
+            } catch (SQLException ex){
+                LOGGER.log(WARNING, "Card archival failed on shard {0}: {1}", shard, ex.getMessage());
+            } catch (InterruptedException ex){
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,142 @@
+package br.com.dio.job;
+
+import br.com.dio.event.ChangeFeed;
+import br.com.dio.event.EventBus;
+import br.com.dio.persistence.dao.ChangeFeedDAO;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+
+import static br.com.dio.event.BoardEventType.RESYNC;
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ShardMap.size;
+import static java.lang.System.Logger.Level.DEBUG;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.time.ZoneOffset.UTC;
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Polls {@code CHANGE_FEED} of every shard every {@code board.changeFeed.pollMillis} and republishes the changes
+ * written by other instances on the local {@link EventBus}.
+ * <p>
+ * Feed ids on a shard grow by the shard count, but a transaction can commit after one that took a later id. A
+ * missing id therefore holds the tailer back for up to {@code board.changeFeed.gapTimeoutMillis} before it is
+ * treated as rolled back and skipped. Entries older than {@code board.changeFeed.retentionMinutes} are compacted;
+ * a tailer that falls behind the compaction publishes {@link br.com.dio.event.BoardEventType#RESYNC} so
+ * subscribers drop everything they cached.
+ */
+public class ChangeFeedTailer implements Runnable {
+
+    private static final System.Logger LOGGER = System.getLogger(ChangeFeedTailer.class.getName());
+
+    private final int batchSize = Integer.getInteger("board.changeFeed.batchSize", 500);
+    private final long gapTimeoutNanos = MILLISECONDS.toNanos(Long.getLong("board.changeFeed.gapTimeoutMillis", 5000));
+    private final Duration retention = Duration.ofMinutes(Long.getLong("board.changeFeed.retentionMinutes", 60));
+    private final long compactEveryNanos = MILLISECONDS.toNanos(Long.getLong("board.changeFeed.compactMillis", 60_000));
+
+    private final Connection[] connections = new Connection[size()];
+    private final boolean[] positioned = new boolean[size()];
+    private final long[] lastIds = new long[size()];
+    private final long[] gapSince = new long[size()];
+    private long lastCompaction = System.nanoTime();
+
+    public static void start(){
+        if (!ChangeFeed.isEnabled()){
+            return;
+        }
+        var interval = Long.getLong("board.changeFeed.pollMillis", 200);
+        BackgroundJobs.schedule("change-feed-tailer", new ChangeFeedTailer(), 0, interval, MILLISECONDS);
+    }
+
+    @Override
+    public void run() {
+        var compact = System.nanoTime() - lastCompaction >= compactEveryNanos;
+        for (var shard = 0; shard < size(); shard++){
+            try {
+                var connection = connection(shard);
+                poll(shard, connection);
+                if (compact){
+                    compact(connection);
+                }
+            } catch (SQLException ex){
+                LOGGER.log(WARNING, "Change feed poll failed on shard {0}: {1}", shard, ex.getMessage());
+                close(shard);
+            } catch (RuntimeException ex){
+                // a failing subscriber must not stop the other shards, nor the next polls
+                LOGGER.log(WARNING, "Change feed poll failed on shard " + shard, ex);
+            }
+        }
+        if (compact){
+            lastCompaction = System.nanoTime();
+        }
+    }
+
+    private void poll(final int shard, final Connection connection) throws SQLException {
+        var dao = new ChangeFeedDAO(connection);
+        var firstId = dao.findFirstId();
+        if (nonNull(firstId) && firstId > lastIds[shard] + size()){
+            LOGGER.log(WARNING, "Change feed of shard {0} was compacted past entry {1}", shard, lastIds[shard]);
+            EventBus.get().publish(RESYNC, null, null, null);
+            lastIds[shard] = firstId - size();
+        }
+        var entries = dao.findAfter(lastIds[shard], batchSize);
+        connection.commit();
+        for (var entry : entries){
+            if (entry.id() > lastIds[shard] + size()){
+                if (gapSince[shard] == 0){
+                    gapSince[shard] = System.nanoTime();
+                }
+                if (System.nanoTime() - gapSince[shard] < gapTimeoutNanos){
+                    return;
+                }
+            }
+            gapSince[shard] = 0;
+            lastIds[shard] = entry.id();
+            if (isNull(entry.type())){
+                LOGGER.log(DEBUG, "Skipping change feed entry {0} of an unknown type", entry.id());
+            } else if (!entry.origin().equals(ChangeFeed.INSTANCE_ID)){
+                EventBus.get().publish(entry.type(), entry.boardId(), entry.columnId(), entry.cardId());
+            }
+        }
+    }
+
+    private void compact(final Connection connection) throws SQLException {
+        var dao = new ChangeFeedDAO(connection);
+        var cutoff = OffsetDateTime.now(UTC).minus(retention);
+        int deleted;
+        do {
+            deleted = dao.deleteBefore(cutoff, batchSize);
+            connection.commit();
+        } while (deleted == batchSize);
+    }
+
+    private Connection connection(final int shard) throws SQLException {
+        if (isNull(connections[shard])){
+            var connection = getConnection(shard);
+            if (!positioned[shard]){
+                lastIds[shard] = new ChangeFeedDAO(connection).findLastId();
+                connection.commit();
+                positioned[shard] = true;
+            }
+            connections[shard] = connection;
+        }
+        return connections[shard];
+    }
+
+    private void close(final int shard){
+        var connection = connections[shard];
+        connections[shard] = null;
+        if (nonNull(connection)){
+            try {
+                connection.close();
+            } catch (SQLException ignored){
+                // the connection is discarded anyway
+            }
+        }
+    }
+
+}
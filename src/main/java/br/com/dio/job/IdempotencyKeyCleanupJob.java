@@ -0,0 +1,62 @@
+package br.com.dio.job;
+
+import br.com.dio.idempotency.IdempotencyKeys;
+import br.com.dio.persistence.dao.IdempotencyKeyDAO;
+
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ShardMap.size;
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.time.ZoneOffset.UTC;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * Removes idempotency keys older than {@link IdempotencyKeys#TTL} ({@code board.idempotency.ttlHours}) every
+ * {@code board.idempotency.intervalMinutes}, in transactions of {@code board.idempotency.batchSize} keys with a
+ * {@code board.idempotency.pauseMillis} pause between them. Cached outcomes expire at the same age, so a command
+ * retried after that runs again.
+ */
+public class IdempotencyKeyCleanupJob implements Runnable {
+
+    private static final System.Logger LOGGER = System.getLogger(IdempotencyKeyCleanupJob.class.getName());
+
+    private final int batchSize = Integer.getInteger("board.idempotency.batchSize", 1000);
+    private final long pauseMillis = Long.getLong("board.idempotency.pauseMillis", 50);
+
+    public static void start(){
+        var interval = Long.getLong("board.idempotency.intervalMinutes", 10);
+        BackgroundJobs.schedule("idempotency-key-cleanup", new IdempotencyKeyCleanupJob(), 1, interval, MINUTES);
+    }
+
+    @Override
+    public void run() {
+        var cutoff = OffsetDateTime.now(UTC).minus(IdempotencyKeys.TTL);
+        for (var shard = 0; shard < size(); shard++){
+            try(var connection = getConnection(shard)){
+                var dao = new IdempotencyKeyDAO(connection);
+                var deleted = 0L;
+                int batch;
+                do {
+                    batch = dao.deleteBefore(cutoff, batchSize);
+                    connection.commit();
+                    deleted += batch;
+                    if (batch == batchSize){
+                        Thread.sleep(pauseMillis);
+                    }
+                } while (batch == batchSize);
+                if (deleted > 0){
+                    LOGGER.log(INFO, "Removed {0} expired idempotency keys on shard {1}", deleted, shard);
+                }
+            } catch (SQLException ex){
+                LOGGER.log(WARNING, "Idempotency key cleanup failed on shard {0}: {1}", shard, ex.getMessage());
+            } catch (InterruptedException ex){
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+}
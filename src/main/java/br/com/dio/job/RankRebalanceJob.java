@@ -0,0 +1,57 @@
+package br.com.dio.job;
+
+import br.com.dio.persistence.dao.RankDAO.Ranked;
+import br.com.dio.service.RankService;
+
+import java.sql.SQLException;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ShardMap.size;
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.concurrent.TimeUnit.MINUTES;
+
+/**
+ * Renumbers the cards of a column, or the columns of a board, once one of their ranks grows longer than
+ * {@code board.rank.maxLength} after many moves into the same gap. Every {@code board.rank.intervalMinutes} each shard
+ * is searched for up to {@code board.rank.batchSize} such lists, each renumbered in its own transaction with
+ * {@code board.rank.pauseMillis} between them.
+ */
+public class RankRebalanceJob implements Runnable {
+
+    private static final System.Logger LOGGER = System.getLogger(RankRebalanceJob.class.getName());
+
+    private final int maxLength = Integer.getInteger("board.rank.maxLength", 32);
+    private final int batchSize = Integer.getInteger("board.rank.batchSize", 100);
+    private final long pauseMillis = Long.getLong("board.rank.pauseMillis", 50);
+
+    public static void start(){
+        if (!Boolean.parseBoolean(System.getProperty("board.rank.rebalance", "true"))){
+            return;
+        }
+        var interval = Long.getLong("board.rank.intervalMinutes", 10);
+        BackgroundJobs.schedule("rank-rebalancer", new RankRebalanceJob(), interval, interval, MINUTES);
+    }
+
+    @Override
+    public void run() {
+        for (var shard = 0; shard < size(); shard++){
+            try(var connection = getConnection(shard)){
+                var service = new RankService(connection);
+                for (var ranked : Ranked.values()){
+                    for (var parentId : service.findOverlong(ranked, maxLength, batchSize)){
+                        var rows = service.rebalance(ranked, parentId);
+                        LOGGER.log(INFO, "Renumbered {0} {1} under {2}", rows, ranked, parentId);
+                        Thread.sleep(pauseMillis);
+                    }
+                }
+            } catch (SQLException ex){
+                LOGGER.log(WARNING, "Rank rebalancing failed on shard {0}: {1}", shard, ex.getMessage());
+            } catch (InterruptedException ex){
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+}
@@ -0,0 +1,52 @@
+package br.com.dio.job;
+
+import br.com.dio.report.SlaReportEngine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.concurrent.TimeUnit.DAYS;
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+
+/**
+ * Writes the overdue and SLA report of every board into {@code board.report.dir} once a day, at
+ * {@code board.report.hour} local time.
+ */
+public class SlaReportJob implements Runnable {
+
+    private static final System.Logger LOGGER = System.getLogger(SlaReportJob.class.getName());
+
+    private final Path dir = Path.of(System.getProperty("board.report.dir", "reports"));
+
+    public static void start(){
+        if (!Boolean.getBoolean("board.report.enabled")){
+            return;
+        }
+        var now = LocalDateTime.now();
+        var next = now.toLocalDate().atTime(Integer.getInteger("board.report.hour", 2), 0);
+        if (!next.isAfter(now)){
+            next = next.plusDays(1);
+        }
+        BackgroundJobs.scheduleAtFixedRate("sla-reporter", new SlaReportJob(), Duration.between(now, next).toMillis(),
+                DAYS.toMillis(1), MILLISECONDS);
+    }
+
+    @Override
+    public void run() {
+        try {
+            var summary = new SlaReportEngine().run(dir);
+            LOGGER.log(INFO, "SLA report {0}: {1} boards, {2} cards, {3} blocked",
+                    summary.file(), summary.boards(), summary.cards(), summary.blocked());
+        } catch (SQLException | IOException ex){
+            LOGGER.log(WARNING, "SLA report failed: {0}", ex.getMessage());
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
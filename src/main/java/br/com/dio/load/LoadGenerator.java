@@ -0,0 +1,346 @@
+package br.com.dio.load;
+
+import br.com.dio.config.ServiceContainer;
+import br.com.dio.exception.CardBlockedException;
+import br.com.dio.exception.CardFinishedException;
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.exception.TransitionNotAllowedException;
+import br.com.dio.instrumentation.Instrumentation;
+import br.com.dio.instrumentation.LatencyHistogram;
+import br.com.dio.persistence.config.ConnectionConfig;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.entity.CardPriorityEnum;
+
+import java.io.PrintStream;
+import java.sql.SQLException;
+import java.sql.SQLTransactionRollbackException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ShardMap.shardOf;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.PENDING;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Soak test of the card lifecycle, started with {@code --load [--users n] [--boards n] [--seconds n]
+ * [--warmup-seconds n] [--think-millis n] [--mix create=30,move=40,block=10,unblock=10,cancel=10]}.
+ * <p>
+ * Creates {@code boards} boards through {@code BoardService.insert}, then {@code users} threads, each with one
+ * connection per shard, pick a board and a command at random by the weights of the mix and wait a random think
+ * time of up to twice {@code think-millis} between commands. Several users share a board when there are fewer
+ * boards than users, so commands collide as they would in production. Statistics are reset after the warm up, and
+ * the report gives the throughput, latency percentiles, error and conflict rates of every command, and the database
+ * round trips per call recorded by the statement tracing of the service operation.
+ * <p>
+ * Conflicts are the expected refusals of a concurrent workload (a blocked card, a finished card, a disallowed
+ * move, a deadlock victim); everything else is an error.
+ */
+public class LoadGenerator {
+
+    enum Command {
+        CREATE("CardService.create"),
+        MOVE("CardService.moveToNextColumn"),
+        BLOCK("CardService.block"),
+        UNBLOCK("CardService.unblock"),
+        CANCEL("CardService.cancel");
+
+        private final String operation;
+
+        Command(final String operation) {
+            this.operation = operation;
+        }
+    }
+
+    private static class CommandStats {
+
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder conflicts = new LongAdder();
+
+        private void reset(){
+            latency.reset();
+            calls.reset();
+            errors.reset();
+            conflicts.reset();
+        }
+
+    }
+
+    /**
+     * Cards of one board that were not cancelled or finished yet, shared by the users working on the board.
+     */
+    private record BoardLoad(BoardEntity board, List<Long> openCards) {
+
+        private Long pick(){
+            synchronized (openCards){
+                return openCards.isEmpty() ? null : openCards.get(ThreadLocalRandom.current().nextInt(openCards.size()));
+            }
+        }
+
+        private void add(final Long cardId){
+            synchronized (openCards){
+                openCards.add(cardId);
+            }
+        }
+
+        private void remove(final Long cardId){
+            synchronized (openCards){
+                openCards.remove(cardId);
+            }
+        }
+
+    }
+
+    private final PrintStream out;
+    private final int users;
+    private final int boardsAmount;
+    private final long seconds;
+    private final long warmupSeconds;
+    private final long thinkMillis;
+    private final Map<Command, Integer> mix;
+    private final int totalWeight;
+    private final Map<Command, CommandStats> stats = new EnumMap<>(Command.class);
+    private final List<BoardLoad> boards = new ArrayList<>();
+    private volatile boolean running = true;
+
+    public LoadGenerator(final PrintStream out, final int users, final int boards, final long seconds,
+                         final long warmupSeconds, final long thinkMillis, final Map<Command, Integer> mix) {
+        this.out = out;
+        this.users = Math.max(users, 1);
+        this.boardsAmount = Math.max(boards, 1);
+        this.seconds = seconds;
+        this.warmupSeconds = warmupSeconds;
+        this.thinkMillis = thinkMillis;
+        this.mix = mix;
+        this.totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        if (totalWeight <= 0){
+            throw new IllegalArgumentException("The command mix needs at least one positive weight");
+        }
+        for (var command : Command.values()){
+            stats.put(command, new CommandStats());
+        }
+    }
+
+    public static LoadGenerator fromArgs(final String[] args){
+        var users = 10;
+        var boards = 0;
+        var seconds = 60L;
+        var warmupSeconds = 10L;
+        var thinkMillis = 50L;
+        var mix = parseMix("create=30,move=40,block=10,unblock=10,cancel=10");
+        for (var i = 0; i < args.length; i++){
+            switch (args[i]) {
+                case "--load" -> {
+                }
+                case "--users" -> users = Integer.parseInt(args[++i]);
+                case "--boards" -> boards = Integer.parseInt(args[++i]);
+                case "--seconds" -> seconds = Long.parseLong(args[++i]);
+                case "--warmup-seconds" -> warmupSeconds = Long.parseLong(args[++i]);
+                case "--think-millis" -> thinkMillis = Long.parseLong(args[++i]);
+                case "--mix" -> mix = parseMix(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown argument %s".formatted(args[i]));
+            }
+        }
+        return new LoadGenerator(System.out, users, boards > 0 ? boards : users, seconds, warmupSeconds, thinkMillis, mix);
+    }
+
+    public void execute() throws SQLException, InterruptedException {
+        createBoards();
+        var finished = new CountDownLatch(users);
+        for (var i = 0; i < users; i++){
+            var thread = new Thread(() -> {
+                try {
+                    simulateUser();
+                } finally {
+                    finished.countDown();
+                }
+            }, "load-user-" + i);
+            thread.setDaemon(true);
+            thread.start();
+        }
+        SECONDS.sleep(warmupSeconds);
+        stats.values().forEach(CommandStats::reset);
+        Instrumentation.reset();
+        var start = System.nanoTime();
+        SECONDS.sleep(seconds);
+        running = false;
+        finished.await();
+        report(System.nanoTime() - start);
+    }
+
+    private void createBoards() throws SQLException {
+        for (var i = 0; i < boardsAmount; i++){
+            var board = new BoardEntity();
+            board.setName("Load test %s-%s".formatted(System.currentTimeMillis(), i));
+            List<BoardColumnEntity> columns = new ArrayList<>();
+            var names = List.of("To do", "Doing", "Review", "Done", "Cancelled");
+            var kinds = List.of(INITIAL, PENDING, PENDING, FINAL, CANCEL);
+            for (var order = 0; order < names.size(); order++){
+                columns.add(column(names.get(order), kinds.get(order), order));
+            }
+            board.setBoardColumns(columns);
+            try(var container = ServiceContainer.forNewBoard()){
+                container.getBoardService().insert(board);
+            }
+            boards.add(new BoardLoad(board, new ArrayList<>()));
+        }
+    }
+
+    private void simulateUser(){
+        Map<Integer, ServiceContainer> containers = new HashMap<>();
+        var random = ThreadLocalRandom.current();
+        try {
+            while (running){
+                var load = boards.get(random.nextInt(boards.size()));
+                var command = pickCommand(random.nextInt(totalWeight));
+                var container = containers.get(shardOf(load.board().getId()));
+                if (container == null){
+                    container = new ServiceContainer(getConnection(shardOf(load.board().getId())));
+                    containers.put(shardOf(load.board().getId()), container);
+                }
+                run(container, load, command);
+                if (thinkMillis > 0){
+                    Thread.sleep(random.nextLong(thinkMillis * 2 + 1));
+                }
+            }
+        } catch (SQLException ex){
+            out.printf("User %s stopped, could not connect: %s%n", Thread.currentThread().getName(), ex.getMessage());
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+        } finally {
+            for (var container : containers.values()){
+                try {
+                    container.close();
+                } catch (SQLException ignored){
+                    // the run is over, nothing else uses the connection
+                }
+            }
+        }
+    }
+
+    private void run(final ServiceContainer container, final BoardLoad load, final Command command){
+        var board = load.board();
+        var cardId = command == Command.CREATE ? null : load.pick();
+        if (command != Command.CREATE && cardId == null){
+            return;
+        }
+        var commandStats = stats.get(command);
+        var start = System.nanoTime();
+        try {
+            var service = container.getCardService();
+            switch (command) {
+                case CREATE -> {
+                    var card = new CardEntity();
+                    card.setTitle("Load card");
+                    card.setDescription("Created by the load generator");
+                    card.setPriority(CardPriorityEnum.values()[ThreadLocalRandom.current().nextInt(CardPriorityEnum.values().length)]);
+                    card.setBoardColumn(board.getInitialColumn());
+                    service.create(card);
+                    load.add(card.getId());
+                }
+                case MOVE -> service.moveToNextColumn(board.getId(), cardId);
+                case BLOCK -> service.block(board.getId(), cardId, "Blocked by the load generator");
+                case UNBLOCK -> service.unblock(cardId, "Unblocked by the load generator");
+                case CANCEL -> {
+                    service.cancel(board.getId(), cardId);
+                    load.remove(cardId);
+                }
+            }
+        } catch (CardFinishedException ex){
+            load.remove(cardId);
+            commandStats.conflicts.increment();
+        } catch (CardBlockedException | TransitionNotAllowedException | EntityNotFoundException |
+                 IllegalStateException | SQLTransactionRollbackException ex){
+            commandStats.conflicts.increment();
+        } catch (SQLException | RuntimeException ex){
+            commandStats.errors.increment();
+        } finally {
+            commandStats.calls.increment();
+            commandStats.latency.record(System.nanoTime() - start);
+        }
+    }
+
+    private Command pickCommand(final int draw){
+        var remaining = draw;
+        for (var entry : mix.entrySet()){
+            remaining -= entry.getValue();
+            if (remaining < 0){
+                return entry.getKey();
+            }
+        }
+        return Command.CREATE;
+    }
+
+    private void report(final long elapsedNanos){
+        var elapsedSeconds = Math.max(elapsedNanos, 1) / 1_000_000_000.0;
+        Map<String, Double> roundTrips = new HashMap<>();
+        // statements are only counted by traced connections, without them the column reads n/a
+        if (ConnectionConfig.isStatementTracing()){
+            Instrumentation.snapshot().forEach(s -> {
+                if (s.getCalls() > 0){
+                    roundTrips.put(s.getName(), (double) s.getStatements() / s.getCalls());
+                }
+            });
+        }
+        out.printf("%d users on %d boards for %.1f s%n", users, boardsAmount, elapsedSeconds);
+        out.printf("%-8s %10s %10s %10s %10s %10s %8s %9s %11s%n",
+                "command", "calls", "per sec", "p50 ms", "p99 ms", "max ms", "errors", "conflicts", "round trips");
+        var total = 0L;
+        for (var command : Command.values()){
+            var commandStats = stats.get(command);
+            var calls = commandStats.calls.sum();
+            total += calls;
+            var operationRoundTrips = roundTrips.get(command.operation);
+            out.printf("%-8s %10d %10.1f %10.2f %10.2f %10.2f %7.2f%% %8.2f%% %11s%n",
+                    command.name().toLowerCase(), calls, calls / elapsedSeconds,
+                    millis(commandStats.latency.percentile(50)), millis(commandStats.latency.percentile(99)),
+                    millis(commandStats.latency.max()), rate(commandStats.errors.sum(), calls),
+                    rate(commandStats.conflicts.sum(), calls),
+                    operationRoundTrips == null ? "n/a" : "%.1f".formatted(operationRoundTrips));
+        }
+        out.printf("total %d commands, %.1f per second%n", total, total / elapsedSeconds);
+    }
+
+    private static BoardColumnEntity column(final String name, final BoardColumnKindEnum kind, final int order){
+        var column = new BoardColumnEntity();
+        column.setName(name);
+        column.setKind(kind);
+        column.setOrder(order);
+        return column;
+    }
+
+    private static Map<Command, Integer> parseMix(final String value){
+        Map<Command, Integer> mix = new EnumMap<>(Command.class);
+        for (var part : value.split(",")){
+            var weight = part.split("=", 2);
+            if (weight.length != 2){
+                throw new IllegalArgumentException("Mix entries are written as <command>=<weight>, got %s".formatted(part));
+            }
+            mix.put(Command.valueOf(weight[0].trim().toUpperCase()), Integer.parseInt(weight[1].trim()));
+        }
+        return mix;
+    }
+
+    private static double millis(final long nanos){
+        return nanos / 1_000_000.0;
+    }
+
+    private static double rate(final long count, final long calls){
+        return calls == 0 ? 0 : count * 100.0 / calls;
+    }
+
+}
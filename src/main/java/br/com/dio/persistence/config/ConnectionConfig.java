@@ -11,13 +11,27 @@ import static lombok.AccessLevel.PRIVATE;
 @NoArgsConstructor(access = PRIVATE)
 public final class ConnectionConfig {
 
+    private static final boolean STATEMENT_TRACING = Boolean.getBoolean("board.statementTracing");
+
     public static Connection getConnection() throws SQLException {
-        var url = "jdbc:mysql://localhost/board";
-        var user = "board";
-        var password = "board";
-        var connection = DriverManager.getConnection(url, user, password);
+        return getConnection(0);
+    }
+
+    public static Connection getConnection(final int shard) throws SQLException {
+        var url = ShardMap.urlOf(shard);
+        var properties = ShardMap.connectionProperties(shard);
+        properties.setProperty("user", "board");
+        properties.setProperty("password", "board");
+        var connection = DriverManager.getConnection(url, properties);
         connection.setAutoCommit(false);
-        return connection;
+        return STATEMENT_TRACING ? TracingJdbc.wrap(connection) : connection;
+    }
+
+    /**
+     * Whether connections count their statements, rows and bytes, see {@link TracingJdbc}.
+     */
+    public static boolean isStatementTracing(){
+        return STATEMENT_TRACING;
     }
 
 }
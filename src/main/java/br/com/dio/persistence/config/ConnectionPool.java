@@ -0,0 +1,103 @@
+package br.com.dio.persistence.config;
+
+import lombok.NoArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTimeoutException;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Up to {@code board.pool.size} reusable connections per shard for short reads running concurrently. A lease is
+ * rolled back when returned, so the next borrower starts a fresh transaction; connections idle for longer than
+ * {@code board.pool.validateAfterSeconds} are checked before reuse, and closed ones are simply dropped.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class ConnectionPool {
+
+    private static final int SIZE = Integer.getInteger("board.pool.size", 8);
+    private static final long VALIDATE_AFTER_NANOS =
+            SECONDS.toNanos(Long.getLong("board.pool.validateAfterSeconds", 30));
+
+    private static final ShardPool[] POOLS = new ShardPool[ShardMap.size()];
+
+    static {
+        for (var shard = 0; shard < POOLS.length; shard++){
+            POOLS[shard] = new ShardPool(new Semaphore(SIZE, true), new ConcurrentLinkedDeque<>());
+        }
+    }
+
+    private record ShardPool(Semaphore permits, ConcurrentLinkedDeque<IdleConnection> idle) {
+    }
+
+    private record IdleConnection(Connection connection, long since) {
+    }
+
+    /**
+     * A borrowed connection, {@link #close()} gives it back.
+     */
+    public record Lease(int shard, Connection connection) implements AutoCloseable {
+
+        @Override
+        public void close() {
+            release(shard, connection);
+        }
+
+    }
+
+    /**
+     * Waits until {@code deadline}, a {@link System#nanoTime()} value, for a connection of the shard.
+     */
+    public static Lease borrow(final int shard, final long deadline) throws SQLException {
+        var pool = POOLS[shard];
+        try {
+            if (!pool.permits().tryAcquire(deadline - System.nanoTime(), NANOSECONDS)){
+                throw new SQLTimeoutException("No connection of shard %s became free in time".formatted(shard));
+            }
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection", ex);
+        }
+        try {
+            for (var idle = pool.idle().pollFirst(); idle != null; idle = pool.idle().pollFirst()){
+                if (System.nanoTime() - idle.since() < VALIDATE_AFTER_NANOS || idle.connection().isValid(1)){
+                    return new Lease(shard, idle.connection());
+                }
+                closeQuietly(idle.connection());
+            }
+            return new Lease(shard, getConnection(shard));
+        } catch (SQLException | RuntimeException ex){
+            pool.permits().release();
+            throw ex;
+        }
+    }
+
+    private static void release(final int shard, final Connection connection){
+        var pool = POOLS[shard];
+        try {
+            if (!connection.isClosed()){
+                connection.rollback();
+                pool.idle().offerFirst(new IdleConnection(connection, System.nanoTime()));
+            }
+        } catch (SQLException ex){
+            closeQuietly(connection);
+        } finally {
+            pool.permits().release();
+        }
+    }
+
+    private static void closeQuietly(final Connection connection){
+        try {
+            connection.close();
+        } catch (SQLException ignored){
+            // the connection is dropped either way
+        }
+    }
+
+}
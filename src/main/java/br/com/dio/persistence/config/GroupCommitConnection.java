@@ -0,0 +1,87 @@
+package br.com.dio.persistence.config;
+
+import lombok.Getter;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hands out a connection whose {@code commit()} and {@code close()} are deferred, so several service calls that
+ * commit on their own can be grouped in one transaction closed by {@link #commitGroup()}. A rollback requested by
+ * any of them rolls back the whole group, which callers detect with {@link #takeRolledBack()}. Actions registered
+ * through {@link TransactionCallbacks} run after {@link #commitGroup()}, or after the rollback for those registered
+ * with {@code afterRollback}.
+ */
+public class GroupCommitConnection implements AutoCloseable {
+
+    private final Connection target;
+    @Getter
+    private final Connection connection;
+    private final List<Runnable> afterCommit = new ArrayList<>();
+    private final List<Runnable> afterRollback = new ArrayList<>();
+    private boolean rolledBack;
+
+    public GroupCommitConnection(final Connection target) {
+        this.target = target;
+        this.connection = (Connection) Proxy.newProxyInstance(
+                TransactionCallbacks.class.getClassLoader(),
+                new Class<?>[]{Connection.class, TransactionCallbacks.class},
+                (proxy, method, args) -> {
+                    var name = method.getName();
+                    if (method.getDeclaringClass() == TransactionCallbacks.class){
+                        (name.equals("afterCommit") ? afterCommit : afterRollback).add((Runnable) args[0]);
+                        return null;
+                    }
+                    if ((name.equals("commit") || name.equals("close")) && method.getParameterCount() == 0){
+                        return null;
+                    }
+                    try {
+                        return method.invoke(target, args);
+                    } catch (InvocationTargetException ex){
+                        throw ex.getCause();
+                    } finally {
+                        if (name.equals("rollback") && method.getParameterCount() == 0){
+                            rolledBack = true;
+                            ended(afterRollback);
+                        }
+                    }
+                });
+    }
+
+    public void commitGroup() throws SQLException {
+        target.commit();
+        rolledBack = false;
+        ended(afterCommit);
+    }
+
+    public boolean takeRolledBack(){
+        var result = rolledBack;
+        rolledBack = false;
+        return result;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        try {
+            target.rollback();
+            target.close();
+        } finally {
+            ended(afterRollback);
+        }
+    }
+
+    /**
+     * Runs the actions of the outcome the transaction had and forgets those of the other one.
+     */
+    private void ended(final List<Runnable> actions){
+        var run = List.copyOf(actions);
+        afterCommit.clear();
+        afterRollback.clear();
+        run.forEach(Runnable::run);
+    }
+
+}
@@ -0,0 +1,54 @@
+package br.com.dio.persistence.config;
+
+import lombok.NoArgsConstructor;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Runs the same query on every shard in parallel, each one on its own connection, and concatenates the results
+ * in shard order.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class ShardFanOut {
+
+    public static <T> List<T> query(final ShardQuery<T> query) throws SQLException {
+        if (ShardMap.size() == 1){
+            try(var connection = getConnection(0)){
+                return query.execute(connection);
+            }
+        }
+        try(var executor = Executors.newVirtualThreadPerTaskExecutor()){
+            List<Future<List<T>>> futures = new ArrayList<>();
+            for (var shard = 0; shard < ShardMap.size(); shard++){
+                var current = shard;
+                futures.add(executor.submit(() -> {
+                    try(var connection = getConnection(current)){
+                        return query.execute(connection);
+                    }
+                }));
+            }
+            List<T> results = new ArrayList<>();
+            for (var future : futures){
+                results.addAll(future.get());
+            }
+            return results;
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while querying shards", ex);
+        } catch (ExecutionException ex){
+            if (ex.getCause() instanceof SQLException sqlException){
+                throw sqlException;
+            }
+            throw new IllegalStateException(ex.getCause());
+        }
+    }
+
+}
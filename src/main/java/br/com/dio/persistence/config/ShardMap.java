@@ -0,0 +1,67 @@
+package br.com.dio.persistence.config;
+
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static java.util.Objects.isNull;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Maps boards to the databases (shards) that hold them.
+ * <p>
+ * Shards are configured through the {@code board.shards} system property as a comma separated list of JDBC urls.
+ * Every shard allocates ids with {@code auto_increment_increment = N} and {@code auto_increment_offset = shard + 1},
+ * so any board, column, card or block id carries its shard: {@code (id - 1) % N}. Columns and cards are always
+ * stored on the shard of their board.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class ShardMap {
+
+    private static final String DEFAULT_URL = "jdbc:mysql://localhost/board";
+
+    private static final List<String> URLS = Stream.of(System.getProperty("board.shards", DEFAULT_URL).split(","))
+            .map(String::trim)
+            .filter(url -> !url.isEmpty())
+            .toList();
+
+    private static final AtomicInteger NEXT_SHARD = new AtomicInteger();
+
+    public static int size(){
+        return URLS.size();
+    }
+
+    public static String urlOf(final int shard){
+        return URLS.get(shard);
+    }
+
+    public static int shardOf(final Long id){
+        if (isNull(id)){
+            throw new IllegalArgumentException("Invalid ID provided");
+        }
+        return (int) Math.floorMod(id - 1, (long) size());
+    }
+
+    public static int nextShardForNewBoard(){
+        return Math.floorMod(NEXT_SHARD.getAndIncrement(), size());
+    }
+
+    /**
+     * Driver properties of the connections to a shard. The id allocation is set through {@code sessionVariables}
+     * rather than a later {@code SET}, so the driver knows the stride when it derives the generated keys of a
+     * batch, which {@code rewriteBatchedStatements} sends as a single multi-row INSERT.
+     */
+    static Properties connectionProperties(final int shard){
+        var properties = new Properties();
+        properties.setProperty("rewriteBatchedStatements", "true");
+        if (size() > 1){
+            properties.setProperty("sessionVariables",
+                    "auto_increment_increment=%s,auto_increment_offset=%s".formatted(size(), shard + 1));
+        }
+        return properties;
+    }
+
+}
@@ -0,0 +1,12 @@
+package br.com.dio.persistence.config;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+@FunctionalInterface
+public interface ShardQuery<T> {
+
+    List<T> execute(final Connection connection) throws SQLException;
+
+}
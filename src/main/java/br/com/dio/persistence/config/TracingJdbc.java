@@ -0,0 +1,127 @@
+package br.com.dio.persistence.config;
+
+import br.com.dio.instrumentation.OperationTrace;
+import lombok.NoArgsConstructor;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.Set;
+
+import static java.util.Objects.isNull;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Dynamic proxies over {@link Connection}, statements and result sets that report every round trip, row and
+ * byte read to the {@link OperationTrace} of the current thread, as well as commits and rollbacks, which also emit a
+ * {@link TransactionEvent}. Strings count their UTF-8 length, other values a rough fixed size. Result sets are only
+ * wrapped when a trace is active as they are opened; outside of a traced operation the proxies only forward calls.
+ * {@code unwrap} reaches the driver objects as usual.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class TracingJdbc {
+
+    private static final Set<String> EXECUTE_METHODS =
+            Set.of("execute", "executeQuery", "executeUpdate", "executeLargeUpdate", "executeBatch", "executeLargeBatch");
+
+    private static final Set<String> RESULT_SET_METHODS = Set.of("executeQuery", "getResultSet", "getGeneratedKeys");
+
+    public static Connection wrap(final Connection connection){
+        return proxy(Connection.class, connection, (method, args, result) -> {
+            var trace = OperationTrace.current();
+            if (trace != null && method.getName().equals("commit")){
+                trace.committed();
+            } else if (trace != null && method.getName().equals("rollback")){
+                trace.rolledBack();
+            }
+            if (result instanceof PreparedStatement statement){
+                var sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return wrapStatement(PreparedStatement.class, statement, sql);
+            }
+            if (result instanceof Statement statement){
+                return wrapStatement(Statement.class, statement, null);
+            }
+            return result;
+        });
+    }
+
+    private static <T extends Statement> T wrapStatement(final Class<T> type, final T statement, final String sql){
+        return proxy(type, statement, (method, args, result) -> {
+            var name = method.getName();
+            var trace = OperationTrace.current();
+            if (trace != null && EXECUTE_METHODS.contains(name)){
+                var executed = isNull(sql) && args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+                trace.statementExecuted(executed);
+            }
+            if (trace != null && result instanceof ResultSet resultSet && RESULT_SET_METHODS.contains(name)){
+                return wrapResultSet(resultSet);
+            }
+            return result;
+        });
+    }
+
+    private static ResultSet wrapResultSet(final ResultSet resultSet){
+        return proxy(ResultSet.class, resultSet, (method, args, result) -> {
+            var trace = OperationTrace.current();
+            if (trace == null){
+                return result;
+            }
+            var name = method.getName();
+            if (name.equals("next") && Boolean.TRUE.equals(result)){
+                trace.rowRead();
+            } else if (result instanceof String text){
+                trace.bytesRead(utf8Length(text));
+            } else if (result instanceof byte[] bytes){
+                trace.bytesRead(bytes.length);
+            } else if (name.startsWith("get") && result != null && !name.equals("getMetaData")){
+                trace.bytesRead(Long.BYTES);
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Bytes of the UTF-8 encoding of {@code text}, without encoding it.
+     */
+    private static long utf8Length(final String text){
+        long length = text.length();
+        for (var i = 0; i < text.length(); i++){
+            var c = text.charAt(i);
+            if (c >= 0x800 && !Character.isSurrogate(c)){
+                length += 2;
+            } else if (c >= 0x80){
+                // each half of a surrogate pair adds one byte, four in total
+                length += 1;
+            }
+        }
+        return length;
+    }
+
+    @FunctionalInterface
+    private interface ResultDecorator {
+
+        Object decorate(final Method method, final Object[] args, final Object result) throws Throwable;
+
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(final Class<T> type, final T target, final ResultDecorator decorator){
+        InvocationHandler handler = (proxy, method, args) -> {
+            var transaction = target instanceof Connection ? TransactionEvent.begin(method.getName()) : null;
+            try {
+                return decorator.decorate(method, args, method.invoke(target, args));
+            } catch (InvocationTargetException ex){
+                throw ex.getCause();
+            } finally {
+                TransactionEvent.end(transaction, method.getName());
+            }
+        };
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, handler);
+    }
+
+}
@@ -0,0 +1,16 @@
+package br.com.dio.persistence.config;
+
+/**
+ * Implemented by connections whose {@code commit()} does not end the transaction right away. Work that must only
+ * happen once the data is really committed is registered here instead of being run after {@code commit()}.
+ */
+public interface TransactionCallbacks {
+
+    void afterCommit(Runnable action);
+
+    /**
+     * Runs {@code action} if the transaction is rolled back instead, to undo work done outside the database.
+     */
+    void afterRollback(Runnable action);
+
+}
@@ -0,0 +1,68 @@
+package br.com.dio.persistence.config;
+
+import br.com.dio.instrumentation.OperationTrace;
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
+
+/**
+ * Flight Recorder event of a {@code commit()} or {@code rollback()} call on a traced connection, with the service
+ * operation it belongs to. Recorded when the call takes longer than the {@code threshold} setting of
+ * {@code br.com.dio.Transaction}, 5 ms by default.
+ */
+@Name("br.com.dio.Transaction")
+@Label("Transaction End")
+@Category({"Board", "JDBC"})
+@Description("Commit or rollback of a connection, attributed to the running service operation")
+@StackTrace(false)
+@Threshold("5 ms")
+class TransactionEvent extends Event {
+
+    private static final EventType TYPE = EventType.getEventType(TransactionEvent.class);
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Statements")
+    @Description("Statements the operation issued before ending the transaction")
+    int statements;
+
+    /**
+     * Started event for a commit or rollback, {@code null} for any other call or when no recording enables the event.
+     */
+    static TransactionEvent begin(final String method){
+        if (!TYPE.isEnabled() || !method.equals("commit") && !method.equals("rollback")){
+            return null;
+        }
+        var event = new TransactionEvent();
+        event.begin();
+        return event;
+    }
+
+    static void end(final TransactionEvent event, final String method){
+        if (isNull(event)){
+            return;
+        }
+        event.end();
+        if (!event.shouldCommit()){
+            return;
+        }
+        var trace = OperationTrace.current();
+        event.operation = nonNull(trace) ? trace.getOperation() : null;
+        event.statements = nonNull(trace) ? trace.getStatements() : 0;
+        event.outcome = method;
+        event.commit();
+    }
+
+}
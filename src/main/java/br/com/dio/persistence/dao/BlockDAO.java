@@ -1,11 +1,16 @@
 package br.com.dio.persistence.dao;
 
+import br.com.dio.persistence.entity.BlockEntity;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
+import static br.com.dio.instrumentation.Instrumentation.query;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
 import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toTimestamp;
 
 @AllArgsConstructor
@@ -14,25 +19,63 @@ public class BlockDAO {
     private final Connection connection;
 
     public void block(final String reason, final Long cardId) throws SQLException {
-        var sql = "INSERT INTO BLOCKS (blocked_at, block_reason, card_id) VALUES (?, ?, ?);";
-        try(var statement = connection.prepareStatement(sql)){
-            var i = 1;
-            statement.setTimestamp(i ++, toTimestamp(OffsetDateTime.now()));
-            statement.setString(i ++, reason);
-            statement.setLong(i, cardId);
-            statement.executeUpdate();
-        }
+        query("BlockDAO.block", () -> {
+            var sql = "INSERT INTO BLOCKS (blocked_at, block_reason, card_id) VALUES (?, ?, ?);";
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                statement.setTimestamp(i ++, toTimestamp(OffsetDateTime.now()));
+                statement.setString(i ++, reason);
+                statement.setLong(i, cardId);
+                statement.executeUpdate();
+            }
+        });
     }
 
     public void unblock(final String reason, final Long cardId) throws SQLException{
-        var sql = "UPDATE BLOCKS SET unblocked_at = ?, unblock_reason = ? WHERE card_id = ? AND unblock_reason IS NULL;";
-        try(var statement = connection.prepareStatement(sql)){
-            var i = 1;
-            statement.setTimestamp(i ++, toTimestamp(OffsetDateTime.now()));
-            statement.setString(i ++, reason);
-            statement.setLong(i, cardId);
-            statement.executeUpdate();
-        }
+        query("BlockDAO.unblock", () -> {
+            var sql = "UPDATE BLOCKS SET unblocked_at = ?, unblock_reason = ? WHERE card_id = ? AND unblock_reason IS NULL;";
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                statement.setTimestamp(i ++, toTimestamp(OffsetDateTime.now()));
+                statement.setString(i ++, reason);
+                statement.setLong(i, cardId);
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Every block of the card, oldest first.
+     */
+    public List<BlockEntity> findByCardId(final Long cardId) throws SQLException {
+        return query("BlockDAO.findByCardId", () -> {
+            List<BlockEntity> blocks = new ArrayList<>();
+            var sql =
+                    """
+                    SELECT id,
+                           blocked_at,
+                           block_reason,
+                           unblocked_at,
+                           unblock_reason
+                      FROM BLOCKS
+                     WHERE card_id = ?
+                     ORDER BY blocked_at, id;
+                    """;
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, cardId);
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    var entity = new BlockEntity();
+                    entity.setId(resultSet.getLong("id"));
+                    entity.setBlockedAt(toOffsetDateTime(resultSet.getTimestamp("blocked_at")));
+                    entity.setBlockReason(resultSet.getString("block_reason"));
+                    entity.setUnblockedAt(toOffsetDateTime(resultSet.getTimestamp("unblocked_at")));
+                    entity.setUnblockReason(resultSet.getString("unblock_reason"));
+                    blocks.add(entity);
+                }
+            }
+            return blocks;
+        });
     }
 
 }
@@ -1,8 +1,12 @@
 package br.com.dio.persistence.dao;
 
 import br.com.dio.dto.BoardColumnDTO;
+import br.com.dio.dto.CardSummaryDTO;
+import br.com.dio.dto.ColumnViewDTO;
 import br.com.dio.persistence.entity.BoardColumnEntity;
-import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.Ref;
+import br.com.dio.rank.Rank;
 import com.mysql.cj.jdbc.StatementImpl;
 import lombok.RequiredArgsConstructor;
 
@@ -12,8 +16,11 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
 
+import static br.com.dio.instrumentation.Instrumentation.query;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.findByName;
 import static java.util.Objects.isNull;
+import static java.util.Objects.nonNull;
 
 @RequiredArgsConstructor
 public class BoardColumnDAO {
@@ -21,106 +28,141 @@ public class BoardColumnDAO {
     private final Connection connection;
 
     public BoardColumnEntity insert(final BoardColumnEntity entity) throws SQLException {
-        var sql = "INSERT INTO BOARDS_COLUMNS (name, `order`, kind, board_id) VALUES (?, ?, ?, ?);";
-        try(var statement = connection.prepareStatement(sql)){
-            var i = 1;
-            statement.setString(i ++, entity.getName());
-            statement.setInt(i ++, entity.getOrder());
-            statement.setString(i ++, entity.getKind().name());
-            statement.setLong(i, entity.getBoard().getId());
-            statement.executeUpdate();
-            if (statement instanceof StatementImpl impl){
-                entity.setId(impl.getLastInsertID());
+        return query("BoardColumnDAO.insert", () -> {
+            var sql = "INSERT INTO BOARDS_COLUMNS (name, `order`, kind, board_id, sort_rank) VALUES (?, ?, ?, ?, ?);";
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                statement.setString(i ++, entity.getName());
+                statement.setInt(i ++, entity.getOrder());
+                statement.setString(i ++, entity.getKind().name());
+                statement.setLong(i ++, entity.getBoardId());
+                if (isNull(entity.getRank())){
+                    entity.setRank(Rank.sequence(entity.getOrder()));
+                }
+                statement.setString(i, entity.getRank());
+                statement.executeUpdate();
+                if (statement.isWrapperFor(StatementImpl.class)){
+                    entity.setId(statement.unwrap(StatementImpl.class).getLastInsertID());
+                }
+                return entity;
             }
-            return entity;
-        }
+        });
     }
 
+    /**
+     * The columns of the board in display order, all sharing one reference to the board.
+     */
     public List<BoardColumnEntity> findByBoardId(final Long boardId) throws SQLException{
-        List<BoardColumnEntity> entities = new ArrayList<>();
-        var sql = "SELECT id, name, `order`, kind FROM BOARDS_COLUMNS WHERE board_id = ? ORDER BY `order`";
-        try(var statement = connection.prepareStatement(sql)){
-            statement.setLong(1, boardId);
-            statement.executeQuery();
-            var resultSet = statement.getResultSet();
-            while (resultSet.next()){
-                var entity = new BoardColumnEntity();
-                entity.setId(resultSet.getLong("id"));
-                entity.setName(resultSet.getString("name"));
-                entity.setOrder(resultSet.getInt("order"));
-                entity.setKind(findByName(resultSet.getString("kind")));
-                entities.add(entity);
+        return query("BoardColumnDAO.findByBoardId", () -> {
+            List<BoardColumnEntity> entities = new ArrayList<>();
+            Ref<BoardEntity> board = Ref.to(boardId);
+            var sql = "SELECT id, name, `order`, kind, sort_rank FROM BOARDS_COLUMNS WHERE board_id = ? ORDER BY sort_rank, id";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, boardId);
+                statement.executeQuery();
+                var resultSet = statement.getResultSet();
+                while (resultSet.next()){
+                    var entity = new BoardColumnEntity();
+                    entity.setId(resultSet.getLong("id"));
+                    entity.setName(resultSet.getString("name"));
+                    entity.setOrder(resultSet.getInt("order"));
+                    entity.setKind(findByName(resultSet.getString("kind")));
+                    entity.setRank(resultSet.getString("sort_rank"));
+                    entity.setBoard(board);
+                    entities.add(entity);
+                }
+                return entities;
             }
-            return entities;
-        }
+        });
     }
 
     public List<BoardColumnDTO> findByBoardIdWithDetails(final Long boardId) throws SQLException {
-        List<BoardColumnDTO> dtos = new ArrayList<>();
-        var sql =
-                """
-                SELECT bc.id,
-                       bc.name,
-                       bc.kind,
-                       (SELECT COUNT(c.id)
-                               FROM CARDS c
-                              WHERE c.board_column_id = bc.id) cards_amount
-                  FROM BOARDS_COLUMNS bc
-                 WHERE board_id = ?
-                 ORDER BY `order`;
-                """;
-        try(var statement = connection.prepareStatement(sql)){
-            statement.setLong(1, boardId);
-            statement.executeQuery();
-            var resultSet = statement.getResultSet();
-            while (resultSet.next()){
-                var dto = new BoardColumnDTO(
-                        resultSet.getLong("bc.id"),
-                        resultSet.getString("bc.name"),
-                        findByName(resultSet.getString("bc.kind")),
-                        resultSet.getInt("cards_amount")
-                );
-                dtos.add(dto);
+        return query("BoardColumnDAO.findByBoardIdWithDetails", () -> {
+            List<BoardColumnDTO> dtos = new ArrayList<>();
+            var sql =
+                    """
+                    SELECT bc.id,
+                           bc.name,
+                           bc.kind,
+                           (SELECT COUNT(c.id)
+                                   FROM CARDS c
+                                  WHERE c.board_column_id = bc.id) cards_amount
+                      FROM BOARDS_COLUMNS bc
+                     WHERE board_id = ?
+                     ORDER BY sort_rank, id;
+                    """;
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, boardId);
+                statement.executeQuery();
+                var resultSet = statement.getResultSet();
+                while (resultSet.next()){
+                    var dto = new BoardColumnDTO(
+                            resultSet.getLong("bc.id"),
+                            resultSet.getString("bc.name"),
+                            findByName(resultSet.getString("bc.kind")),
+                            resultSet.getInt("cards_amount")
+                    );
+                    dtos.add(dto);
+                }
+                return dtos;
             }
-            return dtos;
-        }
+        });
     }
 
-    public Optional<BoardColumnEntity> findById(final Long boardId) throws SQLException{
-        var sql =
-        """
-        SELECT bc.name,
-               bc.kind,
-               c.id,
-               c.title,
-               c.description
-          FROM BOARDS_COLUMNS bc
-          LEFT JOIN CARDS c
-            ON c.board_column_id = bc.id
-         WHERE bc.id = ?;
-        """;
-        try(var statement = connection.prepareStatement(sql)){
-            statement.setLong(1, boardId);
-            statement.executeQuery();
-            var resultSet = statement.getResultSet();
-            if (resultSet.next()){
-                var entity = new BoardColumnEntity();
-                entity.setName(resultSet.getString("bc.name"));
-                entity.setKind(findByName(resultSet.getString("bc.kind")));
+    /**
+     * The column with all of its cards in display order.
+     */
+    public Optional<ColumnViewDTO> findById(final Long id) throws SQLException{
+        return query("BoardColumnDAO.findById", () -> {
+            var sql =
+            """
+            SELECT bc.id,
+                   bc.name,
+                   bc.kind,
+                   bc.`order`,
+                   c.id,
+                   c.title,
+                   c.priority,
+                   c.due_date,
+                   bl.id
+              FROM BOARDS_COLUMNS bc
+             INNER JOIN BOARDS bo
+                ON bo.id = bc.board_id
+               AND bo.deleted_at IS NULL
+              LEFT JOIN CARDS c
+                ON c.board_column_id = bc.id
+              LEFT JOIN BLOCKS bl
+                ON bl.card_id = c.id
+               AND bl.unblocked_at IS NULL
+             WHERE bc.id = ?
+             ORDER BY c.sort_rank, c.id;
+            """;
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, id);
+                statement.executeQuery();
+                var resultSet = statement.getResultSet();
+                if (!resultSet.next()){
+                    return Optional.empty();
+                }
+                var columnId = resultSet.getLong("bc.id");
+                var name = resultSet.getString("bc.name");
+                var kind = findByName(resultSet.getString("bc.kind"));
+                var order = resultSet.getInt("bc.order");
+                List<CardSummaryDTO> cards = new ArrayList<>();
                 do {
-                    var card = new CardEntity();
-                    if (isNull(resultSet.getString("c.title"))){
-                        break;
+                    if (nonNull(resultSet.getObject("c.id"))){
+                        cards.add(new CardSummaryDTO(
+                                resultSet.getLong("c.id"),
+                                resultSet.getString("c.title"),
+                                resultSet.getString("c.priority"),
+                                toOffsetDateTime(resultSet.getTimestamp("c.due_date")),
+                                nonNull(resultSet.getObject("bl.id"))
+                        ));
                     }
-                    card.setId(resultSet.getLong("c.id"));
-                    card.setTitle(resultSet.getString("c.title"));
-                    card.setDescription(resultSet.getString("c.description"));
-                    entity.getCards().add(card);
-                }while (resultSet.next());
-                return Optional.of(entity);
+                } while (resultSet.next());
+                return Optional.of(new ColumnViewDTO(columnId, name, kind, order, cards.size(), cards));
             }
-            return Optional.empty();
-        }
+        });
     }
 
 }
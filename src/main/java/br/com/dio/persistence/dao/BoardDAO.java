@@ -1,61 +1,272 @@
 package br.com.dio.persistence.dao;
 
+import br.com.dio.dto.BoardSummaryDTO;
+import br.com.dio.dto.BoardViewDTO;
+import br.com.dio.dto.CardSummaryDTO;
+import br.com.dio.dto.ColumnViewDTO;
 import br.com.dio.persistence.entity.BoardEntity;
 import com.mysql.cj.jdbc.StatementImpl;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
+import static br.com.dio.instrumentation.Instrumentation.query;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.findByName;
+import static java.util.Objects.nonNull;
+
 @AllArgsConstructor
 public class BoardDAO {
 
     private Connection connection;
 
     public BoardEntity insert(final BoardEntity entity) throws SQLException {
-        var sql = "INSERT INTO BOARDS (name) values (?);";
-        try(var statement = connection.prepareStatement(sql)){
-            statement.setString(1, entity.getName());
-            statement.executeUpdate();
-            if (statement instanceof StatementImpl impl){
-                entity.setId(impl.getLastInsertID());
+        return query("BoardDAO.insert", () -> {
+            var sql = "INSERT INTO BOARDS (name) values (?);";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setString(1, entity.getName());
+                statement.executeUpdate();
+                if (statement.isWrapperFor(StatementImpl.class)){
+                    entity.setId(statement.unwrap(StatementImpl.class).getLastInsertID());
+                }
             }
-        }
-        return entity;
+            return entity;
+        });
     }
 
-    public void delete(final Long id) throws SQLException {
-        var sql = "DELETE FROM BOARDS WHERE id = ?;";
-        try(var statement = connection.prepareStatement(sql)){
-            statement.setLong(1, id);
-            statement.executeUpdate();
-        }
+    /**
+     * Hides the board from every query right away, its rows are removed later by the purge job.
+     */
+    public void markDeleted(final Long id) throws SQLException {
+        query("BoardDAO.markDeleted", () -> {
+            var sql = "UPDATE BOARDS SET deleted_at = CURRENT_TIMESTAMP WHERE id = ? AND deleted_at IS NULL;";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, id);
+                statement.executeUpdate();
+            }
+        });
     }
 
     public Optional<BoardEntity> findById(final Long id) throws SQLException {
-        var sql = "SELECT id, name FROM BOARDS WHERE id = ?;";
-        try(var statement = connection.prepareStatement(sql)){
-            statement.setLong(1, id);
-            statement.executeQuery();
-            var resultSet = statement.getResultSet();
-            if (resultSet.next()){
-                var entity = new BoardEntity();
-                entity.setId(resultSet.getLong("id"));
-                entity.setName(resultSet.getString("name"));
-                return Optional.of(entity);
-            }
-            return Optional.empty();
+        return query("BoardDAO.findById", () -> {
+            var sql = "SELECT id, name FROM BOARDS WHERE id = ? AND deleted_at IS NULL;";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, id);
+                statement.executeQuery();
+                var resultSet = statement.getResultSet();
+                if (resultSet.next()){
+                    var entity = new BoardEntity();
+                    entity.setId(resultSet.getLong("id"));
+                    entity.setName(resultSet.getString("name"));
+                    return Optional.of(entity);
+                }
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * A board of a page with the weight of its name under the collation of {@code BOARDS.name}. Keys compared byte
+     * by byte, unsigned, give the order MySQL sorts the names in, so pages of several shards merge on them.
+     */
+    public record PageEntry(BoardSummaryDTO board, byte[] nameKey) {
+
+        private PageEntry withCardsAmount(final Long cardsAmount){
+            return new PageEntry(new BoardSummaryDTO(board.id(), board.name(), cardsAmount), nameKey);
         }
+
     }
 
-    public boolean exists(final Long id) throws SQLException {
-        var sql = "SELECT 1 FROM BOARDS WHERE id = ?;";
-        try(var statement = connection.prepareStatement(sql)){
-            statement.setLong(1, id);
-            statement.executeQuery();
-            return statement.getResultSet().next();
+    /**
+     * Keyset page of boards ordered by name and id: the boards after {@code afterName}/{@code afterId} (both null
+     * for the first page) whose name starts with {@code namePrefix} (null or empty for all). Served by the name
+     * index, so the cost does not grow with how deep the page is. With {@code withCardTotals} the card totals of
+     * the page are added by one grouped query.
+     */
+    public List<BoardSummaryDTO> findPage(final String namePrefix, final String afterName, final Long afterId,
+                                          final int limit, final boolean withCardTotals) throws SQLException {
+        return findKeyedPage(namePrefix, afterName, afterId, limit, withCardTotals).stream()
+                .map(PageEntry::board)
+                .toList();
+    }
+
+    /**
+     * Same as {@link #findPage} with the sort key of each name.
+     */
+    public List<PageEntry> findKeyedPage(final String namePrefix, final String afterName, final Long afterId,
+                                         final int limit, final boolean withCardTotals) throws SQLException {
+        List<PageEntry> page = query("BoardDAO.findPage", () -> {
+            List<PageEntry> boards = new ArrayList<>();
+            var filterName = nonNull(namePrefix) && !namePrefix.isEmpty();
+            var filterAfter = nonNull(afterName) && nonNull(afterId);
+            var sql = new StringBuilder(
+                    "SELECT id, name, WEIGHT_STRING(name) name_key FROM BOARDS WHERE deleted_at IS NULL");
+            if (filterName){
+                sql.append(" AND name LIKE ? ESCAPE '!'");
+            }
+            if (filterAfter){
+                sql.append(" AND (name > ? OR (name = ? AND id > ?))");
+            }
+            sql.append(" ORDER BY name, id LIMIT ?;");
+            try(var statement = connection.prepareStatement(sql.toString())){
+                var i = 1;
+                if (filterName){
+                    statement.setString(i ++, namePrefix.replaceAll("[!%_]", "!$0") + "%");
+                }
+                if (filterAfter){
+                    statement.setString(i ++, afterName);
+                    statement.setString(i ++, afterName);
+                    statement.setLong(i ++, afterId);
+                }
+                statement.setInt(i, limit);
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    var board = new BoardSummaryDTO(resultSet.getLong("id"), resultSet.getString("name"), null);
+                    boards.add(new PageEntry(board, resultSet.getBytes("name_key")));
+                }
+            }
+            return boards;
+        });
+        if (!withCardTotals){
+            return page;
         }
+        var totals = countCardsByBoardIds(page.stream().map(entry -> entry.board().id()).toList());
+        return page.stream()
+                .map(entry -> entry.withCardsAmount(totals.getOrDefault(entry.board().id(), 0L)))
+                .toList();
+    }
+
+    /**
+     * Card totals of the given boards in one grouped query, boards without cards map to {@code 0}.
+     */
+    public Map<Long, Long> countCardsByBoardIds(final List<Long> boardIds) throws SQLException {
+        return query("BoardDAO.countCardsByBoardIds", () -> {
+            Map<Long, Long> totals = new HashMap<>();
+            if (boardIds.isEmpty()){
+                return totals;
+            }
+            var sql =
+                    """
+                    SELECT bc.board_id,
+                           COUNT(c.id) cards_amount
+                      FROM BOARDS_COLUMNS bc
+                      LEFT JOIN CARDS c
+                        ON c.board_column_id = bc.id
+                     WHERE bc.board_id IN (%s)
+                     GROUP BY bc.board_id;
+                    """.formatted(String.join(", ", Collections.nCopies(boardIds.size(), "?")));
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                for (var id : boardIds){
+                    statement.setLong(i ++, id);
+                }
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    totals.put(resultSet.getLong("bc.board_id"), resultSet.getLong("cards_amount"));
+                }
+            }
+            return totals;
+        });
+    }
+
+    /**
+     * Loads the board, all of its columns and the first {@code cardsPerColumn} cards of each column in one query,
+     * grouping the rows into the DTO tree in a single pass.
+     */
+    public Optional<BoardViewDTO> findViewById(final Long id, final int cardsPerColumn) throws SQLException {
+        return query("BoardDAO.findViewById", () -> {
+            var sql =
+                    """
+                    SELECT b.id,
+                           b.name,
+                           bc.id,
+                           bc.name,
+                           bc.kind,
+                           bc.`order`,
+                           rc.id,
+                           rc.title,
+                           rc.priority,
+                           rc.due_date,
+                           rc.cards_amount,
+                           bl.id
+                      FROM BOARDS b
+                     INNER JOIN BOARDS_COLUMNS bc
+                        ON bc.board_id = b.id
+                      LEFT JOIN (SELECT c.id,
+                                        c.title,
+                                        c.priority,
+                                        c.due_date,
+                                        c.board_column_id,
+                                        ROW_NUMBER() OVER (PARTITION BY c.board_column_id ORDER BY c.sort_rank, c.id) position,
+                                        COUNT(*) OVER (PARTITION BY c.board_column_id) cards_amount
+                                   FROM CARDS c
+                                  INNER JOIN BOARDS_COLUMNS sub_bc
+                                     ON sub_bc.id = c.board_column_id
+                                  WHERE sub_bc.board_id = ?) rc
+                        ON rc.board_column_id = bc.id
+                       AND rc.position <= ?
+                      LEFT JOIN BLOCKS bl
+                        ON bl.card_id = rc.id
+                       AND bl.unblocked_at IS NULL
+                     WHERE b.id = ?
+                       AND b.deleted_at IS NULL
+                     ORDER BY bc.sort_rank, bc.id, rc.position;
+                    """;
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                statement.setLong(i ++, id);
+                statement.setInt(i ++, cardsPerColumn);
+                statement.setLong(i, id);
+                var resultSet = statement.executeQuery();
+                if (!resultSet.next()){
+                    return Optional.empty();
+                }
+                var boardId = resultSet.getLong("b.id");
+                var boardName = resultSet.getString("b.name");
+                List<ColumnViewDTO> columns = new ArrayList<>();
+                var hasRow = true;
+                while (hasRow){
+                    var columnId = resultSet.getLong("bc.id");
+                    var columnName = resultSet.getString("bc.name");
+                    var kind = findByName(resultSet.getString("bc.kind"));
+                    var order = resultSet.getInt("bc.order");
+                    var cardsAmount = resultSet.getInt("rc.cards_amount");
+                    List<CardSummaryDTO> cards = new ArrayList<>();
+                    while (hasRow && resultSet.getLong("bc.id") == columnId){
+                        if (nonNull(resultSet.getObject("rc.id"))){
+                            cards.add(new CardSummaryDTO(
+                                    resultSet.getLong("rc.id"),
+                                    resultSet.getString("rc.title"),
+                                    resultSet.getString("rc.priority"),
+                                    toOffsetDateTime(resultSet.getTimestamp("rc.due_date")),
+                                    nonNull(resultSet.getObject("bl.id"))
+                            ));
+                        }
+                        hasRow = resultSet.next();
+                    }
+                    columns.add(new ColumnViewDTO(columnId, columnName, kind, order, cardsAmount, cards));
+                }
+                return Optional.of(new BoardViewDTO(boardId, boardName, columns));
+            }
+        });
+    }
+
+    public boolean exists(final Long id) throws SQLException {
+        return query("BoardDAO.exists", () -> {
+            var sql = "SELECT 1 FROM BOARDS WHERE id = ? AND deleted_at IS NULL;";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, id);
+                statement.executeQuery();
+                return statement.getResultSet().next();
+            }
+        });
     }
 
 }
@@ -0,0 +1,202 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.dto.BoardPurgeProgressDTO;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static br.com.dio.instrumentation.Instrumentation.query;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+
+@AllArgsConstructor
+public class BoardPurgeDAO {
+
+    private final Connection connection;
+
+    /**
+     * Rows removed by one batch and the ids of its cards, whose attachment files go once the batch is committed.
+     */
+    public record PurgedRows(int cards, int blocks, List<Long> cardIds) {
+
+        public boolean isEmpty(){
+            return cards == 0;
+        }
+
+    }
+
+    public void register(final Long boardId) throws SQLException {
+        query("BoardPurgeDAO.register", () -> {
+            var sql = "INSERT INTO BOARD_PURGES (board_id, board_name) SELECT id, name FROM BOARDS WHERE id = ?;";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, boardId);
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Boards marked as deleted whose rows are still present, oldest request first. A board stays here until
+     * {@link #finish(Long)} removes it, so an interrupted purge resumes where it stopped.
+     */
+    public List<Long> findPending() throws SQLException {
+        return query("BoardPurgeDAO.findPending", () -> {
+            List<Long> ids = new ArrayList<>();
+            var sql = "SELECT id FROM BOARDS WHERE deleted_at IS NOT NULL ORDER BY deleted_at, id;";
+            try(var statement = connection.prepareStatement(sql)){
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    ids.add(resultSet.getLong("id"));
+                }
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Deletes up to {@code limit} cards of the board together with their blocks, descriptions and attachment rows.
+     */
+    public PurgedRows purgeCards(final Long boardId, final int limit) throws SQLException {
+        return query("BoardPurgeDAO.purgeCards", () -> {
+            var sql =
+                    """
+                    SELECT c.id
+                      FROM CARDS c
+                     INNER JOIN BOARDS_COLUMNS bc
+                        ON bc.id = c.board_column_id
+                     WHERE bc.board_id = ?
+                     ORDER BY c.id
+                     LIMIT ?
+                       FOR UPDATE;
+                    """;
+            var ids = selectIds(sql, boardId, limit);
+            if (ids.isEmpty()){
+                return new PurgedRows(0, 0, List.of());
+            }
+            var in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            var blocks = execute("DELETE FROM BLOCKS WHERE card_id IN (%s);".formatted(in), ids);
+            deleteContents(in, ids);
+            var cards = execute("DELETE FROM CARDS WHERE id IN (%s);".formatted(in), ids);
+            return new PurgedRows(cards, blocks, ids);
+        });
+    }
+
+    /**
+     * Deletes up to {@code limit} archived cards of the board together with their archived blocks, descriptions and
+     * attachment rows.
+     */
+    public PurgedRows purgeArchivedCards(final Long boardId, final int limit) throws SQLException {
+        return query("BoardPurgeDAO.purgeArchivedCards", () -> {
+            var sql = "SELECT id FROM CARDS_ARCHIVE WHERE board_id = ? ORDER BY id LIMIT ? FOR UPDATE;";
+            var ids = selectIds(sql, boardId, limit);
+            if (ids.isEmpty()){
+                return new PurgedRows(0, 0, List.of());
+            }
+            var in = String.join(", ", Collections.nCopies(ids.size(), "?"));
+            var blocks = execute("DELETE FROM BLOCKS_ARCHIVE WHERE card_id IN (%s);".formatted(in), ids);
+            deleteContents(in, ids);
+            var cards = execute("DELETE FROM CARDS_ARCHIVE WHERE id IN (%s);".formatted(in), ids);
+            return new PurgedRows(cards, blocks, ids);
+        });
+    }
+
+    public void recordProgress(final Long boardId, final PurgedRows rows) throws SQLException {
+        query("BoardPurgeDAO.recordProgress", () -> {
+            var sql = "UPDATE BOARD_PURGES SET cards_deleted = cards_deleted + ?, blocks_deleted = blocks_deleted + ? WHERE board_id = ?;";
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                statement.setLong(i ++, rows.cards());
+                statement.setLong(i ++, rows.blocks());
+                statement.setLong(i, boardId);
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Removes the now empty columns and the board row itself and closes the purge record.
+     */
+    public void finish(final Long boardId) throws SQLException {
+        query("BoardPurgeDAO.finish", () -> {
+            execute("DELETE FROM BOARDS_COLUMNS WHERE board_id = ?;", List.of(boardId));
+            execute("DELETE FROM BOARDS WHERE id = ? AND deleted_at IS NOT NULL;", List.of(boardId));
+            execute("UPDATE BOARD_PURGES SET finished_at = CURRENT_TIMESTAMP WHERE board_id = ?;", List.of(boardId));
+        });
+    }
+
+    /**
+     * Every purge with the cards still left on its board, archived cards included since the purge deletes both.
+     */
+    public List<BoardPurgeProgressDTO> findProgress() throws SQLException {
+        return query("BoardPurgeDAO.findProgress", () -> {
+            List<BoardPurgeProgressDTO> dtos = new ArrayList<>();
+            var sql =
+                    """
+                    SELECT bp.board_id,
+                           bp.board_name,
+                           bp.requested_at,
+                           bp.cards_deleted,
+                           bp.blocks_deleted,
+                           bp.finished_at,
+                           (SELECT COUNT(c.id)
+                                   FROM CARDS c
+                                  INNER JOIN BOARDS_COLUMNS bc
+                                     ON bc.id = c.board_column_id
+                                  WHERE bc.board_id = bp.board_id)
+                         + (SELECT COUNT(ca.id)
+                                   FROM CARDS_ARCHIVE ca
+                                  WHERE ca.board_id = bp.board_id) cards_remaining
+                      FROM BOARD_PURGES bp
+                     ORDER BY bp.requested_at DESC, bp.board_id;
+                    """;
+            try(var statement = connection.prepareStatement(sql)){
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    var dto = new BoardPurgeProgressDTO(
+                            resultSet.getLong("bp.board_id"),
+                            resultSet.getString("bp.board_name"),
+                            toOffsetDateTime(resultSet.getTimestamp("bp.requested_at")),
+                            resultSet.getLong("bp.cards_deleted"),
+                            resultSet.getLong("bp.blocks_deleted"),
+                            resultSet.getLong("cards_remaining"),
+                            toOffsetDateTime(resultSet.getTimestamp("bp.finished_at"))
+                    );
+                    dtos.add(dto);
+                }
+            }
+            return dtos;
+        });
+    }
+
+    private void deleteContents(final String in, final List<Long> ids) throws SQLException {
+        execute("DELETE FROM CARD_DESCRIPTIONS WHERE card_id IN (%s);".formatted(in), ids);
+        execute("DELETE FROM CARD_ATTACHMENTS WHERE card_id IN (%s);".formatted(in), ids);
+    }
+
+    private List<Long> selectIds(final String sql, final Long boardId, final int limit) throws SQLException {
+        List<Long> ids = new ArrayList<>();
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setLong(1, boardId);
+            statement.setInt(2, limit);
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()){
+                ids.add(resultSet.getLong(1));
+            }
+        }
+        return ids;
+    }
+
+    private int execute(final String sql, final List<Long> ids) throws SQLException {
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            for (var id : ids){
+                statement.setLong(i ++, id);
+            }
+            return statement.executeUpdate();
+        }
+    }
+
+}
@@ -0,0 +1,62 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.dto.WorkflowTransitionDTO;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.dio.instrumentation.Instrumentation.query;
+
+@AllArgsConstructor
+public class BoardWorkflowDAO {
+
+    private final Connection connection;
+
+    public List<WorkflowTransitionDTO> findByBoardId(final Long boardId) throws SQLException {
+        return query("BoardWorkflowDAO.findByBoardId", () -> {
+            List<WorkflowTransitionDTO> transitions = new ArrayList<>();
+            var sql = "SELECT from_column_id, to_column_id FROM BOARD_WORKFLOW_TRANSITIONS WHERE board_id = ?;";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, boardId);
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    transitions.add(new WorkflowTransitionDTO(
+                            resultSet.getLong("from_column_id"),
+                            resultSet.getLong("to_column_id")
+                    ));
+                }
+            }
+            return transitions;
+        });
+    }
+
+    /**
+     * Replaces the board's transitions, an empty list restores the linear workflow.
+     */
+    public void replace(final Long boardId, final List<WorkflowTransitionDTO> transitions) throws SQLException {
+        query("BoardWorkflowDAO.replace", () -> {
+            try(var statement = connection.prepareStatement("DELETE FROM BOARD_WORKFLOW_TRANSITIONS WHERE board_id = ?;")){
+                statement.setLong(1, boardId);
+                statement.executeUpdate();
+            }
+            if (transitions.isEmpty()){
+                return;
+            }
+            var sql = "INSERT INTO BOARD_WORKFLOW_TRANSITIONS (board_id, from_column_id, to_column_id) VALUES (?, ?, ?);";
+            try(var statement = connection.prepareStatement(sql)){
+                for (var transition : transitions){
+                    var i = 1;
+                    statement.setLong(i ++, boardId);
+                    statement.setLong(i ++, transition.fromColumnId());
+                    statement.setLong(i, transition.toColumnId());
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,182 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.dto.CardDetailsDTO;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import static br.com.dio.instrumentation.Instrumentation.query;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toTimestamp;
+import static java.util.Objects.nonNull;
+
+@AllArgsConstructor
+public class CardArchiveDAO {
+
+    private static final List<String> ARCHIVE_TABLES = List.of("CARDS_ARCHIVE", "BLOCKS_ARCHIVE");
+
+    private final Connection connection;
+
+    /**
+     * Locks up to {@code limit} cards of FINAL and CANCEL columns not changed since {@code cutoff}. Rows locked by
+     * other transactions are skipped so archiving never waits on, or blocks, interactive operations.
+     */
+    public List<Long> lockArchivable(final OffsetDateTime cutoff, final int limit) throws SQLException {
+        return query("CardArchiveDAO.lockArchivable", () -> {
+            List<Long> ids = new ArrayList<>();
+            var sql =
+                    """
+                    SELECT c.id
+                      FROM CARDS c
+                     INNER JOIN BOARDS_COLUMNS bc
+                        ON bc.id = c.board_column_id
+                     INNER JOIN BOARDS bo
+                        ON bo.id = bc.board_id
+                       AND bo.deleted_at IS NULL
+                     WHERE bc.kind IN ('FINAL', 'CANCEL')
+                       AND c.updated_at < ?
+                     ORDER BY c.id
+                     LIMIT ?
+                       FOR UPDATE OF c SKIP LOCKED;
+                    """;
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setTimestamp(1, toTimestamp(cutoff));
+                statement.setInt(2, limit);
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    ids.add(resultSet.getLong("c.id"));
+                }
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Copies the cards and their blocks to the archive partition of {@code month} (yyyyMM) and removes them from
+     * the hot tables.
+     */
+    public void archive(final List<Long> cardIds, final int month) throws SQLException {
+        query("CardArchiveDAO.archive", () -> {
+            var in = String.join(", ", Collections.nCopies(cardIds.size(), "?"));
+            var copyCards =
+                    """
+                    INSERT INTO CARDS_ARCHIVE (id, title, description, priority, due_date, created_at, updated_at, board_column_id, board_id, archived_month)
+                    SELECT c.id, c.title, c.description, c.priority, c.due_date, c.created_at, c.updated_at, c.board_column_id, bc.board_id, ?
+                      FROM CARDS c
+                     INNER JOIN BOARDS_COLUMNS bc
+                        ON bc.id = c.board_column_id
+                     WHERE c.id IN (%s);
+                    """.formatted(in);
+            var copyBlocks =
+                    """
+                    INSERT INTO BLOCKS_ARCHIVE (id, blocked_at, block_reason, unblocked_at, unblock_reason, card_id, archived_month)
+                    SELECT b.id, b.blocked_at, b.block_reason, b.unblocked_at, b.unblock_reason, b.card_id, ?
+                      FROM BLOCKS b
+                     WHERE b.card_id IN (%s);
+                    """.formatted(in);
+            execute(copyCards, month, cardIds);
+            execute(copyBlocks, month, cardIds);
+            execute("DELETE FROM BLOCKS WHERE card_id IN (%s);".formatted(in), null, cardIds);
+            execute("DELETE FROM CARDS WHERE id IN (%s);".formatted(in), null, cardIds);
+        });
+    }
+
+    public Optional<CardDetailsDTO> findById(final Long id) throws SQLException {
+        return query("CardArchiveDAO.findById", () -> {
+            var sql =
+                    """
+                    SELECT c.id,
+                           c.title,
+                           c.description,
+                           c.priority,
+                           c.due_date,
+                           b.blocked_at,
+                           b.block_reason,
+                           c.board_column_id,
+                           bc.name,
+                           bc.board_id,
+                           (SELECT COUNT(sub_b.id)
+                                   FROM BLOCKS_ARCHIVE sub_b
+                                  WHERE sub_b.card_id = c.id) blocks_amount
+                      FROM CARDS_ARCHIVE c
+                      LEFT JOIN BLOCKS_ARCHIVE b
+                        ON c.id = b.card_id
+                       AND b.unblocked_at IS NULL
+                     INNER JOIN BOARDS_COLUMNS bc
+                        ON bc.id = c.board_column_id
+                     INNER JOIN BOARDS bo
+                        ON bo.id = bc.board_id
+                       AND bo.deleted_at IS NULL
+                     WHERE c.id = ?;
+                    """;
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, id);
+                var resultSet = statement.executeQuery();
+                if (resultSet.next()){
+                    var dto = new CardDetailsDTO(
+                            resultSet.getLong("c.id"),
+                            resultSet.getString("c.title"),
+                            resultSet.getString("c.description"),
+                            nonNull(resultSet.getString("b.block_reason")),
+                            toOffsetDateTime(resultSet.getTimestamp("b.blocked_at")),
+                            resultSet.getString("b.block_reason"),
+                            resultSet.getInt("blocks_amount"),
+                            resultSet.getLong("c.board_column_id"),
+                            resultSet.getString("bc.name"),
+                            resultSet.getString("c.priority"),
+                            toOffsetDateTime(resultSet.getTimestamp("c.due_date")),
+                            resultSet.getLong("bc.board_id")
+                    );
+                    return Optional.of(dto);
+                }
+            }
+            return Optional.empty();
+        });
+    }
+
+    /**
+     * Splits the catch-all partition of every archive table so {@code month} (yyyyMM) gets its own partition.
+     * Partitions must be created in increasing month order. This is DDL and commits implicitly.
+     */
+    public void ensurePartition(final int month) throws SQLException {
+        query("CardArchiveDAO.ensurePartition", () -> {
+            var exists = "SELECT 1 FROM INFORMATION_SCHEMA.PARTITIONS WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME = ?;";
+            var partition = "p" + month;
+            var upperBound = month % 100 == 12 ? (month / 100 + 1) * 100 + 1 : month + 1;
+            for (var table : ARCHIVE_TABLES){
+                try(var statement = connection.prepareStatement(exists)){
+                    statement.setString(1, table);
+                    statement.setString(2, partition);
+                    if (statement.executeQuery().next()){
+                        continue;
+                    }
+                }
+                var sql = "ALTER TABLE %s REORGANIZE PARTITION p_future INTO (PARTITION %s VALUES LESS THAN (%s), PARTITION p_future VALUES LESS THAN MAXVALUE);"
+                        .formatted(table, partition, upperBound);
+                try(var statement = connection.createStatement()){
+                    statement.execute(sql);
+                }
+            }
+        });
+    }
+
+    private void execute(final String sql, final Integer month, final List<Long> ids) throws SQLException {
+        try(var statement = connection.prepareStatement(sql)){
+            var i = 1;
+            if (nonNull(month)){
+                statement.setInt(i ++, month);
+            }
+            for (var id : ids){
+                statement.setLong(i ++, id);
+            }
+            statement.executeUpdate();
+        }
+    }
+
+}
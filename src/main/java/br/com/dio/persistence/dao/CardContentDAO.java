@@ -0,0 +1,151 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.content.Descriptions.Deflated;
+import br.com.dio.dto.AttachmentDTO;
+import com.mysql.cj.jdbc.StatementImpl;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static br.com.dio.instrumentation.Instrumentation.query;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toTimestamp;
+
+@AllArgsConstructor
+public class CardContentDAO {
+
+    private final Connection connection;
+
+    public void insertDescription(final Long cardId, final Deflated description) throws SQLException {
+        query("CardContentDAO.insertDescription", () -> {
+            var sql = "INSERT INTO CARD_DESCRIPTIONS (card_id, text_length, checksum, content) VALUES (?, ?, ?, ?);";
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                statement.setLong(i ++, cardId);
+                statement.setInt(i ++, description.length());
+                statement.setLong(i ++, description.checksum());
+                statement.setBytes(i, description.content());
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    public Optional<Deflated> findDescription(final Long cardId) throws SQLException {
+        return query("CardContentDAO.findDescription", () -> {
+            var sql = "SELECT text_length, checksum, content FROM CARD_DESCRIPTIONS WHERE card_id = ?;";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, cardId);
+                var resultSet = statement.executeQuery();
+                if (!resultSet.next()){
+                    return Optional.empty();
+                }
+                return Optional.of(new Deflated(
+                        resultSet.getInt("text_length"),
+                        resultSet.getLong("checksum"),
+                        resultSet.getBytes("content")
+                ));
+            }
+        });
+    }
+
+    public AttachmentDTO insertAttachment(final Long cardId, final String fileName, final long size,
+                                          final long checksum, final OffsetDateTime createdAt) throws SQLException {
+        return query("CardContentDAO.insertAttachment", () -> {
+            var sql = "INSERT INTO CARD_ATTACHMENTS (card_id, file_name, size, checksum, created_at) VALUES (?, ?, ?, ?, ?);";
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                statement.setLong(i ++, cardId);
+                statement.setString(i ++, fileName);
+                statement.setLong(i ++, size);
+                statement.setLong(i ++, checksum);
+                statement.setTimestamp(i, toTimestamp(createdAt));
+                statement.executeUpdate();
+                Long id = null;
+                if (statement.isWrapperFor(StatementImpl.class)){
+                    id = statement.unwrap(StatementImpl.class).getLastInsertID();
+                }
+                return new AttachmentDTO(id, cardId, fileName, size, checksum, createdAt);
+            }
+        });
+    }
+
+    public List<AttachmentDTO> findAttachments(final Long cardId) throws SQLException {
+        return query("CardContentDAO.findAttachments", () -> {
+            List<AttachmentDTO> dtos = new ArrayList<>();
+            var sql = "SELECT id, card_id, file_name, size, checksum, created_at FROM CARD_ATTACHMENTS WHERE card_id = ? ORDER BY id;";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, cardId);
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    dtos.add(toAttachment(resultSet));
+                }
+            }
+            return dtos;
+        });
+    }
+
+    public Optional<AttachmentDTO> findAttachment(final Long id) throws SQLException {
+        return query("CardContentDAO.findAttachment", () -> {
+            var sql = "SELECT id, card_id, file_name, size, checksum, created_at FROM CARD_ATTACHMENTS WHERE id = ?;";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, id);
+                var resultSet = statement.executeQuery();
+                return resultSet.next() ? Optional.of(toAttachment(resultSet)) : Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * The attachments of every live card of the board, by card id.
+     */
+    public Map<Long, List<AttachmentDTO>> findAttachmentsByBoardId(final Long boardId) throws SQLException {
+        return query("CardContentDAO.findAttachmentsByBoardId", () -> {
+            Map<Long, List<AttachmentDTO>> attachments = new HashMap<>();
+            var sql =
+                    """
+                    SELECT a.id,
+                           a.card_id,
+                           a.file_name,
+                           a.size,
+                           a.checksum,
+                           a.created_at
+                      FROM CARD_ATTACHMENTS a
+                     INNER JOIN CARDS c
+                        ON c.id = a.card_id
+                     INNER JOIN BOARDS_COLUMNS bc
+                        ON bc.id = c.board_column_id
+                     WHERE bc.board_id = ?
+                     ORDER BY a.id;
+                    """;
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, boardId);
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    var attachment = toAttachment(resultSet);
+                    attachments.computeIfAbsent(attachment.cardId(), id -> new ArrayList<>()).add(attachment);
+                }
+            }
+            return attachments;
+        });
+    }
+
+    private static AttachmentDTO toAttachment(final ResultSet resultSet) throws SQLException {
+        return new AttachmentDTO(
+                resultSet.getLong("id"),
+                resultSet.getLong("card_id"),
+                resultSet.getString("file_name"),
+                resultSet.getLong("size"),
+                resultSet.getLong("checksum"),
+                toOffsetDateTime(resultSet.getTimestamp("created_at"))
+        );
+    }
+
+}
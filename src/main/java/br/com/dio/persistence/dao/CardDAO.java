@@ -1,7 +1,9 @@
 package br.com.dio.persistence.dao;
 
+import br.com.dio.content.Descriptions;
 import br.com.dio.dto.CardDetailsDTO;
 import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.rank.Rank;
 import com.mysql.cj.jdbc.StatementImpl;
 import lombok.AllArgsConstructor;
 
@@ -9,7 +11,9 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Optional;
 
+import static br.com.dio.instrumentation.Instrumentation.query;
 import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static br.com.dio.persistence.dao.RankDAO.Ranked.CARDS;
 import static java.util.Objects.nonNull;
 
 @AllArgsConstructor
@@ -17,82 +21,104 @@ public class CardDAO {
 
     private Connection connection;
 
+    /**
+     * Inserts the card at the end of its column, which stays locked for appends until the transaction ends. A long
+     * description is stored as its preview, the full text goes to {@link CardContentDAO#insertDescription}.
+     */
     public CardEntity insert(final CardEntity entity) throws SQLException {
-        var sql = "INSERT INTO CARDS (title, description, priority, due_date, board_column_id) values (?, ?, ?, ?, ?);";
-        try(var statement = connection.prepareStatement(sql)){
-            var i = 1;
-            statement.setString(i ++, entity.getTitle());
-            statement.setString(i ++, entity.getDescription());
-            statement.setString(i ++, entity.getPriority().name());
-            if (entity.getDueDate() != null) {
-                statement.setTimestamp(i ++, java.sql.Timestamp.valueOf(entity.getDueDate()));
-            } else {
-                statement.setNull(i ++, java.sql.Types.TIMESTAMP);
+        return query("CardDAO.insert", () -> {
+            var rank = Rank.after(new RankDAO(connection, CARDS).findLastForUpdate(entity.getBoardColumnId()));
+            var sql = "INSERT INTO CARDS (title, description, priority, due_date, board_column_id, sort_rank) values (?, ?, ?, ?, ?, ?);";
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                statement.setString(i ++, entity.getTitle());
+                statement.setString(i ++, Descriptions.preview(entity.getDescription()));
+                statement.setString(i ++, entity.getPriority().name());
+                if (entity.getDueDate() != null) {
+                    statement.setTimestamp(i ++, java.sql.Timestamp.valueOf(entity.getDueDate()));
+                } else {
+                    statement.setNull(i ++, java.sql.Types.TIMESTAMP);
+                }
+                statement.setLong(i ++, entity.getBoardColumnId());
+                statement.setString(i, rank);
+                statement.executeUpdate();
+                if (statement.isWrapperFor(StatementImpl.class)){
+                    entity.setId(statement.unwrap(StatementImpl.class).getLastInsertID());
+                }
             }
-            statement.setLong(i, entity.getBoardColumn().getId());
-            statement.executeUpdate();
-            if (statement instanceof StatementImpl impl){
-                entity.setId(impl.getLastInsertID());
-            }
-        }
-        return entity;
+            return entity;
+        });
     }
 
+    /**
+     * Moves the card to the end of the column, which stays locked for appends until the transaction ends.
+     */
     public void moveToColumn(final Long columnId, final Long cardId) throws SQLException{
-        var sql = "UPDATE CARDS SET board_column_id = ? WHERE id = ?;";
-        try(var statement = connection.prepareStatement(sql)){
-            var i = 1;
-            statement.setLong(i ++, columnId);
-            statement.setLong(i, cardId);
-            statement.executeUpdate();
-        }
+        query("CardDAO.moveToColumn", () -> {
+            var rank = Rank.after(new RankDAO(connection, CARDS).findLastForUpdate(columnId));
+            var sql = "UPDATE CARDS SET board_column_id = ?, sort_rank = ? WHERE id = ?;";
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                statement.setLong(i ++, columnId);
+                statement.setString(i ++, rank);
+                statement.setLong(i, cardId);
+                statement.executeUpdate();
+            }
+        });
     }
 
     public Optional<CardDetailsDTO> findById(final Long id) throws SQLException {
-        var sql =
-                """
-                SELECT c.id,
-                       c.title,
-                       c.description,
-                       c.priority,
-                       c.due_date,
-                       b.blocked_at,
-                       b.block_reason,
-                       c.board_column_id,
-                       bc.name,
-                       (SELECT COUNT(sub_b.id)
-                               FROM BLOCKS sub_b
-                              WHERE sub_b.card_id = c.id) blocks_amount
-                  FROM CARDS c
-                  LEFT JOIN BLOCKS b
-                    ON c.id = b.card_id
-                   AND b.unblocked_at IS NULL
-                 INNER JOIN BOARDS_COLUMNS bc
-                    ON bc.id = c.board_column_id
-                  WHERE c.id = ?;
-                """;
-        try(var statement = connection.prepareStatement(sql)){
-            statement.setLong(1, id);
-            statement.executeQuery();
-            var resultSet = statement.getResultSet();
-            if (resultSet.next()){
-                var dto = new CardDetailsDTO(
-                        resultSet.getLong("c.id"),
-                        resultSet.getString("c.title"),
-                        resultSet.getString("c.description"),
-                        nonNull(resultSet.getString("b.block_reason")),
-                        toOffsetDateTime(resultSet.getTimestamp("b.blocked_at")),
-                        resultSet.getString("b.block_reason"),
-                        resultSet.getInt("blocks_amount"),
-                        resultSet.getLong("c.board_column_id"),
-                        resultSet.getString("bc.name"),
-                        resultSet.getString("c.priority"),
-                        toOffsetDateTime(resultSet.getTimestamp("c.due_date"))
-                );
-                return Optional.of(dto);
+        return query("CardDAO.findById", () -> {
+            var sql =
+                    """
+                    SELECT c.id,
+                           c.title,
+                           c.description,
+                           c.priority,
+                           c.due_date,
+                           b.blocked_at,
+                           b.block_reason,
+                           c.board_column_id,
+                           bc.name,
+                           bc.board_id,
+                           (SELECT COUNT(sub_b.id)
+                                   FROM BLOCKS sub_b
+                                  WHERE sub_b.card_id = c.id) blocks_amount
+                      FROM CARDS c
+                      LEFT JOIN BLOCKS b
+                        ON c.id = b.card_id
+                       AND b.unblocked_at IS NULL
+                     INNER JOIN BOARDS_COLUMNS bc
+                        ON bc.id = c.board_column_id
+                     INNER JOIN BOARDS bo
+                        ON bo.id = bc.board_id
+                       AND bo.deleted_at IS NULL
+                      WHERE c.id = ?;
+                    """;
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, id);
+                statement.executeQuery();
+                var resultSet = statement.getResultSet();
+                if (resultSet.next()){
+                    var dto = new CardDetailsDTO(
+                            resultSet.getLong("c.id"),
+                            resultSet.getString("c.title"),
+                            resultSet.getString("c.description"),
+                            nonNull(resultSet.getString("b.block_reason")),
+                            toOffsetDateTime(resultSet.getTimestamp("b.blocked_at")),
+                            resultSet.getString("b.block_reason"),
+                            resultSet.getInt("blocks_amount"),
+                            resultSet.getLong("c.board_column_id"),
+                            resultSet.getString("bc.name"),
+                            resultSet.getString("c.priority"),
+                            toOffsetDateTime(resultSet.getTimestamp("c.due_date")),
+                            resultSet.getLong("bc.board_id")
+                    );
+                    return Optional.of(dto);
+                }
             }
-        }
-        return Optional.empty();
+            return Optional.empty();
+        });
     }
 
 }
@@ -0,0 +1,106 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.content.Descriptions;
+import br.com.dio.content.Descriptions.Deflated;
+import br.com.dio.dto.CardExportRowDTO;
+import br.com.dio.instrumentation.Instrumentation;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.findByName;
+import static java.sql.ResultSet.CONCUR_READ_ONLY;
+import static java.sql.ResultSet.TYPE_FORWARD_ONLY;
+import static java.util.Objects.nonNull;
+
+@AllArgsConstructor
+public class CardExportDAO {
+
+    /**
+     * Makes Connector/J stream rows one by one instead of buffering the whole result set. When the url enables
+     * {@code useCursorFetch} the driver uses a server side cursor instead and fetches {@code board.export.fetchSize}
+     * rows per round trip.
+     */
+    private static final int FETCH_SIZE = Integer.getInteger("board.export.fetchSize", Integer.MIN_VALUE);
+
+    private final Connection connection;
+
+    /**
+     * Streams the cards of the board with their full description, inflated from {@code CARD_DESCRIPTIONS} when
+     * {@code CARDS} only holds its preview.
+     */
+    public long streamByBoardId(final Long boardId, final RowHandler<CardExportRowDTO> handler)
+            throws SQLException, IOException {
+        var sql =
+                """
+                SELECT c.id,
+                       c.title,
+                       c.description,
+                       c.priority,
+                       c.due_date,
+                       c.created_at,
+                       bc.id,
+                       bc.name,
+                       bc.kind,
+                       b.blocked_at,
+                       b.block_reason,
+                       d.text_length,
+                       d.checksum,
+                       d.content
+                  FROM CARDS c
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = c.board_column_id
+                  LEFT JOIN BLOCKS b
+                    ON b.card_id = c.id
+                   AND b.unblocked_at IS NULL
+                  LEFT JOIN CARD_DESCRIPTIONS d
+                    ON d.card_id = c.id
+                 WHERE bc.board_id = ?
+                 ORDER BY c.id;
+                """;
+        var rows = 0L;
+        var start = Instrumentation.start();
+        var failed = true;
+        try(var statement = connection.prepareStatement(sql, TYPE_FORWARD_ONLY, CONCUR_READ_ONLY)){
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setLong(1, boardId);
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()){
+                var row = new CardExportRowDTO(
+                        resultSet.getLong("c.id"),
+                        resultSet.getString("c.title"),
+                        description(resultSet),
+                        resultSet.getString("c.priority"),
+                        toOffsetDateTime(resultSet.getTimestamp("c.due_date")),
+                        toOffsetDateTime(resultSet.getTimestamp("c.created_at")),
+                        resultSet.getLong("bc.id"),
+                        resultSet.getString("bc.name"),
+                        findByName(resultSet.getString("bc.kind")),
+                        nonNull(resultSet.getString("b.block_reason")),
+                        toOffsetDateTime(resultSet.getTimestamp("b.blocked_at")),
+                        resultSet.getString("b.block_reason")
+                );
+                handler.handle(row);
+                rows++;
+            }
+            failed = false;
+        } finally {
+            Instrumentation.stop("CardExportDAO.streamByBoardId", start, rows, failed);
+        }
+        return rows;
+    }
+
+    private static String description(final ResultSet resultSet) throws SQLException {
+        var content = resultSet.getBytes("d.content");
+        if (content == null){
+            return resultSet.getString("c.description");
+        }
+        var stored = new Deflated(resultSet.getInt("d.text_length"), resultSet.getLong("d.checksum"), content);
+        return Descriptions.inflate(resultSet.getLong("c.id"), stored);
+    }
+
+}
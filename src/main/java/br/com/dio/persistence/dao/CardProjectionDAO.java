@@ -0,0 +1,163 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.instrumentation.Instrumentation;
+import br.com.dio.persistence.entity.CardPriorityEnum;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static br.com.dio.instrumentation.Instrumentation.query;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toTimestamp;
+import static java.sql.ResultSet.CONCUR_READ_ONLY;
+import static java.sql.ResultSet.TYPE_FORWARD_ONLY;
+import static java.util.Objects.isNull;
+
+/**
+ * Streams the metadata of a board's cards as primitives, without building an object per card, to fill the
+ * columnar projection of {@link br.com.dio.analytics.BoardAnalytics}.
+ */
+@AllArgsConstructor
+public class CardProjectionDAO {
+
+    /**
+     * Value of {@code dueDate} for cards without a due date, later than any instant.
+     */
+    public static final long NO_DUE_DATE = Long.MAX_VALUE;
+
+    private static final int FETCH_SIZE = Integer.getInteger("board.export.fetchSize", Integer.MIN_VALUE);
+
+    private static final String SELECT =
+            """
+            SELECT c.id,
+                   c.board_column_id,
+                   c.priority,
+                   c.due_date,
+                   c.created_at,
+                   EXISTS(SELECT 1
+                            FROM BLOCKS b
+                           WHERE b.card_id = c.id
+                             AND b.unblocked_at IS NULL) blocked
+              FROM BOARDS_COLUMNS bc
+             INNER JOIN CARDS c
+                ON c.board_column_id = bc.id
+             WHERE bc.board_id = ?
+            """;
+
+    private final Connection connection;
+
+    @FunctionalInterface
+    public interface ProjectionSink {
+
+        /**
+         * @param priority ordinal of {@link CardPriorityEnum}, cards without one count as {@code MEDIUM}
+         * @param dueDate epoch millis or {@link #NO_DUE_DATE}
+         * @param createdAt epoch millis, {@code 0} when unknown
+         */
+        void accept(long id, long columnId, byte priority, long dueDate, long createdAt, boolean blocked);
+
+    }
+
+    public long findByBoardId(final Long boardId, final ProjectionSink sink) throws SQLException {
+        var rows = 0L;
+        var start = Instrumentation.start();
+        var failed = true;
+        try(var statement = connection.prepareStatement(SELECT + ";", TYPE_FORWARD_ONLY, CONCUR_READ_ONLY)){
+            statement.setFetchSize(FETCH_SIZE);
+            statement.setLong(1, boardId);
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()){
+                accept(resultSet, sink);
+                rows++;
+            }
+            failed = false;
+        } finally {
+            Instrumentation.stop("CardProjectionDAO.findByBoardId", start, rows, failed);
+        }
+        return rows;
+    }
+
+    /**
+     * Current state of the given cards of the board, cards that no longer exist are left out.
+     */
+    public long findByIds(final Long boardId, final long[] ids, final ProjectionSink sink) throws SQLException {
+        return query("CardProjectionDAO.findByIds", () -> {
+            if (ids.length == 0){
+                return 0L;
+            }
+            var sql = SELECT + "   AND c.id IN (%s);".formatted(String.join(", ", Collections.nCopies(ids.length, "?")));
+            var rows = 0L;
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                statement.setLong(i ++, boardId);
+                for (var id : ids){
+                    statement.setLong(i ++, id);
+                }
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    accept(resultSet, sink);
+                    rows++;
+                }
+            }
+            return rows;
+        });
+    }
+
+    /**
+     * Ids of the board's cards created, moved, blocked or unblocked since {@code since}, to bring a projection
+     * restored from disk up to date.
+     */
+    public long[] findIdsChangedSince(final Long boardId, final OffsetDateTime since) throws SQLException {
+        return query("CardProjectionDAO.findIdsChangedSince", () -> {
+            var sql =
+                    """
+                    SELECT c.id
+                      FROM BOARDS_COLUMNS bc
+                     INNER JOIN CARDS c
+                        ON c.board_column_id = bc.id
+                     WHERE bc.board_id = ?
+                       AND (c.updated_at >= ?
+                            OR c.created_at >= ?
+                            OR EXISTS(SELECT 1
+                                        FROM BLOCKS b
+                                       WHERE b.card_id = c.id
+                                         AND (b.blocked_at >= ? OR b.unblocked_at >= ?)));
+                    """;
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, boardId);
+                for (var i = 2; i <= 5; i++){
+                    statement.setTimestamp(i, toTimestamp(since));
+                }
+                var resultSet = statement.executeQuery();
+                var ids = new long[16];
+                var count = 0;
+                while (resultSet.next()){
+                    if (count == ids.length){
+                        ids = Arrays.copyOf(ids, count * 2);
+                    }
+                    ids[count++] = resultSet.getLong("c.id");
+                }
+                return Arrays.copyOf(ids, count);
+            }
+        });
+    }
+
+    private static void accept(final ResultSet resultSet, final ProjectionSink sink) throws SQLException {
+        var priority = resultSet.getString("c.priority");
+        var dueDate = resultSet.getTimestamp("c.due_date");
+        var createdAt = resultSet.getTimestamp("c.created_at");
+        sink.accept(
+                resultSet.getLong("c.id"),
+                resultSet.getLong("c.board_column_id"),
+                (byte) (isNull(priority) ? CardPriorityEnum.MEDIUM : CardPriorityEnum.valueOf(priority)).ordinal(),
+                isNull(dueDate) ? NO_DUE_DATE : dueDate.getTime(),
+                isNull(createdAt) ? 0 : createdAt.getTime(),
+                resultSet.getBoolean("blocked")
+        );
+    }
+
+}
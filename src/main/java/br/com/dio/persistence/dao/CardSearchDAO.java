@@ -0,0 +1,226 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.dto.CardFilter;
+import br.com.dio.dto.CardSearchResultDTO;
+import br.com.dio.instrumentation.Instrumentation;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static br.com.dio.instrumentation.Instrumentation.query;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toTimestamp;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.findByName;
+import static java.sql.ResultSet.CONCUR_READ_ONLY;
+import static java.sql.ResultSet.TYPE_FORWARD_ONLY;
+import static java.util.Objects.nonNull;
+
+/**
+ * Runs {@link CardFilter} searches. The live board's columns matching the filter are read first; the cards are then
+ * read by column id, ordered by {@code (board_column_id, id)}: the index of the column foreign key, which InnoDB
+ * extends with the primary key, already keeps that order, so a page is a range of it read up to its limit instead
+ * of every match being sorted. The keyset position is the column and id
+ * of the last card of the previous page.
+ */
+@AllArgsConstructor
+public class CardSearchDAO {
+
+    private static final int FETCH_SIZE = Integer.getInteger("board.search.fetchSize", Integer.MIN_VALUE);
+
+    private final Connection connection;
+
+    private record Column(String name, BoardColumnKindEnum kind) {
+    }
+
+    public List<CardSearchResultDTO> find(final CardFilter filter) throws SQLException {
+        return query("CardSearchDAO.find", () -> {
+            List<CardSearchResultDTO> cards = new ArrayList<>();
+            var columns = findColumns(filter);
+            if (columns.isEmpty()){
+                return cards;
+            }
+            try(var statement = prepare(filter, columns, filter.limit())){
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    cards.add(toResult(resultSet, columns));
+                }
+            }
+            return cards;
+        });
+    }
+
+    /**
+     * Streams every matching card after the filter position, ignoring its page limit, without buffering the
+     * result set.
+     */
+    public long stream(final CardFilter filter, final RowHandler<CardSearchResultDTO> handler)
+            throws SQLException, IOException {
+        var rows = 0L;
+        var start = Instrumentation.start();
+        var failed = true;
+        try {
+            var columns = findColumns(filter);
+            if (!columns.isEmpty()){
+                try(var statement = prepare(filter, columns, 0)){
+                    statement.setFetchSize(FETCH_SIZE);
+                    var resultSet = statement.executeQuery();
+                    while (resultSet.next()){
+                        handler.handle(toResult(resultSet, columns));
+                        rows++;
+                    }
+                }
+            }
+            failed = false;
+        } finally {
+            Instrumentation.stop("CardSearchDAO.stream", start, rows, failed);
+        }
+        return rows;
+    }
+
+    /**
+     * Columns of the live board whose kind matches the filter and that the keyset position has not passed yet, by id.
+     */
+    private Map<Long, Column> findColumns(final CardFilter filter) throws SQLException {
+        Map<Long, Column> columns = new TreeMap<>();
+        List<Object> parameters = new ArrayList<>();
+        var sql = new StringBuilder(
+                """
+                SELECT bc.id,
+                       bc.name,
+                       bc.kind
+                  FROM BOARDS_COLUMNS bc
+                 INNER JOIN BOARDS bo
+                    ON bo.id = bc.board_id
+                   AND bo.deleted_at IS NULL
+                 WHERE bc.board_id = ?
+                """);
+        parameters.add(filter.boardId());
+        in(sql, parameters, "bc.kind", filter.columnKinds());
+        if (nonNull(filter.afterColumnId())){
+            sql.append("   AND bc.id >= ?\n");
+            parameters.add(filter.afterColumnId());
+        }
+        try(var statement = prepareStatement(sql.append(';').toString(), parameters)){
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()){
+                columns.put(resultSet.getLong("bc.id"),
+                        new Column(resultSet.getString("bc.name"), findByName(resultSet.getString("bc.kind"))));
+            }
+        }
+        return columns;
+    }
+
+    private PreparedStatement prepare(final CardFilter filter, final Map<Long, Column> columns, final int limit)
+            throws SQLException {
+        List<Object> parameters = new ArrayList<>(columns.keySet());
+        var sql = new StringBuilder(
+                """
+                SELECT c.id,
+                       c.title,
+                       c.priority,
+                       c.due_date,
+                       c.created_at,
+                       c.board_column_id,
+                       EXISTS(SELECT 1
+                                FROM BLOCKS b
+                               WHERE b.card_id = c.id
+                                 AND b.unblocked_at IS NULL) blocked
+                  FROM CARDS c
+                """)
+                .append(" WHERE c.board_column_id IN (")
+                .append(String.join(", ", Collections.nCopies(columns.size(), "?")))
+                .append(")\n");
+        in(sql, parameters, "c.priority", filter.priorities());
+        range(sql, parameters, "c.due_date", filter.dueFrom(), filter.dueTo());
+        range(sql, parameters, "c.created_at", filter.createdFrom(), filter.createdTo());
+        if (nonNull(filter.blocked())){
+            sql.append(filter.blocked() ? "   AND EXISTS" : "   AND NOT EXISTS")
+                    .append("(SELECT 1 FROM BLOCKS b WHERE b.card_id = c.id AND b.unblocked_at IS NULL)\n");
+        }
+        if (nonNull(filter.afterColumnId())){
+            sql.append("   AND (c.board_column_id > ? OR c.board_column_id = ? AND c.id > ?)\n");
+            parameters.add(filter.afterColumnId());
+            parameters.add(filter.afterColumnId());
+            parameters.add(filter.afterId());
+        }
+        sql.append(" ORDER BY c.board_column_id, c.id");
+        if (limit > 0){
+            sql.append("\n LIMIT ?");
+            parameters.add(limit);
+        }
+        return prepareStatement(sql.append(';').toString(), parameters);
+    }
+
+    private PreparedStatement prepareStatement(final String sql, final List<Object> parameters) throws SQLException {
+        var statement = connection.prepareStatement(sql, TYPE_FORWARD_ONLY, CONCUR_READ_ONLY);
+        try {
+            for (var i = 0; i < parameters.size(); i++){
+                var parameter = parameters.get(i);
+                if (parameter instanceof OffsetDateTime dateTime){
+                    statement.setTimestamp(i + 1, toTimestamp(dateTime));
+                } else if (parameter instanceof Enum<?> constant){
+                    statement.setString(i + 1, constant.name());
+                } else {
+                    statement.setObject(i + 1, parameter);
+                }
+            }
+            return statement;
+        } catch (SQLException ex){
+            statement.close();
+            throw ex;
+        }
+    }
+
+    private static void in(final StringBuilder sql, final List<Object> parameters, final String column,
+                           final Collection<? extends Enum<?>> values){
+        if (values.isEmpty()){
+            return;
+        }
+        sql.append("   AND ").append(column).append(" IN (")
+                .append(String.join(", ", Collections.nCopies(values.size(), "?")))
+                .append(")\n");
+        values.stream().sorted().forEach(parameters::add);
+    }
+
+    private static void range(final StringBuilder sql, final List<Object> parameters, final String column,
+                              final OffsetDateTime from, final OffsetDateTime to){
+        if (nonNull(from)){
+            sql.append("   AND ").append(column).append(" >= ?\n");
+            parameters.add(from);
+        }
+        if (nonNull(to)){
+            sql.append("   AND ").append(column).append(" < ?\n");
+            parameters.add(to);
+        }
+    }
+
+    private static CardSearchResultDTO toResult(final ResultSet resultSet, final Map<Long, Column> columns)
+            throws SQLException {
+        var columnId = resultSet.getLong("c.board_column_id");
+        var column = columns.get(columnId);
+        return new CardSearchResultDTO(
+                resultSet.getLong("c.id"),
+                resultSet.getString("c.title"),
+                resultSet.getString("c.priority"),
+                toOffsetDateTime(resultSet.getTimestamp("c.due_date")),
+                toOffsetDateTime(resultSet.getTimestamp("c.created_at")),
+                resultSet.getBoolean("blocked"),
+                columnId,
+                column.name(),
+                column.kind()
+        );
+    }
+
+}
@@ -0,0 +1,111 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.dto.ChangeFeedEntryDTO;
+import br.com.dio.event.BoardEventType;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.dio.instrumentation.Instrumentation.query;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toTimestamp;
+
+@AllArgsConstructor
+public class ChangeFeedDAO {
+
+    private final Connection connection;
+
+    public void append(final BoardEventType type, final Long boardId, final Long columnId, final Long cardId,
+                       final String origin) throws SQLException {
+        query("ChangeFeedDAO.append", () -> {
+            var sql = "INSERT INTO CHANGE_FEED (event_type, board_id, column_id, card_id, origin) VALUES (?, ?, ?, ?, ?);";
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                statement.setString(i ++, type.name());
+                statement.setLong(i ++, boardId);
+                statement.setObject(i ++, columnId, Types.BIGINT);
+                statement.setObject(i ++, cardId, Types.BIGINT);
+                statement.setString(i, origin);
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    public List<ChangeFeedEntryDTO> findAfter(final long id, final int limit) throws SQLException {
+        return query("ChangeFeedDAO.findAfter", () -> {
+            List<ChangeFeedEntryDTO> entries = new ArrayList<>();
+            var sql = "SELECT id, event_type, board_id, column_id, card_id, origin FROM CHANGE_FEED WHERE id > ? ORDER BY id LIMIT ?;";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, id);
+                statement.setInt(2, limit);
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    entries.add(new ChangeFeedEntryDTO(
+                            resultSet.getLong("id"),
+                            typeOf(resultSet.getString("event_type")),
+                            resultSet.getLong("board_id"),
+                            resultSet.getObject("column_id", Long.class),
+                            resultSet.getObject("card_id", Long.class),
+                            resultSet.getString("origin")
+                    ));
+                }
+            }
+            return entries;
+        });
+    }
+
+    /**
+     * The event type named {@code name}, null for one written by a newer version of the application.
+     */
+    private static BoardEventType typeOf(final String name){
+        for (var type : BoardEventType.values()){
+            if (type.name().equals(name)){
+                return type;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Highest id written so far, {@code 0} for an empty feed.
+     */
+    public long findLastId() throws SQLException {
+        return query("ChangeFeedDAO.findLastId", () -> {
+            try(var statement = connection.prepareStatement("SELECT MAX(id) FROM CHANGE_FEED;")){
+                var resultSet = statement.executeQuery();
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        });
+    }
+
+    /**
+     * Lowest id still in the feed, or {@code null} once everything was compacted.
+     */
+    public Long findFirstId() throws SQLException {
+        return query("ChangeFeedDAO.findFirstId", () -> {
+            try(var statement = connection.prepareStatement("SELECT MIN(id) FROM CHANGE_FEED;")){
+                var resultSet = statement.executeQuery();
+                resultSet.next();
+                var id = resultSet.getLong(1);
+                return resultSet.wasNull() ? null : id;
+            }
+        });
+    }
+
+    public int deleteBefore(final OffsetDateTime cutoff, final int limit) throws SQLException {
+        return query("ChangeFeedDAO.deleteBefore", () -> {
+            var sql = "DELETE FROM CHANGE_FEED WHERE created_at < ? ORDER BY id LIMIT ?;";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setTimestamp(1, toTimestamp(cutoff));
+                statement.setInt(2, limit);
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,69 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.dto.IdempotencyRecordDTO;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+import static br.com.dio.instrumentation.Instrumentation.query;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toTimestamp;
+
+@AllArgsConstructor
+public class IdempotencyKeyDAO {
+
+    private final Connection connection;
+
+    public Optional<IdempotencyRecordDTO> findByKey(final String key) throws SQLException {
+        return query("IdempotencyKeyDAO.findByKey", () -> {
+            var sql = "SELECT operation, result_id, created_at FROM IDEMPOTENCY_KEYS WHERE idem_key = ?;";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setString(1, key);
+                var resultSet = statement.executeQuery();
+                if (resultSet.next()){
+                    return Optional.of(new IdempotencyRecordDTO(
+                            key,
+                            resultSet.getString("operation"),
+                            resultSet.getObject("result_id", Long.class),
+                            toOffsetDateTime(resultSet.getTimestamp("created_at"))
+                    ));
+                }
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Stores the outcome in the caller's transaction. A concurrent request that committed the same key first makes
+     * it fail with a duplicate key error.
+     */
+    public void insert(final IdempotencyRecordDTO record) throws SQLException {
+        query("IdempotencyKeyDAO.insert", () -> {
+            var sql = "INSERT INTO IDEMPOTENCY_KEYS (idem_key, operation, result_id, created_at) VALUES (?, ?, ?, ?);";
+            try(var statement = connection.prepareStatement(sql)){
+                var i = 1;
+                statement.setString(i ++, record.key());
+                statement.setString(i ++, record.operation());
+                statement.setObject(i ++, record.resultId(), Types.BIGINT);
+                statement.setTimestamp(i, toTimestamp(record.createdAt()));
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    public int deleteBefore(final OffsetDateTime cutoff, final int limit) throws SQLException {
+        return query("IdempotencyKeyDAO.deleteBefore", () -> {
+            var sql = "DELETE FROM IDEMPOTENCY_KEYS WHERE created_at < ? ORDER BY created_at LIMIT ?;";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setTimestamp(1, toTimestamp(cutoff));
+                statement.setInt(2, limit);
+                return statement.executeUpdate();
+            }
+        });
+    }
+
+}
@@ -0,0 +1,180 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.rank.Rank;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static br.com.dio.instrumentation.Instrumentation.query;
+
+/**
+ * Reads and writes the {@code sort_rank} of cards within their column or of columns within their board. Rank
+ * changes leave {@code updated_at} alone: reordering or renumbering a list does not change its rows.
+ */
+@AllArgsConstructor
+public class RankDAO {
+
+    private final Connection connection;
+    private final Ranked ranked;
+
+    public enum Ranked {
+
+        CARDS("CARDS", "board_column_id", "BOARDS_COLUMNS"),
+        COLUMNS("BOARDS_COLUMNS", "board_id", "BOARDS");
+
+        private final String table;
+        private final String parent;
+        private final String parentTable;
+
+        Ranked(final String table, final String parent, final String parentTable) {
+            this.table = table;
+            this.parent = parent;
+            this.parentTable = parentTable;
+        }
+
+    }
+
+    public record RankedRow(long id, long parentId, String rank) {
+    }
+
+    public Optional<RankedRow> findById(final Long id) throws SQLException {
+        return query("RankDAO.findById", () -> {
+            var sql = "SELECT id, %s, sort_rank FROM %s WHERE id = ?;".formatted(ranked.parent, ranked.table);
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, id);
+                var resultSet = statement.executeQuery();
+                if (resultSet.next()){
+                    return Optional.of(new RankedRow(resultSet.getLong(1), resultSet.getLong(2), resultSet.getString(3)));
+                }
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Rank of the last row under the parent, {@code null} when it has none, to append a row after it. The parent
+     * row stays locked until the transaction ends, so concurrent appends to the same parent take turns and each one
+     * reads the rank the previous one committed instead of computing the same rank.
+     */
+    public String findLastForUpdate(final Long parentId) throws SQLException {
+        return query("RankDAO.findLastForUpdate", () -> {
+            var lock = "SELECT id FROM %s WHERE id = ? FOR UPDATE;".formatted(ranked.parentTable);
+            try(var statement = connection.prepareStatement(lock)){
+                statement.setLong(1, parentId);
+                statement.executeQuery();
+            }
+            // a locking read, so it sees the latest committed rows rather than the transaction's snapshot
+            var sql = "SELECT sort_rank FROM %s WHERE %s = ? ORDER BY sort_rank DESC, id DESC LIMIT 1 FOR UPDATE;"
+                    .formatted(ranked.table, ranked.parent);
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, parentId);
+                var resultSet = statement.executeQuery();
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        });
+    }
+
+    /**
+     * Rank of the row that follows {@code after} under the parent, or of the first row when {@code after} is
+     * {@code null}, leaving out the row being moved. {@code null} when there is none.
+     */
+    public String findNext(final Long parentId, final RankedRow after, final Long excludedId) throws SQLException {
+        return query("RankDAO.findNext", () -> {
+            var sql = after == null ?
+                    """
+                    SELECT sort_rank
+                      FROM %s
+                     WHERE %s = ?
+                       AND id <> ?
+                     ORDER BY sort_rank, id
+                     LIMIT 1;
+                    """ :
+                    """
+                    SELECT sort_rank
+                      FROM %s
+                     WHERE %s = ?
+                       AND id <> ?
+                       AND (sort_rank > ? OR (sort_rank = ? AND id > ?))
+                     ORDER BY sort_rank, id
+                     LIMIT 1;
+                    """;
+            try(var statement = connection.prepareStatement(sql.formatted(ranked.table, ranked.parent))){
+                var i = 1;
+                statement.setLong(i ++, parentId);
+                statement.setLong(i ++, excludedId);
+                if (after != null){
+                    statement.setString(i ++, after.rank());
+                    statement.setString(i ++, after.rank());
+                    statement.setLong(i, after.id());
+                }
+                var resultSet = statement.executeQuery();
+                return resultSet.next() ? resultSet.getString(1) : null;
+            }
+        });
+    }
+
+    public void update(final Long id, final String rank) throws SQLException {
+        query("RankDAO.update", () -> {
+            var sql = "UPDATE %s SET sort_rank = ?, updated_at = updated_at WHERE id = ?;".formatted(ranked.table);
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setString(1, rank);
+                statement.setLong(2, id);
+                statement.executeUpdate();
+            }
+        });
+    }
+
+    /**
+     * Gives the rows under the parent fresh {@link Rank#sequence(int)} ranks in their current order, locking them
+     * first so that no move interleaves.
+     */
+    public int renumber(final Long parentId) throws SQLException {
+        return query("RankDAO.renumber", () -> {
+            List<Long> ids = new ArrayList<>();
+            var select = "SELECT id FROM %s WHERE %s = ? ORDER BY sort_rank, id FOR UPDATE;"
+                    .formatted(ranked.table, ranked.parent);
+            try(var statement = connection.prepareStatement(select)){
+                statement.setLong(1, parentId);
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+            var update = "UPDATE %s SET sort_rank = ?, updated_at = updated_at WHERE id = ?;".formatted(ranked.table);
+            try(var statement = connection.prepareStatement(update)){
+                for (var i = 0; i < ids.size(); i++){
+                    statement.setString(1, Rank.sequence(i));
+                    statement.setLong(2, ids.get(i));
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+            }
+            return ids.size();
+        });
+    }
+
+    /**
+     * Up to {@code limit} parents with a rank longer than {@code maxLength}.
+     */
+    public List<Long> findParentsWithLongRanks(final int maxLength, final int limit) throws SQLException {
+        return query("RankDAO.findParentsWithLongRanks", () -> {
+            List<Long> ids = new ArrayList<>();
+            var sql = "SELECT DISTINCT %s FROM %s WHERE CHAR_LENGTH(sort_rank) > ? LIMIT ?;"
+                    .formatted(ranked.parent, ranked.table);
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setInt(1, maxLength);
+                statement.setInt(2, limit);
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+            return ids;
+        });
+    }
+
+}
@@ -0,0 +1,13 @@
+package br.com.dio.persistence.dao;
+
+import java.io.IOException;
+
+/**
+ * Receives rows from a streaming query one at a time, while the cursor is still open.
+ */
+@FunctionalInterface
+public interface RowHandler<T> {
+
+    void handle(final T row) throws IOException;
+
+}
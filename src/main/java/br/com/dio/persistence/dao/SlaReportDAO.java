@@ -0,0 +1,121 @@
+package br.com.dio.persistence.dao;
+
+import br.com.dio.dto.SlaReportRowDTO;
+import br.com.dio.instrumentation.Instrumentation;
+import br.com.dio.persistence.entity.CardPriorityEnum;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static br.com.dio.dto.SlaReportRowDTO.Status.AT_RISK;
+import static br.com.dio.dto.SlaReportRowDTO.Status.OVERDUE;
+import static br.com.dio.instrumentation.Instrumentation.query;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toTimestamp;
+import static java.sql.ResultSet.CONCUR_READ_ONLY;
+import static java.sql.ResultSet.TYPE_FORWARD_ONLY;
+import static java.util.Objects.isNull;
+
+@AllArgsConstructor
+public class SlaReportDAO {
+
+    private static final int FETCH_SIZE = Integer.getInteger("board.report.fetchSize", Integer.MIN_VALUE);
+
+    private final Connection connection;
+
+    /**
+     * Up to {@code limit} ids of live boards greater than {@code afterId}, in id order, to walk a shard page by page.
+     */
+    public List<Long> findBoardIdsAfter(final long afterId, final int limit) throws SQLException {
+        return query("SlaReportDAO.findBoardIdsAfter", () -> {
+            List<Long> ids = new ArrayList<>();
+            var sql = "SELECT id FROM BOARDS WHERE id > ? AND deleted_at IS NULL ORDER BY id LIMIT ?;";
+            try(var statement = connection.prepareStatement(sql)){
+                statement.setLong(1, afterId);
+                statement.setInt(2, limit);
+                var resultSet = statement.executeQuery();
+                while (resultSet.next()){
+                    ids.add(resultSet.getLong("id"));
+                }
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Streams the cards of the given boards that sit in an initial or pending column and are due before
+     * {@code until}, with their current block if any. Cards due before {@code now} are overdue, the others at risk.
+     */
+    public long streamDueBefore(final List<Long> boardIds, final OffsetDateTime now, final OffsetDateTime until,
+                                final RowHandler<SlaReportRowDTO> handler) throws SQLException, IOException {
+        if (boardIds.isEmpty()){
+            return 0;
+        }
+        var sql =
+                """
+                SELECT bo.id,
+                       bo.name,
+                       c.id,
+                       c.title,
+                       c.priority,
+                       c.due_date,
+                       bc.name,
+                       b.blocked_at,
+                       b.block_reason
+                  FROM BOARDS bo
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.board_id = bo.id
+                 INNER JOIN CARDS c
+                    ON c.board_column_id = bc.id
+                  LEFT JOIN BLOCKS b
+                    ON b.card_id = c.id
+                   AND b.unblocked_at IS NULL
+                 WHERE bo.id IN (%s)
+                   AND bo.deleted_at IS NULL
+                   AND bc.kind IN ('INITIAL', 'PENDING')
+                   AND c.due_date < ?
+                 ORDER BY bo.id, c.due_date, c.id;
+                """.formatted(String.join(", ", Collections.nCopies(boardIds.size(), "?")));
+        var rows = 0L;
+        var start = Instrumentation.start();
+        var failed = true;
+        try(var statement = connection.prepareStatement(sql, TYPE_FORWARD_ONLY, CONCUR_READ_ONLY)){
+            statement.setFetchSize(FETCH_SIZE);
+            var i = 1;
+            for (var boardId : boardIds){
+                statement.setLong(i ++, boardId);
+            }
+            statement.setTimestamp(i, toTimestamp(until));
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()){
+                var priority = resultSet.getString("c.priority");
+                var dueDate = toOffsetDateTime(resultSet.getTimestamp("c.due_date"));
+                var row = new SlaReportRowDTO(
+                        resultSet.getLong("bo.id"),
+                        resultSet.getString("bo.name"),
+                        resultSet.getLong("c.id"),
+                        resultSet.getString("c.title"),
+                        isNull(priority) ? CardPriorityEnum.MEDIUM : CardPriorityEnum.valueOf(priority),
+                        dueDate,
+                        dueDate.isBefore(now) ? OVERDUE : AT_RISK,
+                        resultSet.getString("bc.name"),
+                        toOffsetDateTime(resultSet.getTimestamp("b.blocked_at")),
+                        resultSet.getString("b.block_reason")
+                );
+                handler.handle(row);
+                rows++;
+            }
+            failed = false;
+        } finally {
+            Instrumentation.stop("SlaReportDAO.streamDueBefore", start, rows, failed);
+        }
+        return rows;
+    }
+
+}
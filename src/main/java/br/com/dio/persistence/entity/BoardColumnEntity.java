@@ -1,11 +1,6 @@
 package br.com.dio.persistence.entity;
 
 import lombok.Data;
-import lombok.EqualsAndHashCode;
-import lombok.ToString;
-
-import java.util.ArrayList;
-import java.util.List;
 
 @Data
 public class BoardColumnEntity {
@@ -13,12 +8,22 @@ public class BoardColumnEntity {
     private Long id;
     private String name;
     private int order;
+    private String rank;
     private BoardColumnKindEnum kind;
     private java.time.LocalDateTime createdAt;
     private java.time.LocalDateTime updatedAt;
-    private BoardEntity board = new BoardEntity();
-    @ToString.Exclude
-    @EqualsAndHashCode.Exclude
-    private List<CardEntity> cards = new ArrayList<>();
+    private Ref<BoardEntity> board;
+
+    public void setBoard(final Ref<BoardEntity> board){
+        this.board = board;
+    }
+
+    public void setBoard(final BoardEntity board){
+        this.board = Ref.to(board.getId());
+    }
+
+    public Long getBoardId(){
+        return board == null ? null : board.id();
+    }
 
 }
@@ -2,6 +2,10 @@ package br.com.dio.persistence.entity;
 
 import lombok.Data;
 
+/**
+ * Card being written. Its column and board are referenced by id only, reads return records such as
+ * {@link br.com.dio.dto.CardDetailsDTO} instead.
+ */
 @Data
 public class CardEntity {
 
@@ -12,6 +16,12 @@ public class CardEntity {
     private java.time.LocalDateTime dueDate;
     private java.time.LocalDateTime createdAt;
     private java.time.LocalDateTime updatedAt;
-    private BoardColumnEntity boardColumn = new BoardColumnEntity();
+    private Long boardColumnId;
+    private Long boardId;
+
+    public void setBoardColumn(final BoardColumnEntity boardColumn){
+        this.boardColumnId = boardColumn.getId();
+        this.boardId = boardColumn.getBoardId();
+    }
 
 }
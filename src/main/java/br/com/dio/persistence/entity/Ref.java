@@ -0,0 +1,40 @@
+package br.com.dio.persistence.entity;
+
+import java.util.Objects;
+
+/**
+ * Reference to another entity by id, so an entity holds its association without the row it points to. References are
+ * equal when their ids are, so comparing entities never walks the object graph.
+ */
+public final class Ref<T> {
+
+    private final Long id;
+
+    private Ref(final Long id) {
+        this.id = id;
+    }
+
+    public static <T> Ref<T> to(final Long id){
+        return new Ref<>(id);
+    }
+
+    public Long id(){
+        return id;
+    }
+
+    @Override
+    public boolean equals(final Object other){
+        return other instanceof Ref<?> ref && Objects.equals(id, ref.id);
+    }
+
+    @Override
+    public int hashCode(){
+        return Objects.hashCode(id);
+    }
+
+    @Override
+    public String toString(){
+        return "Ref(" + id + ")";
+    }
+
+}
@@ -0,0 +1,72 @@
+package br.com.dio.persistence.migration;
+
+import lombok.NoArgsConstructor;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.file.FileSystemAlreadyExistsException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * SHA-256 over the master changelog and every file under {@code db/changelog/migrations}, in name order. Works
+ * both from the resources directory and from inside a jar.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class ChangelogFingerprint {
+
+    private static final String MASTER = "db/changelog/db.changelog-master.yml";
+    private static final String MIGRATIONS = "db/changelog/migrations";
+
+    static String compute() throws IOException {
+        var loader = ChangelogFingerprint.class.getClassLoader();
+        var master = loader.getResource(MASTER);
+        var migrations = loader.getResource(MIGRATIONS);
+        if (isNull(master) || isNull(migrations)){
+            throw new IOException("Changelog resources were not found on the classpath");
+        }
+        try {
+            var digest = MessageDigest.getInstance("SHA-256");
+            try(var in = master.openStream()){
+                digest.update(in.readAllBytes());
+            }
+            var uri = migrations.toURI();
+            if (uri.getScheme().equals("jar")){
+                try(var fileSystem = FileSystems.newFileSystem(uri, Map.of())){
+                    update(digest, fileSystem.getPath(MIGRATIONS));
+                } catch (FileSystemAlreadyExistsException ex){
+                    update(digest, FileSystems.getFileSystem(uri).getPath(MIGRATIONS));
+                }
+            } else {
+                update(digest, Path.of(uri));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | URISyntaxException ex){
+            throw new IOException(ex);
+        }
+    }
+
+    private static void update(final MessageDigest digest, final Path directory) throws IOException {
+        List<Path> files;
+        try(var stream = Files.list(directory)){
+            files = stream.filter(Files::isRegularFile)
+                    .sorted((a, b) -> a.getFileName().toString().compareTo(b.getFileName().toString()))
+                    .toList();
+        }
+        for (var file : files){
+            digest.update(file.getFileName().toString().getBytes(UTF_8));
+            digest.update(Files.readAllBytes(file));
+        }
+    }
+
+}
@@ -0,0 +1,31 @@
+package br.com.dio.persistence.migration;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight Recorder event of bringing one shard's schema up to date at startup, recorded for every shard, including
+ * one whose check or migration failed.
+ */
+@Name("br.com.dio.Migration")
+@Label("Shard Migration")
+@Category({"Board", "Startup"})
+@Description("Schema check and Liquibase update of one shard")
+@StackTrace(false)
+class MigrationEvent extends Event {
+
+    @Label("Shard")
+    int shard;
+
+    @Label("Migrated")
+    @Description("Whether Liquibase ran, false when the stored changelog fingerprint matched")
+    boolean migrated;
+
+    @Label("Failed")
+    boolean failed;
+
+}
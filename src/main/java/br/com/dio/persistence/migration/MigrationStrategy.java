@@ -13,37 +13,121 @@ import java.sql.Connection;
 import java.sql.SQLException;
 
 import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ShardMap.size;
+import static java.lang.System.Logger.Level.INFO;
+import static java.lang.System.Logger.Level.WARNING;
+import static java.util.Objects.nonNull;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
 
 @AllArgsConstructor
 public class MigrationStrategy {
 
+    private static final System.Logger LOGGER = System.getLogger(MigrationStrategy.class.getName());
+
+    private static final boolean FORCE = Boolean.getBoolean("board.migration.force");
+
     private final Connection connection;
 
-    public void executeMigration(){
+    /**
+     * Brings every shard up to date. Liquibase only runs on a shard whose stored changelog fingerprint differs
+     * from the one of the changelog set shipped with the application, otherwise startup costs one connection and
+     * one query per shard. {@code -Dboard.migration.force=true} always runs Liquibase.
+     */
+    public static void executeOnAllShards() throws SQLException {
+        var start = System.nanoTime();
+        String fingerprint = null;
+        try {
+            fingerprint = ChangelogFingerprint.compute();
+        } catch (IOException ex){
+            LOGGER.log(WARNING, "Could not fingerprint the changelog, running migrations: {0}", ex.getMessage());
+        }
+        LOGGER.log(INFO, "Startup: changelog fingerprint computed in {0} ms", millisSince(start));
+        for (var shard = 0; shard < size(); shard++){
+            var shardStart = System.nanoTime();
+            var event = new MigrationEvent();
+            event.begin();
+            event.shard = shard;
+            event.failed = true;
+            try(var connection = getConnection(shard)){
+                var connected = System.nanoTime();
+                var migrated = new MigrationStrategy(connection).executeMigration(fingerprint);
+                event.migrated = migrated;
+                event.failed = false;
+                LOGGER.log(INFO, "Startup: shard {0} connected in {1} ms, {2} in {3} ms",
+                        shard, millisSince(shardStart), migrated ? "migrated" : "up to date", millisSince(connected));
+            } finally {
+                event.commit();
+            }
+        }
+        LOGGER.log(INFO, "Startup: schema ready in {0} ms", millisSince(start));
+    }
+
+    /**
+     * Runs Liquibase unless the database already carries the given fingerprint and records it once the update
+     * succeeded. Returns whether Liquibase ran; a failed update throws, so startup stops instead of running
+     * against a stale schema.
+     */
+    public boolean executeMigration(final String fingerprint) throws SQLException {
+        if (!FORCE && nonNull(fingerprint) && fingerprint.equals(findStoredFingerprint())){
+            return false;
+        }
+        executeMigration();
+        if (nonNull(fingerprint)){
+            storeFingerprint(fingerprint);
+        }
+        return true;
+    }
+
+    public void executeMigration() throws SQLException {
         var originalOut = System.out;
         var originalErr = System.err;
-        try(var fos = new FileOutputStream("liquibase.log")){
+        try(var fos = new FileOutputStream("liquibase.log", true)){
             System.setOut(new PrintStream(fos));
             System.setErr(new PrintStream(fos));
-            try(
-                    var connection = getConnection();
-                    var jdbcConnection = new JdbcConnection(connection);
-            ){
+            try{
+                var jdbcConnection = new JdbcConnection(connection);
                 var liquibase = new Liquibase(
                         "/db/changelog/db.changelog-master.yml",
                         new ClassLoaderResourceAccessor(),
                         jdbcConnection);
                 liquibase.update();
-            } catch (SQLException | LiquibaseException e) {
-                e.printStackTrace();
-                System.setErr(originalErr);
+                connection.commit();
+            } catch (LiquibaseException ex) {
+                ex.printStackTrace();
+                throw new SQLException("Migration failed, see liquibase.log: %s".formatted(ex.getMessage()), ex);
             }
         } catch (IOException ex){
-            ex.printStackTrace();
+            throw new SQLException("Could not open liquibase.log: %s".formatted(ex.getMessage()), ex);
         } finally {
             System.setOut(originalOut);
             System.setErr(originalErr);
         }
     }
 
+    private String findStoredFingerprint() throws SQLException {
+        var sql = "SELECT fingerprint FROM SCHEMA_FINGERPRINT WHERE id = 1;";
+        try(var statement = connection.prepareStatement(sql)){
+            var resultSet = statement.executeQuery();
+            return resultSet.next() ? resultSet.getString("fingerprint") : null;
+        } catch (SQLException ex){
+            // the marker table does not exist before the first migration
+            connection.rollback();
+            return null;
+        }
+    }
+
+    private void storeFingerprint(final String fingerprint) throws SQLException {
+        var sql = "INSERT INTO SCHEMA_FINGERPRINT (id, fingerprint) VALUES (1, ?) ON DUPLICATE KEY UPDATE fingerprint = ?, applied_at = CURRENT_TIMESTAMP;";
+        try(var statement = connection.prepareStatement(sql)){
+            statement.setString(1, fingerprint);
+            statement.setString(2, fingerprint);
+            statement.executeUpdate();
+            connection.commit();
+        }
+    }
+
+    private static long millisSince(final long start){
+        return NANOSECONDS.toMillis(System.nanoTime() - start);
+    }
+
 }
@@ -0,0 +1,227 @@
+package br.com.dio.persistence.snapshot;
+
+import br.com.dio.content.AttachmentStore;
+import br.com.dio.dto.AttachmentDTO;
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.CardContentDAO;
+import lombok.AllArgsConstructor;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static br.com.dio.persistence.snapshot.SnapshotBlockWriter.timeOf;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.ATTACHMENT_BLOCK;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.BOARD_BLOCK;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.CARDS_BLOCK;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.CARDS_PER_BLOCK;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.COLUMNS_BLOCK;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.DESCRIPTIONS_BLOCK;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.END_BLOCK;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.MAGIC;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.NULL_TIME;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.VERSION;
+import static java.sql.ResultSet.CONCUR_READ_ONLY;
+import static java.sql.ResultSet.TYPE_FORWARD_ONLY;
+import static java.util.Objects.isNull;
+
+/**
+ * Writes a board, its cards and their contents to a snapshot file, see {@link SnapshotFormat}. Cards are streamed
+ * from a single query; attachment metadata is read before it starts, since a streaming result set keeps the
+ * connection busy until it is fully read.
+ */
+@AllArgsConstructor
+public class BoardSnapshotExporter {
+
+    private final Connection connection;
+
+    public long export(final Long boardId, final Path target) throws SQLException, IOException {
+        var board = new BoardDAO(connection).findById(boardId).orElseThrow(
+                () -> new EntityNotFoundException("Board with id %s was not found".formatted(boardId))
+        );
+        try(var out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(target), 1 << 16))){
+            out.writeInt(MAGIC);
+            out.writeShort(VERSION);
+            var writer = new SnapshotBlockWriter(out);
+
+            writer.records().writeInt(writer.stringRef(board.getName()));
+            writer.recordWritten();
+            writer.flush(BOARD_BLOCK);
+
+            for (var column : new BoardColumnDAO(connection).findByBoardId(boardId)){
+                var records = writer.records();
+                records.writeLong(column.getId());
+                records.writeInt(writer.stringRef(column.getName()));
+                records.writeInt(column.getOrder());
+                records.writeInt(writer.stringRef(column.getKind().name()));
+                writer.recordWritten();
+            }
+            writer.flush(COLUMNS_BLOCK);
+
+            var contents = new ContentWriter(out, new CardContentDAO(connection).findAttachmentsByBoardId(boardId));
+            var cards = writeCards(boardId, writer, contents);
+            writer.records().writeLong(cards);
+            writer.recordWritten();
+            writer.flush(END_BLOCK);
+            return cards;
+        }
+    }
+
+    private long writeCards(final Long boardId, final SnapshotBlockWriter writer, final ContentWriter contents)
+            throws SQLException, IOException {
+        var sql =
+                """
+                SELECT c.id,
+                       c.title,
+                       c.description,
+                       c.priority,
+                       c.due_date,
+                       c.created_at,
+                       c.board_column_id,
+                       d.text_length,
+                       d.checksum,
+                       d.content,
+                       b.id,
+                       b.blocked_at,
+                       b.block_reason,
+                       b.unblocked_at,
+                       b.unblock_reason
+                  FROM CARDS c
+                 INNER JOIN BOARDS_COLUMNS bc
+                    ON bc.id = c.board_column_id
+                  LEFT JOIN CARD_DESCRIPTIONS d
+                    ON d.card_id = c.id
+                  LEFT JOIN BLOCKS b
+                    ON b.card_id = c.id
+                 WHERE bc.board_id = ?
+                 ORDER BY c.board_column_id, c.sort_rank, c.id, b.id;
+                """;
+        var blockBuffer = new ByteArrayOutputStream();
+        var blocks = new DataOutputStream(blockBuffer);
+        var blocksAmount = 0;
+        var currentCardId = 0L;
+        var cards = 0L;
+        try(var statement = connection.prepareStatement(sql, TYPE_FORWARD_ONLY, CONCUR_READ_ONLY)){
+            statement.setFetchSize(Integer.MIN_VALUE);
+            statement.setLong(1, boardId);
+            var resultSet = statement.executeQuery();
+            while (resultSet.next()){
+                var cardId = resultSet.getLong("c.id");
+                if (cardId != currentCardId){
+                    if (currentCardId != 0){
+                        finishCard(writer, contents, blockBuffer, blocksAmount);
+                        blocksAmount = 0;
+                        cards++;
+                    }
+                    currentCardId = cardId;
+                    var records = writer.records();
+                    records.writeLong(cardId);
+                    records.writeLong(resultSet.getLong("c.board_column_id"));
+                    records.writeInt(writer.stringRef(resultSet.getString("c.title")));
+                    records.writeInt(writer.stringRef(resultSet.getString("c.description")));
+                    records.writeInt(writer.stringRef(resultSet.getString("c.priority")));
+                    records.writeLong(timeOf(resultSet.getTimestamp("c.due_date")));
+                    records.writeLong(timeOf(resultSet.getTimestamp("c.created_at")));
+                    contents.card(cardId, resultSet);
+                }
+                resultSet.getLong("b.id");
+                if (!resultSet.wasNull()){
+                    blocks.writeLong(timeOf(resultSet.getTimestamp("b.blocked_at")));
+                    blocks.writeInt(writer.stringRef(resultSet.getString("b.block_reason")));
+                    blocks.writeLong(timeOf(resultSet.getTimestamp("b.unblocked_at")));
+                    blocks.writeInt(writer.stringRef(resultSet.getString("b.unblock_reason")));
+                    blocksAmount++;
+                }
+            }
+            if (currentCardId != 0){
+                finishCard(writer, contents, blockBuffer, blocksAmount);
+                cards++;
+            }
+        }
+        if (writer.recordCount() > 0){
+            writer.flush(CARDS_BLOCK);
+            contents.flush();
+        }
+        return cards;
+    }
+
+    private void finishCard(final SnapshotBlockWriter writer, final ContentWriter contents,
+                            final ByteArrayOutputStream blockBuffer, final int blocksAmount) throws IOException {
+        var records = writer.records();
+        records.writeInt(blocksAmount);
+        blockBuffer.writeTo(records);
+        blockBuffer.reset();
+        writer.recordWritten();
+        if (writer.recordCount() == CARDS_PER_BLOCK){
+            writer.flush(CARDS_BLOCK);
+            contents.flush();
+        }
+    }
+
+    /**
+     * Collects the long descriptions and attachments of the cards of the current card block and writes them right
+     * after it, so an import can relate them to the cards it has just inserted.
+     */
+    private static final class ContentWriter {
+
+        private final SnapshotBlockWriter descriptions;
+        private final SnapshotBlockWriter attachments;
+        private final Map<Long, List<AttachmentDTO>> attachmentsByCard;
+        private final List<AttachmentDTO> pending = new ArrayList<>();
+
+        private ContentWriter(final DataOutputStream out, final Map<Long, List<AttachmentDTO>> attachmentsByCard) {
+            this.descriptions = new SnapshotBlockWriter(out);
+            this.attachments = new SnapshotBlockWriter(out);
+            this.attachmentsByCard = attachmentsByCard;
+        }
+
+        private void card(final long cardId, final ResultSet resultSet) throws SQLException, IOException {
+            var content = resultSet.getBytes("d.content");
+            if (!isNull(content)){
+                var records = descriptions.records();
+                records.writeLong(cardId);
+                records.writeInt(resultSet.getInt("d.text_length"));
+                records.writeLong(resultSet.getLong("d.checksum"));
+                records.writeInt(content.length);
+                records.write(content);
+                descriptions.recordWritten();
+            }
+            pending.addAll(attachmentsByCard.getOrDefault(cardId, List.of()));
+        }
+
+        private void flush() throws IOException {
+            if (descriptions.recordCount() > 0){
+                descriptions.flush(DESCRIPTIONS_BLOCK);
+            }
+            var store = AttachmentStore.get();
+            for (var attachment : pending){
+                var records = attachments.records();
+                records.writeLong(attachment.cardId());
+                records.writeInt(attachments.stringRef(attachment.fileName()));
+                records.writeLong(attachment.size());
+                records.writeLong(attachment.checksum());
+                records.writeLong(isNull(attachment.createdAt())
+                        ? NULL_TIME
+                        : attachment.createdAt().toInstant().toEpochMilli());
+                store.copyTo(attachment, Channels.newChannel(records));
+                attachments.recordWritten();
+                attachments.flush(ATTACHMENT_BLOCK);
+            }
+            pending.clear();
+        }
+
+    }
+
+}
@@ -0,0 +1,246 @@
+package br.com.dio.persistence.snapshot;
+
+import br.com.dio.content.AttachmentStore;
+import br.com.dio.content.AttachmentStore.Staged;
+import br.com.dio.content.Descriptions.Deflated;
+import br.com.dio.dto.AttachmentDTO;
+import br.com.dio.exception.SnapshotCorruptedException;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.BoardPurgeDAO;
+import br.com.dio.persistence.dao.CardContentDAO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.rank.Rank;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static br.com.dio.persistence.converter.OffsetDateTimeConverter.toOffsetDateTime;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.findByName;
+import static br.com.dio.persistence.snapshot.SnapshotBlock.timestamp;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.ATTACHMENT_BLOCK;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.BLOCK_ENTRY_BYTES;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.BOARD_BLOCK;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.CARD_HEADER_BYTES;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.CARDS_BLOCK;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.COLUMNS_BLOCK;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.DESCRIPTIONS_BLOCK;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.END_BLOCK;
+import static java.sql.Statement.RETURN_GENERATED_KEYS;
+import static java.sql.Types.TIMESTAMP;
+import static java.util.Objects.isNull;
+
+/**
+ * Imports a snapshot as a new board. Every card block is inserted with two batched statements and committed on its
+ * own, so an import never holds more than one block of cards in memory or in the undo log. A failed import removes
+ * the partially imported board. Columns and cards arrive in rank order and are numbered afresh. Long descriptions
+ * and attachments are committed with the cards of their block; attachment files are staged while the block is
+ * inserted and only published once it is committed.
+ */
+@AllArgsConstructor
+public class BoardSnapshotImporter {
+
+    private final Connection connection;
+
+    private record Upload(Staged staged, AttachmentDTO attachment) {
+    }
+
+    public BoardEntity importBoard(final Path source) throws SQLException, IOException {
+        try(var reader = new SnapshotBlockReader(source)){
+            var board = insertBoard(reader);
+            var store = AttachmentStore.get();
+            List<Staged> staged = new ArrayList<>();
+            try {
+                var columnIds = insertColumns(reader, board);
+                connection.commit();
+                Map<Long, Integer> columnSizes = new HashMap<>();
+                var cards = 0L;
+                var block = reader.next();
+                while (block.type() == CARDS_BLOCK){
+                    var cardIds = insertCards(block, columnIds, columnSizes);
+                    cards += block.recordCount();
+                    List<Upload> uploads = new ArrayList<>();
+                    block = reader.next();
+                    while (block.type() == DESCRIPTIONS_BLOCK || block.type() == ATTACHMENT_BLOCK){
+                        if (block.type() == DESCRIPTIONS_BLOCK){
+                            insertDescriptions(block, cardIds);
+                        } else {
+                            uploads.add(insertAttachment(block, cardIds, store, staged));
+                        }
+                        block = reader.next();
+                    }
+                    connection.commit();
+                    for (var upload : uploads){
+                        store.publishAfterCommit(connection, upload.staged(), upload.attachment());
+                    }
+                    staged.clear();
+                }
+                if (block.type() != END_BLOCK || block.records().getLong() != cards){
+                    throw new SnapshotCorruptedException("Snapshot card count does not match its content");
+                }
+                return board;
+            } catch (SQLException | IOException | RuntimeException ex){
+                connection.rollback();
+                for (var file : staged){
+                    store.discard(file);
+                }
+                new BoardDAO(connection).markDeleted(board.getId());
+                new BoardPurgeDAO(connection).register(board.getId());
+                connection.commit();
+                throw ex;
+            }
+        }
+    }
+
+    private BoardEntity insertBoard(final SnapshotBlockReader reader) throws SQLException, IOException {
+        var block = reader.next(BOARD_BLOCK);
+        var board = new BoardEntity();
+        board.setName(block.string(block.records().getInt()));
+        new BoardDAO(connection).insert(board);
+        return board;
+    }
+
+    private Map<Long, Long> insertColumns(final SnapshotBlockReader reader, final BoardEntity board)
+            throws SQLException, IOException {
+        var block = reader.next(COLUMNS_BLOCK);
+        var records = block.records();
+        var dao = new BoardColumnDAO(connection);
+        Map<Long, Long> columnIds = new HashMap<>();
+        for (var i = 0; i < block.recordCount(); i++){
+            var originalId = records.getLong();
+            var column = new BoardColumnEntity();
+            column.setName(block.string(records.getInt()));
+            column.setOrder(records.getInt());
+            column.setKind(findByName(block.string(records.getInt())));
+            column.setRank(Rank.sequence(i));
+            column.setBoard(board);
+            dao.insert(column);
+            board.getBoardColumns().add(column);
+            columnIds.put(originalId, column.getId());
+        }
+        return columnIds;
+    }
+
+    /**
+     * Inserts the cards of the block, returning their new ids by their exported ones.
+     */
+    private Map<Long, Long> insertCards(final SnapshotBlock block, final Map<Long, Long> columnIds,
+                                        final Map<Long, Integer> columnSizes) throws SQLException {
+        var cardSql = "INSERT INTO CARDS (title, description, priority, due_date, created_at, board_column_id, sort_rank) VALUES (?, ?, ?, ?, ?, ?, ?);";
+        var blockSql = "INSERT INTO BLOCKS (blocked_at, block_reason, unblocked_at, unblock_reason, card_id) VALUES (?, ?, ?, ?, ?);";
+        var records = block.records();
+        var start = records.position();
+        var originalIds = new long[block.recordCount()];
+        var cardIds = new long[block.recordCount()];
+        try(var statement = connection.prepareStatement(cardSql, RETURN_GENERATED_KEYS)){
+            for (var i = 0; i < block.recordCount(); i++){
+                originalIds[i] = records.getLong();
+                var columnId = columnIds.get(records.getLong());
+                if (isNull(columnId)){
+                    throw new SnapshotCorruptedException("Snapshot card references an unknown column");
+                }
+                var j = 1;
+                statement.setString(j ++, block.string(records.getInt()));
+                statement.setString(j ++, block.string(records.getInt()));
+                statement.setString(j ++, block.string(records.getInt()));
+                var dueDate = timestamp(records.getLong());
+                if (isNull(dueDate)){
+                    statement.setNull(j ++, TIMESTAMP);
+                } else {
+                    statement.setTimestamp(j ++, dueDate);
+                }
+                statement.setTimestamp(j ++, timestamp(records.getLong()));
+                statement.setLong(j ++, columnId);
+                statement.setString(j, Rank.sequence(columnSizes.merge(columnId, 1, Integer::sum) - 1));
+                statement.addBatch();
+                var blocksAmount = records.getInt();
+                records.position(records.position() + blocksAmount * BLOCK_ENTRY_BYTES);
+            }
+            statement.executeBatch();
+            var keys = statement.getGeneratedKeys();
+            var generated = 0;
+            while (keys.next()){
+                cardIds[generated ++] = keys.getLong(1);
+            }
+            if (generated != cardIds.length){
+                throw new SQLException("Generated ids are missing for imported cards");
+            }
+        }
+        records.position(start);
+        try(var statement = connection.prepareStatement(blockSql)){
+            for (var cardId : cardIds){
+                records.position(records.position() + CARD_HEADER_BYTES);
+                var blocksAmount = records.getInt();
+                for (var i = 0; i < blocksAmount; i++){
+                    var j = 1;
+                    statement.setTimestamp(j ++, timestamp(records.getLong()));
+                    statement.setString(j ++, block.string(records.getInt()));
+                    statement.setTimestamp(j ++, timestamp(records.getLong()));
+                    statement.setString(j ++, block.string(records.getInt()));
+                    statement.setLong(j, cardId);
+                    statement.addBatch();
+                }
+            }
+            statement.executeBatch();
+        }
+        Map<Long, Long> ids = new HashMap<>();
+        for (var i = 0; i < cardIds.length; i++){
+            ids.put(originalIds[i], cardIds[i]);
+        }
+        return ids;
+    }
+
+    private void insertDescriptions(final SnapshotBlock block, final Map<Long, Long> cardIds) throws SQLException {
+        var records = block.records();
+        var dao = new CardContentDAO(connection);
+        for (var i = 0; i < block.recordCount(); i++){
+            var cardId = importedId(cardIds, records.getLong());
+            var length = records.getInt();
+            var checksum = records.getLong();
+            var content = new byte[records.getInt()];
+            records.get(content);
+            dao.insertDescription(cardId, new Deflated(length, checksum, content));
+        }
+    }
+
+    /**
+     * Stages the attachment file, adding it to {@code staged} until it is published, and inserts its row.
+     */
+    private Upload insertAttachment(final SnapshotBlock block, final Map<Long, Long> cardIds,
+                                    final AttachmentStore store, final List<Staged> staged)
+            throws SQLException, IOException {
+        var records = block.records();
+        var cardId = importedId(cardIds, records.getLong());
+        var fileName = block.string(records.getInt());
+        var size = records.getLong();
+        var checksum = records.getLong();
+        var createdAt = toOffsetDateTime(timestamp(records.getLong()));
+        if (size != records.remaining()){
+            throw new SnapshotCorruptedException("Snapshot attachment does not match its recorded size");
+        }
+        var file = store.stage(fileName, records);
+        staged.add(file);
+        if (file.checksum() != checksum){
+            throw new SnapshotCorruptedException("Checksum mismatch in snapshot attachment %s".formatted(fileName));
+        }
+        var attachment = new CardContentDAO(connection).insertAttachment(cardId, fileName, size, checksum, createdAt);
+        return new Upload(file, attachment);
+    }
+
+    private static Long importedId(final Map<Long, Long> cardIds, final long originalId){
+        var cardId = cardIds.get(originalId);
+        if (isNull(cardId)){
+            throw new SnapshotCorruptedException("Snapshot content references an unknown card");
+        }
+        return cardId;
+    }
+
+}
@@ -0,0 +1,19 @@
+package br.com.dio.persistence.snapshot;
+
+import java.nio.ByteBuffer;
+import java.sql.Timestamp;
+
+import static br.com.dio.persistence.snapshot.SnapshotFormat.NULL_STRING;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.NULL_TIME;
+
+record SnapshotBlock(byte type, int recordCount, ByteBuffer records, String[] strings) {
+
+    String string(final int ref){
+        return ref == NULL_STRING ? null : strings[ref];
+    }
+
+    static Timestamp timestamp(final long value){
+        return value == NULL_TIME ? null : new Timestamp(value);
+    }
+
+}
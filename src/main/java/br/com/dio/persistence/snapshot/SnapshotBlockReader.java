@@ -0,0 +1,87 @@
+package br.com.dio.persistence.snapshot;
+
+import br.com.dio.exception.SnapshotCorruptedException;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+import static br.com.dio.persistence.snapshot.SnapshotFormat.BLOCK_HEADER_BYTES;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.FILE_HEADER_BYTES;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.MAGIC;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.VERSION;
+import static java.nio.channels.FileChannel.MapMode.READ_ONLY;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Reads snapshot blocks through memory mapped regions of the file, one block at a time, so the heap only holds
+ * the string table of the current block.
+ */
+final class SnapshotBlockReader implements AutoCloseable {
+
+    private final FileChannel channel;
+    private final CRC32 crc = new CRC32();
+    private long position;
+
+    SnapshotBlockReader(final Path source) throws IOException {
+        this.channel = FileChannel.open(source, READ);
+        if (channel.size() < FILE_HEADER_BYTES){
+            throw new SnapshotCorruptedException("File %s is not a board snapshot".formatted(source));
+        }
+        var header = channel.map(READ_ONLY, 0, FILE_HEADER_BYTES);
+        if (header.getInt() != MAGIC){
+            throw new SnapshotCorruptedException("File %s is not a board snapshot".formatted(source));
+        }
+        var version = header.getShort();
+        if (version < 1 || version > VERSION){
+            throw new SnapshotCorruptedException("Unsupported snapshot version %s".formatted(version));
+        }
+        this.position = FILE_HEADER_BYTES;
+    }
+
+    SnapshotBlock next(final byte expectedType) throws IOException {
+        var block = next();
+        if (block.type() != expectedType){
+            var message = "Expected snapshot block %s but found %s".formatted(expectedType, block.type());
+            throw new SnapshotCorruptedException(message);
+        }
+        return block;
+    }
+
+    SnapshotBlock next() throws IOException {
+        if (position + BLOCK_HEADER_BYTES > channel.size()){
+            throw new SnapshotCorruptedException("Snapshot is truncated at byte %s".formatted(position));
+        }
+        var header = channel.map(READ_ONLY, position, BLOCK_HEADER_BYTES);
+        var type = header.get();
+        var recordCount = header.getInt();
+        var length = header.getInt();
+        var payloadStart = position + BLOCK_HEADER_BYTES;
+        if (length < 0 || payloadStart + length + Integer.BYTES > channel.size()){
+            throw new SnapshotCorruptedException("Snapshot is truncated at byte %s".formatted(position));
+        }
+        var payload = channel.map(READ_ONLY, payloadStart, length + (long) Integer.BYTES);
+        crc.reset();
+        crc.update(payload.slice(0, length));
+        if ((int) crc.getValue() != payload.getInt(length)){
+            throw new SnapshotCorruptedException("Checksum mismatch in snapshot block at byte %s".formatted(position));
+        }
+        payload.limit(length);
+        var strings = new String[payload.getInt()];
+        for (var i = 0; i < strings.length; i++){
+            var bytes = new byte[payload.getInt()];
+            payload.get(bytes);
+            strings[i] = new String(bytes, UTF_8);
+        }
+        position = payloadStart + length + Integer.BYTES;
+        return new SnapshotBlock(type, recordCount, payload.slice(), strings);
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+}
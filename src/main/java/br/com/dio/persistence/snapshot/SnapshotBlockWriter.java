@@ -0,0 +1,85 @@
+package br.com.dio.persistence.snapshot;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import static br.com.dio.persistence.snapshot.SnapshotFormat.NULL_STRING;
+import static br.com.dio.persistence.snapshot.SnapshotFormat.NULL_TIME;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.util.Objects.isNull;
+
+final class SnapshotBlockWriter {
+
+    private final DataOutputStream out;
+    private final Map<String, Integer> stringRefs = new HashMap<>();
+    private final List<String> strings = new ArrayList<>();
+    private final ByteArrayOutputStream recordBuffer = new ByteArrayOutputStream();
+    private final DataOutputStream records = new DataOutputStream(recordBuffer);
+    private final ByteArrayOutputStream payloadBuffer = new ByteArrayOutputStream();
+    private final CRC32 crc = new CRC32();
+    private int recordCount;
+
+    SnapshotBlockWriter(final DataOutputStream out) {
+        this.out = out;
+    }
+
+    DataOutputStream records(){
+        return records;
+    }
+
+    int stringRef(final String value){
+        if (isNull(value)){
+            return NULL_STRING;
+        }
+        return stringRefs.computeIfAbsent(value, v -> {
+            strings.add(v);
+            return strings.size() - 1;
+        });
+    }
+
+    static long timeOf(final Timestamp value){
+        return isNull(value) ? NULL_TIME : value.getTime();
+    }
+
+    void recordWritten(){
+        recordCount++;
+    }
+
+    int recordCount(){
+        return recordCount;
+    }
+
+    void flush(final byte type) throws IOException {
+        var payload = new DataOutputStream(payloadBuffer);
+        payload.writeInt(strings.size());
+        for (var value : strings){
+            var bytes = value.getBytes(UTF_8);
+            payload.writeInt(bytes.length);
+            payload.write(bytes);
+        }
+        records.flush();
+        recordBuffer.writeTo(payload);
+        payload.flush();
+        var bytes = payloadBuffer.toByteArray();
+        crc.reset();
+        crc.update(bytes);
+        out.writeByte(type);
+        out.writeInt(recordCount);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+        out.writeInt((int) crc.getValue());
+        stringRefs.clear();
+        strings.clear();
+        recordBuffer.reset();
+        payloadBuffer.reset();
+        recordCount = 0;
+    }
+
+}
@@ -0,0 +1,47 @@
+package br.com.dio.persistence.snapshot;
+
+import lombok.NoArgsConstructor;
+
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Layout of a board snapshot file.
+ * <pre>
+ * file   := MAGIC:int VERSION:short block* END block
+ * block  := type:byte recordCount:int payloadLength:int payload crc32(payload):int
+ * payload:= stringCount:int (length:int utf8)* record*
+ * </pre>
+ * Records reference strings by their index in the string table of the same block, {@link #NULL_STRING} is null.
+ * Timestamps are epoch millis, {@link #NULL_TIME} is null. Each card record is followed by its fixed size block
+ * entries so a card block can be skipped through without decoding them.
+ * <p>
+ * Since version 2 a card block may be followed by a descriptions block holding the deflated full text of its long
+ * descriptions, as stored in {@code CARD_DESCRIPTIONS}, and by one attachment block per attachment of its cards:
+ * <pre>
+ * description := cardId:long textLength:int checksum:long contentLength:int content
+ * attachment  := cardId:long fileName:int size:long checksum:long createdAt:long content
+ * </pre>
+ * Card ids are the exported ones and only relate these records to the card records before them.
+ */
+@NoArgsConstructor(access = PRIVATE)
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x42445331;
+    static final short VERSION = 2;
+    static final int FILE_HEADER_BYTES = Integer.BYTES + Short.BYTES;
+    static final int BLOCK_HEADER_BYTES = Byte.BYTES + Integer.BYTES + Integer.BYTES;
+    static final int CARD_HEADER_BYTES = Long.BYTES * 2 + Integer.BYTES * 3 + Long.BYTES * 2;
+    static final int BLOCK_ENTRY_BYTES = Long.BYTES + Integer.BYTES + Long.BYTES + Integer.BYTES;
+
+    static final byte END_BLOCK = 0;
+    static final byte BOARD_BLOCK = 1;
+    static final byte COLUMNS_BLOCK = 2;
+    static final byte CARDS_BLOCK = 3;
+    static final byte DESCRIPTIONS_BLOCK = 4;
+    static final byte ATTACHMENT_BLOCK = 5;
+
+    static final int CARDS_PER_BLOCK = 4096;
+    static final int NULL_STRING = -1;
+    static final long NULL_TIME = Long.MIN_VALUE;
+
+}
@@ -0,0 +1,136 @@
+package br.com.dio.rank;
+
+import lombok.NoArgsConstructor;
+
+import static java.util.Objects.isNull;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Lexicographic ranks ordering cards within a column and columns within a board. A rank is a string of base 36
+ * digits ({@code 0-9a-z}, compared with a binary collation) read as a fraction, so there is always room for a rank
+ * between two others and a move rewrites only the moved row. Ranks never end with {@code 0}, otherwise nothing could
+ * sort between {@code "a"} and {@code "a0"}. Freshly numbered lists use {@link #sequence(int)}, six digits and a
+ * suffix, the same ranks the migration gave existing rows.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class Rank {
+
+    private static final String DIGITS = "0123456789abcdefghijklmnopqrstuvwxyz";
+    private static final int BASE = DIGITS.length();
+    private static final int WIDTH = 6;
+    private static final char SUFFIX = 'i';
+
+    /**
+     * Rank of the element at {@code position}, counting from {@code 0}, of a list numbered from scratch.
+     */
+    public static String sequence(final int position){
+        var digits = new char[WIDTH];
+        var value = position + 1L;
+        for (var i = WIDTH - 1; i >= 0; i--){
+            digits[i] = DIGITS.charAt((int) (value % BASE));
+            value /= BASE;
+        }
+        if (value > 0){
+            throw new IllegalArgumentException("Position %s does not fit a rank".formatted(position));
+        }
+        return new String(digits) + SUFFIX;
+    }
+
+    /**
+     * A rank sorting after {@code rank}, or the first rank of a list when {@code rank} is {@code null}. Appending
+     * adds one to the first six digits, so a column filled card after card keeps short ranks; only when they are
+     * all {@code z} are more digits used.
+     */
+    public static String after(final String rank){
+        if (isNull(rank)){
+            return sequence(0);
+        }
+        for (var width = WIDTH; ; width *= 2){
+            var digits = head(rank, width);
+            for (var i = width - 1; i >= 0; i--){
+                if (digits[i] < BASE - 1){
+                    digits[i]++;
+                    return text(digits);
+                }
+                digits[i] = 0;
+            }
+        }
+    }
+
+    /**
+     * A rank sorting before {@code rank}, or the first rank of a list when {@code rank} is {@code null}. Same as
+     * {@link #after(String)} taking one from the first digits.
+     */
+    public static String before(final String rank){
+        if (isNull(rank)){
+            return sequence(0);
+        }
+        for (var width = WIDTH; ; width *= 2){
+            var digits = head(rank, width);
+            for (var i = width - 1; i >= 0; i--){
+                if (digits[i] > 0){
+                    digits[i]--;
+                    return text(digits);
+                }
+                digits[i] = BASE - 1;
+            }
+        }
+    }
+
+    /**
+     * A rank sorting strictly between the two, {@code null} standing for the start or the end of the list. The
+     * result is the shortest midpoint, one digit longer than the common prefix at most when the ranks are adjacent.
+     */
+    public static String between(final String lower, final String upper){
+        if (isNull(lower)){
+            if (isNull(upper)){
+                return sequence(0);
+            }
+        } else if (isNull(upper)){
+            return after(lower);
+        } else if (lower.compareTo(upper) >= 0){
+            throw new IllegalArgumentException("Rank %s does not sort before %s".formatted(lower, upper));
+        }
+        var result = new StringBuilder();
+        var upperOpen = isNull(upper);
+        for (var i = 0; ; i++){
+            var low = digitAt(lower, i);
+            var high = upperOpen ? BASE : digitAt(upper, i);
+            if (high - low > 1){
+                return result.append(DIGITS.charAt((low + high) >>> 1)).toString();
+            }
+            result.append(DIGITS.charAt(low));
+            if (high - low == 1){
+                upperOpen = true;
+            }
+        }
+    }
+
+    private static int[] head(final String rank, final int width){
+        var digits = new int[width];
+        for (var i = 0; i < width; i++){
+            digits[i] = digitAt(rank, i);
+        }
+        return digits;
+    }
+
+    private static String text(final int[] digits){
+        var text = new StringBuilder(digits.length + 1);
+        for (var digit : digits){
+            text.append(DIGITS.charAt(digit));
+        }
+        return digits[digits.length - 1] == 0 ? text.append(SUFFIX).toString() : text.toString();
+    }
+
+    private static int digitAt(final String rank, final int index){
+        if (isNull(rank) || index >= rank.length()){
+            return 0;
+        }
+        var digit = DIGITS.indexOf(rank.charAt(index));
+        if (digit < 0){
+            throw new IllegalArgumentException("Invalid rank %s".formatted(rank));
+        }
+        return digit;
+    }
+
+}
@@ -0,0 +1,273 @@
+package br.com.dio.report;
+
+import br.com.dio.dto.SlaReportRowDTO;
+import br.com.dio.dto.SlaReportSummaryDTO;
+import br.com.dio.export.CsvSlaReportWriter;
+import br.com.dio.instrumentation.Instrumentation;
+import br.com.dio.persistence.dao.RowHandler;
+import br.com.dio.persistence.dao.SlaReportDAO;
+import br.com.dio.persistence.entity.CardPriorityEnum;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static br.com.dio.dto.SlaReportRowDTO.Status.OVERDUE;
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ShardMap.size;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardCopyOption.ATOMIC_MOVE;
+import static java.nio.file.StandardCopyOption.REPLACE_EXISTING;
+import static java.time.ZoneOffset.UTC;
+import static java.util.concurrent.TimeUnit.SECONDS;
+
+/**
+ * Report of the overdue cards of every board and of those due within {@code board.report.atRiskHours}. Each shard's
+ * boards are read in id order and cut into work units of {@code board.report.boardsPerUnit} boards; a producer hands
+ * them through a bounded queue to {@code board.report.parallelism} workers on virtual threads, each holding its own
+ * connection per shard. Workers stream their cards, count them per priority and pass them in chunks to the calling
+ * thread, the only one writing the file. A chunk closes after {@value #CHUNK_ROWS} rows at the next board boundary,
+ * so it always carries whole boards and rows are grouped by board; boards appear in the order their chunks are
+ * written. The chunk queue holds about {@code board.report.maxBufferedRows} rows, plus the tail of the largest
+ * boards, so a slow disk holds the workers back instead of filling the heap.
+ */
+public class SlaReportEngine {
+
+    private static final int CHUNK_ROWS = 500;
+
+    private static final WorkUnit NO_MORE_UNITS = new WorkUnit(-1, List.of());
+    private static final List<SlaReportRowDTO> WORKER_DONE = new ArrayList<>(0);
+
+    private final int parallelism = Integer.getInteger("board.report.parallelism",
+            Runtime.getRuntime().availableProcessors());
+    private final int boardsPerUnit = Integer.getInteger("board.report.boardsPerUnit", 100);
+    private final int maxBufferedRows = Integer.getInteger("board.report.maxBufferedRows", 20000);
+    private final Duration atRisk = Duration.ofHours(Long.getLong("board.report.atRiskHours", 24));
+
+    private record WorkUnit(int shard, List<Long> boardIds) {
+    }
+
+    /**
+     * Writes {@code sla-report-<date>.csv} into {@code dir}, replacing the report of the same day, and returns its
+     * totals. The file only appears once complete; a failing unit fails the whole report.
+     */
+    public SlaReportSummaryDTO run(final Path dir) throws SQLException, IOException, InterruptedException {
+        var now = OffsetDateTime.now(UTC);
+        var until = now.plus(atRisk);
+        Files.createDirectories(dir);
+        var file = dir.resolve("sla-report-%s.csv".formatted(now.toLocalDate()));
+        var temporary = dir.resolve(file.getFileName() + ".tmp");
+        BlockingQueue<WorkUnit> units = new ArrayBlockingQueue<>(parallelism * 2);
+        BlockingQueue<List<SlaReportRowDTO>> chunks =
+                new ArrayBlockingQueue<>(Math.max(1, maxBufferedRows / CHUNK_ROWS));
+        var start = Instrumentation.start();
+        var rows = 0L;
+        var failed = true;
+        var executor = Executors.newVirtualThreadPerTaskExecutor();
+        try(var out = Files.newBufferedWriter(temporary, UTF_8)){
+            List<Future<?>> tasks = new ArrayList<>();
+            tasks.add(executor.submit(() -> produce(units)));
+            List<Future<Partial>> workers = new ArrayList<>();
+            for (var i = 0; i < parallelism; i++){
+                workers.add(executor.submit(() -> work(units, chunks, now, until)));
+            }
+            tasks.addAll(workers);
+            var writer = new CsvSlaReportWriter(out);
+            writer.writeHeader();
+            var finished = 0;
+            while (finished < parallelism){
+                var chunk = chunks.poll(1, SECONDS);
+                if (chunk == null){
+                    checkFailures(tasks);
+                } else if (chunk == WORKER_DONE){
+                    finished++;
+                } else {
+                    for (var row : chunk){
+                        writer.write(row);
+                    }
+                    rows += chunk.size();
+                }
+            }
+            var totals = new Partial(chunks);
+            for (var worker : workers){
+                totals.merge(get(worker));
+            }
+            var summary = totals.toSummary(file);
+            out.write('\n');
+            writer.writeTotals(summary);
+            writer.flush();
+            failed = false;
+            return summary;
+        } finally {
+            executor.shutdownNow();
+            executor.close();
+            if (failed){
+                Files.deleteIfExists(temporary);
+            } else {
+                Files.move(temporary, file, ATOMIC_MOVE, REPLACE_EXISTING);
+            }
+            Instrumentation.stop("SlaReportEngine.run", start, rows, failed);
+        }
+    }
+
+    /**
+     * Pages through the boards of every shard. Each page ends its read transaction, so a producer waiting for the
+     * workers does not hold a snapshot open for the whole report.
+     */
+    private Void produce(final BlockingQueue<WorkUnit> units) throws SQLException, InterruptedException {
+        for (var shard = 0; shard < size(); shard++){
+            try(var connection = getConnection(shard)){
+                var dao = new SlaReportDAO(connection);
+                var afterId = 0L;
+                List<Long> boardIds;
+                do {
+                    boardIds = dao.findBoardIdsAfter(afterId, boardsPerUnit);
+                    connection.rollback();
+                    if (!boardIds.isEmpty()){
+                        units.put(new WorkUnit(shard, boardIds));
+                        afterId = boardIds.getLast();
+                    }
+                } while (boardIds.size() == boardsPerUnit);
+            }
+        }
+        for (var i = 0; i < parallelism; i++){
+            units.put(NO_MORE_UNITS);
+        }
+        return null;
+    }
+
+    private Partial work(final BlockingQueue<WorkUnit> units, final BlockingQueue<List<SlaReportRowDTO>> chunks,
+                         final OffsetDateTime now, final OffsetDateTime until)
+            throws SQLException, IOException, InterruptedException {
+        var partial = new Partial(chunks);
+        var connections = new Connection[size()];
+        try {
+            for (var unit = units.take(); unit != NO_MORE_UNITS; unit = units.take()){
+                var connection = connections[unit.shard()];
+                if (connection == null){
+                    connection = getConnection(unit.shard());
+                    connections[unit.shard()] = connection;
+                }
+                new SlaReportDAO(connection).streamDueBefore(unit.boardIds(), now, until, partial);
+                connection.rollback();
+                partial.boards += unit.boardIds().size();
+                partial.flush();
+            }
+            chunks.put(WORKER_DONE);
+            return partial;
+        } finally {
+            for (var connection : connections){
+                if (connection != null){
+                    connection.close();
+                }
+            }
+        }
+    }
+
+    private static void checkFailures(final List<Future<?>> tasks) throws SQLException, IOException {
+        for (var task : tasks){
+            if (task.isDone()){
+                get(task);
+            }
+        }
+    }
+
+    private static <T> T get(final Future<T> task) throws SQLException, IOException {
+        try {
+            return task.get();
+        } catch (InterruptedException ex){
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for the report workers");
+        } catch (ExecutionException ex){
+            switch (ex.getCause()){
+                case SQLException cause -> throw cause;
+                case IOException cause -> throw cause;
+                case RuntimeException cause -> throw cause;
+                default -> throw new IllegalStateException(ex.getCause());
+            }
+        }
+    }
+
+    /**
+     * Totals of one worker and the chunk of rows it is filling, never split within a board.
+     */
+    private static final class Partial implements RowHandler<SlaReportRowDTO> {
+
+        private final BlockingQueue<List<SlaReportRowDTO>> chunks;
+        private final long[] overdue = new long[CardPriorityEnum.values().length];
+        private final long[] atRisk = new long[CardPriorityEnum.values().length];
+        private long boards;
+        private long blocked;
+        private List<SlaReportRowDTO> chunk = new ArrayList<>(CHUNK_ROWS);
+
+        private Partial(final BlockingQueue<List<SlaReportRowDTO>> chunks) {
+            this.chunks = chunks;
+        }
+
+        @Override
+        public void handle(final SlaReportRowDTO row) throws IOException {
+            if (row.status() == OVERDUE){
+                overdue[row.priority().ordinal()]++;
+            } else {
+                atRisk[row.priority().ordinal()]++;
+            }
+            if (row.blocked()){
+                blocked++;
+            }
+            if (chunk.size() >= CHUNK_ROWS && !chunk.getLast().boardId().equals(row.boardId())){
+                flush();
+            }
+            chunk.add(row);
+        }
+
+        private void flush() throws InterruptedIOException {
+            if (chunk.isEmpty()){
+                return;
+            }
+            try {
+                chunks.put(chunk);
+            } catch (InterruptedException ex){
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while handing rows to the report writer");
+            }
+            chunk = new ArrayList<>(CHUNK_ROWS);
+        }
+
+        private void merge(final Partial other){
+            for (var i = 0; i < overdue.length; i++){
+                overdue[i] += other.overdue[i];
+                atRisk[i] += other.atRisk[i];
+            }
+            boards += other.boards;
+            blocked += other.blocked;
+        }
+
+        private SlaReportSummaryDTO toSummary(final Path file){
+            Map<CardPriorityEnum, Long> overdueByPriority = new EnumMap<>(CardPriorityEnum.class);
+            Map<CardPriorityEnum, Long> atRiskByPriority = new EnumMap<>(CardPriorityEnum.class);
+            var cards = 0L;
+            for (var priority : CardPriorityEnum.values()){
+                overdueByPriority.put(priority, overdue[priority.ordinal()]);
+                atRiskByPriority.put(priority, atRisk[priority.ordinal()]);
+                cards += overdue[priority.ordinal()] + atRisk[priority.ordinal()];
+            }
+            return new SlaReportSummaryDTO(file, boards, cards, blocked, overdueByPriority, atRiskByPriority);
+        }
+
+    }
+
+}
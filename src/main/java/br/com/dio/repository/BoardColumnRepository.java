@@ -1,5 +1,6 @@
 package br.com.dio.repository;
 
+import br.com.dio.dto.ColumnViewDTO;
 import br.com.dio.persistence.entity.BoardColumnEntity;
 
 import java.sql.SQLException;
@@ -8,5 +9,5 @@ import java.util.Optional;
 
 public interface BoardColumnRepository {
     List<BoardColumnEntity> findByBoardId(Long boardId) throws SQLException;
-    Optional<BoardColumnEntity> findById(Long id) throws SQLException;
+    Optional<ColumnViewDTO> findById(Long id) throws SQLException;
 }
\ No newline at end of file
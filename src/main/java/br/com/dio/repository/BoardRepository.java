@@ -1,9 +1,11 @@
 package br.com.dio.repository;
 
 import br.com.dio.dto.BoardDetailsDTO;
+import br.com.dio.dto.BoardSummaryDTO;
 import br.com.dio.persistence.entity.BoardEntity;
 
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
 
 public interface BoardRepository {
@@ -12,4 +14,5 @@ public interface BoardRepository {
     Optional<BoardDetailsDTO> findDetailsById(Long id) throws SQLException;
     boolean deleteById(Long id) throws SQLException;
     boolean existsById(Long id) throws SQLException;
+    List<BoardSummaryDTO> findPage(String namePrefix, BoardSummaryDTO after, int limit, boolean withCardTotals) throws SQLException;
 }
\ No newline at end of file
@@ -1,5 +1,6 @@
 package br.com.dio.repository.impl;
 
+import br.com.dio.dto.ColumnViewDTO;
 import br.com.dio.persistence.dao.BoardColumnDAO;
 import br.com.dio.persistence.entity.BoardColumnEntity;
 import br.com.dio.repository.BoardColumnRepository;
@@ -22,7 +23,7 @@ public class BoardColumnRepositoryImpl implements BoardColumnRepository {
     }
     
     @Override
-    public Optional<BoardColumnEntity> findById(Long id) throws SQLException {
+    public Optional<ColumnViewDTO> findById(Long id) throws SQLException {
         return new BoardColumnDAO(connection).findById(id);
     }
 }
\ No newline at end of file
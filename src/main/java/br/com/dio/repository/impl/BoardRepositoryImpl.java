@@ -1,13 +1,16 @@
 package br.com.dio.repository.impl;
 
 import br.com.dio.dto.BoardDetailsDTO;
+import br.com.dio.dto.BoardSummaryDTO;
 import br.com.dio.persistence.dao.BoardColumnDAO;
 import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.BoardPurgeDAO;
 import br.com.dio.persistence.entity.BoardEntity;
 import br.com.dio.repository.BoardRepository;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
 
 public class BoardRepositoryImpl implements BoardRepository {
@@ -72,7 +75,8 @@ public class BoardRepositoryImpl implements BoardRepository {
             if (!dao.exists(id)) {
                 return false;
             }
-            dao.delete(id);
+            dao.markDeleted(id);
+            new BoardPurgeDAO(connection).register(id);
             connection.commit();
             return true;
         } catch (SQLException e) {
@@ -85,4 +89,10 @@ public class BoardRepositoryImpl implements BoardRepository {
     public boolean existsById(Long id) throws SQLException {
         return new BoardDAO(connection).exists(id);
     }
+    
+    @Override
+    public List<BoardSummaryDTO> findPage(String namePrefix, BoardSummaryDTO after, int limit, boolean withCardTotals) throws SQLException {
+        return new BoardDAO(connection).findPage(namePrefix, after == null ? null : after.name(),
+                after == null ? null : after.id(), limit, withCardTotals);
+    }
 }
\ No newline at end of file
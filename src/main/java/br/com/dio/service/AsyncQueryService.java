@@ -0,0 +1,230 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.BoardColumnDTO;
+import br.com.dio.dto.BoardDetailsDTO;
+import br.com.dio.dto.CardDetailsDTO;
+import br.com.dio.dto.CardHistoryDTO;
+import br.com.dio.persistence.config.ConnectionPool;
+import br.com.dio.persistence.dao.BlockDAO;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.CardArchiveDAO;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.entity.BlockEntity;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.validation.ValidationUtils;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static br.com.dio.instrumentation.Instrumentation.operation;
+import static br.com.dio.instrumentation.Instrumentation.tag;
+import static br.com.dio.persistence.config.ShardMap.shardOf;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Reads returning {@link CompletableFuture}s. Each read runs on a virtual thread with a connection borrowed from
+ * {@link ConnectionPool}, so the independent reads of a composite view run at the same time instead of one after the
+ * other on a single connection. All reads of one call share a deadline, {@code board.async.timeoutMillis} unless
+ * given; a read that misses it, or whose future is cancelled, has its connection aborted, which stops the statement
+ * and keeps the connection out of the pool. When a part of a composite fails, the other parts are cancelled.
+ */
+public class AsyncQueryService {
+
+    private static final ExecutorService EXECUTOR = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Duration timeout;
+
+    public AsyncQueryService() {
+        this(Duration.ofMillis(Long.getLong("board.async.timeoutMillis", 2000)));
+    }
+
+    public AsyncQueryService(final Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    @FunctionalInterface
+    private interface Read<T> {
+
+        T execute(final Connection connection) throws SQLException;
+
+    }
+
+    /**
+     * The board with its columns, read concurrently.
+     */
+    public CompletableFuture<Optional<BoardEntity>> findBoard(final Long id){
+        ValidationUtils.validateId(id);
+        var deadline = deadline();
+        var board = submit("AsyncQueryService.findBoard", id, null, deadline,
+                connection -> new BoardDAO(connection).findById(id));
+        var columns = submit("AsyncQueryService.findBoardColumns", id, null, deadline,
+                connection -> new BoardColumnDAO(connection).findByBoardId(id));
+        return composite(board.thenCombine(columns, (optional, boardColumns) -> optional.map(entity -> {
+            entity.setBoardColumns(boardColumns);
+            return entity;
+        })), board, columns);
+    }
+
+    /**
+     * The board with the card count of each column, read concurrently.
+     */
+    public CompletableFuture<Optional<BoardDetailsDTO>> showBoardDetails(final Long id){
+        ValidationUtils.validateId(id);
+        var deadline = deadline();
+        var board = submit("AsyncQueryService.findBoard", id, null, deadline,
+                connection -> new BoardDAO(connection).findById(id));
+        var columns = findColumnDetails(id, deadline);
+        return composite(board.thenCombine(columns, (optional, details) -> optional.map(
+                entity -> new BoardDetailsDTO(entity.getId(), entity.getName(), details)
+        )), board, columns);
+    }
+
+    /**
+     * The card, looked up in the archive too when it is no longer on its board.
+     */
+    public CompletableFuture<Optional<CardDetailsDTO>> findCard(final Long id){
+        ValidationUtils.validateId(id);
+        return findCard(id, deadline());
+    }
+
+    /**
+     * Every block of the card, oldest first. Blocks of archived cards are not included.
+     */
+    public CompletableFuture<List<BlockEntity>> findBlockHistory(final Long cardId){
+        ValidationUtils.validateId(cardId);
+        return findBlockHistory(cardId, deadline());
+    }
+
+    /**
+     * The card and its block history, read concurrently.
+     */
+    public CompletableFuture<Optional<CardHistoryDTO>> showCardHistory(final Long cardId){
+        ValidationUtils.validateId(cardId);
+        var deadline = deadline();
+        var card = findCard(cardId, deadline);
+        var blocks = findBlockHistory(cardId, deadline);
+        return composite(card.thenCombine(blocks, (optional, history) -> optional.map(
+                details -> new CardHistoryDTO(details, history)
+        )), card, blocks);
+    }
+
+    /**
+     * Waits for a future of this service, rethrowing the {@link SQLException} or runtime exception that failed it.
+     */
+    public static <T> T await(final CompletableFuture<T> future) throws SQLException {
+        try {
+            return future.get();
+        } catch (InterruptedException ex){
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a query", ex);
+        } catch (ExecutionException ex){
+            var cause = ex.getCause() instanceof CompletionException completion ? completion.getCause() : ex.getCause();
+            switch (cause){
+                case SQLException sqlException -> throw sqlException;
+                case RuntimeException runtimeException -> throw runtimeException;
+                default -> throw new SQLException(cause);
+            }
+        }
+    }
+
+    private CompletableFuture<List<BoardColumnDTO>> findColumnDetails(final Long boardId, final long deadline){
+        return submit("AsyncQueryService.findColumnDetails", boardId, null, deadline,
+                connection -> new BoardColumnDAO(connection).findByBoardIdWithDetails(boardId));
+    }
+
+    private CompletableFuture<Optional<CardDetailsDTO>> findCard(final Long id, final long deadline){
+        return submit("AsyncQueryService.findCard", null, id, deadline, connection -> {
+            var card = new CardDAO(connection).findById(id);
+            return card.isPresent() ? card : new CardArchiveDAO(connection).findById(id);
+        });
+    }
+
+    private CompletableFuture<List<BlockEntity>> findBlockHistory(final Long cardId, final long deadline){
+        return submit("AsyncQueryService.findBlockHistory", null, cardId, deadline,
+                connection -> new BlockDAO(connection).findByCardId(cardId));
+    }
+
+    private long deadline(){
+        return System.nanoTime() + timeout.toNanos();
+    }
+
+    /**
+     * Runs the read on the shard of the board, or of the card when no board is given. The connection is published
+     * while the read runs so that a timeout or a cancellation can abort it; whichever side takes it first decides
+     * whether it goes back to the pool.
+     */
+    private <T> CompletableFuture<T> submit(final String name, final Long boardId, final Long cardId,
+                                            final long deadline, final Read<T> read){
+        var result = new CompletableFuture<T>();
+        var running = new AtomicReference<Connection>();
+        var shard = shardOf(boardId != null ? boardId : cardId);
+        var task = EXECUTOR.submit(() -> {
+            if (result.isDone()){
+                return;
+            }
+            try(var lease = ConnectionPool.borrow(shard, deadline)){
+                running.set(lease.connection());
+                try {
+                    if (!result.isDone()){
+                        result.complete(operation(name, () -> {
+                            tag(boardId, cardId);
+                            return read.execute(lease.connection());
+                        }));
+                    }
+                } finally {
+                    if (running.getAndSet(null) == null){
+                        abort(lease.connection());
+                    }
+                }
+            } catch (SQLException | RuntimeException ex){
+                result.completeExceptionally(ex);
+            }
+        });
+        result.orTimeout(deadline - System.nanoTime(), NANOSECONDS).whenComplete((value, ex) -> {
+            if (ex != null){
+                task.cancel(true);
+                abort(running.getAndSet(null));
+            }
+        });
+        return result;
+    }
+
+    private static void abort(final Connection connection){
+        if (connection == null){
+            return;
+        }
+        try {
+            connection.abort(Runnable::run);
+        } catch (SQLException ignored){
+            // the pool drops the connection once it is closed
+        }
+    }
+
+    /**
+     * Cancels the parts when the composed future fails, times out or is cancelled.
+     */
+    private static <T> CompletableFuture<T> composite(final CompletableFuture<T> result,
+                                                      final CompletableFuture<?>... parts){
+        result.whenComplete((value, ex) -> {
+            if (ex != null){
+                for (var part : parts){
+                    part.cancel(true);
+                }
+            }
+        });
+        return result;
+    }
+
+}
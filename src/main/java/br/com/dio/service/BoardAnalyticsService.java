@@ -0,0 +1,45 @@
+package br.com.dio.service;
+
+import br.com.dio.analytics.BoardAnalytics;
+import br.com.dio.dto.BoardAnalyticsDTO;
+import br.com.dio.dto.DashboardCountDTO;
+import br.com.dio.dto.DashboardFilter;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+
+import static br.com.dio.instrumentation.Instrumentation.operation;
+import static br.com.dio.instrumentation.Instrumentation.tag;
+
+@AllArgsConstructor
+public class BoardAnalyticsService {
+
+    private static final Duration RECENT_WINDOW = Duration.ofDays(Long.getLong("board.analytics.recentDays", 7));
+
+    private final Connection connection;
+
+    /**
+     * Cards per column and priority, overdue, blocked and recently created cards of the board, answered from its
+     * in-memory projection.
+     */
+    public BoardAnalyticsDTO summarize(final Long boardId) throws SQLException {
+        return operation("BoardAnalyticsService.summarize", () -> {
+            tag(boardId, null);
+            return BoardAnalytics.summarize(connection, boardId, RECENT_WINDOW);
+        });
+    }
+
+    /**
+     * Number and first ids of the board's cards matching an attribute combination, answered from in-memory bitmap
+     * indexes.
+     */
+    public DashboardCountDTO count(final DashboardFilter filter) throws SQLException {
+        return operation("BoardAnalyticsService.count", () -> {
+            tag(filter.boardId(), null);
+            return BoardAnalytics.select(connection, filter);
+        });
+    }
+
+}
@@ -1,21 +1,25 @@
 package br.com.dio.service;
 
+import br.com.dio.dto.ColumnViewDTO;
 import br.com.dio.persistence.dao.BoardColumnDAO;
-import br.com.dio.persistence.entity.BoardColumnEntity;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Optional;
 
+import static br.com.dio.instrumentation.Instrumentation.operation;
+
 @AllArgsConstructor
 public class BoardColumnQueryService {
 
     private final Connection connection;
 
-    public Optional<BoardColumnEntity> findById(final Long id) throws SQLException {
-        var dao = new BoardColumnDAO(connection);
-        return dao.findById(id);
+    public Optional<ColumnViewDTO> findById(final Long id) throws SQLException {
+        return operation("BoardColumnQueryService.findById", () -> {
+            var dao = new BoardColumnDAO(connection);
+            return dao.findById(id);
+        });
     }
 
 }
@@ -0,0 +1,55 @@
+package br.com.dio.service;
+
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.export.ExportFormat;
+import br.com.dio.instrumentation.Instrumentation;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.CardExportDAO;
+import br.com.dio.validation.ValidationUtils;
+import lombok.AllArgsConstructor;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+@AllArgsConstructor
+public class BoardExportService {
+
+    private final Connection connection;
+
+    /**
+     * Writes every card of the board to {@code out}. The export runs in a read only transaction started with a
+     * consistent snapshot, so it sees the board as of its start and, using InnoDB non locking reads, never blocks
+     * concurrent card moves. The stream is flushed but not closed.
+     */
+    public long exportCards(final Long boardId, final ExportFormat format, final OutputStream out)
+            throws SQLException, IOException {
+        ValidationUtils.validateId(boardId);
+        var writer = format.writer(new BufferedWriter(new OutputStreamWriter(out, UTF_8), 1 << 16));
+        var start = Instrumentation.start();
+        var rows = 0L;
+        var failed = true;
+        try {
+            try(var statement = connection.createStatement()){
+                statement.execute("START TRANSACTION WITH CONSISTENT SNAPSHOT, READ ONLY;");
+            }
+            if (!new BoardDAO(connection).exists(boardId)){
+                throw new EntityNotFoundException("Board with id %s was not found".formatted(boardId));
+            }
+            writer.writeHeader();
+            rows = new CardExportDAO(connection).streamByBoardId(boardId, writer::write);
+            writer.flush();
+            failed = false;
+            return rows;
+        } finally {
+            connection.rollback();
+            Instrumentation.stop("BoardExportService.exportCards", start, rows, failed);
+        }
+    }
+
+}
@@ -0,0 +1,68 @@
+package br.com.dio.service;
+
+import br.com.dio.content.AttachmentStore;
+import br.com.dio.persistence.dao.BoardPurgeDAO;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static br.com.dio.instrumentation.Instrumentation.operation;
+import static java.lang.System.Logger.Level.WARNING;
+
+@AllArgsConstructor
+public class BoardPurgeService {
+
+    private static final System.Logger LOGGER = System.getLogger(BoardPurgeService.class.getName());
+
+    private final Connection connection;
+
+    public List<Long> findPending() throws SQLException {
+        return operation("BoardPurgeService.findPending", () -> new BoardPurgeDAO(connection).findPending());
+    }
+
+    /**
+     * Removes one batch of the board's rows in its own transaction: live cards first, then archived ones, and once
+     * both are gone the columns and the board itself. Attachment files of the removed cards are deleted after the
+     * commit. Returns {@code true} when the board is fully purged.
+     */
+    public boolean purgeBatch(final Long boardId, final int batchSize) throws SQLException {
+        return operation("BoardPurgeService.purgeBatch", () -> {
+            var dao = new BoardPurgeDAO(connection);
+            try {
+                var rows = dao.purgeCards(boardId, batchSize);
+                if (rows.isEmpty()){
+                    rows = dao.purgeArchivedCards(boardId, batchSize);
+                }
+                var finished = rows.isEmpty();
+                if (finished){
+                    dao.finish(boardId);
+                } else {
+                    dao.recordProgress(boardId, rows);
+                }
+                connection.commit();
+                deleteAttachmentFiles(rows.cardIds());
+                return finished;
+            } catch (SQLException ex){
+                connection.rollback();
+                throw ex;
+            }
+        });
+    }
+
+    /**
+     * Their rows are gone, so a file that cannot be deleted is only wasted space; it is logged and left behind.
+     */
+    private static void deleteAttachmentFiles(final List<Long> cardIds){
+        for (var cardId : cardIds){
+            try {
+                AttachmentStore.get().deleteCard(cardId);
+            } catch (IOException ex){
+                LOGGER.log(WARNING, "Attachments of card {0} not deleted: {1}", cardId, ex.getMessage());
+            }
+        }
+    }
+
+}
@@ -1,6 +1,7 @@
 package br.com.dio.service;
 
 import br.com.dio.dto.BoardDetailsDTO;
+import br.com.dio.dto.BoardViewDTO;
 import br.com.dio.persistence.dao.BoardColumnDAO;
 import br.com.dio.persistence.dao.BoardDAO;
 import br.com.dio.persistence.entity.BoardEntity;
@@ -10,34 +11,56 @@ import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.Optional;
 
+import static br.com.dio.instrumentation.Instrumentation.operation;
+import static br.com.dio.instrumentation.Instrumentation.tag;
+
 @AllArgsConstructor
 public class BoardQueryService {
 
+    private static final int CARDS_PER_COLUMN = Integer.getInteger("board.view.cardsPerColumn", 5);
+
     private final Connection connection;
 
     public Optional<BoardEntity> findById(final Long id) throws SQLException {
-        var dao = new BoardDAO(connection);
-        var boardColumnDAO = new BoardColumnDAO(connection);
-        var optional = dao.findById(id);
-        if (optional.isPresent()){
-            var entity = optional.get();
-            entity.setBoardColumns(boardColumnDAO.findByBoardId(entity.getId()));
-            return Optional.of(entity);
-        }
-        return Optional.empty();
+        return operation("BoardQueryService.findById", () -> {
+            tag(id, null);
+            var dao = new BoardDAO(connection);
+            var boardColumnDAO = new BoardColumnDAO(connection);
+            var optional = dao.findById(id);
+            if (optional.isPresent()){
+                var entity = optional.get();
+                entity.setBoardColumns(boardColumnDAO.findByBoardId(entity.getId()));
+                return Optional.of(entity);
+            }
+            return Optional.empty();
+        });
     }
 
     public Optional<BoardDetailsDTO> showBoardDetails(final Long id) throws SQLException {
-        var dao = new BoardDAO(connection);
-        var boardColumnDAO = new BoardColumnDAO(connection);
-        var optional = dao.findById(id);
-        if (optional.isPresent()){
-            var entity = optional.get();
-            var columns = boardColumnDAO.findByBoardIdWithDetails(entity.getId());
-            var dto = new BoardDetailsDTO(entity.getId(), entity.getName(), columns);
-            return Optional.of(dto);
-        }
-        return Optional.empty();
+        return operation("BoardQueryService.showBoardDetails", () -> {
+            tag(id, null);
+            var dao = new BoardDAO(connection);
+            var boardColumnDAO = new BoardColumnDAO(connection);
+            var optional = dao.findById(id);
+            if (optional.isPresent()){
+                var entity = optional.get();
+                var columns = boardColumnDAO.findByBoardIdWithDetails(entity.getId());
+                var dto = new BoardDetailsDTO(entity.getId(), entity.getName(), columns);
+                return Optional.of(dto);
+            }
+            return Optional.empty();
+        });
+    }
+
+    public Optional<BoardViewDTO> showBoardView(final Long id) throws SQLException {
+        return showBoardView(id, CARDS_PER_COLUMN);
+    }
+
+    public Optional<BoardViewDTO> showBoardView(final Long id, final int cardsPerColumn) throws SQLException {
+        return operation("BoardQueryService.showBoardView", () -> {
+            tag(id, null);
+            return new BoardDAO(connection).findViewById(id, cardsPerColumn);
+        });
     }
 
 }
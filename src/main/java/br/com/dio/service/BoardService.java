@@ -2,6 +2,7 @@ package br.com.dio.service;
 
 import br.com.dio.persistence.dao.BoardColumnDAO;
 import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.BoardPurgeDAO;
 import br.com.dio.persistence.entity.BoardEntity;
 import br.com.dio.validation.ValidationUtils;
 import lombok.AllArgsConstructor;
@@ -9,48 +10,70 @@ import lombok.AllArgsConstructor;
 import java.sql.Connection;
 import java.sql.SQLException;
 
+import static br.com.dio.event.BoardEventType.BOARD_CREATED;
+import static br.com.dio.event.BoardEventType.BOARD_DELETED;
+import static br.com.dio.event.ChangeFeed.record;
+import static br.com.dio.event.EventBus.publishAfterCommit;
+import static br.com.dio.instrumentation.Instrumentation.operation;
+import static br.com.dio.instrumentation.Instrumentation.tag;
+
 @AllArgsConstructor
 public class BoardService {
 
     private final Connection connection;
 
     public BoardEntity insert(final BoardEntity entity) throws SQLException {
-        ValidationUtils.validateBoard(entity);
+        return operation("BoardService.insert", () -> {
+            ValidationUtils.validateBoard(entity);
         
-        var dao = new BoardDAO(connection);
-        var boardColumnDAO = new BoardColumnDAO(connection);
-        try{
-            dao.insert(entity);
-            var columns = entity.getBoardColumns().stream().map(c -> {
-                c.setBoard(entity);
-                return c;
-            }).toList();
-            for (var column :  columns){
-                boardColumnDAO.insert(column);
+            var dao = new BoardDAO(connection);
+            var boardColumnDAO = new BoardColumnDAO(connection);
+            try{
+                dao.insert(entity);
+                tag(entity.getId(), null);
+                var columns = entity.getBoardColumns().stream().map(c -> {
+                    c.setBoard(entity);
+                    return c;
+                }).toList();
+                for (var column :  columns){
+                    boardColumnDAO.insert(column);
+                }
+                record(connection, BOARD_CREATED, entity.getId(), null, null);
+                connection.commit();
+                publishAfterCommit(connection, BOARD_CREATED, entity.getId(), null, null);
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
             }
-            connection.commit();
-        } catch (SQLException e) {
-            connection.rollback();
-            throw e;
-        }
-        return entity;
+            return entity;
+        });
     }
 
+    /**
+     * Marks the board as deleted, it disappears from every query at once while {@link br.com.dio.job.BoardPurgeJob}
+     * removes its columns, cards and blocks in the background.
+     */
     public boolean delete(final Long id) throws SQLException {
-        ValidationUtils.validateId(id);
+        return operation("BoardService.delete", () -> {
+            tag(id, null);
+            ValidationUtils.validateId(id);
         
-        var dao = new BoardDAO(connection);
-        try{
-            if (!dao.exists(id)) {
-                return false;
+            var dao = new BoardDAO(connection);
+            try{
+                if (!dao.exists(id)) {
+                    return false;
+                }
+                dao.markDeleted(id);
+                new BoardPurgeDAO(connection).register(id);
+                record(connection, BOARD_DELETED, id, null, null);
+                connection.commit();
+                publishAfterCommit(connection, BOARD_DELETED, id, null, null);
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
             }
-            dao.delete(id);
-            connection.commit();
-            return true;
-        } catch (SQLException e) {
-            connection.rollback();
-            throw e;
-        }
+        });
     }
 
 }
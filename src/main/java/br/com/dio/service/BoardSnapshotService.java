@@ -0,0 +1,53 @@
+package br.com.dio.service;
+
+import br.com.dio.instrumentation.Instrumentation;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.snapshot.BoardSnapshotExporter;
+import br.com.dio.persistence.snapshot.BoardSnapshotImporter;
+import br.com.dio.validation.ValidationUtils;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import static br.com.dio.event.BoardEventType.BOARD_CREATED;
+import static br.com.dio.event.ChangeFeed.record;
+import static br.com.dio.event.EventBus.publishAfterCommit;
+
+@AllArgsConstructor
+public class BoardSnapshotService {
+
+    private final Connection connection;
+
+    public long export(final Long boardId, final Path target) throws SQLException, IOException {
+        ValidationUtils.validateId(boardId);
+        var start = Instrumentation.start();
+        var cards = 0L;
+        var failed = true;
+        try {
+            cards = new BoardSnapshotExporter(connection).export(boardId, target);
+            failed = false;
+            return cards;
+        } finally {
+            Instrumentation.stop("BoardSnapshotService.export", start, cards, failed);
+        }
+    }
+
+    public BoardEntity importBoard(final Path source) throws SQLException, IOException {
+        var start = Instrumentation.start();
+        var failed = true;
+        try {
+            var board = new BoardSnapshotImporter(connection).importBoard(source);
+            record(connection, BOARD_CREATED, board.getId(), null, null);
+            connection.commit();
+            publishAfterCommit(connection, BOARD_CREATED, board.getId(), null, null);
+            failed = false;
+            return board;
+        } finally {
+            Instrumentation.stop("BoardSnapshotService.importBoard", start, 0, failed);
+        }
+    }
+
+}
@@ -0,0 +1,54 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.WorkflowTransitionDTO;
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.BoardWorkflowDAO;
+import br.com.dio.validation.ValidationUtils;
+import br.com.dio.workflow.WorkflowCache;
+import br.com.dio.workflow.WorkflowTable;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static br.com.dio.event.BoardEventType.WORKFLOW_CHANGED;
+import static br.com.dio.event.ChangeFeed.record;
+import static br.com.dio.event.EventBus.publishAfterCommit;
+import static br.com.dio.instrumentation.Instrumentation.operation;
+import static br.com.dio.instrumentation.Instrumentation.tag;
+
+@AllArgsConstructor
+public class BoardWorkflowService {
+
+    private final Connection connection;
+
+    /**
+     * Replaces the allowed moves between the board's columns; an empty list restores the linear workflow.
+     */
+    public void define(final Long boardId, final List<WorkflowTransitionDTO> transitions) throws SQLException {
+        operation("BoardWorkflowService.define", () -> {
+            tag(boardId, null);
+            ValidationUtils.validateId(boardId);
+
+            try{
+                if (!new BoardDAO(connection).exists(boardId)){
+                    throw new EntityNotFoundException("Board with id %s was not found".formatted(boardId));
+                }
+                var columns = new BoardColumnDAO(connection).findByBoardId(boardId);
+                WorkflowTable.compile(boardId, columns, transitions);
+                new BoardWorkflowDAO(connection).replace(boardId, transitions);
+                record(connection, WORKFLOW_CHANGED, boardId, null, null);
+                connection.commit();
+                WorkflowCache.invalidate(boardId);
+                publishAfterCommit(connection, WORKFLOW_CHANGED, boardId, null, null);
+            } catch (SQLException ex){
+                connection.rollback();
+                throw ex;
+            }
+        });
+    }
+
+}
@@ -0,0 +1,53 @@
+package br.com.dio.service;
+
+import br.com.dio.persistence.dao.CardArchiveDAO;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.time.YearMonth;
+
+import static br.com.dio.instrumentation.Instrumentation.operation;
+import static java.time.ZoneOffset.UTC;
+
+@AllArgsConstructor
+public class CardArchiveService {
+
+    private final Connection connection;
+
+    public void preparePartitions() throws SQLException {
+        operation("CardArchiveService.preparePartitions", () -> {
+            var dao = new CardArchiveDAO(connection);
+            var current = YearMonth.now(UTC);
+            dao.ensurePartition(monthOf(current));
+            dao.ensurePartition(monthOf(current.plusMonths(1)));
+        });
+    }
+
+    /**
+     * Moves one batch of finished and cancelled cards untouched since {@code cutoff} to the archive, in its own
+     * transaction. Returns how many cards were archived, zero once nothing is left.
+     */
+    public int archiveBatch(final OffsetDateTime cutoff, final int batchSize) throws SQLException {
+        return operation("CardArchiveService.archiveBatch", () -> {
+            var dao = new CardArchiveDAO(connection);
+            try {
+                var ids = dao.lockArchivable(cutoff, batchSize);
+                if (!ids.isEmpty()){
+                    dao.archive(ids, monthOf(YearMonth.now(UTC)));
+                }
+                connection.commit();
+                return ids.size();
+            } catch (SQLException ex){
+                connection.rollback();
+                throw ex;
+            }
+        });
+    }
+
+    private static int monthOf(final YearMonth month){
+        return month.getYear() * 100 + month.getMonthValue();
+    }
+
+}
@@ -0,0 +1,123 @@
+package br.com.dio.service;
+
+import br.com.dio.content.AttachmentStore;
+import br.com.dio.content.Descriptions;
+import br.com.dio.dto.AttachmentDTO;
+import br.com.dio.dto.CardContentDTO;
+import br.com.dio.dto.CardDetailsDTO;
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.instrumentation.Instrumentation;
+import br.com.dio.persistence.dao.CardArchiveDAO;
+import br.com.dio.persistence.dao.CardContentDAO;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.validation.ValidationUtils;
+import lombok.AllArgsConstructor;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.OffsetDateTime;
+import java.util.Optional;
+
+import static br.com.dio.instrumentation.Instrumentation.operation;
+import static br.com.dio.instrumentation.Instrumentation.tag;
+import static java.time.ZoneOffset.UTC;
+
+/**
+ * Long descriptions and attachments, kept out of the card rows and read only by detail views, see
+ * {@link Descriptions} and {@link AttachmentStore}.
+ */
+@AllArgsConstructor
+public class CardContentService {
+
+    private final Connection connection;
+
+    /**
+     * The full description and the attachments of the card, archived cards included.
+     */
+    public Optional<CardContentDTO> findById(final Long cardId) throws SQLException {
+        return operation("CardContentService.findById", () -> {
+            tag(null, cardId);
+            ValidationUtils.validateId(cardId);
+            var card = new CardDAO(connection).findById(cardId);
+            if (card.isEmpty()){
+                card = new CardArchiveDAO(connection).findById(cardId);
+            }
+            return card.isPresent() ? Optional.of(findContent(card.get())) : Optional.empty();
+        });
+    }
+
+    /**
+     * Same as {@link #findById(Long)} for a card already read, whose description is the preview.
+     */
+    public CardContentDTO findContent(final CardDetailsDTO card) throws SQLException {
+        return operation("CardContentService.findContent", () -> {
+            tag(card.boardId(), card.id());
+            var dao = new CardContentDAO(connection);
+            var description = dao.findDescription(card.id())
+                    .map(stored -> Descriptions.inflate(card.id(), stored))
+                    .orElse(card.description());
+            return new CardContentDTO(card.id(), description, dao.findAttachments(card.id()));
+        });
+    }
+
+    /**
+     * Copies {@code source} into the attachment store and records it on the card. The file shows up under the card
+     * only once the row is committed; a failed or rolled back attempt leaves nothing behind.
+     */
+    public AttachmentDTO attach(final Long cardId, final Path source) throws SQLException, IOException {
+        ValidationUtils.validateId(cardId);
+        var fileName = source.getFileName().toString();
+        if (fileName.length() > 255){
+            throw new IllegalArgumentException("Attachment name cannot exceed 255 characters");
+        }
+        var store = AttachmentStore.get();
+        var staged = store.stage(source);
+        var handedOver = false;
+        try {
+            var attachment = operation("CardContentService.attach", () -> {
+                tag(null, cardId);
+                if (new CardDAO(connection).findById(cardId).isEmpty()){
+                    throw new EntityNotFoundException("Card with id %s was not found".formatted(cardId));
+                }
+                try {
+                    var inserted = new CardContentDAO(connection).insertAttachment(
+                            cardId, fileName, staged.size(), staged.checksum(), OffsetDateTime.now(UTC));
+                    connection.commit();
+                    return inserted;
+                } catch (SQLException ex){
+                    connection.rollback();
+                    throw ex;
+                }
+            });
+            store.publishAfterCommit(connection, staged, attachment);
+            handedOver = true;
+            return attachment;
+        } finally {
+            if (!handedOver){
+                store.discard(staged);
+            }
+        }
+    }
+
+    /**
+     * Writes the attachment to {@code target} after verifying it against its recorded size and checksum.
+     */
+    public AttachmentDTO copyAttachment(final Long attachmentId, final Path target) throws SQLException, IOException {
+        ValidationUtils.validateId(attachmentId);
+        var attachment = operation("CardContentService.findAttachment",
+                () -> new CardContentDAO(connection).findAttachment(attachmentId)
+        ).orElseThrow(() -> new EntityNotFoundException("Attachment with id %s was not found".formatted(attachmentId)));
+        var start = Instrumentation.start();
+        var failed = true;
+        try {
+            AttachmentStore.get().copyTo(attachment, target);
+            failed = false;
+            return attachment;
+        } finally {
+            Instrumentation.stop("CardContentService.copyAttachment", start, 1, failed);
+        }
+    }
+
+}
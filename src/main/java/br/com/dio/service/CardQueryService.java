@@ -1,21 +1,43 @@
 package br.com.dio.service;
 
 import br.com.dio.dto.CardDetailsDTO;
+import br.com.dio.dto.CardFilter;
+import br.com.dio.dto.CardSearchResultDTO;
+import br.com.dio.persistence.dao.CardArchiveDAO;
 import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.dao.CardSearchDAO;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.List;
 import java.util.Optional;
 
+import static br.com.dio.instrumentation.Instrumentation.operation;
+import static br.com.dio.instrumentation.Instrumentation.tag;
+
 @AllArgsConstructor
 public class CardQueryService {
 
     private final Connection connection;
 
     public Optional<CardDetailsDTO> findById(final Long id) throws SQLException {
-        var dao = new CardDAO(connection);
-        return dao.findById(id);
+        return operation("CardQueryService.findById", () -> {
+            tag(null, id);
+            var dao = new CardDAO(connection);
+            var card = dao.findById(id);
+            return card.isPresent() ? card : new CardArchiveDAO(connection).findById(id);
+        });
+    }
+
+    /**
+     * One page of the board's cards matching the filter, continue with {@code filter.next(lastCard)}.
+     */
+    public List<CardSearchResultDTO> search(final CardFilter filter) throws SQLException {
+        return operation("CardQueryService.search", () -> {
+            tag(filter.boardId(), null);
+            return new CardSearchDAO(connection).find(filter);
+        });
     }
 
 }
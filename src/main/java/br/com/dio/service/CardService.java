@@ -1,159 +1,323 @@
 package br.com.dio.service;
 
-import br.com.dio.dto.BoardColumnInfoDTO;
+import br.com.dio.content.Descriptions;
 import br.com.dio.dto.CardDetailsDTO;
 import br.com.dio.exception.CardBlockedException;
 import br.com.dio.exception.CardFinishedException;
 import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.exception.TransitionNotAllowedException;
 import br.com.dio.persistence.dao.BlockDAO;
+import br.com.dio.persistence.dao.CardContentDAO;
 import br.com.dio.persistence.dao.CardDAO;
 import br.com.dio.persistence.entity.CardEntity;
 import br.com.dio.validation.ValidationUtils;
+import br.com.dio.workflow.WorkflowCache;
+import br.com.dio.workflow.WorkflowTable;
 import lombok.AllArgsConstructor;
 
 import java.sql.Connection;
 import java.sql.SQLException;
-import java.util.List;
 
+import static br.com.dio.event.BoardEventType.CARD_BLOCKED;
+import static br.com.dio.event.BoardEventType.CARD_CANCELLED;
+import static br.com.dio.event.BoardEventType.CARD_CREATED;
+import static br.com.dio.event.BoardEventType.CARD_MOVED;
+import static br.com.dio.event.BoardEventType.CARD_UNBLOCKED;
+import static br.com.dio.event.ChangeFeed.record;
+import static br.com.dio.event.EventBus.publishAfterCommit;
+import static br.com.dio.idempotency.IdempotencyKeys.cacheAfterCommit;
+import static br.com.dio.idempotency.IdempotencyKeys.find;
+import static br.com.dio.idempotency.IdempotencyKeys.findAfterConflict;
+import static br.com.dio.idempotency.IdempotencyKeys.store;
+import static br.com.dio.instrumentation.Instrumentation.operation;
+import static br.com.dio.instrumentation.Instrumentation.tag;
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
 
 
+/**
+ * Every command also takes an optional idempotency key: once a command with a key committed, calls with the same key
+ * return without running it again, see {@link br.com.dio.idempotency.IdempotencyKeys}.
+ */
 @AllArgsConstructor
 public class CardService {
 
     private final Connection connection;
 
     public CardEntity create(final CardEntity entity) throws SQLException {
-        ValidationUtils.validateCard(entity);
-        
-        try {
-            CardDAO dao = new CardDAO(connection);
-            dao.insert(entity);
-            connection.commit();
-            return entity;
-        } catch (SQLException ex){
-            connection.rollback();
-            throw ex;
-        }
+        return create(null, entity);
     }
 
-    public void moveToNextColumn(final Long cardId, final List<BoardColumnInfoDTO> boardColumnsInfo) throws SQLException{
-        ValidationUtils.validateId(cardId);
-        
-        try{
-            CardDAO dao = new CardDAO(connection);
-            var optional = dao.findById(cardId);
-            CardDetailsDTO dto = optional.orElseThrow(
-                    () -> new EntityNotFoundException("Card with id %s was not found".formatted(cardId))
-            );
-            if (dto.blocked()){
-                var message = "Card %s is blocked. Please unblock it before moving.".formatted(cardId);
-                throw new CardBlockedException(message);
+    /**
+     * Same as {@link #create(CardEntity)}, but a retry with the same {@code idempotencyKey} only sets the id of the
+     * card created the first time on {@code entity} instead of creating another one.
+     */
+    public CardEntity create(final String idempotencyKey, final CardEntity entity) throws SQLException {
+        return operation("CardService.create", () -> {
+            tag(entity.getBoardId(), null);
+            ValidationUtils.validateCard(entity);
+            var stored = find(connection, idempotencyKey, "CardService.create");
+            if (stored.isPresent()){
+                entity.setId(stored.get().resultId());
+                return entity;
             }
-            BoardColumnInfoDTO currentColumn = boardColumnsInfo.stream()
-                    .filter(bc -> bc.id().equals(dto.columnId()))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalStateException("The specified card belongs to another board"));
-            if (currentColumn.kind().equals(FINAL)){
-                throw new CardFinishedException("Card has already been finished");
+        
+            try {
+                CardDAO dao = new CardDAO(connection);
+                dao.insert(entity);
+                tag(null, entity.getId());
+                if (Descriptions.isLong(entity.getDescription())){
+                    new CardContentDAO(connection).insertDescription(entity.getId(),
+                            Descriptions.deflate(entity.getDescription()));
+                }
+                store(connection, idempotencyKey, "CardService.create", entity.getId());
+                record(connection, CARD_CREATED, entity.getBoardId(),
+                        entity.getBoardColumnId(), entity.getId());
+                connection.commit();
+                publishAfterCommit(connection, CARD_CREATED, entity.getBoardId(),
+                        entity.getBoardColumnId(), entity.getId());
+                cacheAfterCommit(connection, idempotencyKey, "CardService.create", entity.getId());
+                return entity;
+            } catch (SQLException ex){
+                connection.rollback();
+                var winner = findAfterConflict(connection, idempotencyKey, "CardService.create", ex);
+                if (winner.isEmpty()){
+                    throw ex;
+                }
+                entity.setId(winner.get().resultId());
+                return entity;
             }
-            BoardColumnInfoDTO nextColumn = boardColumnsInfo.stream()
-                    .filter(bc -> bc.order() == currentColumn.order() + 1)
-                    .findFirst().orElseThrow(() -> new IllegalStateException("Card is cancelled"));
-            dao.moveToColumn(nextColumn.id(), cardId);
-            connection.commit();
-        }catch (SQLException ex){
-            connection.rollback();
-            throw ex;
-        }
+        });
     }
 
-    public void cancel(final Long cardId, final Long cancelColumnId ,
-                       final List<BoardColumnInfoDTO> boardColumnsInfo) throws SQLException{
-        ValidationUtils.validateId(cardId);
+    public void moveToNextColumn(final Long boardId, final Long cardId) throws SQLException {
+        moveToNextColumn(null, boardId, cardId);
+    }
+
+    public void moveToNextColumn(final String idempotencyKey, final Long boardId, final Long cardId) throws SQLException{
+        operation("CardService.moveToNextColumn", () -> {
+            tag(boardId, cardId);
+            ValidationUtils.validateId(cardId);
+            if (find(connection, idempotencyKey, "CardService.moveToNextColumn").isPresent()){
+                return;
+            }
         
-        try{
-            CardDAO dao = new CardDAO(connection);
-            var optional = dao.findById(cardId);
-            CardDetailsDTO dto = optional.orElseThrow(
-                    () -> new EntityNotFoundException("Card with id %s was not found".formatted(cardId))
-            );
-            if (dto.blocked()){
-                var message = "Card %s is blocked. Please unblock it before moving.".formatted(cardId);
-                throw new CardBlockedException(message);
+            try{
+                CardDAO dao = new CardDAO(connection);
+                var dto = findMovableCard(dao, boardId, cardId);
+                var workflow = WorkflowCache.get(connection, boardId);
+                var from = columnIndex(workflow, dto);
+                var to = workflow.nextIndex(from);
+                if (to < 0){
+                    throw new TransitionNotAllowedException("No move leaves column %s".formatted(dto.columnName()));
+                }
+                var nextColumnId = workflow.columnIdAt(to);
+                dao.moveToColumn(nextColumnId, cardId);
+                store(connection, idempotencyKey, "CardService.moveToNextColumn", nextColumnId);
+                record(connection, CARD_MOVED, dto.boardId(), nextColumnId, cardId);
+                connection.commit();
+                publishAfterCommit(connection, CARD_MOVED, dto.boardId(), nextColumnId, cardId);
+                cacheAfterCommit(connection, idempotencyKey, "CardService.moveToNextColumn", nextColumnId);
+            }catch (SQLException ex){
+                connection.rollback();
+                if (findAfterConflict(connection, idempotencyKey, "CardService.moveToNextColumn", ex).isEmpty()){
+                    throw ex;
+                }
             }
-            BoardColumnInfoDTO currentColumn = boardColumnsInfo.stream()
-                    .filter(bc -> bc.id().equals(dto.columnId()))
-                    .findFirst()
-                    .orElseThrow(() -> new IllegalStateException("The specified card belongs to another board"));
-            if (currentColumn.kind().equals(FINAL)){
-                throw new CardFinishedException("Card has already been finished");
+        });
+    }
+
+    /**
+     * Moves the card to any column its board's workflow allows from the current one, skipping or going back.
+     */
+    public void moveToColumn(final Long boardId, final Long cardId, final Long columnId) throws SQLException {
+        moveToColumn(null, boardId, cardId, columnId);
+    }
+
+    public void moveToColumn(final String idempotencyKey, final Long boardId, final Long cardId,
+                             final Long columnId) throws SQLException{
+        operation("CardService.moveToColumn", () -> {
+            tag(boardId, cardId);
+            ValidationUtils.validateId(cardId);
+            ValidationUtils.validateId(columnId);
+            if (find(connection, idempotencyKey, "CardService.moveToColumn").isPresent()){
+                return;
             }
-            boardColumnsInfo.stream()
-                    .filter(bc -> bc.order() == currentColumn.order() + 1)
-                    .findFirst().orElseThrow(() -> new IllegalStateException("Card is cancelled"));
-            dao.moveToColumn(cancelColumnId, cardId);
-            connection.commit();
-        }catch (SQLException ex){
-            connection.rollback();
-            throw ex;
-        }
+
+            try{
+                CardDAO dao = new CardDAO(connection);
+                var dto = findMovableCard(dao, boardId, cardId);
+                var workflow = WorkflowCache.get(connection, boardId);
+                var from = columnIndex(workflow, dto);
+                var to = workflow.indexOf(columnId);
+                if (to < 0 || !workflow.allows(from, to)){
+                    var message = "Card %s cannot move from column %s to column %s".formatted(cardId, dto.columnId(), columnId);
+                    throw new TransitionNotAllowedException(message);
+                }
+                dao.moveToColumn(columnId, cardId);
+                store(connection, idempotencyKey, "CardService.moveToColumn", columnId);
+                record(connection, CARD_MOVED, dto.boardId(), columnId, cardId);
+                connection.commit();
+                publishAfterCommit(connection, CARD_MOVED, dto.boardId(), columnId, cardId);
+                cacheAfterCommit(connection, idempotencyKey, "CardService.moveToColumn", columnId);
+            }catch (SQLException ex){
+                connection.rollback();
+                if (findAfterConflict(connection, idempotencyKey, "CardService.moveToColumn", ex).isEmpty()){
+                    throw ex;
+                }
+            }
+        });
+    }
+
+    public void cancel(final Long boardId, final Long cardId) throws SQLException {
+        cancel(null, boardId, cardId);
     }
 
-    public void block(final Long id, final String reason, final List<BoardColumnInfoDTO> boardColumnsInfo) throws SQLException {
-        ValidationUtils.validateId(id);
+    public void cancel(final String idempotencyKey, final Long boardId, final Long cardId) throws SQLException{
+        operation("CardService.cancel", () -> {
+            tag(boardId, cardId);
+            ValidationUtils.validateId(cardId);
+            if (find(connection, idempotencyKey, "CardService.cancel").isPresent()){
+                return;
+            }
         
-        try{
-            CardDAO dao = new CardDAO(connection);
-            var optional = dao.findById(id);
-            CardDetailsDTO dto = optional.orElseThrow(
-                    () -> new EntityNotFoundException("Card with id %s was not found".formatted(id))
-            );
-            if (dto.blocked()){
-                var message = "Card %s is already blocked".formatted(id);
-                throw new CardBlockedException(message);
+            try{
+                CardDAO dao = new CardDAO(connection);
+                var dto = findMovableCard(dao, boardId, cardId);
+                var workflow = WorkflowCache.get(connection, boardId);
+                var from = columnIndex(workflow, dto);
+                var to = workflow.cancelIndex();
+                if (to < 0 || !workflow.allows(from, to)){
+                    throw new TransitionNotAllowedException("Card %s cannot be cancelled from column %s"
+                            .formatted(cardId, dto.columnName()));
+                }
+                var cancelColumnId = workflow.columnIdAt(to);
+                dao.moveToColumn(cancelColumnId, cardId);
+                store(connection, idempotencyKey, "CardService.cancel", cancelColumnId);
+                record(connection, CARD_CANCELLED, dto.boardId(), cancelColumnId, cardId);
+                connection.commit();
+                publishAfterCommit(connection, CARD_CANCELLED, dto.boardId(), cancelColumnId, cardId);
+                cacheAfterCommit(connection, idempotencyKey, "CardService.cancel", cancelColumnId);
+            }catch (SQLException ex){
+                connection.rollback();
+                if (findAfterConflict(connection, idempotencyKey, "CardService.cancel", ex).isEmpty()){
+                    throw ex;
+                }
             }
-            BoardColumnInfoDTO currentColumn = boardColumnsInfo.stream()
-                    .filter(bc -> bc.id().equals(dto.columnId()))
-                    .findFirst()
-                    .orElseThrow();
-            if (currentColumn.kind().equals(FINAL) || currentColumn.kind().equals(CANCEL)){
-                var message = "Card is in a column of type %s and cannot be blocked"
-                        .formatted(currentColumn.kind());
-                throw new IllegalStateException(message);
+        });
+    }
+
+    public void block(final Long boardId, final Long id, final String reason) throws SQLException {
+        block(null, boardId, id, reason);
+    }
+
+    public void block(final String idempotencyKey, final Long boardId, final Long id, final String reason) throws SQLException {
+        operation("CardService.block", () -> {
+            tag(boardId, id);
+            ValidationUtils.validateId(id);
+            if (find(connection, idempotencyKey, "CardService.block").isPresent()){
+                return;
             }
-            BlockDAO blockDAO = new BlockDAO(connection);
-            blockDAO.block(reason, id);
-            connection.commit();
-        }catch (SQLException ex) {
-            connection.rollback();
-            throw ex;
-        }
+        
+            try{
+                CardDAO dao = new CardDAO(connection);
+                var optional = dao.findById(id);
+                CardDetailsDTO dto = optional.orElseThrow(
+                        () -> new EntityNotFoundException("Card with id %s was not found".formatted(id))
+                );
+                if (dto.blocked()){
+                    var message = "Card %s is already blocked".formatted(id);
+                    throw new CardBlockedException(message);
+                }
+                var workflow = WorkflowCache.get(connection, boardId);
+                var index = workflow.indexOf(dto.columnId());
+                if (index < 0){
+                    throw new IllegalStateException("The specified card belongs to another board");
+                }
+                var kind = workflow.kindAt(index);
+                if (kind.equals(FINAL) || kind.equals(CANCEL)){
+                    var message = "Card is in a column of type %s and cannot be blocked".formatted(kind);
+                    throw new IllegalStateException(message);
+                }
+                BlockDAO blockDAO = new BlockDAO(connection);
+                blockDAO.block(reason, id);
+                store(connection, idempotencyKey, "CardService.block", id);
+                record(connection, CARD_BLOCKED, dto.boardId(), dto.columnId(), id);
+                connection.commit();
+                publishAfterCommit(connection, CARD_BLOCKED, dto.boardId(), dto.columnId(), id);
+                cacheAfterCommit(connection, idempotencyKey, "CardService.block", id);
+            }catch (SQLException ex) {
+                connection.rollback();
+                if (findAfterConflict(connection, idempotencyKey, "CardService.block", ex).isEmpty()){
+                    throw ex;
+                }
+            }
+        });
     }
 
     public void unblock(final Long id, final String reason) throws SQLException {
-        ValidationUtils.validateId(id);
+        unblock(null, id, reason);
+    }
+
+    public void unblock(final String idempotencyKey, final Long id, final String reason) throws SQLException {
+        operation("CardService.unblock", () -> {
+            tag(null, id);
+            ValidationUtils.validateId(id);
+            if (find(connection, idempotencyKey, "CardService.unblock").isPresent()){
+                return;
+            }
         
-        try{
-            CardDAO dao = new CardDAO(connection);
-            var optional = dao.findById(id);
-            CardDetailsDTO dto = optional.orElseThrow(
-                    () -> new EntityNotFoundException("Card with id %s was not found".formatted(id))
-            );
-            if (!dto.blocked()){
-                var message = "Card %s is not blocked".formatted(id);
-                throw new CardBlockedException(message);
+            try{
+                CardDAO dao = new CardDAO(connection);
+                var optional = dao.findById(id);
+                CardDetailsDTO dto = optional.orElseThrow(
+                        () -> new EntityNotFoundException("Card with id %s was not found".formatted(id))
+                );
+                if (!dto.blocked()){
+                    var message = "Card %s is not blocked".formatted(id);
+                    throw new CardBlockedException(message);
+                }
+                BlockDAO blockDAO = new BlockDAO(connection);
+                blockDAO.unblock(reason, id);
+                store(connection, idempotencyKey, "CardService.unblock", id);
+                record(connection, CARD_UNBLOCKED, dto.boardId(), dto.columnId(), id);
+                connection.commit();
+                publishAfterCommit(connection, CARD_UNBLOCKED, dto.boardId(), dto.columnId(), id);
+                cacheAfterCommit(connection, idempotencyKey, "CardService.unblock", id);
+            }catch (SQLException ex) {
+                connection.rollback();
+                if (findAfterConflict(connection, idempotencyKey, "CardService.unblock", ex).isEmpty()){
+                    throw ex;
+                }
             }
-            BlockDAO blockDAO = new BlockDAO(connection);
-            blockDAO.unblock(reason, id);
-            connection.commit();
-        }catch (SQLException ex) {
-            connection.rollback();
-            throw ex;
-        }
+        });
     }
     
+    private CardDetailsDTO findMovableCard(final CardDAO dao, final Long boardId, final Long cardId) throws SQLException {
+        var dto = dao.findById(cardId).orElseThrow(
+                () -> new EntityNotFoundException("Card with id %s was not found".formatted(cardId))
+        );
+        if (dto.blocked()){
+            var message = "Card %s is blocked. Please unblock it before moving.".formatted(cardId);
+            throw new CardBlockedException(message);
+        }
+        return dto;
+    }
+
+    private int columnIndex(final WorkflowTable workflow, final CardDetailsDTO dto){
+        var index = workflow.indexOf(dto.columnId());
+        if (index < 0){
+            throw new IllegalStateException("The specified card belongs to another board");
+        }
+        if (workflow.kindAt(index).equals(FINAL)){
+            throw new CardFinishedException("Card has already been finished");
+        }
+        if (workflow.kindAt(index).equals(CANCEL)){
+            throw new IllegalStateException("Card is cancelled");
+        }
+        return index;
+    }
+
     // Utility method to reduce code duplication
     private CardDetailsDTO getCardIfExists(Long cardId) throws SQLException {
         ValidationUtils.validateId(cardId);
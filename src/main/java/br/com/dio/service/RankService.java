@@ -0,0 +1,136 @@
+package br.com.dio.service;
+
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.persistence.dao.CardDAO;
+import br.com.dio.persistence.dao.RankDAO;
+import br.com.dio.persistence.dao.RankDAO.Ranked;
+import br.com.dio.persistence.dao.RankDAO.RankedRow;
+import br.com.dio.rank.Rank;
+import br.com.dio.validation.ValidationUtils;
+import lombok.AllArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static br.com.dio.instrumentation.Instrumentation.operation;
+import static br.com.dio.instrumentation.Instrumentation.tag;
+import static br.com.dio.persistence.dao.RankDAO.Ranked.CARDS;
+import static br.com.dio.persistence.dao.RankDAO.Ranked.COLUMNS;
+import static java.util.Objects.isNull;
+
+/**
+ * Drag and drop ordering of cards within a column and of columns within a board. A move gives the moved row a rank
+ * between its new neighbours and writes only that row. Column ranks only order the display, the workflow keeps
+ * following the columns' {@code order} and transitions.
+ */
+@AllArgsConstructor
+public class RankService {
+
+    private final Connection connection;
+
+    /**
+     * Places the card right after {@code afterCardId} in its column, or first when it is {@code null}.
+     */
+    public void reorderCard(final Long boardId, final Long cardId, final Long afterCardId) throws SQLException {
+        operation("RankService.reorderCard", () -> {
+            tag(boardId, cardId);
+            ValidationUtils.validateId(cardId);
+            var dao = new RankDAO(connection, CARDS);
+            try {
+                new CardDAO(connection).findById(cardId)
+                        .filter(dto -> dto.boardId().equals(boardId))
+                        .orElseThrow(() -> new EntityNotFoundException(
+                                "Card with id %s was not found on board %s".formatted(cardId, boardId)
+                        ));
+                var card = dao.findById(cardId).orElseThrow();
+                dao.update(cardId, rankAfter(dao, card, afterCardId));
+                connection.commit();
+            } catch (SQLException ex){
+                connection.rollback();
+                throw ex;
+            }
+        });
+    }
+
+    /**
+     * Places the column right after {@code afterColumnId} on its board, or first when it is {@code null}.
+     */
+    public void reorderColumn(final Long boardId, final Long columnId, final Long afterColumnId) throws SQLException {
+        operation("RankService.reorderColumn", () -> {
+            tag(boardId, null);
+            ValidationUtils.validateId(columnId);
+            var dao = new RankDAO(connection, COLUMNS);
+            try {
+                var column = dao.findById(columnId)
+                        .filter(row -> row.parentId() == boardId)
+                        .orElseThrow(() -> new EntityNotFoundException(
+                                "Column with id %s was not found on board %s".formatted(columnId, boardId)
+                        ));
+                dao.update(columnId, rankAfter(dao, column, afterColumnId));
+                connection.commit();
+            } catch (SQLException ex){
+                connection.rollback();
+                throw ex;
+            }
+        });
+    }
+
+    /**
+     * Up to {@code limit} columns (for cards) or boards (for columns) holding a rank longer than {@code maxLength}.
+     */
+    public List<Long> findOverlong(final Ranked ranked, final int maxLength, final int limit) throws SQLException {
+        return operation("RankService.findOverlong", () -> {
+            return new RankDAO(connection, ranked).findParentsWithLongRanks(maxLength, limit);
+        });
+    }
+
+    /**
+     * Renumbers the ranks under one column or board in a single transaction, keeping their order.
+     */
+    public int rebalance(final Ranked ranked, final Long parentId) throws SQLException {
+        return operation("RankService.rebalance", () -> {
+            try {
+                var rows = new RankDAO(connection, ranked).renumber(parentId);
+                connection.commit();
+                return rows;
+            } catch (SQLException ex){
+                connection.rollback();
+                throw ex;
+            }
+        });
+    }
+
+    /**
+     * A rank between {@code afterId} and the row that follows it. Concurrent moves into one gap can leave two rows
+     * with the same rank, with nothing fitting between them; the parent is then renumbered before trying again.
+     */
+    private String rankAfter(final RankDAO dao, final RankedRow moved, final Long afterId) throws SQLException {
+        if (!isNull(afterId) && afterId == moved.id()){
+            throw new IllegalArgumentException("Cannot place %s after itself".formatted(afterId));
+        }
+        var after = findAnchor(dao, moved, afterId);
+        var upper = dao.findNext(moved.parentId(), after, moved.id());
+        if (!isNull(after) && !isNull(upper) && after.rank().compareTo(upper) >= 0){
+            dao.renumber(moved.parentId());
+            after = findAnchor(dao, moved, afterId);
+            upper = dao.findNext(moved.parentId(), after, moved.id());
+        }
+        if (isNull(after)){
+            return Rank.before(upper);
+        }
+        return Rank.between(after.rank(), upper);
+    }
+
+    private RankedRow findAnchor(final RankDAO dao, final RankedRow moved, final Long afterId) throws SQLException {
+        if (isNull(afterId)){
+            return null;
+        }
+        return dao.findById(afterId)
+                .filter(row -> row.parentId() == moved.parentId())
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "%s and %s are not in the same list".formatted(afterId, moved.id())
+                ));
+    }
+
+}
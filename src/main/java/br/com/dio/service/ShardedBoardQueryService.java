@@ -0,0 +1,56 @@
+package br.com.dio.service;
+
+import br.com.dio.dto.BoardPurgeProgressDTO;
+import br.com.dio.dto.BoardSummaryDTO;
+import br.com.dio.persistence.config.ShardFanOut;
+import br.com.dio.persistence.dao.BoardDAO;
+import br.com.dio.persistence.dao.BoardDAO.PageEntry;
+import br.com.dio.persistence.dao.BoardPurgeDAO;
+
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import static br.com.dio.instrumentation.Instrumentation.operation;
+import static java.util.Objects.nonNull;
+
+public class ShardedBoardQueryService {
+
+    /**
+     * Same order as the name index: the collation weights MySQL computed for each name, then id.
+     */
+    private static final Comparator<PageEntry> PAGE_ORDER = Comparator
+            .comparing(PageEntry::nameKey, Arrays::compareUnsigned)
+            .thenComparing(entry -> entry.board().id());
+
+    /**
+     * Page of boards ordered by name and id across all shards. Each shard returns its own first {@code limit}
+     * boards after the cursor and the pages are merged. Pass the last board of a page as {@code after} to get the
+     * next one. With {@code withCardTotals} each shard adds the card totals of its boards in one grouped query.
+     */
+    public List<BoardSummaryDTO> findPage(final String namePrefix, final BoardSummaryDTO after, final int limit,
+                                          final boolean withCardTotals) throws SQLException {
+        return operation("ShardedBoardQueryService.findPage", () -> {
+            var afterName = nonNull(after) ? after.name() : null;
+            var afterId = nonNull(after) ? after.id() : null;
+            List<PageEntry> pages = ShardFanOut.query(connection ->
+                    new BoardDAO(connection).findKeyedPage(namePrefix, afterName, afterId, limit, withCardTotals));
+            return pages.stream()
+                    .sorted(PAGE_ORDER)
+                    .limit(limit)
+                    .map(PageEntry::board)
+                    .toList();
+        });
+    }
+
+    public List<BoardPurgeProgressDTO> findPurgeProgress() throws SQLException {
+        return operation("ShardedBoardQueryService.findPurgeProgress", () -> {
+            List<BoardPurgeProgressDTO> progress = ShardFanOut.query(connection -> new BoardPurgeDAO(connection).findProgress());
+            return progress.stream()
+                    .sorted(Comparator.comparing(BoardPurgeProgressDTO::requestedAt, Comparator.reverseOrder()))
+                    .toList();
+        });
+    }
+
+}
@@ -1,18 +1,20 @@
 package br.com.dio.ui;
 
 import br.com.dio.config.ServiceContainer;
-import br.com.dio.dto.BoardColumnInfoDTO;
+import br.com.dio.dto.CardSummaryDTO;
+import br.com.dio.export.ExportFormat;
 import br.com.dio.persistence.entity.BoardColumnEntity;
 import br.com.dio.persistence.entity.BoardEntity;
 import br.com.dio.persistence.entity.CardEntity;
 import lombok.AllArgsConstructor;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.List;
 import java.util.Scanner;
 
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
-
 @AllArgsConstructor
 public class BoardMenu {
 
@@ -24,7 +26,7 @@ public class BoardMenu {
         try {
             System.out.printf("Welcome to board %s, please select an operation\n", entity.getId());
             var option = -1;
-            while (option != 9) {
+            while (option != 10) {
                 System.out.println("1 - Create a card");
                 System.out.println("2 - Move a card");
                 System.out.println("3 - Block a card");
@@ -33,8 +35,9 @@ public class BoardMenu {
                 System.out.println("6 - View board");
                 System.out.println("7 - View column with cards");
                 System.out.println("8 - View card");
-                System.out.println("9 - Go back to the previous menu");
-                System.out.println("10 - Exit");
+                System.out.println("9 - Export cards");
+                System.out.println("10 - Go back to the previous menu");
+                System.out.println("11 - Exit");
                 option = scanner.nextInt();
                 switch (option) {
                     case 1 -> createCard();
@@ -45,8 +48,9 @@ public class BoardMenu {
                     case 6 -> showBoard();
                     case 7 -> showColumn();
                     case 8 -> showCard();
-                    case 9 -> System.out.println("Returning to the previous menu");
-                    case 10 -> System.exit(0);
+                    case 9 -> exportCards();
+                    case 10 -> System.out.println("Returning to the previous menu");
+                    case 11 -> System.exit(0);
                     default -> System.out.println("Invalid option, please select an option from the menu");
                 }
             }
@@ -95,8 +99,7 @@ public class BoardMenu {
         }
         
         card.setBoardColumn(entity.getInitialColumn());
-        try(var connection = getConnection()){
-            var serviceContainer = new ServiceContainer(connection);
+        try(var serviceContainer = ServiceContainer.forBoard(entity.getId())){
             serviceContainer.getCardService().create(card);
         }
     }
@@ -104,12 +107,8 @@ public class BoardMenu {
     private void moveCardToNextColumn() throws SQLException {
         System.out.println("Please enter the ID of the card you want to move to the next column");
         var cardId = scanner.nextLong();
-        var boardColumnsInfo = entity.getBoardColumns().stream()
-                .map(bc -> new BoardColumnInfoDTO(bc.getId(), bc.getOrder(), bc.getKind()))
-                .toList();
-        try(var connection = getConnection()){
-            var serviceContainer = new ServiceContainer(connection);
-            serviceContainer.getCardService().moveToNextColumn(cardId, boardColumnsInfo);
+        try(var serviceContainer = ServiceContainer.forBoard(entity.getId())){
+            serviceContainer.getCardService().moveToNextColumn(entity.getId(), cardId);
         } catch (RuntimeException ex){
             System.out.println(ex.getMessage());
         }
@@ -120,12 +119,8 @@ public class BoardMenu {
         var cardId = scanner.nextLong();
         System.out.println("Please enter the reason for blocking the card");
         var reason = scanner.next();
-        var boardColumnsInfo = entity.getBoardColumns().stream()
-                .map(bc -> new BoardColumnInfoDTO(bc.getId(), bc.getOrder(), bc.getKind()))
-                .toList();
-        try(var connection = getConnection()){
-            var serviceContainer = new ServiceContainer(connection);
-            serviceContainer.getCardService().block(cardId, reason, boardColumnsInfo);
+        try(var serviceContainer = ServiceContainer.forBoard(entity.getId())){
+            serviceContainer.getCardService().block(entity.getId(), cardId, reason);
         } catch (RuntimeException ex){
             System.out.println(ex.getMessage());
         }
@@ -136,8 +131,7 @@ public class BoardMenu {
         var cardId = scanner.nextLong();
         System.out.println("Please enter the reason for unblocking the card");
         var reason = scanner.next();
-        try(var connection = getConnection()){
-            var serviceContainer = new ServiceContainer(connection);
+        try(var serviceContainer = ServiceContainer.forBoard(entity.getId())){
             serviceContainer.getCardService().unblock(cardId, reason);
         } catch (RuntimeException ex){
             System.out.println(ex.getMessage());
@@ -147,31 +141,43 @@ public class BoardMenu {
     private void cancelCard() throws SQLException {
         System.out.println("Please enter the ID of the card you want to move to the cancellation column");
         var cardId = scanner.nextLong();
-        var cancelColumn = entity.getCancelColumn();
-        var boardColumnsInfo = entity.getBoardColumns().stream()
-                .map(bc -> new BoardColumnInfoDTO(bc.getId(), bc.getOrder(), bc.getKind()))
-                .toList();
-        try(var connection = getConnection()){
-            var serviceContainer = new ServiceContainer(connection);
-            serviceContainer.getCardService().cancel(cardId, cancelColumn.getId(), boardColumnsInfo);
+        try(var serviceContainer = ServiceContainer.forBoard(entity.getId())){
+            serviceContainer.getCardService().cancel(entity.getId(), cardId);
         } catch (RuntimeException ex){
             System.out.println(ex.getMessage());
         }
     }
 
     private void showBoard() throws SQLException {
-        try(var connection = getConnection()){
-            var serviceContainer = new ServiceContainer(connection);
-            var optional = serviceContainer.getBoardQueryService().showBoardDetails(entity.getId());
+        try(var serviceContainer = ServiceContainer.forBoard(entity.getId())){
+            var optional = serviceContainer.getBoardQueryService().showBoardView(entity.getId());
             optional.ifPresent(b -> {
                 System.out.printf("Board [%s,%s]\n", b.id(), b.name());
-                b.columns().forEach(c ->
-                        System.out.printf("Column [%s] type: [%s] has %s cards\n", c.name(), c.kind(), c.cardsAmount())
-                );
+                b.columns().forEach(c -> {
+                    System.out.printf("Column [%s] type: [%s] has %s cards\n", c.name(), c.kind(), c.cardsAmount());
+                    c.cards().forEach(card -> System.out.printf("  Card %s - %s [%s]%s\n", card.id(), card.title(),
+                            card.priority(), card.blocked() ? " blocked" : ""));
+                });
             });
         }
     }
 
+    private void exportCards() throws SQLException {
+        System.out.println("Please select the export format:");
+        System.out.println("1 - CSV");
+        System.out.println("2 - JSON Lines");
+        var format = scanner.nextInt() == 2 ? ExportFormat.JSON_LINES : ExportFormat.CSV;
+        System.out.println("Please enter the export file path");
+        var path = Path.of(scanner.next());
+        try(var serviceContainer = ServiceContainer.forBoard(entity.getId());
+            var out = Files.newOutputStream(path)){
+            var rows = serviceContainer.getBoardExportService().exportCards(entity.getId(), format, out);
+            System.out.printf("%s cards exported to %s\n", rows, path);
+        } catch (IOException | RuntimeException ex){
+            System.out.println(ex.getMessage());
+        }
+    }
+
     private void showColumn() throws SQLException {
         var columnsIds = entity.getBoardColumns().stream().map(BoardColumnEntity::getId).toList();
         var selectedColumnId = -1L;
@@ -180,17 +186,16 @@ public class BoardMenu {
             entity.getBoardColumns().forEach(c -> System.out.printf("%s - %s [%s]\n", c.getId(), c.getName(), c.getKind()));
             selectedColumnId = scanner.nextLong();
         }
-        try(var connection = getConnection()){
-            var serviceContainer = new ServiceContainer(connection);
+        try(var serviceContainer = ServiceContainer.forColumn(selectedColumnId)){
             var column = serviceContainer.getBoardColumnQueryService().findById(selectedColumnId);
             column.ifPresent(co -> {
-                System.out.printf("Column %s type %s\n", co.getName(), co.getKind());
-                displayCardsWithPagination(co.getCards(), 0);
+                System.out.printf("Column %s type %s\n", co.name(), co.kind());
+                displayCardsWithPagination(co.cards(), 0);
             });
         }
     }
     
-    private void displayCardsWithPagination(List<CardEntity> cards, int page) {
+    private void displayCardsWithPagination(List<CardSummaryDTO> cards, int page) {
         final int ITEMS_PER_PAGE = 10;
         int startIndex = page * ITEMS_PER_PAGE;
         int endIndex = Math.min(startIndex + ITEMS_PER_PAGE, cards.size());
@@ -204,9 +209,9 @@ public class BoardMenu {
                           ((cards.size() + ITEMS_PER_PAGE - 1) / ITEMS_PER_PAGE) + ")");
         
         for (int i = startIndex; i < endIndex; i++) {
-            CardEntity card = cards.get(i);
-            System.out.printf("Card %s - %s [%s]\n", card.getId(), card.getTitle(),
-                             card.getPriority() != null ? card.getPriority() : "MEDIUM");
+            CardSummaryDTO card = cards.get(i);
+            System.out.printf("Card %s - %s [%s]\n", card.id(), card.title(),
+                             card.priority() != null ? card.priority() : "MEDIUM");
         }
         
         if (endIndex < cards.size()) {
@@ -236,26 +241,29 @@ public class BoardMenu {
     private void showCard() throws SQLException {
         System.out.println("Please enter the ID of the card you want to view");
         var selectedCardId = scanner.nextLong();
-        try(var connection  = getConnection()){
-            var serviceContainer = new ServiceContainer(connection);
-            serviceContainer.getCardQueryService().findById(selectedCardId)
-                    .ifPresentOrElse(
-                            c -> {
-                                System.out.printf("Card %s - %s.\n", c.id(), c.title());
-                                System.out.printf("Description: %s\n", c.description());
-                                System.out.printf("Priority: %s\n", c.priority());
-                                if (c.dueDate() != null) {
-                                    System.out.printf("Due Date: %s\n", c.dueDate().toString());
-                                } else {
-                                    System.out.println("Due Date: None");
-                                }
-                                System.out.println(c.blocked() ?
-                                        "Is blocked. Reason: " + c.blockReason() :
-                                        "Is not blocked");
-                                System.out.printf("Has been blocked %s times\n", c.blocksAmount());
-                                System.out.printf("Is currently in column %s - %s\n", c.columnId(), c.columnName());
-                            },
-                            () -> System.out.printf("No card exists with ID %s\n", selectedCardId));
+        try(var serviceContainer = ServiceContainer.forCard(selectedCardId)){
+            var card = serviceContainer.getCardQueryService().findById(selectedCardId);
+            var content = card.isPresent() ?
+                    serviceContainer.getCardContentService().findContent(card.get()) : null;
+            card.ifPresentOrElse(
+                    c -> {
+                        System.out.printf("Card %s - %s.\n", c.id(), c.title());
+                        System.out.printf("Description: %s\n", content.description());
+                        System.out.printf("Priority: %s\n", c.priority());
+                        if (c.dueDate() != null) {
+                            System.out.printf("Due Date: %s\n", c.dueDate().toString());
+                        } else {
+                            System.out.println("Due Date: None");
+                        }
+                        System.out.println(c.blocked() ?
+                                "Is blocked. Reason: " + c.blockReason() :
+                                "Is not blocked");
+                        System.out.printf("Has been blocked %s times\n", c.blocksAmount());
+                        System.out.printf("Is currently in column %s - %s\n", c.columnId(), c.columnName());
+                        content.attachments().forEach(a -> System.out.printf("Attachment %s - %s (%s bytes)\n",
+                                a.id(), a.fileName(), a.size()));
+                    },
+                    () -> System.out.printf("No card exists with ID %s\n", selectedCardId));
         }
     }
 
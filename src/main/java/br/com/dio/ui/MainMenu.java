@@ -1,23 +1,29 @@
 package br.com.dio.ui;
 
 import br.com.dio.config.ServiceContainer;
+import br.com.dio.dto.BoardSummaryDTO;
 import br.com.dio.persistence.entity.BoardColumnEntity;
 import br.com.dio.persistence.entity.BoardColumnKindEnum;
 import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.service.ShardedBoardQueryService;
 
+import java.io.IOException;
+import java.nio.file.Path;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Scanner;
 
-import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
 import static br.com.dio.persistence.entity.BoardColumnKindEnum.PENDING;
+import static java.util.Objects.isNull;
 
 public class MainMenu {
 
+    private static final int BOARDS_PER_PAGE = 20;
+
     private final Scanner scanner = new Scanner(System.in).useDelimiter("\n");
 
     public void execute() throws SQLException {
@@ -27,13 +33,21 @@ public class MainMenu {
             System.out.println("1 - Create a new board");
             System.out.println("2 - Select an existing board");
             System.out.println("3 - Delete a board");
-            System.out.println("4 - Exit");
+            System.out.println("4 - List and search boards");
+            System.out.println("5 - Export a board snapshot");
+            System.out.println("6 - Import a board snapshot");
+            System.out.println("7 - Board deletion progress");
+            System.out.println("8 - Exit");
             option = scanner.nextInt();
             switch (option){
                 case 1 -> createBoard();
                 case 2 -> selectBoard();
                 case 3 -> deleteBoard();
-                case 4 -> System.exit(0);
+                case 4 -> listBoards();
+                case 5 -> exportBoard();
+                case 6 -> importBoard();
+                case 7 -> showPurgeProgress();
+                case 8 -> System.exit(0);
                 default -> System.out.println("Invalid option, please select an option from the menu");
             }
         }
@@ -72,8 +86,7 @@ public class MainMenu {
         columns.add(cancelColumn);
 
         entity.setBoardColumns(columns);
-        try(var connection = getConnection()){
-            var serviceContainer = new ServiceContainer(connection);
+        try(var serviceContainer = ServiceContainer.forNewBoard()){
             serviceContainer.getBoardService().insert(entity);
         }
 
@@ -82,8 +95,7 @@ public class MainMenu {
     private void selectBoard() throws SQLException {
         System.out.println("Please enter the ID of the board you want to select");
         var id = scanner.nextLong();
-        try(var connection = getConnection()){
-            var serviceContainer = new ServiceContainer(connection);
+        try(var serviceContainer = ServiceContainer.forBoard(id)){
             var optional = serviceContainer.getBoardQueryService().findById(id);
             optional.ifPresentOrElse(
                     b -> new BoardMenu(b).execute(),
@@ -95,16 +107,74 @@ public class MainMenu {
     private void deleteBoard() throws SQLException {
         System.out.println("Please enter the ID of the board to be deleted");
         var id = scanner.nextLong();
-        try(var connection = getConnection()){
-            var serviceContainer = new ServiceContainer(connection);
+        try(var serviceContainer = ServiceContainer.forBoard(id)){
             if (serviceContainer.getBoardService().delete(id)){
-                System.out.printf("Board %s has been deleted\n", id);
+                System.out.printf("Board %s has been deleted, its cards are removed in the background\n", id);
             } else {
                 System.out.printf("No board was found with ID %s\n", id);
             }
         }
     }
 
+    private void listBoards() throws SQLException {
+        System.out.println("Please enter the start of the board name to search for, or * to list all boards");
+        var prefix = scanner.next().trim();
+        var namePrefix = prefix.equals("*") ? null : prefix;
+        var service = new ShardedBoardQueryService();
+        BoardSummaryDTO after = null;
+        while (true){
+            var boards = service.findPage(namePrefix, after, BOARDS_PER_PAGE, true);
+            if (boards.isEmpty()){
+                System.out.println(after == null ? "No boards were found" : "No more boards");
+                return;
+            }
+            boards.forEach(b -> System.out.printf("%s - %s (%s cards)\n", b.id(), b.name(), b.cardsAmount()));
+            if (boards.size() < BOARDS_PER_PAGE){
+                return;
+            }
+            System.out.println("Enter 'n' for the next page or anything else to go back");
+            if (!scanner.next().trim().equals("n")){
+                return;
+            }
+            after = boards.get(boards.size() - 1);
+        }
+    }
+
+    private void showPurgeProgress() throws SQLException {
+        var progress = new ShardedBoardQueryService().findPurgeProgress();
+        if (progress.isEmpty()){
+            System.out.println("No boards have been deleted");
+            return;
+        }
+        progress.forEach(p -> System.out.printf("%s - %s: %s cards and %s blocks removed, %s\n",
+                p.boardId(), p.name(), p.cardsDeleted(), p.blocksDeleted(),
+                isNull(p.finishedAt()) ? p.cardsRemaining() + " cards remaining" : "finished at " + p.finishedAt()));
+    }
+
+    private void exportBoard() throws SQLException {
+        System.out.println("Please enter the ID of the board to be exported");
+        var id = scanner.nextLong();
+        System.out.println("Please enter the snapshot file path");
+        var path = Path.of(scanner.next());
+        try(var serviceContainer = ServiceContainer.forBoard(id)){
+            var cards = serviceContainer.getBoardSnapshotService().export(id, path);
+            System.out.printf("Board %s exported with %s cards to %s\n", id, cards, path);
+        } catch (IOException | RuntimeException ex){
+            System.out.println(ex.getMessage());
+        }
+    }
+
+    private void importBoard() throws SQLException {
+        System.out.println("Please enter the snapshot file path");
+        var path = Path.of(scanner.next());
+        try(var serviceContainer = ServiceContainer.forNewBoard()){
+            var board = serviceContainer.getBoardSnapshotService().importBoard(path);
+            System.out.printf("Snapshot imported as board %s - %s\n", board.getId(), board.getName());
+        } catch (IOException | RuntimeException ex){
+            System.out.println(ex.getMessage());
+        }
+    }
+
     private BoardColumnEntity createColumn(final String name, final BoardColumnKindEnum kind, final int order){
         var boardColumn = new BoardColumnEntity();
         boardColumn.setName(name);
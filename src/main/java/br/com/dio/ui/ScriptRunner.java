@@ -0,0 +1,639 @@
+package br.com.dio.ui;
+
+import br.com.dio.config.ServiceContainer;
+import br.com.dio.dto.CardFilter;
+import br.com.dio.dto.DashboardFilter;
+import br.com.dio.dto.WorkflowTransitionDTO;
+import br.com.dio.exception.EntityNotFoundException;
+import br.com.dio.export.JsonText;
+import br.com.dio.persistence.config.GroupCommitConnection;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import br.com.dio.persistence.entity.BoardEntity;
+import br.com.dio.persistence.entity.CardEntity;
+import br.com.dio.persistence.entity.CardPriorityEnum;
+import br.com.dio.service.AsyncQueryService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import static br.com.dio.persistence.config.ConnectionConfig.getConnection;
+import static br.com.dio.persistence.config.ShardMap.nextShardForNewBoard;
+import static br.com.dio.persistence.config.ShardMap.shardOf;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.PENDING;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.time.ZoneOffset.UTC;
+import static java.util.concurrent.TimeUnit.NANOSECONDS;
+
+/**
+ * Non interactive mode, started with {@code --script <file|-> [--group-size <n>]}. Reads one command per line:
+ * <pre>
+ * create-board &lt;name&gt; &lt;initial&gt; [pending...] &lt;final&gt; &lt;cancel&gt;
+ * create-card &lt;boardId&gt; &lt;title&gt; &lt;description&gt; [LOW|MEDIUM|HIGH|CRITICAL] [yyyy-MM-ddTHH:mm]
+ * move &lt;boardId&gt; &lt;cardId&gt;
+ * move-to &lt;boardId&gt; &lt;cardId&gt; &lt;columnId&gt;
+ * workflow &lt;boardId&gt; [&lt;fromColumnId&gt;:&lt;toColumnId&gt;...]
+ * block &lt;boardId&gt; &lt;cardId&gt; &lt;reason&gt;
+ * unblock &lt;boardId&gt; &lt;cardId&gt; &lt;reason&gt;
+ * cancel &lt;boardId&gt; &lt;cardId&gt;
+ * show-board &lt;boardId&gt;  (column totals and the first cards of each column)
+ * show-card &lt;boardId&gt; &lt;cardId&gt;
+ * card-content &lt;cardId&gt;  (full description and attachments)
+ * attach &lt;cardId&gt; &lt;file&gt;
+ * save-attachment &lt;attachmentId&gt; &lt;file&gt;
+ * board-stats &lt;boardId&gt;  (cards per column and priority, overdue, blocked and recent cards)
+ * count-cards &lt;boardId&gt; [column=&lt;columnId&gt;,...] [priority=HIGH,CRITICAL] [blocked=true|false]
+ *             [overdue=true|false] [limit=n]
+ * find-cards &lt;boardId&gt; [priority=HIGH,CRITICAL] [kind=PENDING] [blocked=true|false] [due-before=...]
+ *            [due-after=...] [created-after=...] [after=&lt;columnId&gt;:&lt;cardId&gt;] [limit=n]
+ * </pre>
+ * The card commands accept a trailing {@code key=<idempotency key>}: repeating a command with the same key does
+ * not run it again. Arguments with spaces go between double quotes and lines starting with {@code #} are ignored.
+ * Commands run over one connection per shard, and every {@code group-size} commands share one transaction. Each
+ * command prints one JSON line once its group is committed, and a summary line closes the output. Results are
+ * buffered per shard: when a command makes its shard roll back, the commands before it in that group on the same
+ * shard are reported as {@code rolled_back}, those of other shards are not. Shards commit one after the other; when
+ * one of them fails, the shards committed before it keep their commands, reported as {@code ok}, the failing and
+ * later ones are reported as {@code rolled_back}, a {@code partial_commit} line lists both and the run stops.
+ */
+public class ScriptRunner {
+
+    private record Result(int line, String command, String status, String detail, long micros) {
+
+        private Result rolledBack(){
+            return new Result(line, command, "rolled_back", "", micros);
+        }
+
+    }
+
+    /**
+     * Key of the results of commands that failed before reaching any shard.
+     */
+    private static final int NO_SHARD = -1;
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final int groupSize;
+    private final Map<Integer, GroupCommitConnection> connections = new TreeMap<>();
+    private final Map<Integer, ServiceContainer> containers = new HashMap<>();
+    private final Map<Long, BoardEntity> boards = new HashMap<>();
+    private final Map<Integer, List<Result>> groups = new TreeMap<>();
+    private int buffered;
+    private int commandShard;
+    private long executed;
+    private long succeeded;
+    private long failed;
+    private long rolledBack;
+
+    public ScriptRunner(final BufferedReader in, final PrintStream out, final int groupSize) {
+        this.in = in;
+        this.out = out;
+        this.groupSize = Math.max(groupSize, 1);
+    }
+
+    public static ScriptRunner fromArgs(final String[] args) throws IOException {
+        String source = null;
+        var groupSize = 1;
+        for (var i = 0; i < args.length; i++){
+            switch (args[i]) {
+                case "--script" -> source = args[++i];
+                case "--group-size" -> groupSize = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown argument %s".formatted(args[i]));
+            }
+        }
+        if (source == null){
+            throw new IllegalArgumentException("Missing --script <file|->");
+        }
+        var reader = source.equals("-") ?
+                new BufferedReader(new InputStreamReader(System.in, UTF_8)) :
+                Files.newBufferedReader(Path.of(source), UTF_8);
+        return new ScriptRunner(reader, System.out, groupSize);
+    }
+
+    public void execute() throws IOException, SQLException {
+        var start = System.nanoTime();
+        try {
+            String line;
+            var lineNumber = 0;
+            while ((line = in.readLine()) != null){
+                lineNumber++;
+                var tokens = tokenize(line);
+                if (tokens.isEmpty() || tokens.get(0).startsWith("#")){
+                    continue;
+                }
+                run(lineNumber, tokens);
+                if (buffered >= groupSize){
+                    commitGroup();
+                }
+            }
+            commitGroup();
+        } finally {
+            in.close();
+            for (var connection : connections.values()){
+                connection.close();
+            }
+        }
+        var seconds = Math.max(System.nanoTime() - start, 1) / 1_000_000_000.0;
+        out.printf("{\"summary\":true,\"commands\":%s,\"ok\":%s,\"failed\":%s,\"rolled_back\":%s,\"group_size\":%s,\"seconds\":%.3f,\"commands_per_second\":%.1f}%n",
+                executed, succeeded, failed, rolledBack, groupSize, seconds, executed / seconds);
+        out.flush();
+    }
+
+    private void run(final int line, final List<String> tokens){
+        var command = tokens.get(0);
+        var start = System.nanoTime();
+        executed++;
+        commandShard = NO_SHARD;
+        try {
+            var detail = dispatch(command, tokens);
+            // a command may roll back and still succeed, e.g. when an idempotency key conflict returns the winner
+            discardRolledBackGroups();
+            buffer(new Result(line, command, "ok", detail, NANOSECONDS.toMicros(System.nanoTime() - start)));
+        } catch (SQLException | IOException | RuntimeException ex){
+            discardRolledBackGroups();
+            var message = new StringBuilder(",\"message\":");
+            try {
+                JsonText.appendQuoted(message, ex.getMessage());
+            } catch (IOException ignored){
+                // StringBuilder does not throw
+            }
+            var micros = NANOSECONDS.toMicros(System.nanoTime() - start);
+            buffer(new Result(line, command, "error", message.toString(), micros));
+        }
+    }
+
+    private String dispatch(final String command, final List<String> tokens) throws SQLException, IOException {
+        var key = idempotencyKey(tokens);
+        return switch (command) {
+            case "create-board" -> createBoard(tokens);
+            case "create-card" -> createCard(key, tokens);
+            case "move" -> {
+                var board = board(argument(tokens, 1));
+                services(board.getId()).getCardService().moveToNextColumn(key, board.getId(), argument(tokens, 2));
+                yield "";
+            }
+            case "move-to" -> {
+                var board = board(argument(tokens, 1));
+                services(board.getId()).getCardService()
+                        .moveToColumn(key, board.getId(), argument(tokens, 2), argument(tokens, 3));
+                yield "";
+            }
+            case "workflow" -> defineWorkflow(tokens);
+            case "block" -> {
+                var board = board(argument(tokens, 1));
+                services(board.getId()).getCardService().block(key, board.getId(), argument(tokens, 2), text(tokens, 3));
+                yield "";
+            }
+            case "unblock" -> {
+                services(argument(tokens, 1)).getCardService().unblock(key, argument(tokens, 2), text(tokens, 3));
+                yield "";
+            }
+            case "cancel" -> {
+                var board = board(argument(tokens, 1));
+                services(board.getId()).getCardService().cancel(key, board.getId(), argument(tokens, 2));
+                yield "";
+            }
+            case "reorder-card" -> {
+                var boardId = argument(tokens, 1);
+                services(boardId).getRankService().reorderCard(boardId, argument(tokens, 2), optionalArgument(tokens, 3));
+                yield "";
+            }
+            case "reorder-column" -> {
+                var boardId = argument(tokens, 1);
+                services(boardId).getRankService().reorderColumn(boardId, argument(tokens, 2), optionalArgument(tokens, 3));
+                yield "";
+            }
+            case "show-board" -> showBoard(argument(tokens, 1));
+            case "show-card" -> showCard(argument(tokens, 1), argument(tokens, 2));
+            case "card-history" -> cardHistory(argument(tokens, 1));
+            case "card-content" -> cardContent(argument(tokens, 1));
+            case "attach" -> {
+                var cardId = argument(tokens, 1);
+                var attachment = services(cardId).getCardContentService().attach(cardId, Path.of(text(tokens, 2)));
+                yield ",\"id\":%s,\"size\":%s,\"checksum\":%s"
+                        .formatted(attachment.id(), attachment.size(), attachment.checksum());
+            }
+            case "save-attachment" -> {
+                var attachmentId = argument(tokens, 1);
+                var attachment = services(attachmentId).getCardContentService()
+                        .copyAttachment(attachmentId, Path.of(text(tokens, 2)));
+                yield ",\"id\":%s,\"size\":%s".formatted(attachment.id(), attachment.size());
+            }
+            case "find-cards" -> findCards(tokens);
+            case "board-stats" -> boardStats(argument(tokens, 1));
+            case "count-cards" -> countCards(tokens);
+            default -> throw new IllegalArgumentException("Unknown command %s".formatted(command));
+        };
+    }
+
+    private String createBoard(final List<String> tokens) throws SQLException {
+        if (tokens.size() < 5){
+            throw new IllegalArgumentException("create-board needs a name, an initial, a final and a cancel column");
+        }
+        var entity = new BoardEntity();
+        entity.setName(tokens.get(1));
+        List<BoardColumnEntity> columns = new ArrayList<>();
+        var names = tokens.subList(2, tokens.size());
+        for (var i = 0; i < names.size(); i++){
+            BoardColumnKindEnum kind = i == 0 ? INITIAL :
+                    i == names.size() - 2 ? FINAL :
+                    i == names.size() - 1 ? CANCEL : PENDING;
+            var column = new BoardColumnEntity();
+            column.setName(names.get(i));
+            column.setKind(kind);
+            column.setOrder(i);
+            columns.add(column);
+        }
+        entity.setBoardColumns(columns);
+        container(nextShardForNewBoard()).getBoardService().insert(entity);
+        boards.put(entity.getId(), entity);
+        return ",\"id\":%s".formatted(entity.getId());
+    }
+
+    private String createCard(final String key, final List<String> tokens) throws SQLException {
+        var board = board(argument(tokens, 1));
+        var card = new CardEntity();
+        card.setTitle(text(tokens, 2));
+        card.setDescription(text(tokens, 3));
+        if (tokens.size() > 4){
+            card.setPriority(CardPriorityEnum.valueOf(tokens.get(4).toUpperCase()));
+        }
+        if (tokens.size() > 5){
+            card.setDueDate(LocalDateTime.parse(tokens.get(5)));
+        }
+        card.setBoardColumn(board.getInitialColumn());
+        services(board.getId()).getCardService().create(key, card);
+        return ",\"id\":%s".formatted(card.getId());
+    }
+
+    private String showBoard(final Long boardId) throws SQLException, IOException {
+        var board = services(boardId).getBoardQueryService().showBoardView(boardId).orElseThrow(
+                () -> new EntityNotFoundException("Board with id %s was not found".formatted(boardId))
+        );
+        var detail = new StringBuilder(",\"board\":{\"id\":").append(board.id()).append(",\"name\":");
+        JsonText.appendQuoted(detail, board.name());
+        detail.append(",\"columns\":[");
+        for (var i = 0; i < board.columns().size(); i++){
+            var column = board.columns().get(i);
+            detail.append(i == 0 ? "" : ",").append("{\"id\":").append(column.id()).append(",\"name\":");
+            JsonText.appendQuoted(detail, column.name());
+            detail.append(",\"kind\":\"").append(column.kind()).append("\",\"cards\":").append(column.cardsAmount());
+            detail.append(",\"top\":[");
+            for (var j = 0; j < column.cards().size(); j++){
+                var card = column.cards().get(j);
+                detail.append(j == 0 ? "" : ",").append("{\"id\":").append(card.id()).append(",\"title\":");
+                JsonText.appendQuoted(detail, card.title());
+                detail.append(",\"blocked\":").append(card.blocked()).append('}');
+            }
+            detail.append("]}");
+        }
+        return detail.append("]}").toString();
+    }
+
+    private String showCard(final Long boardId, final Long cardId) throws SQLException, IOException {
+        var card = services(boardId).getCardQueryService().findById(cardId).orElseThrow(
+                () -> new EntityNotFoundException("Card with id %s was not found".formatted(cardId))
+        );
+        var detail = new StringBuilder(",\"card\":{\"id\":").append(card.id()).append(",\"title\":");
+        JsonText.appendQuoted(detail, card.title());
+        detail.append(",\"description\":");
+        JsonText.appendQuoted(detail, card.description());
+        detail.append(",\"priority\":");
+        JsonText.appendQuoted(detail, card.priority());
+        detail.append(",\"due_date\":");
+        JsonText.appendQuoted(detail, card.dueDate());
+        detail.append(",\"blocked\":").append(card.blocked()).append(",\"block_reason\":");
+        JsonText.appendQuoted(detail, card.blockReason());
+        detail.append(",\"blocks_amount\":").append(card.blocksAmount())
+                .append(",\"column_id\":").append(card.columnId()).append(",\"column_name\":");
+        JsonText.appendQuoted(detail, card.columnName());
+        return detail.append('}').toString();
+    }
+
+    private String cardHistory(final Long cardId) throws SQLException, IOException {
+        var history = AsyncQueryService.await(new AsyncQueryService().showCardHistory(cardId)).orElseThrow(
+                () -> new EntityNotFoundException("Card with id %s was not found".formatted(cardId))
+        );
+        var detail = new StringBuilder(",\"card\":{\"id\":").append(history.card().id()).append(",\"title\":");
+        JsonText.appendQuoted(detail, history.card().title());
+        detail.append(",\"column_id\":").append(history.card().columnId()).append(",\"blocks\":[");
+        for (var i = 0; i < history.blocks().size(); i++){
+            var block = history.blocks().get(i);
+            detail.append(i == 0 ? "" : ",").append("{\"blocked_at\":");
+            JsonText.appendQuoted(detail, block.getBlockedAt());
+            detail.append(",\"block_reason\":");
+            JsonText.appendQuoted(detail, block.getBlockReason());
+            detail.append(",\"unblocked_at\":");
+            JsonText.appendQuoted(detail, block.getUnblockedAt());
+            detail.append(",\"unblock_reason\":");
+            JsonText.appendQuoted(detail, block.getUnblockReason());
+            detail.append('}');
+        }
+        return detail.append("]}").toString();
+    }
+
+    private String cardContent(final Long cardId) throws SQLException, IOException {
+        var content = services(cardId).getCardContentService().findById(cardId).orElseThrow(
+                () -> new EntityNotFoundException("Card with id %s was not found".formatted(cardId))
+        );
+        var detail = new StringBuilder(",\"content\":{\"card_id\":").append(content.cardId()).append(",\"description\":");
+        JsonText.appendQuoted(detail, content.description());
+        detail.append(",\"attachments\":[");
+        for (var i = 0; i < content.attachments().size(); i++){
+            var attachment = content.attachments().get(i);
+            detail.append(i == 0 ? "" : ",").append("{\"id\":").append(attachment.id()).append(",\"file_name\":");
+            JsonText.appendQuoted(detail, attachment.fileName());
+            detail.append(",\"size\":").append(attachment.size())
+                    .append(",\"checksum\":").append(attachment.checksum()).append('}');
+        }
+        return detail.append("]}").toString();
+    }
+
+    private String boardStats(final Long boardId) throws SQLException {
+        var stats = services(boardId).getBoardAnalyticsService().summarize(boardId);
+        var detail = new StringBuilder(",\"stats\":{\"board_id\":").append(stats.id())
+                .append(",\"cards\":").append(stats.cards())
+                .append(",\"overdue\":").append(stats.overdue())
+                .append(",\"blocked\":").append(stats.blocked())
+                .append(",\"columns\":[");
+        for (var i = 0; i < stats.columns().size(); i++){
+            var column = stats.columns().get(i);
+            detail.append(i == 0 ? "" : ",").append("{\"id\":").append(column.id())
+                    .append(",\"kind\":\"").append(column.kind()).append("\",\"cards\":").append(column.cards())
+                    .append(",\"priorities\":{");
+            var first = true;
+            for (var entry : column.cardsByPriority().entrySet()){
+                detail.append(first ? "" : ",").append('"').append(entry.getKey()).append("\":").append(entry.getValue());
+                first = false;
+            }
+            detail.append("},\"overdue\":").append(column.overdue())
+                    .append(",\"blocked\":").append(column.blocked())
+                    .append(",\"created_recently\":").append(column.createdRecently()).append('}');
+        }
+        return detail.append("]}").toString();
+    }
+
+    private String countCards(final List<String> tokens) throws SQLException {
+        var boardId = argument(tokens, 1);
+        var filter = DashboardFilter.forBoard(boardId);
+        for (var i = 2; i < tokens.size(); i++){
+            var criterion = tokens.get(i).split("=", 2);
+            if (criterion.length != 2){
+                throw new IllegalArgumentException("Criteria are written as <name>=<value>, got %s".formatted(tokens.get(i)));
+            }
+            var value = criterion[1];
+            switch (criterion[0]) {
+                case "column" -> filter.columns(Stream.of(value.split(",")).map(Long::valueOf).toArray(Long[]::new));
+                case "priority" -> filter.priorities(Stream.of(value.split(",")).map(CardPriorityEnum::valueOf)
+                        .toArray(CardPriorityEnum[]::new));
+                case "blocked" -> filter.blocked(Boolean.parseBoolean(value));
+                case "overdue" -> filter.overdue(Boolean.parseBoolean(value));
+                case "limit" -> filter.limit(Integer.parseInt(value));
+                default -> throw new IllegalArgumentException("Unknown criterion %s".formatted(criterion[0]));
+            }
+        }
+        var result = services(boardId).getBoardAnalyticsService().count(filter.build());
+        var detail = new StringBuilder(",\"cards\":").append(result.cards()).append(",\"ids\":[");
+        for (var i = 0; i < result.cardIds().size(); i++){
+            detail.append(i == 0 ? "" : ",").append(result.cardIds().get(i));
+        }
+        return detail.append(']').toString();
+    }
+
+    private String findCards(final List<String> tokens) throws SQLException, IOException {
+        var boardId = argument(tokens, 1);
+        var filter = CardFilter.forBoard(boardId);
+        OffsetDateTime dueFrom = null;
+        OffsetDateTime dueTo = null;
+        for (var i = 2; i < tokens.size(); i++){
+            var criterion = tokens.get(i).split("=", 2);
+            if (criterion.length != 2){
+                throw new IllegalArgumentException("Criteria are written as <name>=<value>, got %s".formatted(tokens.get(i)));
+            }
+            var value = criterion[1];
+            switch (criterion[0]) {
+                case "priority" -> filter.priorities(Stream.of(value.split(",")).map(CardPriorityEnum::valueOf)
+                        .toArray(CardPriorityEnum[]::new));
+                case "kind" -> filter.columnKinds(Stream.of(value.split(",")).map(BoardColumnKindEnum::valueOf)
+                        .toArray(BoardColumnKindEnum[]::new));
+                case "blocked" -> filter.blocked(Boolean.parseBoolean(value));
+                case "due-before" -> dueTo = dateTime(value);
+                case "due-after" -> dueFrom = dateTime(value);
+                case "created-after" -> filter.createdBetween(dateTime(value), null);
+                case "after" -> {
+                    var position = value.split(":", 2);
+                    if (position.length != 2){
+                        var message = "after is written as <columnId>:<cardId>, got %s".formatted(value);
+                        throw new IllegalArgumentException(message);
+                    }
+                    filter.after(Long.parseLong(position[0]), Long.parseLong(position[1]));
+                }
+                case "limit" -> filter.limit(Integer.parseInt(value));
+                default -> throw new IllegalArgumentException("Unknown criterion %s".formatted(criterion[0]));
+            }
+        }
+        var cards = services(boardId).getCardQueryService().search(filter.dueBetween(dueFrom, dueTo).build());
+        var detail = new StringBuilder(",\"cards\":[");
+        for (var i = 0; i < cards.size(); i++){
+            var card = cards.get(i);
+            detail.append(i == 0 ? "" : ",").append("{\"id\":").append(card.id()).append(",\"title\":");
+            JsonText.appendQuoted(detail, card.title());
+            detail.append(",\"priority\":");
+            JsonText.appendQuoted(detail, card.priority());
+            detail.append(",\"due_date\":");
+            JsonText.appendQuoted(detail, card.dueDate());
+            detail.append(",\"blocked\":").append(card.blocked())
+                    .append(",\"column_id\":").append(card.columnId())
+                    .append(",\"column_kind\":\"").append(card.columnKind()).append("\"}");
+        }
+        return detail.append(']').toString();
+    }
+
+    private static OffsetDateTime dateTime(final String value){
+        return LocalDateTime.parse(value).atOffset(UTC);
+    }
+
+    private BoardEntity board(final Long boardId) throws SQLException {
+        var board = boards.get(boardId);
+        if (board == null){
+            board = services(boardId).getBoardQueryService().findById(boardId).orElseThrow(
+                    () -> new EntityNotFoundException("Board with id %s was not found".formatted(boardId))
+            );
+            boards.put(boardId, board);
+        }
+        return board;
+    }
+
+    private String defineWorkflow(final List<String> tokens) throws SQLException {
+        var board = board(argument(tokens, 1));
+        List<WorkflowTransitionDTO> transitions = new ArrayList<>();
+        for (var i = 2; i < tokens.size(); i++){
+            var columns = text(tokens, i).split(":");
+            if (columns.length != 2){
+                throw new IllegalArgumentException("Transitions are written as <fromColumnId>:<toColumnId>, got %s"
+                        .formatted(tokens.get(i)));
+            }
+            transitions.add(new WorkflowTransitionDTO(Long.parseLong(columns[0]), Long.parseLong(columns[1])));
+        }
+        services(board.getId()).getBoardWorkflowService().define(board.getId(), transitions);
+        return ",\"transitions\":%s".formatted(transitions.size());
+    }
+
+    private ServiceContainer services(final Long id){
+        return container(shardOf(id));
+    }
+
+    private ServiceContainer container(final int shard){
+        commandShard = shard;
+        return containers.computeIfAbsent(shard, s -> {
+            try {
+                var connection = new GroupCommitConnection(getConnection(s));
+                connections.put(s, connection);
+                return new ServiceContainer(connection.getConnection());
+            } catch (SQLException ex){
+                throw new IllegalStateException("Could not connect to shard %s".formatted(s), ex);
+            }
+        });
+    }
+
+    /**
+     * Buffers the result under the shard the command ran on.
+     */
+    private void buffer(final Result result){
+        groups.computeIfAbsent(commandShard, shard -> new ArrayList<>()).add(result);
+        buffered++;
+    }
+
+    /**
+     * Marks the commands buffered so far on a shard as rolled back when a rollback discarded its part of the group.
+     */
+    private void discardRolledBackGroups(){
+        for (var entry : connections.entrySet()){
+            var shard = entry.getKey();
+            if (entry.getValue().takeRolledBack()){
+                groups.getOrDefault(shard, List.of()).replaceAll(Result::rolledBack);
+                boards.keySet().removeIf(id -> shardOf(id) == shard);
+            }
+        }
+    }
+
+    private void commitGroup() throws SQLException {
+        List<Integer> committed = new ArrayList<>();
+        for (var entry : connections.entrySet()){
+            try {
+                entry.getValue().commitGroup();
+                committed.add(entry.getKey());
+            } catch (SQLException | RuntimeException ex){
+                List<Integer> rolledBackShards = new ArrayList<>();
+                for (var shard : connections.keySet()){
+                    if (!committed.contains(shard)){
+                        rolledBackShards.add(shard);
+                        groups.getOrDefault(shard, List.of())
+                                .replaceAll(r -> r.status().equals("ok") ? r.rolledBack() : r);
+                    }
+                }
+                flushGroup();
+                if (!committed.isEmpty()){
+                    out.printf("{\"partial_commit\":true,\"committed_shards\":%s,\"rolled_back_shards\":%s}%n",
+                            committed, rolledBackShards);
+                }
+                out.flush();
+                throw ex;
+            }
+        }
+        flushGroup();
+    }
+
+    /**
+     * Prints the buffered results of every shard in script order.
+     */
+    private void flushGroup(){
+        var results = groups.values().stream()
+                .flatMap(List::stream)
+                .sorted(Comparator.comparingInt(Result::line))
+                .toList();
+        for (var result : results){
+            switch (result.status()) {
+                case "ok" -> succeeded++;
+                case "error" -> failed++;
+                default -> rolledBack++;
+            }
+            out.printf("{\"line\":%s,\"command\":\"%s\",\"status\":\"%s\",\"micros\":%s%s}%n",
+                    result.line(), result.command(), result.status(), result.micros(), result.detail());
+        }
+        groups.clear();
+        buffered = 0;
+    }
+
+    /**
+     * Removes a trailing {@code key=<value>} argument and returns its value, {@code null} without one.
+     */
+    private static String idempotencyKey(final List<String> tokens){
+        var last = tokens.get(tokens.size() - 1);
+        if (tokens.size() < 2 || !last.startsWith("key=")){
+            return null;
+        }
+        tokens.remove(tokens.size() - 1);
+        return last.substring("key=".length());
+    }
+
+    private static Long argument(final List<String> tokens, final int index){
+        return Long.parseLong(text(tokens, index));
+    }
+
+    private static Long optionalArgument(final List<String> tokens, final int index){
+        return index < tokens.size() ? argument(tokens, index) : null;
+    }
+
+    private static String text(final List<String> tokens, final int index){
+        if (index >= tokens.size()){
+            throw new IllegalArgumentException("Missing argument %s of %s".formatted(index, tokens.get(0)));
+        }
+        return tokens.get(index);
+    }
+
+    private static List<String> tokenize(final String line){
+        List<String> tokens = new ArrayList<>();
+        var current = new StringBuilder();
+        var quoted = false;
+        var pending = false;
+        for (var i = 0; i < line.length(); i++){
+            var c = line.charAt(i);
+            if (c == '"'){
+                quoted = !quoted;
+                pending = true;
+            } else if (Character.isWhitespace(c) && !quoted){
+                if (pending){
+                    tokens.add(current.toString());
+                    current.setLength(0);
+                    pending = false;
+                }
+            } else {
+                current.append(c);
+                pending = true;
+            }
+        }
+        if (pending){
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+
+}
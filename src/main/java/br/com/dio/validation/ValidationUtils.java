@@ -1,5 +1,6 @@
 package br.com.dio.validation;
 
+import br.com.dio.content.Descriptions;
 import br.com.dio.persistence.entity.BoardEntity;
 import br.com.dio.persistence.entity.CardEntity;
 
@@ -30,10 +31,10 @@ public class ValidationUtils {
         if (card.getDescription() == null || card.getDescription().trim().isEmpty()) {
             throw new IllegalArgumentException("Card description cannot be empty");
         }
-        if (card.getDescription().length() > 255) {
-            throw new IllegalArgumentException("Card description cannot exceed 255 characters");
+        if (card.getDescription().length() > Descriptions.MAX_LENGTH) {
+            throw new IllegalArgumentException("Card description cannot exceed %s characters".formatted(Descriptions.MAX_LENGTH));
         }
-        if (card.getBoardColumn() == null) {
+        if (card.getBoardColumnId() == null) {
             throw new IllegalArgumentException("Card must belong to a board column");
         }
     }
@@ -43,4 +44,13 @@ public class ValidationUtils {
             throw new IllegalArgumentException("Invalid ID provided");
         }
     }
+    
+    public static void validateIdempotencyKey(String key) {
+        if (key.trim().isEmpty()) {
+            throw new IllegalArgumentException("Idempotency key cannot be empty");
+        }
+        if (key.length() > 64) {
+            throw new IllegalArgumentException("Idempotency key cannot exceed 64 characters");
+        }
+    }
 }
\ No newline at end of file
@@ -0,0 +1,70 @@
+package br.com.dio.workflow;
+
+import br.com.dio.event.EventBus;
+import br.com.dio.persistence.dao.BoardColumnDAO;
+import br.com.dio.persistence.dao.BoardWorkflowDAO;
+import lombok.NoArgsConstructor;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static java.util.Objects.nonNull;
+import static lombok.AccessLevel.PRIVATE;
+
+/**
+ * Compiled workflows by board id. Entries are dropped when the event bus reports a workflow change or board
+ * deletion, local or, with the change feed enabled, from another instance. Disable it with
+ * {@code -Dboard.workflow.cache=false} when several instances run without the change feed.
+ */
+@NoArgsConstructor(access = PRIVATE)
+public final class WorkflowCache {
+
+    private static final boolean ENABLED = Boolean.parseBoolean(System.getProperty("board.workflow.cache", "true"));
+
+    private static final Map<Long, WorkflowTable> TABLES = new ConcurrentHashMap<>();
+
+    /**
+     * Bumped by every invalidation, a table loaded while it changed may already be stale and is not cached.
+     */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    static {
+        if (ENABLED){
+            EventBus.get().subscribe("workflow-cache", (event, sequence, endOfBatch) -> {
+                switch (event.getType()) {
+                    case WORKFLOW_CHANGED, BOARD_DELETED -> invalidate(event.getBoardId());
+                    case RESYNC -> {
+                        GENERATION.incrementAndGet();
+                        TABLES.clear();
+                    }
+                    default -> {
+                    }
+                }
+            });
+        }
+    }
+
+    public static WorkflowTable get(final Connection connection, final Long boardId) throws SQLException {
+        var table = ENABLED ? TABLES.get(boardId) : null;
+        if (nonNull(table)){
+            return table;
+        }
+        var generation = GENERATION.get();
+        var columns = new BoardColumnDAO(connection).findByBoardId(boardId);
+        var transitions = new BoardWorkflowDAO(connection).findByBoardId(boardId);
+        table = WorkflowTable.compile(boardId, columns, transitions);
+        if (ENABLED && GENERATION.get() == generation){
+            TABLES.put(boardId, table);
+        }
+        return table;
+    }
+
+    public static void invalidate(final Long boardId){
+        GENERATION.incrementAndGet();
+        TABLES.remove(boardId);
+    }
+
+}
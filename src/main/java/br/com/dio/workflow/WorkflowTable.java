@@ -0,0 +1,167 @@
+package br.com.dio.workflow;
+
+import br.com.dio.dto.WorkflowTransitionDTO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+
+import java.util.Comparator;
+import java.util.List;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+
+/**
+ * Immutable, compiled workflow of one board. Columns are numbered by their order; a column id is mapped to its
+ * index through an open addressing table and the allowed moves are one bit per (from, to) pair, so checking a
+ * move is a few array reads and never allocates.
+ * <p>
+ * A board without configured transitions keeps the linear workflow: every column that is neither final nor
+ * cancelled moves to the next one and to the cancel column.
+ */
+public final class WorkflowTable {
+
+    private static final int NONE = -1;
+
+    private final long boardId;
+    private final long[] columnIds;
+    private final BoardColumnKindEnum[] kinds;
+    private final int words;
+    private final long[] allowed;
+    private final int[] next;
+    private final int cancelIndex;
+    private final long[] slotKeys;
+    private final int[] slotIndexes;
+    private final int slotMask;
+
+    private WorkflowTable(final long boardId, final List<BoardColumnEntity> columns,
+                          final List<WorkflowTransitionDTO> transitions) {
+        this.boardId = boardId;
+        var size = columns.size();
+        this.columnIds = new long[size];
+        this.kinds = new BoardColumnKindEnum[size];
+        var slots = Integer.highestOneBit(Math.max(size, 1) * 2) << 1;
+        this.slotKeys = new long[slots];
+        this.slotIndexes = new int[slots];
+        this.slotMask = slots - 1;
+        var cancel = NONE;
+        for (var i = 0; i < size; i++){
+            var column = columns.get(i);
+            columnIds[i] = column.getId();
+            kinds[i] = column.getKind();
+            if (column.getKind() == CANCEL && cancel == NONE){
+                cancel = i;
+            }
+            var slot = slotOf(column.getId());
+            while (slotKeys[slot] != 0){
+                slot = (slot + 1) & slotMask;
+            }
+            slotKeys[slot] = column.getId();
+            slotIndexes[slot] = i;
+        }
+        this.cancelIndex = cancel;
+        this.words = (size + 63) >>> 6;
+        this.allowed = new long[size * words];
+        if (transitions.isEmpty()){
+            for (var i = 0; i < size; i++){
+                if (kinds[i] == FINAL || kinds[i] == CANCEL){
+                    continue;
+                }
+                if (i + 1 < size && kinds[i + 1] != CANCEL){
+                    allow(i, i + 1);
+                }
+                if (cancel != NONE){
+                    allow(i, cancel);
+                }
+            }
+        } else {
+            for (var transition : transitions){
+                var from = indexOf(transition.fromColumnId());
+                var to = indexOf(transition.toColumnId());
+                if (from == NONE || to == NONE || from == to){
+                    throw new IllegalArgumentException("Transition %s -> %s is not between distinct columns of board %s"
+                            .formatted(transition.fromColumnId(), transition.toColumnId(), boardId));
+                }
+                allow(from, to);
+            }
+        }
+        this.next = new int[size];
+        for (var i = 0; i < size; i++){
+            next[i] = defaultTarget(i);
+        }
+    }
+
+    /**
+     * Compiles the workflow from the board's columns and its configured transitions.
+     */
+    public static WorkflowTable compile(final long boardId, final List<BoardColumnEntity> columns,
+                                        final List<WorkflowTransitionDTO> transitions){
+        var ordered = columns.stream().sorted(Comparator.comparingInt(BoardColumnEntity::getOrder)).toList();
+        return new WorkflowTable(boardId, ordered, transitions);
+    }
+
+    public long boardId(){
+        return boardId;
+    }
+
+    /**
+     * Index of the column in this workflow, {@code -1} when it belongs to another board.
+     */
+    public int indexOf(final long columnId){
+        var slot = slotOf(columnId);
+        long key;
+        while ((key = slotKeys[slot]) != 0){
+            if (key == columnId){
+                return slotIndexes[slot];
+            }
+            slot = (slot + 1) & slotMask;
+        }
+        return NONE;
+    }
+
+    public boolean allows(final int from, final int to){
+        return (allowed[from * words + (to >>> 6)] & (1L << to)) != 0;
+    }
+
+    public BoardColumnKindEnum kindAt(final int index){
+        return kinds[index];
+    }
+
+    public long columnIdAt(final int index){
+        return columnIds[index];
+    }
+
+    /**
+     * Target of "move to the next column": the first allowed column after this one that is not the cancel
+     * column, otherwise the first allowed one before it; {@code -1} when no such move exists.
+     */
+    public int nextIndex(final int from){
+        return next[from];
+    }
+
+    public int cancelIndex(){
+        return cancelIndex;
+    }
+
+    private void allow(final int from, final int to){
+        allowed[from * words + (to >>> 6)] |= 1L << to;
+    }
+
+    private int defaultTarget(final int from){
+        for (var to = from + 1; to < columnIds.length; to++){
+            if (to != cancelIndex && allows(from, to)){
+                return to;
+            }
+        }
+        for (var to = 0; to < from; to++){
+            if (to != cancelIndex && allows(from, to)){
+                return to;
+            }
+        }
+        return NONE;
+    }
+
+    private int slotOf(final long columnId){
+        return (int) (columnId ^ (columnId >>> 32)) * 0x9E3779B9 & slotMask;
+    }
+
+}
@@ -0,0 +1,11 @@
+--liquibase formatted sql
+--changeset architect:202610191000_add_schema_fingerprint
+--comment: Marker of the changelog set applied to this database, used to skip Liquibase at startup
+
+CREATE TABLE SCHEMA_FINGERPRINT(
+    id INT PRIMARY KEY,
+    fingerprint VARCHAR(64) NOT NULL,
+    applied_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB;
+
+--rollback DROP TABLE SCHEMA_FINGERPRINT
\ No newline at end of file
@@ -0,0 +1,40 @@
+--liquibase formatted sql
+--changeset architect:202610191001_add_card_archive
+--comment: Month partitioned archive of finished and cancelled cards and their blocks
+
+CREATE TABLE CARDS_ARCHIVE(
+    id BIGINT NOT NULL,
+    title VARCHAR(255) NOT NULL,
+    description VARCHAR(255) NOT NULL,
+    priority VARCHAR(10),
+    due_date TIMESTAMP NULL,
+    created_at TIMESTAMP NULL,
+    updated_at TIMESTAMP NULL,
+    board_column_id BIGINT NOT NULL,
+    board_id BIGINT NOT NULL,
+    archived_month INT NOT NULL,
+    archived_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    PRIMARY KEY (id, archived_month),
+    KEY cards_archive_board_idx (board_id)
+) ENGINE=InnoDB
+PARTITION BY RANGE (archived_month) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+CREATE TABLE BLOCKS_ARCHIVE(
+    id BIGINT NOT NULL,
+    blocked_at TIMESTAMP NULL,
+    block_reason VARCHAR(255) NOT NULL,
+    unblocked_at TIMESTAMP NULL,
+    unblock_reason VARCHAR(255) NULL,
+    card_id BIGINT NOT NULL,
+    archived_month INT NOT NULL,
+    PRIMARY KEY (id, archived_month),
+    KEY blocks_archive_card_idx (card_id)
+) ENGINE=InnoDB
+PARTITION BY RANGE (archived_month) (
+    PARTITION p_future VALUES LESS THAN MAXVALUE
+);
+
+--rollback DROP TABLE BLOCKS_ARCHIVE;
+--rollback DROP TABLE CARDS_ARCHIVE;
@@ -0,0 +1,20 @@
+--liquibase formatted sql
+--changeset architect:202610191002_add_board_soft_delete
+--comment: Boards are marked deleted first and purged in batches, progress is kept per board
+
+ALTER TABLE BOARDS ADD COLUMN deleted_at TIMESTAMP NULL;
+CREATE INDEX boards_deleted_at_idx ON BOARDS(deleted_at);
+
+CREATE TABLE BOARD_PURGES(
+    board_id BIGINT PRIMARY KEY,
+    board_name VARCHAR(255) NOT NULL,
+    requested_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    cards_deleted BIGINT NOT NULL DEFAULT 0,
+    blocks_deleted BIGINT NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,
+    finished_at TIMESTAMP NULL
+) ENGINE=InnoDB;
+
+--rollback DROP TABLE BOARD_PURGES;
+--rollback DROP INDEX boards_deleted_at_idx ON BOARDS;
+--rollback ALTER TABLE BOARDS DROP COLUMN deleted_at;
@@ -0,0 +1,16 @@
+--liquibase formatted sql
+--changeset architect:202610191003_add_change_feed
+--comment: Changes written with each mutation and tailed by every app instance to keep its caches coherent
+
+CREATE TABLE CHANGE_FEED(
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    event_type VARCHAR(20) NOT NULL,
+    board_id BIGINT NOT NULL,
+    column_id BIGINT NULL,
+    card_id BIGINT NULL,
+    origin VARCHAR(36) NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    KEY change_feed_created_at_idx (created_at)
+) ENGINE=InnoDB;
+
+--rollback DROP TABLE CHANGE_FEED
@@ -0,0 +1,14 @@
+--liquibase formatted sql
+--changeset architect:202610191004_add_board_workflow_transitions
+--comment: Allowed moves between the columns of a board, boards without rows keep the linear workflow
+
+CREATE TABLE BOARD_WORKFLOW_TRANSITIONS(
+    board_id BIGINT NOT NULL,
+    from_column_id BIGINT NOT NULL,
+    to_column_id BIGINT NOT NULL,
+    PRIMARY KEY (board_id, from_column_id, to_column_id),
+    CONSTRAINT boards_columns__transitions_from_fk FOREIGN KEY (from_column_id) REFERENCES BOARDS_COLUMNS(id) ON DELETE CASCADE,
+    CONSTRAINT boards_columns__transitions_to_fk FOREIGN KEY (to_column_id) REFERENCES BOARDS_COLUMNS(id) ON DELETE CASCADE
+) ENGINE=InnoDB;
+
+--rollback DROP TABLE BOARD_WORKFLOW_TRANSITIONS
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+--changeset architect:202610191005_add_board_name_index
+--comment: Board listing pages by (name, id) and searches by name prefix
+
+CREATE INDEX boards_name_idx ON BOARDS(name);
+
+--rollback DROP INDEX boards_name_idx ON BOARDS
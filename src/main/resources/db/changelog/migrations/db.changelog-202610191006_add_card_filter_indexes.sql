@@ -0,0 +1,11 @@
+--liquibase formatted sql
+--changeset architect:202610191006_add_card_filter_indexes
+--comment: Composite indexes behind the card filter, cards are always reached through the columns of one board
+
+CREATE INDEX cards_column_priority_due_idx ON CARDS(board_column_id, priority, due_date);
+CREATE INDEX cards_column_created_idx ON CARDS(board_column_id, created_at);
+CREATE INDEX blocks_card_open_idx ON BLOCKS(card_id, unblocked_at);
+
+--rollback DROP INDEX blocks_card_open_idx ON BLOCKS;
+--rollback DROP INDEX cards_column_created_idx ON CARDS;
+--rollback DROP INDEX cards_column_priority_due_idx ON CARDS;
@@ -0,0 +1,13 @@
+--liquibase formatted sql
+--changeset architect:202610191007_add_idempotency_keys
+--comment: Outcome of every card command sent with an idempotency key, so retries return it instead of running again
+
+CREATE TABLE IDEMPOTENCY_KEYS(
+    idem_key VARCHAR(64) PRIMARY KEY,
+    operation VARCHAR(40) NOT NULL,
+    result_id BIGINT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    KEY idempotency_keys_created_at_idx (created_at)
+) ENGINE=InnoDB;
+
+--rollback DROP TABLE IDEMPOTENCY_KEYS
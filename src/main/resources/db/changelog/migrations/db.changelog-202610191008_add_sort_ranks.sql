@@ -0,0 +1,31 @@
+--liquibase formatted sql
+--changeset architect:202610191008_add_sort_ranks
+--comment: Lexicographic ranks ordering cards within a column and columns within a board, a move rewrites one row
+
+ALTER TABLE BOARDS_COLUMNS ADD COLUMN sort_rank VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin NULL;
+ALTER TABLE CARDS ADD COLUMN sort_rank VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin NULL;
+
+UPDATE BOARDS_COLUMNS bc
+ INNER JOIN (SELECT id,
+                    ROW_NUMBER() OVER (PARTITION BY board_id ORDER BY `order`, id) position
+               FROM BOARDS_COLUMNS) r
+    ON r.id = bc.id
+   SET bc.sort_rank = CONCAT(LPAD(LOWER(CONV(r.position, 10, 36)), 6, '0'), 'i');
+
+UPDATE CARDS c
+ INNER JOIN (SELECT id,
+                    ROW_NUMBER() OVER (PARTITION BY board_column_id ORDER BY id) position
+               FROM CARDS) r
+    ON r.id = c.id
+   SET c.sort_rank = CONCAT(LPAD(LOWER(CONV(r.position, 10, 36)), 6, '0'), 'i');
+
+ALTER TABLE BOARDS_COLUMNS MODIFY sort_rank VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin NOT NULL;
+ALTER TABLE CARDS MODIFY sort_rank VARCHAR(255) CHARACTER SET ascii COLLATE ascii_bin NOT NULL;
+
+CREATE INDEX boards_columns_board_rank_idx ON BOARDS_COLUMNS(board_id, sort_rank);
+CREATE INDEX cards_column_rank_idx ON CARDS(board_column_id, sort_rank);
+
+--rollback DROP INDEX cards_column_rank_idx ON CARDS;
+--rollback DROP INDEX boards_columns_board_rank_idx ON BOARDS_COLUMNS;
+--rollback ALTER TABLE CARDS DROP COLUMN sort_rank;
+--rollback ALTER TABLE BOARDS_COLUMNS DROP COLUMN sort_rank;
@@ -0,0 +1,24 @@
+--liquibase formatted sql
+--changeset architect:202610191009_add_card_contents
+--comment: Long card descriptions, deflated, and the metadata of attachments kept in the file store, both read on demand
+
+CREATE TABLE CARD_DESCRIPTIONS(
+    card_id BIGINT PRIMARY KEY,
+    text_length INT NOT NULL,
+    checksum BIGINT NOT NULL,
+    content MEDIUMBLOB NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP
+) ENGINE=InnoDB;
+
+CREATE TABLE CARD_ATTACHMENTS(
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    card_id BIGINT NOT NULL,
+    file_name VARCHAR(255) NOT NULL,
+    size BIGINT NOT NULL,
+    checksum BIGINT NOT NULL,
+    created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+    KEY card_attachments_card_idx (card_id)
+) ENGINE=InnoDB;
+
+--rollback DROP TABLE CARD_ATTACHMENTS;
+--rollback DROP TABLE CARD_DESCRIPTIONS;
@@ -0,0 +1,7 @@
+--liquibase formatted sql
+--changeset architect:202610191011_add_card_due_date_index
+--comment: The SLA report reads the cards of each open column due before a date, a range the priority index cannot serve
+
+CREATE INDEX cards_column_due_idx ON CARDS(board_column_id, due_date);
+
+--rollback DROP INDEX cards_column_due_idx ON CARDS;
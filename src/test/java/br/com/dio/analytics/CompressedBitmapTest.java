@@ -0,0 +1,186 @@
+package br.com.dio.analytics;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CompressedBitmapTest {
+
+    private static final int ARRAY_MAX = 4096;
+
+    @Test
+    void keepsItsValuesWhenAGroupTurnsIntoABitmapAndBack(){
+        var bitmap = new CompressedBitmap();
+        for (var i = 0; i < ARRAY_MAX; i++){
+            bitmap.add(i * 2);
+        }
+        assertEquals(ARRAY_MAX, bitmap.cardinality());
+
+        bitmap.add(1);
+        assertEquals(ARRAY_MAX + 1, bitmap.cardinality());
+        assertTrue(bitmap.contains(1));
+        assertTrue(bitmap.contains((ARRAY_MAX - 1) * 2));
+        assertFalse(bitmap.contains(3));
+
+        bitmap.remove(1);
+        bitmap.remove(0);
+        assertEquals(ARRAY_MAX - 1, bitmap.cardinality());
+        assertFalse(bitmap.contains(0));
+        assertFalse(bitmap.contains(1));
+        assertTrue(bitmap.contains(2));
+
+        bitmap.add(0);
+        bitmap.add(1);
+        assertEquals(ARRAY_MAX + 1, bitmap.cardinality());
+        assertEquals(values(bitmap), values(roundTrip(bitmap)));
+    }
+
+    @Test
+    void addingTwiceCountsOnce(){
+        var bitmap = new CompressedBitmap();
+        bitmap.add(7);
+        bitmap.add(7);
+        assertEquals(1, bitmap.cardinality());
+        for (var i = 0; i <= ARRAY_MAX; i++){
+            bitmap.add(i);
+        }
+        bitmap.add(7);
+        assertEquals(ARRAY_MAX + 1, bitmap.cardinality());
+    }
+
+    @Test
+    void removingTheLastValueOfAGroupDropsIt(){
+        var bitmap = new CompressedBitmap();
+        bitmap.add(1);
+        bitmap.add(1 << 16);
+        bitmap.remove(1);
+        bitmap.remove(42 << 16);
+        assertEquals(List.of(1 << 16), values(bitmap));
+        assertEquals(List.of(1 << 16), values(roundTrip(bitmap)));
+    }
+
+    @Test
+    void rangeHoldsEveryValueBelowItsEnd(){
+        var end = (1 << 16) + 100;
+        var bitmap = CompressedBitmap.range(end);
+        assertEquals(end, bitmap.cardinality());
+        assertTrue(bitmap.contains(0));
+        assertTrue(bitmap.contains(end - 1));
+        assertFalse(bitmap.contains(end));
+        assertEquals(0, CompressedBitmap.range(0).cardinality());
+    }
+
+    @Test
+    void andKeepsTheCommonValues(){
+        var evens = multiplesOf(2, 20_000);
+        var threes = multiplesOf(3, 20_000);
+        assertEquals(expected(value -> value % 6 == 0), values(evens.and(threes)));
+        assertEquals(expected(value -> value % 6 == 0), values(threes.and(evens)));
+        var sevens = multiplesOf(7, 20_000);
+        assertEquals(expected(value -> value % 14 == 0), values(evens.and(sevens)));
+        assertEquals(expected(value -> value % 14 == 0), values(sevens.and(evens)));
+        assertEquals(0, evens.and(new CompressedBitmap()).cardinality());
+    }
+
+    @Test
+    void orKeepsTheValuesOfBoth(){
+        var evens = multiplesOf(2, 20_000);
+        var threes = multiplesOf(3, 20_000);
+        assertEquals(expected(value -> value % 2 == 0 || value % 3 == 0), values(evens.or(threes)));
+        assertEquals(values(evens), values(evens.or(new CompressedBitmap())));
+    }
+
+    @Test
+    void andNotRemovesTheValuesOfTheOther(){
+        var evens = multiplesOf(2, 20_000);
+        var threes = multiplesOf(3, 20_000);
+        assertEquals(expected(value -> value % 2 == 0 && value % 3 != 0), values(evens.andNot(threes)));
+        assertEquals(0, evens.andNot(evens).cardinality());
+    }
+
+    @Test
+    void resultsDoNotShareContainersWithTheirOperands(){
+        var bitmap = multiplesOf(2, 100);
+        var copy = bitmap.or(new CompressedBitmap());
+        copy.add(1);
+        copy.remove(0);
+        assertTrue(bitmap.contains(0));
+        assertFalse(bitmap.contains(1));
+    }
+
+    @Test
+    void forEachVisitsTheValuesInAscendingOrder(){
+        var bitmap = new CompressedBitmap();
+        bitmap.add(3 << 16);
+        bitmap.add(5);
+        bitmap.add(1 << 16);
+        bitmap.add(2);
+        assertEquals(List.of(2, 5, 1 << 16, 3 << 16), values(bitmap));
+    }
+
+    @Test
+    void roundTripsSparseAndDenseGroups(){
+        var bitmap = multiplesOf(2, 3 << 16);
+        bitmap.add(Integer.MAX_VALUE);
+        assertEquals(values(bitmap), values(roundTrip(bitmap)));
+        assertEquals(0, roundTrip(new CompressedBitmap()).cardinality());
+    }
+
+    @Test
+    void refusesToReadSomethingElse(){
+        var in = new DataInputStream(new ByteArrayInputStream(new byte[]{1, 2, 3, 4}));
+        assertThrows(IOException.class, () -> CompressedBitmap.readFrom(in));
+    }
+
+    private interface Filter {
+
+        boolean test(int value);
+
+    }
+
+    private static CompressedBitmap multiplesOf(final int step, final int end){
+        var bitmap = new CompressedBitmap();
+        for (var value = 0; value < end; value += step){
+            bitmap.add(value);
+        }
+        return bitmap;
+    }
+
+    private static List<Integer> expected(final Filter filter){
+        List<Integer> values = new ArrayList<>();
+        for (var value = 0; value < 20_000; value++){
+            if (filter.test(value)){
+                values.add(value);
+            }
+        }
+        return values;
+    }
+
+    private static List<Integer> values(final CompressedBitmap bitmap){
+        List<Integer> values = new ArrayList<>();
+        bitmap.forEach(values::add);
+        return values;
+    }
+
+    private static CompressedBitmap roundTrip(final CompressedBitmap bitmap){
+        try {
+            var bytes = new ByteArrayOutputStream();
+            bitmap.writeTo(new DataOutputStream(bytes));
+            return CompressedBitmap.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        } catch (IOException ex){
+            throw new IllegalStateException(ex);
+        }
+    }
+
+}
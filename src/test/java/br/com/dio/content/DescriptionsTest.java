@@ -0,0 +1,74 @@
+package br.com.dio.content;
+
+import br.com.dio.content.Descriptions.Deflated;
+import br.com.dio.exception.ContentCorruptedException;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DescriptionsTest {
+
+    private static final String TEXT = "Não esquecer: revisar o fluxo de cancelamento 🚧 ".repeat(200);
+
+    @Test
+    void inflatesWhatWasDeflated(){
+        var deflated = Descriptions.deflate(TEXT);
+        assertTrue(deflated.content().length < deflated.length());
+        assertEquals(TEXT, Descriptions.inflate(1L, deflated));
+        assertEquals("", Descriptions.inflate(1L, Descriptions.deflate("")));
+    }
+
+    @Test
+    void refusesBytesThatAreNotDeflated(){
+        var deflated = Descriptions.deflate(TEXT);
+        var garbage = new Deflated(deflated.length(), deflated.checksum(), new byte[]{1, 2, 3, 4, 5, 6, 7, 8});
+        assertThrows(ContentCorruptedException.class, () -> Descriptions.inflate(1L, garbage));
+    }
+
+    @Test
+    void refusesTruncatedContent(){
+        var deflated = Descriptions.deflate(TEXT);
+        var content = Arrays.copyOf(deflated.content(), deflated.content().length / 2);
+        var truncated = new Deflated(deflated.length(), deflated.checksum(), content);
+        assertThrows(ContentCorruptedException.class, () -> Descriptions.inflate(1L, truncated));
+    }
+
+    @Test
+    void refusesALengthOtherThanTheRecordedOne(){
+        var deflated = Descriptions.deflate(TEXT);
+        var shorter = new Deflated(deflated.length() - 1, deflated.checksum(), deflated.content());
+        assertThrows(ContentCorruptedException.class, () -> Descriptions.inflate(1L, shorter));
+        var longer = new Deflated(deflated.length() + 1, deflated.checksum(), deflated.content());
+        assertThrows(ContentCorruptedException.class, () -> Descriptions.inflate(1L, longer));
+    }
+
+    @Test
+    void refusesFlippedBytes(){
+        var deflated = Descriptions.deflate(TEXT);
+        var wrongChecksum = new Deflated(deflated.length(), deflated.checksum() ^ 1, deflated.content());
+        assertThrows(ContentCorruptedException.class, () -> Descriptions.inflate(1L, wrongChecksum));
+        for (var i = 2; i < deflated.content().length; i++){
+            var content = deflated.content().clone();
+            content[i] ^= 0x10;
+            var flipped = new Deflated(deflated.length(), deflated.checksum(), content);
+            assertThrows(ContentCorruptedException.class, () -> Descriptions.inflate(1L, flipped));
+        }
+    }
+
+    @Test
+    void previewFitsTheCardColumn(){
+        assertFalse(Descriptions.isLong("short"));
+        assertEquals("short", Descriptions.preview("short"));
+        var preview = Descriptions.preview(TEXT);
+        assertTrue(Descriptions.isLong(TEXT));
+        assertTrue(preview.length() <= Descriptions.PREVIEW_LENGTH);
+        assertTrue(preview.endsWith("…"));
+        assertFalse(Character.isHighSurrogate(preview.charAt(preview.length() - 2)));
+    }
+
+}
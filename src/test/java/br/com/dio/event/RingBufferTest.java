@@ -0,0 +1,143 @@
+package br.com.dio.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static br.com.dio.event.BoardEventType.CARD_CREATED;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RingBufferTest {
+
+    @Test
+    void refusesSizesThatAreNotPowersOfTwo(){
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer(0, new YieldingWaitStrategy()));
+        assertThrows(IllegalArgumentException.class, () -> new RingBuffer(6, new YieldingWaitStrategy()));
+    }
+
+    @Test
+    void reusesTheSlotsOfEachLap(){
+        var ring = new RingBuffer(4, new YieldingWaitStrategy());
+        for (var expected = 0L; expected < 10; expected++){
+            var sequence = ring.next();
+            assertEquals(expected, sequence);
+            ring.publish(sequence);
+        }
+        assertSame(ring.get(1), ring.get(5));
+    }
+
+    @Test
+    void publishesWithoutGaps() throws InterruptedException {
+        var ring = new RingBuffer(8, new YieldingWaitStrategy());
+        var first = ring.next();
+        var second = ring.next();
+        ring.publish(second);
+        assertEquals(first - 1, ring.highestPublished(first, second));
+        assertEquals(first - 1, ring.waitFor(first));
+        ring.publish(first);
+        assertEquals(second, ring.waitFor(first));
+    }
+
+    @Test
+    void consumersStartAtTheNextEvent(){
+        var ring = new RingBuffer(4, new YieldingWaitStrategy());
+        ring.publish(ring.next());
+        assertFalse(ring.hasConsumers());
+        var consumer = ring.addConsumer();
+        assertTrue(ring.hasConsumers());
+        assertEquals(0L, consumer.get());
+        ring.removeConsumer(consumer);
+        assertFalse(ring.hasConsumers());
+    }
+
+    @Test
+    void producersWaitForTheSlowestConsumer() throws InterruptedException {
+        var ring = new RingBuffer(4, new YieldingWaitStrategy());
+        var consumer = ring.addConsumer();
+        for (var i = 0; i < 4; i++){
+            ring.publish(ring.next());
+        }
+        var claimed = new AtomicLong(-1);
+        var producer = new Thread(() -> claimed.set(ring.next()));
+        producer.start();
+        producer.join(200);
+        assertTrue(producer.isAlive(), "producer wrapped past the consumer");
+        assertEquals(-1L, claimed.get());
+
+        consumer.set(0);
+        producer.join(5_000);
+        assertFalse(producer.isAlive());
+        assertEquals(4L, claimed.get());
+    }
+
+    @Test
+    void removedConsumersNoLongerHoldProducersBack(){
+        var ring = new RingBuffer(2, new YieldingWaitStrategy());
+        var consumer = ring.addConsumer();
+        ring.publish(ring.next());
+        ring.publish(ring.next());
+        ring.removeConsumer(consumer);
+        assertEquals(2L, ring.next());
+    }
+
+    @Test
+    void deliversEveryEventOfConcurrentProducersInOrder() throws InterruptedException {
+        var producers = 4;
+        var events = 20_000;
+        var ring = new RingBuffer(64, new BlockingWaitStrategy());
+        var consumer = ring.addConsumer();
+        var seen = new long[producers];
+        var failures = new AtomicLong();
+        var reader = new Thread(() -> {
+            try {
+                var received = 0;
+                while (received < producers * events){
+                    var next = consumer.get() + 1;
+                    var available = ring.waitFor(next);
+                    for (var sequence = next; sequence <= available; sequence++){
+                        var event = ring.get(sequence);
+                        var producer = (int) event.getBoardId();
+                        if (event.getCardId() != seen[producer]){
+                            failures.incrementAndGet();
+                        }
+                        seen[producer] = event.getCardId() + 1;
+                        received++;
+                    }
+                    consumer.set(available);
+                }
+            } catch (InterruptedException ex){
+                Thread.currentThread().interrupt();
+            }
+        });
+        reader.start();
+        List<Thread> writers = new ArrayList<>();
+        for (var p = 0; p < producers; p++){
+            var producer = p;
+            var writer = new Thread(() -> {
+                for (var card = 0; card < events; card++){
+                    var sequence = ring.next();
+                    ring.get(sequence).set(CARD_CREATED, producer, 0, card);
+                    ring.publish(sequence);
+                }
+            });
+            writers.add(writer);
+            writer.start();
+        }
+        for (var writer : writers){
+            writer.join(30_000);
+        }
+        reader.join(30_000);
+        assertFalse(reader.isAlive(), "consumer did not receive every event");
+        assertEquals(0L, failures.get());
+        for (var p = 0; p < producers; p++){
+            assertEquals(events, seen[p]);
+        }
+    }
+
+}
@@ -0,0 +1,91 @@
+package br.com.dio.instrumentation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LatencyHistogramTest {
+
+    @Test
+    void smallValuesHaveTheirOwnBucket(){
+        for (var value = 0; value < 8; value++){
+            assertEquals(value, LatencyHistogram.indexOf(value));
+            assertEquals(value, LatencyHistogram.upperBoundOf(value));
+        }
+    }
+
+    @Test
+    void everyValueFallsUnderTheUpperBoundOfItsBucket(){
+        var random = new Random(7);
+        for (var i = 0; i < 100_000; i++){
+            var value = (random.nextLong() >>> 1) >>> random.nextInt(63);
+            var index = LatencyHistogram.indexOf(value);
+            assertTrue(value <= LatencyHistogram.upperBoundOf(index), value + " above its bucket");
+            if (index > 0){
+                assertTrue(value > LatencyHistogram.upperBoundOf(index - 1), value + " below its bucket");
+            }
+        }
+        var last = LatencyHistogram.indexOf(Long.MAX_VALUE);
+        assertEquals(Long.MAX_VALUE, LatencyHistogram.upperBoundOf(last));
+    }
+
+    @Test
+    void bucketsAreContiguous(){
+        for (var index = 1; index < LatencyHistogram.indexOf(Long.MAX_VALUE); index++){
+            var lower = LatencyHistogram.upperBoundOf(index - 1) + 1;
+            assertEquals(index, LatencyHistogram.indexOf(lower));
+            assertEquals(index, LatencyHistogram.indexOf(LatencyHistogram.upperBoundOf(index)));
+        }
+    }
+
+    @Test
+    void percentilesStayWithinTheRelativeError(){
+        var histogram = new LatencyHistogram();
+        var random = new Random(11);
+        var values = new long[50_000];
+        for (var i = 0; i < values.length; i++){
+            values[i] = 1_000 + (long) (random.nextDouble() * random.nextDouble() * 50_000_000);
+            histogram.record(values[i]);
+        }
+        Arrays.sort(values);
+        for (var percentile : new double[]{50, 90, 99, 99.9}){
+            var exact = values[(int) Math.ceil(values.length * percentile / 100.0) - 1];
+            var estimate = histogram.percentile(percentile);
+            assertTrue(estimate >= exact, "p" + percentile + " " + estimate + " below " + exact);
+            assertTrue(estimate <= exact * 1.13, "p" + percentile + " " + estimate + " too far from " + exact);
+        }
+        assertEquals(values[values.length - 1], histogram.percentile(100));
+    }
+
+    @Test
+    void percentileNeverExceedsTheMax(){
+        var histogram = new LatencyHistogram();
+        histogram.record(1_000_001);
+        assertEquals(1_000_001, histogram.max());
+        assertEquals(1_000_001, histogram.percentile(50));
+        assertEquals(1_000_001, histogram.percentile(100));
+    }
+
+    @Test
+    void countsMeanAndReset(){
+        var histogram = new LatencyHistogram();
+        assertEquals(0, histogram.percentile(99));
+        assertEquals(0, histogram.mean());
+        histogram.record(100);
+        histogram.record(300);
+        histogram.record(-5);
+        assertEquals(3, histogram.count());
+        assertEquals(300, histogram.max());
+        assertEquals(133, histogram.mean());
+        assertEquals(0, histogram.percentile(0));
+        histogram.reset();
+        assertEquals(0, histogram.count());
+        assertEquals(0, histogram.max());
+        assertEquals(0, histogram.mean());
+    }
+
+}
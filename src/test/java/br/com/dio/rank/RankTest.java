@@ -0,0 +1,167 @@
+package br.com.dio.rank;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RankTest {
+
+    @Test
+    void sequenceSortsByPosition(){
+        assertEquals("000001i", Rank.sequence(0));
+        for (var position = 0; position < 2000; position++){
+            assertSorted(Rank.sequence(position), Rank.sequence(position + 1));
+        }
+        assertSorted(Rank.sequence(36 * 36 - 2), Rank.sequence(36 * 36 - 1));
+    }
+
+    @Test
+    void sequenceFitsEveryPosition(){
+        var last = Rank.sequence(Integer.MAX_VALUE);
+        assertEquals(7, last.length());
+        assertSorted(Rank.sequence(Integer.MAX_VALUE - 1), last);
+    }
+
+    @Test
+    void nullStandsForAnEmptyList(){
+        assertEquals(Rank.sequence(0), Rank.after(null));
+        assertEquals(Rank.sequence(0), Rank.before(null));
+        assertEquals(Rank.sequence(0), Rank.between(null, null));
+    }
+
+    @Test
+    void afterAddsOneToTheFirstSixDigits(){
+        assertEquals("000002", Rank.after("000001i"));
+        assertSorted("000001i", Rank.after("000001i"));
+    }
+
+    @Test
+    void afterCarriesIntoTheHigherDigits(){
+        var rank = "00000zi";
+        var next = Rank.after(rank);
+        assertEquals("000010i", next);
+        assertSorted(rank, next);
+        assertEquals("100000i", Rank.after("0zzzzz"));
+    }
+
+    @Test
+    void afterAllZUsesMoreDigits(){
+        for (var rank : List.of("zzzzzz", "zzzzzzi", "zzzzzzzzzzzz")){
+            var next = Rank.after(rank);
+            assertSorted(rank, next);
+            assertValid(next);
+        }
+        assertEquals("zzzzzz000001", Rank.after("zzzzzz"));
+    }
+
+    @Test
+    void beforeBorrowsFromTheHigherDigits(){
+        var rank = "000010i";
+        var previous = Rank.before(rank);
+        assertEquals("00000z", previous);
+        assertSorted(previous, rank);
+    }
+
+    @Test
+    void beforeAllZeroUsesMoreDigits(){
+        for (var rank : List.of("000000i", "0000001", "000000000001")){
+            var previous = Rank.before(rank);
+            assertSorted(previous, rank);
+            assertValid(previous);
+        }
+    }
+
+    @Test
+    void appendingAndPrependingKeepTheOrder(){
+        var rank = Rank.after(null);
+        for (var i = 0; i < 5000; i++){
+            var next = Rank.after(rank);
+            assertSorted(rank, next);
+            assertValid(next);
+            rank = next;
+        }
+        rank = Rank.before(null);
+        for (var i = 0; i < 5000; i++){
+            var previous = Rank.before(rank);
+            assertSorted(previous, rank);
+            assertValid(previous);
+            rank = previous;
+        }
+    }
+
+    @Test
+    void betweenSortsStrictlyBetween(){
+        assertBetween("000001i", "000002");
+        assertBetween("000001i", "000001j");
+        assertBetween("a", "b");
+        assertBetween("a", "a1");
+        assertBetween("az", "b");
+        assertBetween("zzzzzz", "zzzzzzi");
+        assertBetween(null, "000001i");
+        assertBetween(null, "00001");
+        assertBetween("zzzzzzi", null);
+    }
+
+    @Test
+    void betweenAdjacentRanksStaysShort(){
+        assertEquals("ai", Rank.between("a", "b"));
+        assertEquals("a0i", Rank.between("a", "a1"));
+    }
+
+    @Test
+    void repeatedInsertsKeepTheOrder(){
+        var random = new Random(42);
+        List<String> ranks = new ArrayList<>(List.of(Rank.sequence(0)));
+        for (var i = 0; i < 2000; i++){
+            var index = random.nextInt(ranks.size() + 1);
+            var lower = index == 0 ? null : ranks.get(index - 1);
+            var upper = index == ranks.size() ? null : ranks.get(index);
+            var rank = Rank.between(lower, upper);
+            assertValid(rank);
+            ranks.add(index, rank);
+        }
+        for (var i = 1; i < ranks.size(); i++){
+            assertSorted(ranks.get(i - 1), ranks.get(i));
+        }
+    }
+
+    @Test
+    void betweenRefusesRanksOutOfOrder(){
+        assertThrows(IllegalArgumentException.class, () -> Rank.between("b", "a"));
+        assertThrows(IllegalArgumentException.class, () -> Rank.between("a", "a"));
+    }
+
+    @Test
+    void refusesInvalidDigits(){
+        assertThrows(IllegalArgumentException.class, () -> Rank.after("ABCDEF"));
+        assertThrows(IllegalArgumentException.class, () -> Rank.between("a", "a-"));
+    }
+
+    private static void assertBetween(final String lower, final String upper){
+        var rank = Rank.between(lower, upper);
+        assertValid(rank);
+        if (lower != null){
+            assertSorted(lower, rank);
+        }
+        if (upper != null){
+            assertSorted(rank, upper);
+        }
+    }
+
+    private static void assertSorted(final String lower, final String upper){
+        assertTrue(lower.compareTo(upper) < 0, lower + " should sort before " + upper);
+    }
+
+    private static void assertValid(final String rank){
+        assertTrue(rank.matches("[0-9a-z]+"), rank + " has invalid digits");
+        assertFalse(rank.endsWith("0"), rank + " ends with 0");
+    }
+
+}
@@ -0,0 +1,126 @@
+package br.com.dio.workflow;
+
+import br.com.dio.dto.WorkflowTransitionDTO;
+import br.com.dio.persistence.entity.BoardColumnEntity;
+import br.com.dio.persistence.entity.BoardColumnKindEnum;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.CANCEL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.FINAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.INITIAL;
+import static br.com.dio.persistence.entity.BoardColumnKindEnum.PENDING;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkflowTableTest {
+
+    private static final List<BoardColumnEntity> COLUMNS = List.of(
+            column(40L, 3, FINAL),
+            column(10L, 0, INITIAL),
+            column(50L, 4, CANCEL),
+            column(20L, 1, PENDING),
+            column(30L, 2, PENDING)
+    );
+
+    @Test
+    void numbersTheColumnsByTheirOrder(){
+        var table = WorkflowTable.compile(1L, COLUMNS, List.of());
+        assertEquals(1L, table.boardId());
+        for (var i = 0; i < 5; i++){
+            assertEquals((i + 1) * 10L, table.columnIdAt(i));
+            assertEquals(i, table.indexOf((i + 1) * 10L));
+        }
+        assertEquals(INITIAL, table.kindAt(0));
+        assertEquals(CANCEL, table.kindAt(4));
+        assertEquals(4, table.cancelIndex());
+        assertEquals(-1, table.indexOf(99L));
+    }
+
+    @Test
+    void withoutTransitionsMovesToTheNextColumnOrCancels(){
+        var table = WorkflowTable.compile(1L, COLUMNS, List.of());
+        for (var from = 0; from < 3; from++){
+            for (var to = 0; to < 5; to++){
+                assertEquals(to == from + 1 || to == 4, table.allows(from, to), from + " -> " + to);
+            }
+            assertEquals(from + 1, table.nextIndex(from));
+        }
+        for (var to = 0; to < 5; to++){
+            assertFalse(table.allows(3, to));
+            assertFalse(table.allows(4, to));
+        }
+        assertEquals(-1, table.nextIndex(3));
+        assertEquals(-1, table.nextIndex(4));
+    }
+
+    @Test
+    void withoutCancelColumnOnlyMovesForward(){
+        var table = WorkflowTable.compile(1L, COLUMNS.subList(0, 2), List.of());
+        assertEquals(-1, table.cancelIndex());
+        assertTrue(table.allows(0, 1));
+        assertFalse(table.allows(1, 0));
+    }
+
+    @Test
+    void configuredTransitionsReplaceTheLinearWorkflow(){
+        var transitions = List.of(
+                new WorkflowTransitionDTO(10L, 30L),
+                new WorkflowTransitionDTO(30L, 10L),
+                new WorkflowTransitionDTO(20L, 50L)
+        );
+        var table = WorkflowTable.compile(1L, COLUMNS, transitions);
+        assertTrue(table.allows(0, 2));
+        assertTrue(table.allows(2, 0));
+        assertTrue(table.allows(1, 4));
+        assertFalse(table.allows(0, 1));
+        assertFalse(table.allows(0, 4));
+        assertFalse(table.allows(2, 3));
+        assertEquals(2, table.nextIndex(0));
+        assertEquals(0, table.nextIndex(2));
+        assertEquals(-1, table.nextIndex(1));
+    }
+
+    @Test
+    void refusesTransitionsOutsideTheBoard(){
+        var outside = List.of(new WorkflowTransitionDTO(10L, 99L));
+        assertThrows(IllegalArgumentException.class, () -> WorkflowTable.compile(1L, COLUMNS, outside));
+        var loop = List.of(new WorkflowTransitionDTO(10L, 10L));
+        assertThrows(IllegalArgumentException.class, () -> WorkflowTable.compile(1L, COLUMNS, loop));
+    }
+
+    @Test
+    void handlesBoardsWiderThanAWord(){
+        List<BoardColumnEntity> columns = new ArrayList<>();
+        for (var i = 0; i < 150; i++){
+            var kind = i == 0 ? INITIAL : i == 148 ? FINAL : i == 149 ? CANCEL : PENDING;
+            columns.add(column((1L << 40) + i * 64L, i, kind));
+        }
+        var table = WorkflowTable.compile(1L, columns, List.of());
+        for (var i = 0; i < 150; i++){
+            assertEquals(i, table.indexOf((1L << 40) + i * 64L));
+        }
+        for (var from = 0; from < 148; from++){
+            assertTrue(table.allows(from, from + 1));
+            assertTrue(table.allows(from, 149));
+            assertFalse(table.allows(from + 1, from));
+        }
+        assertFalse(table.allows(63, 65));
+        assertEquals(64, table.nextIndex(63));
+        assertEquals(-1, table.nextIndex(148));
+    }
+
+    private static BoardColumnEntity column(final Long id, final int order, final BoardColumnKindEnum kind){
+        var column = new BoardColumnEntity();
+        column.setId(id);
+        column.setOrder(order);
+        column.setKind(kind);
+        column.setName("column " + id);
+        return column;
+    }
+
+}